@@ -0,0 +1,326 @@
+package com.ncsi;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.zip.CRC32;
+
+// 분할 업로드 (init → 조각 PUT, 병렬 가능 → complete)
+// - init 에서 전체 크기의 임시 파일을 업로드 폴더에 미리 만들고 (끝 바이트를 써서 크기 확보, 빈 구간은 sparse),
+//   조각마다 요청 본문을 버퍼 하나로 읽어 FileChannel 의 자기 위치(index * chunkSize)에 바로 쓴다.
+//   multipart 처럼 임시 파일에 받은 뒤 다시 복사하지 않는다.
+// - 조각마다 CRC32 를 받으며 계산해 클라이언트가 보낸 값과 비교하고, 다르면 그 조각만 다시 받는다.
+//   받은 조각 목록을 조회할 수 있어 연결이 끊겨도 빠진 조각만 다시 보내면 된다.
+// - complete 에서 모든 조각을 받았는지 확인하고 디스크에 기록(force)한 뒤 수정 시각을 완료 시각으로 바꿔 대상 위치로 원자적 이동 (FileService)
+// - 마지막 요청 뒤 retention-hours 동안 완료되지 않은 업로드는 임시 파일과 함께 정리한다.
+//   진행 상태는 메모리에만 있어 서버를 재시작하면 업로드를 처음부터 다시 시작해야 한다.
+@Component
+public class ChunkedUploadManager {
+
+    private static final String PART_SUFFIX = ".part";
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    @Autowired
+    private FileService fileService;
+
+    // 받는 중인 임시 파일 폴더 (DATA_DIR 밖, 같은 파일 시스템이면 complete 가 이름 변경만으로 끝남)
+    @Value("${ncsi.upload.chunked.dir:/home/ubuntu/.ncsi-cache/uploads}")
+    private String directory;
+
+    // 클라이언트가 지정하지 않을 때의 조각 크기
+    @Value("${ncsi.upload.chunked.chunk-size:8388608}")
+    private int defaultChunkSize;
+
+    // 조각 크기 상한 (요청 하나의 본문 크기)
+    @Value("${ncsi.upload.chunked.max-chunk-size:67108864}")
+    private int maxChunkSize;
+
+    // 업로드 파일 크기 상한
+    @Value("${ncsi.upload.chunked.max-bytes:21474836480}")
+    private long maxBytes;
+
+    @Value("${ncsi.upload.chunked.retention-hours:24}")
+    private int retentionHours;
+
+    private final Map<String, Upload> uploads = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        try {
+            Path root = Paths.get(directory);
+            Files.createDirectories(root);
+            // 이전 실행에서 남은 임시 파일 정리 (진행 상태가 없어 이어받을 수 없음)
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, "*" + PART_SUFFIX)) {
+                for (Path path : stream) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error preparing upload directory: " + directory + " - " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        for (Upload upload : new ArrayList<>(uploads.values())) {
+            remove(upload);
+        }
+    }
+
+    // 업로드 시작: 대상 경로를 확인하고 size 바이트의 임시 파일을 만든다
+    public synchronized Upload start(String folder, String fileName, long size, Integer chunkSize) throws IOException {
+        removeExpired();
+        fileService.resolveUploadTarget(folder, fileName);
+        if (size < 0 || size > maxBytes) {
+            throw new IllegalArgumentException("Invalid size: " + size + " (max " + maxBytes + ")");
+        }
+        int effectiveChunkSize = chunkSize != null ? chunkSize : defaultChunkSize;
+        if (effectiveChunkSize < MIN_CHUNK_SIZE || effectiveChunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("Invalid chunkSize: " + effectiveChunkSize
+                    + " (" + MIN_CHUNK_SIZE + " - " + maxChunkSize + ")");
+        }
+        Path root = Paths.get(directory);
+        Files.createDirectories(root);
+        long usable = Files.getFileStore(root).getUsableSpace();
+        if (size > usable) {
+            throw new IOException("Not enough disk space for upload: " + size + " bytes (" + usable + " available)");
+        }
+
+        String id = UUID.randomUUID().toString();
+        Path part = root.resolve(id + PART_SUFFIX);
+        FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (size > 0) {
+                channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+            }
+        } catch (IOException e) {
+            channel.close();
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Upload upload = new Upload(id, folder, fileName, size, effectiveChunkSize, part, channel);
+        uploads.put(id, upload);
+        return upload;
+    }
+
+    public synchronized Upload getUpload(String id) {
+        removeExpired();
+        return uploads.get(id);
+    }
+
+    // 조각 index 를 body 에서 읽어 제자리에 기록, crc32 는 클라이언트가 계산한 CRC32 (16진수)
+    // 같은 조각을 다시 보내면 덮어쓴다. 검사값이 다르거나 길이가 맞지 않으면 그 조각은 받지 않은 상태로 남는다
+    public Upload writeChunk(String id, int index, String crc32, InputStream body) throws IOException {
+        Upload upload = getUpload(id);
+        if (upload == null) {
+            return null;
+        }
+        if (crc32 == null || crc32.isEmpty()) {
+            throw new IllegalArgumentException("Missing chunk checksum (X-Chunk-CRC32)");
+        }
+        long expected;
+        try {
+            expected = Long.parseLong(crc32, 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid chunk checksum: " + crc32);
+        }
+        long length = upload.beginChunk(index);
+        boolean received = false;
+        try {
+            long position = (long) index * upload.chunkSize;
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(Math.max(length, 1), 256 * 1024));
+            ReadableByteChannel in = Channels.newChannel(body);
+            long written = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (written + read > length) {
+                    throw new IllegalArgumentException("Chunk " + index + " is larger than " + length + " bytes");
+                }
+                buffer.flip();
+                crc.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    written += upload.channel.write(buffer, position + written);
+                }
+                buffer.clear();
+            }
+            if (written != length) {
+                throw new IllegalArgumentException("Chunk " + index + " has " + written + " bytes, expected " + length);
+            }
+            if (crc.getValue() != expected) {
+                throw new IllegalArgumentException("Chunk " + index + " checksum mismatch: expected " + crc32
+                        + ", received " + Long.toHexString(crc.getValue()));
+            }
+            received = true;
+        } finally {
+            upload.endChunk(index, received);
+        }
+        return upload;
+    }
+
+    // 모든 조각을 받았으면 디스크에 기록하고 대상 위치로 이동, 이동한 파일의 DATA_DIR 기준 경로 반환
+    public String complete(String id) throws IOException {
+        Upload upload = getUpload(id);
+        if (upload == null) {
+            return null;
+        }
+        upload.beginComplete();
+        try {
+            upload.channel.force(true);
+            upload.channel.close();
+            // 같은 파일 시스템이면 이름만 바뀌어 마지막 조각을 쓴 시각이 남으므로 완료 시각으로 맞춤
+            // (조각은 몇 시간에 걸쳐 이어받을 수 있고, 증분 새로고침은 수정 시각이 modifiedSince 이후인 파일만 돌려줌)
+            Files.setLastModifiedTime(upload.part, FileTime.fromMillis(System.currentTimeMillis()));
+            fileService.moveUploadedFile(upload.part, upload.folder, upload.fileName);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                remove(upload);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            uploads.remove(upload.id);
+        }
+        return upload.folder.isEmpty() ? upload.fileName : upload.folder + "/" + upload.fileName;
+    }
+
+    // 업로드 취소 (임시 파일 삭제)
+    public synchronized Upload cancel(String id) {
+        Upload upload = uploads.get(id);
+        if (upload != null) {
+            remove(upload);
+        }
+        return upload;
+    }
+
+    // 마지막 요청 뒤 보관 기간이 지난 업로드 정리 (조각을 쓰는 중이면 건너뜀)
+    private void removeExpired() {
+        long expiry = System.currentTimeMillis() - retentionHours * 60L * 60 * 1000;
+        List<Upload> expired = new ArrayList<>();
+        for (Upload upload : uploads.values()) {
+            if (upload.isIdleSince(expiry)) {
+                expired.add(upload);
+            }
+        }
+        for (Upload upload : expired) {
+            remove(upload);
+        }
+    }
+
+    private void remove(Upload upload) {
+        uploads.remove(upload.id);
+        try {
+            upload.channel.close();
+            Files.deleteIfExists(upload.part);
+        } catch (IOException e) {
+            System.err.println("Error deleting upload file: " + upload.part + " - " + e.getMessage());
+        }
+    }
+
+    public static final class Upload {
+        private final String id;
+        private final String folder;
+        private final String fileName;
+        private final long size;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final Path part;
+        private final FileChannel channel;
+        private final long createdAt = System.currentTimeMillis();
+        private final BitSet received = new BitSet();
+        private final BitSet writing = new BitSet();
+        private long updatedAt = createdAt;
+        private boolean completing;
+
+        Upload(String id, String folder, String fileName, long size, int chunkSize, Path part, FileChannel channel) {
+            this.id = id;
+            this.folder = folder;
+            this.fileName = fileName;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+            this.part = part;
+            this.channel = channel;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        // 조각 쓰기 시작 표시, 조각 길이 반환 (마지막 조각은 짧을 수 있음)
+        private synchronized long beginChunk(int index) {
+            if (completing) {
+                throw new IllegalStateException("Upload is completing: " + id);
+            }
+            if (index < 0 || index >= chunkCount) {
+                throw new IllegalArgumentException("Invalid chunk index: " + index + " (0 - " + (chunkCount - 1) + ")");
+            }
+            if (writing.get(index)) {
+                throw new IllegalStateException("Chunk " + index + " is already being uploaded");
+            }
+            writing.set(index);
+            // 다시 보내는 조각은 다 받기 전까지 받지 않은 상태 (중간에 실패하면 내용이 섞여 있음)
+            received.clear(index);
+            updatedAt = System.currentTimeMillis();
+            return Math.min(chunkSize, size - (long) index * chunkSize);
+        }
+
+        private synchronized void endChunk(int index, boolean success) {
+            writing.clear(index);
+            if (success) {
+                received.set(index);
+            }
+            updatedAt = System.currentTimeMillis();
+        }
+
+        private synchronized void beginComplete() {
+            if (completing) {
+                throw new IllegalStateException("Upload is already completing: " + id);
+            }
+            if (!writing.isEmpty()) {
+                throw new IllegalStateException("Chunks are still being uploaded: " + writing);
+            }
+            int missing = chunkCount - received.cardinality();
+            if (missing > 0) {
+                throw new IllegalStateException(missing + " of " + chunkCount + " chunks are missing");
+            }
+            completing = true;
+        }
+
+        private synchronized boolean isIdleSince(long expiry) {
+            return !completing && writing.isEmpty() && updatedAt < expiry;
+        }
+
+        public synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            map.put("folder", folder);
+            map.put("fileName", fileName);
+            map.put("size", size);
+            map.put("chunkSize", chunkSize);
+            map.put("chunkCount", chunkCount);
+            map.put("receivedChunks", received.cardinality());
+            List<Integer> missing = new ArrayList<>();
+            for (int i = received.nextClearBit(0); i < chunkCount; i = received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+            map.put("missing", missing);
+            map.put("createdAt", createdAt);
+            map.put("updatedAt", updatedAt);
+            return map;
+        }
+    }
+}
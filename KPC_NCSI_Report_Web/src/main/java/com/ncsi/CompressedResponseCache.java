@@ -0,0 +1,176 @@
+package com.ncsi;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 압축된 응답 본문 캐시
+// 키: 요청 종류/파라미터 + 인코딩 + 대상 파일 구성의 지문 (파일이 추가/변경/삭제되면 자연히 미스)
+// 히트하면 직렬화와 압축 없이 저장된 바이트를 그대로 보낸다. 전체 크기가 max-bytes 를 넘으면 LRU 로 제거.
+@Component
+public class CompressedResponseCache {
+
+    @Value("${ncsi.compression.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ncsi.compression.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled && maxBytes > 0;
+    }
+
+    // 한 항목의 최대 크기 (넘으면 캡처를 포기)
+    public long getMaxEntryBytes() {
+        return maxBytes / 4;
+    }
+
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return entry;
+    }
+
+    public synchronized void put(String key, String contentType, String encoding, byte[] body) {
+        if (body.length > getMaxEntryBytes()) {
+            rejected.incrementAndGet();
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(contentType, encoding, body));
+        if (previous != null) {
+            currentBytes -= previous.body.length;
+        }
+        currentBytes += body.length;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            currentBytes -= eldest.getValue().body.length;
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("entries", entries.size());
+        stats.put("currentBytes", currentBytes);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("rejected", rejected.get());
+        return stats;
+    }
+
+    // out 으로 쓰는 바이트를 함께 모으는 스트림 (한도를 넘으면 모으기만 중단)
+    public Capture capture(OutputStream out) {
+        return new Capture(out, getMaxEntryBytes());
+    }
+
+    // 캐시 키에 넣을 지문 (각 항목은 "경로\t크기\t수정시각" 등 한 줄)
+    public static String fingerprint(Collection<String> parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class Entry {
+        private final String contentType;
+        private final String encoding;
+        private final byte[] body;
+
+        Entry(String contentType, String encoding, byte[] body) {
+            this.contentType = contentType;
+            this.encoding = encoding;
+            this.body = body;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getEncoding() {
+            return encoding;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    public static final class Capture extends FilterOutputStream {
+        private final long limit;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        Capture(OutputStream out, long limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (buffer != null) {
+                buffer.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (buffer != null) {
+                buffer.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        private void checkLimit() {
+            if (buffer.size() > limit) {
+                buffer = null;
+            }
+        }
+
+        // 모은 바이트 (한도를 넘었으면 null)
+        public byte[] toByteArray() {
+            return buffer != null ? buffer.toByteArray() : null;
+        }
+    }
+}
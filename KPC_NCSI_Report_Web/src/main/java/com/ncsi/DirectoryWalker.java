@@ -0,0 +1,188 @@
+package com.ncsi;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+// FileService 의 폴더 순회 공용 엔진
+// 하위 폴더마다 fork-join 작업으로 나눠 병렬로 읽고, 항목마다 BasicFileAttributes 를 한 번만 읽어 visitor 에 넘긴다.
+// 결과는 폴더 안 목록 순서대로, 폴더 항목 바로 뒤에 그 하위 결과를 이어 붙이므로 (전위 순회)
+// 순차 재귀 순회와 순서가 같다 (응답 행 순서, 지문이 바뀌지 않음).
+// limit 이 있으면 순서상 앞의 limit 개만 필요하므로 순차로 읽다가 멈춘다.
+// 읽는 사이 사라진 항목과 분할 업로드가 복사 중인 임시 파일(FileService.isUploadTempFile)은 건너뛴다.
+@Component
+public class DirectoryWalker {
+
+    // 순회 스레드 수 (0 이면 CPU 수)
+    @Value("${ncsi.files.walk.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    // 항목마다 호출 (여러 스레드에서 동시에 호출될 수 있음)
+    public interface Visitor<T> {
+        // 결과에 넣을 값 (없으면 null)
+        T visit(Path path, BasicFileAttributes attributes) throws IOException;
+
+        // 폴더의 하위 항목을 모두 방문한 뒤 (순회를 시작한 폴더 포함)
+        default void afterDirectory(Path directory) throws IOException {
+        }
+
+        // 업로드 임시 파일도 방문할지 (폴더 삭제처럼 모든 항목이 필요할 때)
+        default boolean visitsUploadTempFiles() {
+            return false;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        pool = createPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    // directory 아래 항목 방문 (recursive 가 false 면 바로 아래만), 결과는 순회 순서
+    public <T> List<T> walk(Path directory, boolean recursive, Visitor<T> visitor) throws IOException {
+        return walk(directory, recursive, visitor, 0);
+    }
+
+    // limit > 0 이면 결과가 limit 개가 되면 멈춤
+    public <T> List<T> walk(Path directory, boolean recursive, Visitor<T> visitor, int limit) throws IOException {
+        if (limit > 0 || !recursive) {
+            List<T> results = new ArrayList<>();
+            walkSequential(directory, recursive, visitor, results, limit);
+            return results;
+        }
+        return walk(directory, visitor, pool);
+    }
+
+    // 지정한 풀로 재귀 순회 (테스트에서 스레드 수 비교용)
+    <T> List<T> walk(Path directory, Visitor<T> visitor, ForkJoinPool pool) throws IOException {
+        try {
+            return pool.invoke(new WalkTask<>(directory, visitor));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    static ForkJoinPool createPool(int threads) {
+        return new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("ncsi-walk-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    private <T> void walkSequential(Path directory, boolean recursive, Visitor<T> visitor, List<T> results, int limit) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                if (limit > 0 && results.size() >= limit) {
+                    return;
+                }
+                if (skips(path, visitor)) {
+                    continue;
+                }
+                BasicFileAttributes attributes = readAttributes(path);
+                if (attributes == null) {
+                    continue;
+                }
+                T value = visitor.visit(path, attributes);
+                if (value != null) {
+                    results.add(value);
+                }
+                if (recursive && attributes.isDirectory()) {
+                    walkSequential(path, true, visitor, results, limit);
+                }
+            }
+        }
+        if (limit <= 0 || results.size() < limit) {
+            visitor.afterDirectory(directory);
+        }
+    }
+
+    private static boolean skips(Path path, Visitor<?> visitor) {
+        return !visitor.visitsUploadTempFiles() && FileService.isUploadTempFile(path.getFileName().toString());
+    }
+
+    // 심볼릭 링크는 따라감 (Files.isDirectory 와 같음), 사라진 항목이면 null
+    private static BasicFileAttributes readAttributes(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // 폴더 하나: 목록을 읽으며 하위 폴더 작업을 fork 하고, 목록 순서대로 결과와 하위 결과를 이어 붙임
+    private static final class WalkTask<T> extends RecursiveTask<List<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+        private final Visitor<T> visitor;
+
+        WalkTask(Path directory, Visitor<T> visitor) {
+            this.directory = directory;
+            this.visitor = visitor;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected List<T> compute() {
+            try {
+                // 방문 결과(T)와 하위 폴더 작업(WalkTask)을 목록 순서대로
+                List<Object> slots = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                    for (Path path : stream) {
+                        if (skips(path, visitor)) {
+                            continue;
+                        }
+                        BasicFileAttributes attributes = readAttributes(path);
+                        if (attributes == null) {
+                            continue;
+                        }
+                        T value = visitor.visit(path, attributes);
+                        if (value != null) {
+                            slots.add(value);
+                        }
+                        if (attributes.isDirectory()) {
+                            WalkTask<T> child = new WalkTask<>(path, visitor);
+                            child.fork();
+                            slots.add(child);
+                        }
+                    }
+                }
+                List<T> results = new ArrayList<>(slots.size());
+                for (Object slot : slots) {
+                    if (slot instanceof WalkTask) {
+                        results.addAll(((WalkTask<T>) slot).join());
+                    } else {
+                        results.add((T) slot);
+                    }
+                }
+                visitor.afterDirectory(directory);
+                return results;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.ncsi;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 폴더 엑셀 데이터 group-by 집계 (sum, avg, min, max, count)
+// 파일마다 Partial(해시 집계)을 따로 만들어 병렬로 채우고, 입력 순서대로 merge 한다.
+// 그룹 키는 기존 응답과 같은 셀 문자열, sum/avg/min/max 는 숫자로 읽히는 셀만 대상으로 한다.
+public class ExcelAggregation {
+
+    private static final Pattern AGGREGATE = Pattern.compile("\\s*(\\w+)\\s*\\(\\s*(\\*|\\w+)\\s*\\)\\s*");
+    private static final int ALL_ROWS = Integer.MIN_VALUE;
+
+    private enum Function { SUM, AVG, MIN, MAX, COUNT }
+
+    private final List<String> groupByNames = new ArrayList<>();
+    private final int[] groupBy;
+    private final List<String> aggregateNames = new ArrayList<>();
+    private final List<String> outputNames = new ArrayList<>();
+    private final Function[] functions;
+    private final int[] arguments;
+    private final ExcelODataQuery query;
+
+    private final Map<List<String>, Accumulator> groups = new HashMap<>();
+    private long rowsScanned;
+    private long rowsMatched;
+
+    private ExcelAggregation(String groupBy, String aggregates, String filter) {
+        if (aggregates == null || aggregates.isBlank()) {
+            throw new IllegalArgumentException("aggregates is required (e.g. sum(Column3),count(*))");
+        }
+        Set<String> referenced = new LinkedHashSet<>();
+        List<Integer> groupProperties = new ArrayList<>();
+        if (groupBy != null && !groupBy.isBlank()) {
+            for (String name : groupBy.split(",")) {
+                name = name.trim();
+                groupProperties.add(ExcelODataQuery.property(name, "groupBy"));
+                if (groupByNames.contains(name)) {
+                    throw new IllegalArgumentException("Duplicate groupBy property: " + name);
+                }
+                groupByNames.add(name);
+                referenced.add(name);
+            }
+        }
+        this.groupBy = groupProperties.stream().mapToInt(Integer::intValue).toArray();
+
+        String[] specs = aggregates.split(",");
+        this.functions = new Function[specs.length];
+        this.arguments = new int[specs.length];
+        for (int i = 0; i < specs.length; i++) {
+            Matcher matcher = AGGREGATE.matcher(specs[i]);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid aggregate: " + specs[i].trim());
+            }
+            try {
+                functions[i] = Function.valueOf(matcher.group(1).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown aggregate function: " + matcher.group(1));
+            }
+            String argument = matcher.group(2);
+            String outputName;
+            if ("*".equals(argument)) {
+                if (functions[i] != Function.COUNT) {
+                    throw new IllegalArgumentException("Only count accepts *: " + specs[i].trim());
+                }
+                arguments[i] = ALL_ROWS;
+                outputName = "count";
+            } else {
+                arguments[i] = ExcelODataQuery.property(argument, "aggregates");
+                referenced.add(argument);
+                outputName = functions[i].name().toLowerCase() + "_" + argument;
+            }
+            // 같은 집계가 두 번이면 응답 행에서 앞의 열을 덮어씀
+            if (outputNames.contains(outputName)) {
+                throw new IllegalArgumentException("Duplicate aggregate: " + specs[i].trim());
+            }
+            outputNames.add(outputName);
+            aggregateNames.add(functions[i].name().toLowerCase() + "(" + argument + ")");
+        }
+        // 집계에 쓰는 속성만 $select 로 넘겨 나머지 열은 파싱 단계에서 건너뜀
+        String select = referenced.isEmpty() ? "FileName" : String.join(",", referenced);
+        this.query = ExcelODataQuery.parse(select, filter, null, null);
+    }
+
+    // groupBy: 쉼표로 구분한 속성, aggregates: sum(Column3),avg(Column3),count(*) 등, filter: OData $filter 문법
+    public static ExcelAggregation parse(String groupBy, String aggregates, String filter) {
+        return new ExcelAggregation(groupBy, aggregates, filter);
+    }
+
+    // 파서가 값을 읽어야 하는 열
+    public BitSet getColumns() {
+        return query.getColumns();
+    }
+
+    // 파일 하나를 집계할 빈 부분 결과 (같은 정의, 별도 해시 테이블)
+    public ExcelAggregation newPartial() {
+        return new ExcelAggregation(this);
+    }
+
+    private ExcelAggregation(ExcelAggregation definition) {
+        this.groupByNames.addAll(definition.groupByNames);
+        this.groupBy = definition.groupBy;
+        this.aggregateNames.addAll(definition.aggregateNames);
+        this.outputNames.addAll(definition.outputNames);
+        this.functions = definition.functions;
+        this.arguments = definition.arguments;
+        this.query = definition.query;
+    }
+
+    // 행 하나를 누적 (ExcelRowSink 로 사용)
+    public void accept(SheetData sheet, int row) {
+        rowsScanned++;
+        if (!query.matches(sheet, row)) {
+            return;
+        }
+        rowsMatched++;
+        String[] key = new String[groupBy.length];
+        for (int i = 0; i < groupBy.length; i++) {
+            key[i] = ExcelODataQuery.text(ExcelODataQuery.value(sheet, row, groupBy[i]));
+        }
+        Accumulator accumulator = groups.computeIfAbsent(Arrays.asList(key), k -> new Accumulator(functions.length));
+        for (int i = 0; i < functions.length; i++) {
+            if (arguments[i] == ALL_ROWS) {
+                accumulator.counts[i]++;
+                continue;
+            }
+            Object value = ExcelODataQuery.value(sheet, row, arguments[i]);
+            if (functions[i] == Function.COUNT) {
+                if (value != null) {
+                    accumulator.counts[i]++;
+                }
+                continue;
+            }
+            Double number = ExcelODataQuery.number(value);
+            if (number != null && !number.isNaN()) {
+                accumulator.add(i, number);
+            }
+        }
+    }
+
+    public void merge(ExcelAggregation partial) {
+        rowsScanned += partial.rowsScanned;
+        rowsMatched += partial.rowsMatched;
+        for (Map.Entry<List<String>, Accumulator> entry : partial.groups.entrySet()) {
+            Accumulator target = groups.get(entry.getKey());
+            if (target == null) {
+                groups.put(entry.getKey(), entry.getValue());
+            } else {
+                target.merge(entry.getValue());
+            }
+        }
+    }
+
+    // 요약 테이블 (그룹 키 순 정렬)
+    public Map<String, Object> toResponse() {
+        List<List<String>> keys = new ArrayList<>(groups.keySet());
+        keys.sort((a, b) -> {
+            for (int i = 0; i < a.size(); i++) {
+                int result = a.get(i).compareTo(b.get(i));
+                if (result != 0) return result;
+            }
+            return 0;
+        });
+        List<Map<String, Object>> data = new ArrayList<>(keys.size());
+        for (List<String> key : keys) {
+            Accumulator accumulator = groups.get(key);
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < key.size(); i++) {
+                row.put(groupByNames.get(i), key.get(i));
+            }
+            for (int i = 0; i < functions.length; i++) {
+                row.put(outputNames.get(i), accumulator.result(i, functions[i]));
+            }
+            data.add(row);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("groupBy", groupByNames);
+        response.put("aggregates", aggregateNames);
+        response.put("data", data);
+        response.put("groupCount", data.size());
+        response.put("rowsScanned", rowsScanned);
+        response.put("rowsMatched", rowsMatched);
+        return response;
+    }
+
+    // 그룹 하나의 누적값 (집계 함수별 count/sum/min/max)
+    private static final class Accumulator {
+        final long[] counts;
+        final double[] sums;
+        final double[] mins;
+        final double[] maxs;
+
+        Accumulator(int size) {
+            counts = new long[size];
+            sums = new double[size];
+            mins = new double[size];
+            maxs = new double[size];
+            Arrays.fill(mins, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        }
+
+        void add(int index, double value) {
+            counts[index]++;
+            sums[index] += value;
+            mins[index] = Math.min(mins[index], value);
+            maxs[index] = Math.max(maxs[index], value);
+        }
+
+        void merge(Accumulator other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+                sums[i] += other.sums[i];
+                mins[i] = Math.min(mins[i], other.mins[i]);
+                maxs[i] = Math.max(maxs[i], other.maxs[i]);
+            }
+        }
+
+        Object result(int index, Function function) {
+            switch (function) {
+                case COUNT:
+                    return counts[index];
+                case SUM:
+                    return sums[index];
+                case AVG:
+                    return counts[index] == 0 ? null : sums[index] / counts[index];
+                case MIN:
+                    return counts[index] == 0 ? null : mins[index];
+                default:
+                    return counts[index] == 0 ? null : maxs[index];
+            }
+        }
+    }
+}
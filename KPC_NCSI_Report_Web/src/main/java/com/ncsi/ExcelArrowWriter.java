@@ -0,0 +1,391 @@
+package com.ncsi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Apache Arrow IPC 스트림 출력 (application/vnd.apache.arrow.stream)
+// 스키마 메시지 → batch-rows 행마다 RecordBatch → EOS 순서로 기록한다.
+// 필드: FileName, RelativePath, SheetName (utf8), RowNumber (int32), 열 목록 (nullable utf8)
+// Arrow 라이브러리(직접 메모리 할당자, --add-opens 필요) 없이 메타데이터 FlatBuffers 를 직접 인코딩한다.
+public class ExcelArrowWriter implements ExcelHeaderRows.Target {
+
+    private static final short METADATA_V5 = 4;
+    private static final byte HEADER_SCHEMA = 1;
+    private static final byte HEADER_RECORD_BATCH = 3;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_UTF8 = 5;
+    private static final int CONTINUATION = 0xFFFFFFFF;
+    private static final int FIXED_FIELDS = 4;
+
+    private final OutputStream out;
+    private final ExcelColumnLayout layout;
+    private final boolean typed;
+    private final int batchRows;
+
+    // 현재 배치 (열 단위)
+    private final String[] fileNames;
+    private final String[] relativePaths;
+    private final String[] sheetNames;
+    private final int[] rowNumbers;
+    private final String[][] values;
+    private int rowCount;
+
+    private long batches;
+
+    public ExcelArrowWriter(OutputStream out, ExcelColumnLayout layout, boolean typed, int batchRows) throws IOException {
+        this.out = out;
+        this.layout = layout;
+        this.typed = typed;
+        this.batchRows = Math.max(1, batchRows);
+        this.fileNames = new String[this.batchRows];
+        this.relativePaths = new String[this.batchRows];
+        this.sheetNames = new String[this.batchRows];
+        this.rowNumbers = new int[this.batchRows];
+        this.values = new String[layout.size()][this.batchRows];
+        writeMessage(HEADER_SCHEMA, schema(), new byte[0]);
+    }
+
+    @Override
+    public void row(SheetData sheet, int row, String[] names) throws IOException {
+        fileNames[rowCount] = sheet.getFileName();
+        relativePaths[rowCount] = sheet.getRelativePath();
+        sheetNames[rowCount] = sheet.getSheetName();
+        rowNumbers[rowCount] = sheet.getRowNumber(row);
+        for (int column = 0; column < sheet.getRowWidth(row); column++) {
+            int index = layout.indexOf(column, names);
+            if (index >= 0) {
+                values[index][rowCount] = ExcelColumnLayout.cellText(sheet, row, column, typed);
+            }
+        }
+        if (++rowCount == batchRows) {
+            writeBatch();
+        }
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    // 남은 행을 기록하고 스트림 끝(EOS) 표시
+    public void finish() throws IOException {
+        if (rowCount > 0) {
+            writeBatch();
+        }
+        byte[] eos = new byte[8];
+        putInt(eos, 0, CONTINUATION);
+        out.write(eos);
+        out.flush();
+    }
+
+    private FlatTable schema() {
+        List<FlatNode> fields = new ArrayList<>();
+        fields.add(field("FileName", false, TYPE_UTF8, new FlatTable()));
+        fields.add(field("RelativePath", false, TYPE_UTF8, new FlatTable()));
+        fields.add(field("SheetName", false, TYPE_UTF8, new FlatTable()));
+        fields.add(field("RowNumber", false, TYPE_INT, new FlatTable().scalar(0, 4, 32).scalar(1, 1, 1)));
+        for (int i = 0; i < layout.size(); i++) {
+            fields.add(field(layout.getName(i), true, TYPE_UTF8, new FlatTable()));
+        }
+        return new FlatTable().child(1, new FlatVector(fields));
+    }
+
+    private static FlatTable field(String name, boolean nullable, byte typeType, FlatTable type) {
+        return new FlatTable()
+                .child(0, new FlatString(name))
+                .scalar(1, 1, nullable ? 1 : 0)
+                .scalar(2, 1, typeType)
+                .child(3, type)
+                .child(5, new FlatVector(new ArrayList<>()));
+    }
+
+    private void writeBatch() throws IOException {
+        int fieldCount = FIXED_FIELDS + values.length;
+        List<byte[]> buffers = new ArrayList<>();
+        byte[] nodes = new byte[fieldCount * 16];
+        int node = 0;
+        for (String[] column : new String[][]{fileNames, relativePaths, sheetNames}) {
+            putLong(nodes, node++ * 16, rowCount);
+            addUtf8Buffers(buffers, column, false);
+        }
+        putLong(nodes, node++ * 16, rowCount);
+        buffers.add(new byte[0]);
+        byte[] numbers = new byte[rowCount * 4];
+        for (int row = 0; row < rowCount; row++) {
+            putInt(numbers, row * 4, rowNumbers[row]);
+        }
+        buffers.add(numbers);
+        for (String[] column : values) {
+            int nullCount = addUtf8Buffers(buffers, column, true);
+            putLong(nodes, node * 16, rowCount);
+            putLong(nodes, node++ * 16 + 8, nullCount);
+        }
+
+        // 버퍼 위치 (본문 안에서 8바이트 정렬)
+        byte[] bufferEntries = new byte[buffers.size() * 16];
+        long bodyLength = 0;
+        for (int i = 0; i < buffers.size(); i++) {
+            putLong(bufferEntries, i * 16, bodyLength);
+            putLong(bufferEntries, i * 16 + 8, buffers.get(i).length);
+            bodyLength += align8(buffers.get(i).length);
+        }
+        FlatTable batch = new FlatTable()
+                .scalar(0, 8, rowCount)
+                .child(1, new FlatStructs(nodes))
+                .child(2, new FlatStructs(bufferEntries));
+        byte[] metadata = messageMetadata(HEADER_RECORD_BATCH, batch, bodyLength);
+        out.write(metadata);
+        byte[] padding = new byte[8];
+        for (byte[] buffer : buffers) {
+            out.write(buffer);
+            out.write(padding, 0, (int) (align8(buffer.length) - buffer.length));
+        }
+
+        for (String[] column : values) {
+            Arrays.fill(column, 0, rowCount, null);
+        }
+        rowCount = 0;
+        batches++;
+    }
+
+    // validity(nullable 일 때만), int32 offsets, UTF-8 데이터 → null 개수
+    private int addUtf8Buffers(List<byte[]> buffers, String[] column, boolean nullable) {
+        byte[] validity = new byte[nullable ? (rowCount + 7) / 8 : 0];
+        byte[] offsets = new byte[(rowCount + 1) * 4];
+        byte[][] encoded = new byte[rowCount][];
+        int nullCount = 0;
+        int length = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (column[row] == null) {
+                nullCount++;
+            } else {
+                encoded[row] = column[row].getBytes(StandardCharsets.UTF_8);
+                length += encoded[row].length;
+                if (nullable) {
+                    validity[row >> 3] |= (byte) (1 << (row & 7));
+                }
+            }
+            putInt(offsets, (row + 1) * 4, length);
+        }
+        byte[] data = new byte[length];
+        int position = 0;
+        for (byte[] bytes : encoded) {
+            if (bytes != null) {
+                System.arraycopy(bytes, 0, data, position, bytes.length);
+                position += bytes.length;
+            }
+        }
+        buffers.add(nullCount == 0 ? new byte[0] : validity);
+        buffers.add(offsets);
+        buffers.add(data);
+        return nullCount;
+    }
+
+    private void writeMessage(byte headerType, FlatTable header, byte[] body) throws IOException {
+        out.write(messageMetadata(headerType, header, body.length));
+        out.write(body);
+    }
+
+    // continuation + 길이 + Message FlatBuffer (본문이 8바이트 정렬되도록 채움)
+    private static byte[] messageMetadata(byte headerType, FlatTable header, long bodyLength) {
+        FlatTable message = new FlatTable()
+                .scalar(0, 2, METADATA_V5)
+                .scalar(1, 1, headerType)
+                .child(2, header)
+                .scalar(3, 8, bodyLength);
+        byte[] flatbuffer = FlatBuilder.finish(message);
+        int padded = (int) align8(flatbuffer.length);
+        byte[] metadata = new byte[8 + padded];
+        putInt(metadata, 0, CONTINUATION);
+        putInt(metadata, 4, padded);
+        System.arraycopy(flatbuffer, 0, metadata, 8, flatbuffer.length);
+        return metadata;
+    }
+
+    private static long align8(long length) {
+        return (length + 7) & ~7L;
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        for (int i = 0; i < 4; i++) {
+            target[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private static void putLong(byte[] target, int offset, long value) {
+        for (int i = 0; i < 8; i++) {
+            target[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    // ---- 최소 FlatBuffers 인코더 ----
+    // 자식 객체를 항상 부모 뒤에 기록하는 앞 방향 배치 (uoffset 은 항상 양수), 리틀 엔디언.
+    // 테이블 시작은 8바이트 정렬, vtable 은 테이블 바로 앞에 둔다.
+
+    private interface FlatNode {
+        // 객체를 기록하고 uoffset 이 가리킬 위치를 반환
+        int write(FlatBuilder builder);
+    }
+
+    private static final class FlatTable implements FlatNode {
+        private final List<int[]> scalars = new ArrayList<>();      // {slot, size}
+        private final List<Long> scalarValues = new ArrayList<>();
+        private final List<Integer> childSlots = new ArrayList<>();
+        private final List<FlatNode> children = new ArrayList<>();
+
+        FlatTable scalar(int slot, int size, long value) {
+            scalars.add(new int[]{slot, size});
+            scalarValues.add(value);
+            return this;
+        }
+
+        FlatTable child(int slot, FlatNode node) {
+            childSlots.add(slot);
+            children.add(node);
+            return this;
+        }
+
+        @Override
+        public int write(FlatBuilder builder) {
+            int slotCount = 0;
+            for (int[] scalar : scalars) slotCount = Math.max(slotCount, scalar[0] + 1);
+            for (int slot : childSlots) slotCount = Math.max(slotCount, slot + 1);
+
+            // 필드 배치: 큰 값부터 (정렬 패딩 최소화), 자식 uoffset 은 4바이트
+            int[] fieldOffsets = new int[slotCount];
+            int size = 4;
+            for (int width : new int[]{8, 4, 2, 1}) {
+                for (int i = 0; i < scalars.size(); i++) {
+                    if (scalars.get(i)[1] == width) {
+                        size = (size + width - 1) / width * width;
+                        fieldOffsets[scalars.get(i)[0]] = size;
+                        size += width;
+                    }
+                }
+                if (width == 4) {
+                    for (int slot : childSlots) {
+                        size = (size + 3) / 4 * 4;
+                        fieldOffsets[slot] = size;
+                        size += 4;
+                    }
+                }
+            }
+            size = (size + 3) / 4 * 4;
+
+            int vtableSize = 4 + 2 * slotCount;
+            int tableStart = (builder.length + vtableSize + 7) / 8 * 8;
+            int vtableStart = tableStart - vtableSize;
+            builder.ensure(tableStart + size);
+            builder.putShort(vtableStart, vtableSize);
+            builder.putShort(vtableStart + 2, size);
+            for (int slot = 0; slot < slotCount; slot++) {
+                builder.putShort(vtableStart + 4 + 2 * slot, fieldOffsets[slot]);
+            }
+            builder.putInt(tableStart, tableStart - vtableStart);
+            for (int i = 0; i < scalars.size(); i++) {
+                builder.put(tableStart + fieldOffsets[scalars.get(i)[0]], scalars.get(i)[1], scalarValues.get(i));
+            }
+            builder.length = tableStart + size;
+            for (int i = 0; i < children.size(); i++) {
+                int fieldPosition = tableStart + fieldOffsets[childSlots.get(i)];
+                int childPosition = children.get(i).write(builder);
+                builder.putInt(fieldPosition, childPosition - fieldPosition);
+            }
+            return tableStart;
+        }
+    }
+
+    private static final class FlatString implements FlatNode {
+        private final byte[] bytes;
+
+        FlatString(String value) {
+            this.bytes = value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int write(FlatBuilder builder) {
+            int start = (builder.length + 3) / 4 * 4;
+            builder.ensure(start + 4 + bytes.length + 1);
+            builder.putInt(start, bytes.length);
+            System.arraycopy(bytes, 0, builder.buffer, start + 4, bytes.length);
+            builder.length = start + 4 + bytes.length + 1;
+            return start;
+        }
+    }
+
+    // 테이블 vector
+    private static final class FlatVector implements FlatNode {
+        private final List<FlatNode> elements;
+
+        FlatVector(List<FlatNode> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public int write(FlatBuilder builder) {
+            int start = (builder.length + 3) / 4 * 4;
+            builder.ensure(start + 4 + 4 * elements.size());
+            builder.putInt(start, elements.size());
+            builder.length = start + 4 + 4 * elements.size();
+            for (int i = 0; i < elements.size(); i++) {
+                int slot = start + 4 + 4 * i;
+                builder.putInt(slot, elements.get(i).write(builder) - slot);
+            }
+            return start;
+        }
+    }
+
+    // 16바이트 struct(FieldNode, Buffer) vector, 원소는 8바이트 정렬
+    private static final class FlatStructs implements FlatNode {
+        private final byte[] bytes;
+
+        FlatStructs(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int write(FlatBuilder builder) {
+            int start = (builder.length + 4 + 7) / 8 * 8 - 4;
+            builder.ensure(start + 4 + bytes.length);
+            builder.putInt(start, bytes.length / 16);
+            System.arraycopy(bytes, 0, builder.buffer, start + 4, bytes.length);
+            builder.length = start + 4 + bytes.length;
+            return start;
+        }
+    }
+
+    private static final class FlatBuilder {
+        byte[] buffer = new byte[256];
+        int length = 4;
+
+        static byte[] finish(FlatNode root) {
+            FlatBuilder builder = new FlatBuilder();
+            int position = root.write(builder);
+            builder.putInt(0, position);
+            return Arrays.copyOf(builder.buffer, builder.length);
+        }
+
+        void ensure(int capacity) {
+            if (capacity > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+            }
+        }
+
+        void putShort(int offset, int value) {
+            put(offset, 2, value);
+        }
+
+        void putInt(int offset, int value) {
+            put(offset, 4, value);
+        }
+
+        void put(int offset, int size, long value) {
+            for (int i = 0; i < size; i++) {
+                buffer[offset + i] = (byte) (value >>> (8 * i));
+            }
+        }
+    }
+}
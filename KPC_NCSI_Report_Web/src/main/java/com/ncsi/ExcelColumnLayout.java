@@ -0,0 +1,62 @@
+package com.ncsi;
+
+import java.util.*;
+
+// CSV / Arrow 출력의 셀 열 목록 (머리줄과 스키마를 먼저 써야 하므로 폴더 전체 기준으로 미리 정함)
+// headers 가 아니면 Column1..N (N = 폴더 최대 열 수), headers 면 폴더 스키마에서 합친 열 이름 순서
+public class ExcelColumnLayout {
+
+    private final List<String> names;
+    private final Map<String, Integer> indexes;
+
+    private ExcelColumnLayout(List<String> names, boolean named) {
+        this.names = names;
+        if (named) {
+            indexes = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                indexes.put(names.get(i), i);
+            }
+        } else {
+            indexes = null;
+        }
+    }
+
+    public static ExcelColumnLayout numbered(int columnCount) {
+        List<String> names = new ArrayList<>(columnCount);
+        for (int column = 0; column < columnCount; column++) {
+            names.add(SheetData.columnKey(column));
+        }
+        return new ExcelColumnLayout(names, false);
+    }
+
+    public static ExcelColumnLayout named(List<String> names) {
+        return new ExcelColumnLayout(new ArrayList<>(names), true);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public String getName(int index) {
+        return names.get(index);
+    }
+
+    // 시트 열(0 기반)의 출력 위치, 목록에 없으면 -1 (headerNames 는 ExcelHeaderRows 가 준 머리글 이름)
+    public int indexOf(int column, String[] headerNames) {
+        if (indexes == null) {
+            return column < names.size() ? column : -1;
+        }
+        String name = headerNames != null && column < headerNames.length ? headerNames[column] : SheetData.columnKey(column);
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    // 셀 하나의 출력 문자열 (typed 면 getCellValue 기준, 빈 셀은 null)
+    static String cellText(SheetData sheet, int row, int column, boolean typed) {
+        if (!typed) {
+            return sheet.getCellString(row, column);
+        }
+        Object value = sheet.getCellValue(row, column);
+        return value != null ? value.toString() : null;
+    }
+}
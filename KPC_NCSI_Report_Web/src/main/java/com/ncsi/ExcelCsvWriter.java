@@ -0,0 +1,78 @@
+package com.ncsi;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+// RFC 4180 CSV 출력 (UTF-8 BOM, CRLF)
+// 첫 줄은 FileName, RelativePath, SheetName, RowNumber 와 열 목록, 빈 셀은 빈 값
+public class ExcelCsvWriter implements ExcelHeaderRows.Target {
+
+    private final Writer writer;
+    private final ExcelColumnLayout layout;
+    private final boolean typed;
+    private final String[] values;
+
+    public ExcelCsvWriter(OutputStream out, ExcelColumnLayout layout, boolean typed) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        this.layout = layout;
+        this.typed = typed;
+        this.values = new String[layout.size()];
+        // 엑셀에서 열 때 한글이 깨지지 않도록 BOM
+        writer.write('\uFEFF');
+        writer.write("FileName,RelativePath,SheetName,RowNumber");
+        for (int i = 0; i < layout.size(); i++) {
+            writer.write(',');
+            writeField(layout.getName(i));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void row(SheetData sheet, int row, String[] names) throws IOException {
+        for (int column = 0; column < sheet.getRowWidth(row); column++) {
+            int index = layout.indexOf(column, names);
+            if (index >= 0) {
+                values[index] = ExcelColumnLayout.cellText(sheet, row, column, typed);
+            }
+        }
+        writeField(sheet.getFileName());
+        writer.write(',');
+        writeField(sheet.getRelativePath());
+        writer.write(',');
+        writeField(sheet.getSheetName());
+        writer.write(',');
+        writer.write(Integer.toString(sheet.getRowNumber(row)));
+        for (int i = 0; i < values.length; i++) {
+            writer.write(',');
+            if (values[i] != null) {
+                writeField(values[i]);
+                values[i] = null;
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    // 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번
+    private void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,62 @@
+package com.ncsi;
+
+import java.io.IOException;
+
+// headers 옵션용 sink: 시트마다 머리글 행(ExcelSchema.isHeaderRow)과 그 앞의 빈 행을 건너뛰고
+// 이후 행을 머리글 이름과 함께 target 으로 전달한다 (머리글이 없는 시트는 names = null → ColumnN).
+// 시트 경계는 파일 경로/시트 이름이 바뀌는 것으로 판단 (스냅샷 블록으로 나뉜 시트도 한 시트).
+public class ExcelHeaderRows implements ExcelRowSink {
+
+    // 열 이름과 함께 행을 받는 쪽 (names 가 null 이면 기본 ColumnN)
+    public interface Target {
+        void row(SheetData sheet, int row, String[] names) throws IOException;
+    }
+
+    private final boolean enabled;
+    private final Target target;
+
+    private String relativePath;
+    private String sheetName;
+    private boolean decided;
+    private String[] names;
+
+    public ExcelHeaderRows(boolean enabled, Target target) {
+        this.enabled = enabled;
+        this.target = target;
+    }
+
+    @Override
+    public void row(SheetData sheet, int row) throws IOException {
+        if (!enabled || advance(sheet, row)) {
+            target.row(sheet, row, names);
+        }
+    }
+
+    // 전달하지 않는 행의 머리글 상태만 갱신 (페이지 커서 이전 행)
+    public void skip(SheetData sheet, int row) {
+        if (enabled) {
+            advance(sheet, row);
+        }
+    }
+
+    // 머리글 행이나 그 앞의 빈 행이면 false
+    private boolean advance(SheetData sheet, int row) {
+        if (!sheet.getSheetName().equals(sheetName) || !sheet.getRelativePath().equals(relativePath)) {
+            relativePath = sheet.getRelativePath();
+            sheetName = sheet.getSheetName();
+            decided = false;
+            names = null;
+        }
+        if (!decided) {
+            if (!ExcelSchema.hasValues(sheet, row)) {
+                return false;
+            }
+            decided = true;
+            if (ExcelSchema.isHeaderRow(sheet, row)) {
+                names = ExcelSchema.headerNames(sheet, row);
+                return false;
+            }
+        }
+        return true;
+    }
+}
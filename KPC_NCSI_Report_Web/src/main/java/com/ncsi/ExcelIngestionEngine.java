@@ -0,0 +1,133 @@
+package com.ncsi;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// 엑셀 파일/시트 병렬 파싱 엔진
+// 모든 요청이 하나의 ForkJoinPool 을 공유하고, 요청별로 동시에 처리하는 작업 수를 제한한다.
+// 결과는 항상 입력 순서대로 전달되므로 파일/시트/행 순서가 순차 처리와 같다.
+@Component
+public class ExcelIngestionEngine {
+
+    // 전체 풀 크기 (0 이하면 CPU 코어 수)
+    @Value("${ncsi.excel.parallelism:0}")
+    private int poolSize;
+
+    // 요청별 기본 동시 처리 수
+    @Value("${ncsi.excel.request-parallelism:4}")
+    private int defaultRequestParallelism;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void init() {
+        int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(size);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public int getPoolSize() {
+        return pool.getParallelism();
+    }
+
+    // 요청 파라미터를 1..풀 크기 범위로 보정
+    public int resolveParallelism(Integer requested) {
+        int parallelism = requested != null ? requested : defaultRequestParallelism;
+        return Math.max(1, Math.min(parallelism, pool.getParallelism()));
+    }
+
+    // items 를 최대 parallelism 개씩 동시에 처리하고, 결과는 입력 순서대로 emitter 에 전달
+    // 동시에 메모리에 올라오는 결과는 최대 parallelism 개
+    public <T, R> void forEachOrdered(List<T> items, int parallelism, Function<T, R> task, Consumer<R> emitter) {
+        forEachOrdered(items, parallelism, task, emitter, new AtomicBoolean());
+    }
+
+    // emitter 나 작업이 예외로 끝나면 (클라이언트 연결 종료, 작업 취소 등) cancelled 를 켠다
+    // 시작 전인 작업은 취소하고, 이미 실행 중인 작업은 task 가 cancelled 를 확인해 멈춘다 (SheetDataBuilder)
+    public <T, R> void forEachOrdered(List<T> items, int parallelism, Function<T, R> task, Consumer<R> emitter,
+                                      AtomicBoolean cancelled) {
+        Iterator<T> iterator = items.iterator();
+        Deque<CompletableFuture<R>> window = new ArrayDeque<>();
+        boolean completed = false;
+        try {
+            while (window.size() < parallelism && iterator.hasNext()) {
+                window.add(submit(iterator.next(), task));
+            }
+            while (!window.isEmpty()) {
+                R result = await(window.poll());
+                // 다음 작업을 먼저 넣고 결과를 내보내 풀이 쉬지 않도록 함
+                if (iterator.hasNext()) {
+                    window.add(submit(iterator.next(), task));
+                }
+                emitter.accept(result);
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                cancelled.set(true);
+            }
+            for (CompletableFuture<R> pending : window) {
+                pending.cancel(false);
+            }
+        }
+    }
+
+    // 작은 작업 묶음(시트 등)을 병렬로 처리하고 입력 순서대로 결과 반환
+    public <T, R> List<R> mapOrdered(List<T> items, int parallelism, Function<T, R> task) {
+        List<R> results = new ArrayList<>(items.size());
+        if (parallelism <= 1 || items.size() <= 1) {
+            for (T item : items) {
+                results.add(task.apply(item));
+            }
+            return results;
+        }
+        for (int start = 0; start < items.size(); start += parallelism) {
+            List<ForkJoinTask<R>> batch = new ArrayList<>();
+            for (T item : items.subList(start, Math.min(start + parallelism, items.size()))) {
+                batch.add(ForkJoinTask.adapt(() -> task.apply(item)));
+            }
+            if (ForkJoinTask.inForkJoinPool()) {
+                // 풀 작업 안에서 호출된 경우 work-stealing 으로 함께 처리
+                ForkJoinTask.invokeAll(batch);
+            } else {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        ForkJoinTask.invokeAll(batch);
+                    }
+                });
+            }
+            for (ForkJoinTask<R> forkJoinTask : batch) {
+                results.add(forkJoinTask.join());
+            }
+        }
+        return results;
+    }
+
+    private <T, R> CompletableFuture<R> submit(T item, Function<T, R> task) {
+        return CompletableFuture.supplyAsync(() -> task.apply(item), pool);
+    }
+
+    private <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
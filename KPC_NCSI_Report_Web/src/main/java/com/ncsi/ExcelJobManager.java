@@ -0,0 +1,383 @@
+package com.ncsi;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 오래 걸리는 폴더 작업(합친 엑셀, 폴더 엑셀 데이터)을 비동기로 실행하는 작업 관리자
+// - 작업 스레드 수(workers)와 대기열(queue-capacity)을 제한하고, 작업 안의 파싱 병렬도도 parallelism 으로 낮춰
+//   대화형 요청이 쓰는 파싱 풀을 작업이 독점하지 않도록 한다.
+// - 결과는 작업 폴더에 파일로 저장한다 (임시 파일에 쓴 뒤 이동). 같은 입력(작업 종류/파라미터 + 대상 파일 지문)이면
+//   진행 중이거나 완료된 작업을 그대로 돌려주고, 결과 파일 이름이 입력 지문이라 재시작 후에도 재사용된다.
+// - 끝난 지 retention-hours 가 지난 작업과 결과 파일은 정리한다.
+@Component
+public class ExcelJobManager {
+
+    public static final String COMBINED_EXCEL = "combined-excel";
+    public static final String FOLDER_EXCEL_DATA = "folder-excel-data";
+
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    private static final String PART_SUFFIX = ".part";
+
+    @Autowired
+    private FileService fileService;
+
+    // 결과 파일 폴더 (DATA_DIR 밖)
+    @Value("${ncsi.jobs.dir:/home/ubuntu/.ncsi-cache/jobs}")
+    private String directory;
+
+    // 동시에 실행하는 작업 수
+    @Value("${ncsi.jobs.workers:2}")
+    private int workers;
+
+    // 실행을 기다릴 수 있는 작업 수 (넘으면 제출 거부)
+    @Value("${ncsi.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    // 작업 하나의 파싱 병렬도 상한
+    @Value("${ncsi.jobs.parallelism:2}")
+    private int jobParallelism;
+
+    @Value("${ncsi.jobs.retention-hours:24}")
+    private int retentionHours;
+
+    private ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final Map<String, Job> jobsByKey = new HashMap<>();
+
+    // 작업 본문 (결과를 out 에 기록)
+    private interface JobWork {
+        void write(OutputStream out, ExcelJobProgress progress) throws IOException;
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            Path root = Paths.get(directory);
+            Files.createDirectories(root);
+            // 이전 실행에서 남은 임시 파일과 보관 기간이 지난 결과 정리
+            long expiry = System.currentTimeMillis() - retentionMillis();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+                for (Path path : stream) {
+                    if (path.getFileName().toString().endsWith(PART_SUFFIX)
+                            || Files.getLastModifiedTime(path).toMillis() < expiry) {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error preparing job directory: " + directory + " - " + e.getMessage());
+        }
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "ncsi-job-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    // 대화형 요청 스레드보다 낮은 우선순위
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        for (Job job : jobs.values()) {
+            job.cancelRunning();
+        }
+        executor.shutdownNow();
+    }
+
+    // 폴더의 엑셀 파일을 하나의 xlsx 로 합치는 작업
+    public Job submitCombinedExcel(String folderPath, boolean includeSubfolders) throws IOException {
+        String fingerprint = fileService.getFolderExcelFingerprint(folderPath, includeSubfolders);
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("folderPath", folderPath);
+        params.put("includeSubfolders", includeSubfolders);
+        String key = COMBINED_EXCEL + "\n" + folderPath + "\n" + includeSubfolders + "\n" + fingerprint;
+        return submit(COMBINED_EXCEL, params, key, XLSX_CONTENT_TYPE, resultName(folderPath, "_combined.xlsx"), ".xlsx", null,
+                (out, progress) -> {
+                    progress.setPhase("sheets");
+                    fileService.writeCombinedExcelFile(folderPath, includeSubfolders, out, progress);
+                });
+    }
+
+    // 폴더 엑셀 데이터를 format 형식의 파일로 만드는 작업
+    public Job submitFolderExcelData(String folderPath, boolean includeSubfolders, ExcelReadOptions options,
+                                     ExcelOutputFormat format) throws IOException {
+        String fingerprint = fileService.getFolderExcelFingerprint(folderPath, includeSubfolders);
+        Integer requested = options.getParallelism();
+        options.setParallelism(requested != null ? Math.min(requested, jobParallelism) : jobParallelism);
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("folderPath", folderPath);
+        params.put("includeSubfolders", includeSubfolders);
+        params.put("format", format.getName());
+        params.put("valueMode", options.getValueMode());
+        params.put("headers", options.isHeaders());
+        String key = FOLDER_EXCEL_DATA + "\n" + folderPath + "\n" + includeSubfolders + "\n" + format + "\n"
+                + options.isTypedValues() + "\n" + options.isHeaders() + "\n" + fingerprint;
+        String extension = "." + format.getName();
+        return submit(FOLDER_EXCEL_DATA, params, key, format.getContentType(), resultName(folderPath, extension), extension,
+                options, (out, progress) -> {
+                    ExcelColumnLayout layout = null;
+                    if (format.isTabular()) {
+                        // 열 목록 계산 (여기서 파싱한 결과는 캐시에 남아 행 기록 때 다시 파싱하지 않음)
+                        progress.setPhase("layout");
+                        layout = fileService.getFolderExcelColumnLayout(folderPath, includeSubfolders, options);
+                    }
+                    progress.setPhase("rows");
+                    options.setProgress(progress);
+                    fileService.writeFolderExcelData(folderPath, includeSubfolders, options, format, layout, out);
+                });
+    }
+
+    public synchronized Job getJob(String id) {
+        removeExpired();
+        return jobs.get(id);
+    }
+
+    public synchronized List<Map<String, Object>> listJobs() {
+        removeExpired();
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            list.add(job.toMap());
+        }
+        return list;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers);
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("jobs", jobs.size());
+        return stats;
+    }
+
+    // 실행 전이면 취소, 실행 중이면 다음 파일/행에서 멈추도록 표시, 끝난 작업이면 결과 파일과 함께 삭제
+    public synchronized Job cancel(String id) throws IOException {
+        Job job = jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+        switch (job.status) {
+            case QUEUED:
+                job.future.cancel(false);
+                finish(job, Status.CANCELLED, "Job cancelled");
+                break;
+            case RUNNING:
+                job.cancelRunning();
+                break;
+            default:
+                remove(job);
+                break;
+        }
+        return job;
+    }
+
+    // options: 작업이 읽는 옵션 (취소하면 열 목록 계산 중인 파싱도 멈추도록 중단 신호를 켬, 없으면 null)
+    private synchronized Job submit(String type, Map<String, Object> params, String key, String contentType,
+                                    String fileName, String extension, ExcelReadOptions options, JobWork work) {
+        removeExpired();
+        Job existing = jobsByKey.get(key);
+        if (existing != null && (existing.status == Status.QUEUED || existing.status == Status.RUNNING
+                || (existing.status == Status.DONE && Files.isRegularFile(existing.result)))) {
+            return existing;
+        }
+        Path result = Paths.get(directory, CompressedResponseCache.fingerprint(List.of(key)) + extension);
+        Job job = new Job(UUID.randomUUID().toString(), type, params, key, contentType, fileName, result, options);
+        if (Files.isRegularFile(result)) {
+            // 이전 실행에서 같은 입력으로 만든 결과
+            job.reused = true;
+            finish(job, Status.DONE, null);
+        } else {
+            try {
+                job.future = executor.submit(() -> run(job, work));
+            } catch (RejectedExecutionException e) {
+                throw new IllegalStateException("Job queue is full (" + queueCapacity + "), try again later");
+            }
+        }
+        jobs.put(job.id, job);
+        jobsByKey.put(key, job);
+        return job;
+    }
+
+    private void run(Job job, JobWork work) {
+        synchronized (this) {
+            if (job.status != Status.QUEUED) {
+                return;
+            }
+            job.status = Status.RUNNING;
+            job.startedAt = System.currentTimeMillis();
+            job.progress.setPhase("running");
+        }
+        Path temp = job.result.resolveSibling(job.result.getFileName() + "." + job.id + PART_SUFFIX);
+        try {
+            try (OutputStream out = job.progress.counting(new BufferedOutputStream(Files.newOutputStream(temp), 65536))) {
+                work.write(out, job.progress);
+            }
+            job.progress.checkCancelled();
+            Files.move(temp, job.result, StandardCopyOption.ATOMIC_MOVE);
+            finish(job, Status.DONE, null);
+        } catch (CancellationException e) {
+            deleteQuietly(temp);
+            finish(job, Status.CANCELLED, "Job cancelled");
+        } catch (Exception e) {
+            deleteQuietly(temp);
+            System.err.println("Job failed: " + job.id + " (" + job.type + ") - " + e.getMessage());
+            finish(job, Status.FAILED, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    private synchronized void finish(Job job, Status status, String error) {
+        job.status = status;
+        job.error = error;
+        job.finishedAt = System.currentTimeMillis();
+        job.progress.setPhase(status.name().toLowerCase());
+        if (status != Status.DONE && jobsByKey.get(job.key) == job) {
+            // 실패/취소한 입력은 다시 제출하면 새로 실행
+            jobsByKey.remove(job.key);
+        }
+    }
+
+    // 끝난 지 보관 기간이 지난 작업 정리
+    private void removeExpired() {
+        long expiry = System.currentTimeMillis() - retentionMillis();
+        List<Job> expired = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            if (job.finishedAt != 0 && job.finishedAt < expiry) {
+                expired.add(job);
+            }
+        }
+        for (Job job : expired) {
+            remove(job);
+        }
+    }
+
+    private void remove(Job job) {
+        jobs.remove(job.id);
+        if (jobsByKey.get(job.key) == job) {
+            jobsByKey.remove(job.key);
+            // 같은 결과 파일을 쓰는 다른 작업이 없을 때만 삭제
+            if (job.status == Status.DONE) {
+                deleteQuietly(job.result);
+            }
+        }
+    }
+
+    private long retentionMillis() {
+        return retentionHours * 60L * 60 * 1000;
+    }
+
+    private String resultName(String folderPath, String suffix) {
+        String name = Paths.get(folderPath.isEmpty() ? "Data" : folderPath).getFileName().toString();
+        return name + suffix;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Error deleting job file: " + path + " - " + e.getMessage());
+        }
+    }
+
+    public static final class Job {
+        private final String id;
+        private final String type;
+        private final Map<String, Object> params;
+        private final String key;
+        private final String contentType;
+        private final String fileName;
+        private final Path result;
+        private final ExcelReadOptions options;
+        private final ExcelJobProgress progress = new ExcelJobProgress();
+        private final long submittedAt = System.currentTimeMillis();
+        private volatile Status status = Status.QUEUED;
+        private volatile long startedAt;
+        private volatile long finishedAt;
+        private volatile String error;
+        private volatile boolean reused;
+        private Future<?> future;
+
+        Job(String id, String type, Map<String, Object> params, String key, String contentType, String fileName, Path result,
+            ExcelReadOptions options) {
+            this.id = id;
+            this.type = type;
+            this.params = params;
+            this.key = key;
+            this.contentType = contentType;
+            this.fileName = fileName;
+            this.result = result;
+            this.options = options;
+        }
+
+        // 진행 상황은 행 기록 단계에서만 연결되므로, 열 목록 계산(layout) 중인 파싱은 옵션의 중단 신호로 멈춤
+        private void cancelRunning() {
+            progress.cancel();
+            if (options != null) {
+                options.getCancelled().set(true);
+            }
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public Path getResult() {
+            return result;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            map.put("type", type);
+            map.put("params", params);
+            map.put("status", status.name().toLowerCase());
+            map.put("reused", reused);
+            map.put("submittedAt", submittedAt);
+            map.put("startedAt", startedAt != 0 ? startedAt : null);
+            map.put("finishedAt", finishedAt != 0 ? finishedAt : null);
+            map.put("progress", progress.toMap());
+            if (error != null) {
+                map.put("error", error);
+            }
+            if (status == Status.DONE) {
+                map.put("fileName", fileName);
+                map.put("contentType", contentType);
+                try {
+                    map.put("resultSize", Files.size(result));
+                } catch (IOException e) {
+                    map.put("resultSize", null);
+                }
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ncsi;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 비동기 작업 진행 상황 (처리한 파일/행 수, 기록한 바이트)
+// 작업 스레드가 갱신하고 상태 조회 요청이 읽는다. 취소되면 다음 행/파일에서 CancellationException 으로 멈춘다.
+public class ExcelJobProgress {
+
+    private volatile String phase = "queued";
+    private volatile boolean cancelled;
+    private final AtomicLong filesTotal = new AtomicLong();
+    private final AtomicLong filesDone = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public void setFilesTotal(long total) {
+        filesTotal.set(total);
+    }
+
+    public void fileDone() {
+        checkCancelled();
+        filesDone.incrementAndGet();
+    }
+
+    public void addRows(long count) {
+        checkCancelled();
+        rows.addAndGet(count);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Job cancelled");
+        }
+    }
+
+    // 행 수를 세는 sink
+    public ExcelRowSink counting(ExcelRowSink sink) {
+        return (sheet, row) -> {
+            addRows(1);
+            sink.row(sheet, row);
+        };
+    }
+
+    // 기록한 바이트를 세는 스트림 (close 하면 out 도 닫음)
+    public OutputStream counting(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytes.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                bytes.addAndGet(len);
+            }
+        };
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("phase", phase);
+        map.put("filesTotal", filesTotal.get());
+        map.put("filesDone", filesDone.get());
+        map.put("rows", rows.get());
+        map.put("bytes", bytes.get());
+        return map;
+    }
+}
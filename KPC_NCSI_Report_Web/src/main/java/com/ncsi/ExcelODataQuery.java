@@ -0,0 +1,425 @@
+package com.ncsi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.*;
+
+// OData 쿼리 옵션($select, $filter, $top, $skip)을 folder-excel-data 행에 적용
+// $select/$filter 에 나오는 ColumnN 만 getColumns() 로 파서에 넘겨 나머지 열은 값을 해석하지 않고,
+// $filter 는 행 조건(ExcelRowFilter)으로 파서에 넘겨 행이 끝날 때 SheetData 버퍼에서 바로 평가하므로
+// 걸러진 행은 보관하거나 Map/JSON 으로 만들지 않는다.
+//
+// 지원하는 $filter: eq ne gt ge lt le, and or not, 괄호, contains/startswith/endswith(속성, '문자열')
+// 리터럴: '문자열'('' 는 따옴표), 숫자, true/false, null
+// 숫자 리터럴은 숫자 셀(또는 숫자로 읽히는 문자열)과 숫자로 비교하고, 그 외에는 기존 문자열 값으로 비교한다.
+public class ExcelODataQuery implements ExcelRowFilter {
+
+    // 고정 속성 (ColumnN 은 0 이상의 열 인덱스)
+    private static final int FILE_NAME = -1;
+    private static final int RELATIVE_PATH = -2;
+    private static final int SHEET_NAME = -3;
+    private static final int ROW_NUMBER = -4;
+
+    private final int[] select;   // null 이면 전체
+    private final Condition filter;
+    private final long top;       // -1 이면 제한 없음
+    private final long skip;
+    private final BitSet columns;
+
+    private ExcelODataQuery(int[] select, Condition filter, long top, long skip, BitSet columns) {
+        this.select = select;
+        this.filter = filter;
+        this.top = top;
+        this.skip = skip;
+        this.columns = columns;
+    }
+
+    public static ExcelODataQuery parse(String select, String filter, Integer top, Integer skip) {
+        if (top != null && top < 0) {
+            throw new IllegalArgumentException("$top must not be negative");
+        }
+        if (skip != null && skip < 0) {
+            throw new IllegalArgumentException("$skip must not be negative");
+        }
+        BitSet columns = new BitSet();
+        int[] selected = null;
+        if (select != null && !select.isBlank() && !"*".equals(select.trim())) {
+            List<Integer> properties = new ArrayList<>();
+            for (String name : select.split(",")) {
+                int property = property(name.trim(), "$select");
+                if (!properties.contains(property)) {
+                    properties.add(property);
+                }
+                if (property >= 0) {
+                    columns.set(property);
+                }
+            }
+            selected = properties.stream().mapToInt(Integer::intValue).toArray();
+        }
+        Condition condition = null;
+        if (filter != null && !filter.isBlank()) {
+            condition = new FilterParser(filter, columns).parse();
+        }
+        return new ExcelODataQuery(selected, condition, top != null ? top : -1, skip != null ? skip : 0,
+                selected != null ? columns : null);
+    }
+
+    // 파서가 값을 읽어야 하는 열 (null 이면 전체)
+    public BitSet getColumns() {
+        return columns;
+    }
+
+    public long getTop() {
+        return top;
+    }
+
+    public long getSkip() {
+        return skip;
+    }
+
+    public boolean hasFilter() {
+        return filter != null;
+    }
+
+    @Override
+    public boolean matches(SheetData sheet, int row) {
+        return filter == null || filter.test(sheet, row);
+    }
+
+    // $select 한 속성만 기록 (ColumnN 은 행 너비 안일 때만, 기존 응답과 같은 규칙)
+    public void writeRow(SheetData sheet, int row, JsonGenerator generator) throws IOException {
+        if (select == null) {
+            sheet.writeRowJson(row, generator);
+            return;
+        }
+        generator.writeStartObject();
+        for (int property : select) {
+            switch (property) {
+                case FILE_NAME:
+                    generator.writeStringField("FileName", sheet.getFileName());
+                    break;
+                case RELATIVE_PATH:
+                    generator.writeStringField("RelativePath", sheet.getRelativePath());
+                    break;
+                case SHEET_NAME:
+                    generator.writeStringField("SheetName", sheet.getSheetName());
+                    break;
+                case ROW_NUMBER:
+                    generator.writeNumberField("RowNumber", sheet.getRowNumber(row));
+                    break;
+                default:
+                    if (property < sheet.getRowWidth(row)) {
+                        generator.writeStringField(SheetData.columnKey(property), sheet.getCellString(row, property));
+                    }
+                    break;
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    // $metadata (EDMX): Column1..columnCount 를 문자열 속성으로 선언, 나머지는 OpenType 으로 허용
+    public static String metadataXml(int columnCount) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+        xml.append("<edmx:Edmx Version=\"4.0\" xmlns:edmx=\"http://docs.oasis-open.org/odata/ns/edmx\">\n");
+        xml.append("  <edmx:DataServices>\n");
+        xml.append("    <Schema Namespace=\"Ncsi\" xmlns=\"http://docs.oasis-open.org/odata/ns/edm\">\n");
+        xml.append("      <EntityType Name=\"Row\" OpenType=\"true\">\n");
+        xml.append("        <Key><PropertyRef Name=\"RelativePath\"/><PropertyRef Name=\"SheetName\"/><PropertyRef Name=\"RowNumber\"/></Key>\n");
+        xml.append("        <Property Name=\"FileName\" Type=\"Edm.String\" Nullable=\"false\"/>\n");
+        xml.append("        <Property Name=\"RelativePath\" Type=\"Edm.String\" Nullable=\"false\"/>\n");
+        xml.append("        <Property Name=\"SheetName\" Type=\"Edm.String\" Nullable=\"false\"/>\n");
+        xml.append("        <Property Name=\"RowNumber\" Type=\"Edm.Int32\" Nullable=\"false\"/>\n");
+        for (int column = 0; column < columnCount; column++) {
+            xml.append("        <Property Name=\"").append(SheetData.columnKey(column)).append("\" Type=\"Edm.String\"/>\n");
+        }
+        xml.append("      </EntityType>\n");
+        xml.append("      <EntityContainer Name=\"Container\">\n");
+        xml.append("        <EntitySet Name=\"Rows\" EntityType=\"Ncsi.Row\"/>\n");
+        xml.append("      </EntityContainer>\n");
+        xml.append("    </Schema>\n");
+        xml.append("  </edmx:DataServices>\n");
+        xml.append("</edmx:Edmx>\n");
+        return xml.toString();
+    }
+
+    // 속성 이름 → 속성 번호
+    static int property(String name, String option) {
+        switch (name) {
+            case "FileName":
+                return FILE_NAME;
+            case "RelativePath":
+                return RELATIVE_PATH;
+            case "SheetName":
+                return SHEET_NAME;
+            case "RowNumber":
+                return ROW_NUMBER;
+            default:
+                if (name.startsWith("Column")) {
+                    try {
+                        int column = Integer.parseInt(name.substring("Column".length()));
+                        if (column >= 1) {
+                            return column - 1;
+                        }
+                    } catch (NumberFormatException e) {
+                        // 아래에서 오류
+                    }
+                }
+                throw new IllegalArgumentException("Unknown property in " + option + ": " + name);
+        }
+    }
+
+    // 비교용 값: 숫자 셀/RowNumber 는 Number, 빈 셀은 null, 나머지는 기존 문자열
+    static Object value(SheetData sheet, int row, int property) {
+        switch (property) {
+            case FILE_NAME:
+                return sheet.getFileName();
+            case RELATIVE_PATH:
+                return sheet.getRelativePath();
+            case SHEET_NAME:
+                return sheet.getSheetName();
+            case ROW_NUMBER:
+                return sheet.getRowNumber(row);
+            default:
+                if (property >= sheet.getRowWidth(row)) {
+                    return null;
+                }
+                byte kind = sheet.getKind(row, property);
+                if (kind == SheetData.ABSENT || kind == SheetData.BLANK) {
+                    return null;
+                }
+                if (kind == SheetData.NUMBER) {
+                    return sheet.getNumber(row, property);
+                }
+                return sheet.getCellString(row, property);
+        }
+    }
+
+    static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    static Double number(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean compare(String operator, Object value, Object literal) {
+        if (literal == null) {
+            switch (operator) {
+                case "eq": return value == null;
+                case "ne": return value != null;
+                default: return false;
+            }
+        }
+        int result;
+        if (literal instanceof Double) {
+            Double number = number(value);
+            if (number == null) {
+                // 숫자로 비교할 수 없는 값
+                return "ne".equals(operator);
+            }
+            result = Double.compare(number, (Double) literal);
+        } else {
+            result = text(value).compareTo(literal.toString());
+        }
+        switch (operator) {
+            case "eq": return result == 0;
+            case "ne": return result != 0;
+            case "gt": return result > 0;
+            case "ge": return result >= 0;
+            case "lt": return result < 0;
+            default: return result <= 0;
+        }
+    }
+
+    private interface Condition {
+        boolean test(SheetData sheet, int row);
+    }
+
+    // $filter 재귀 하강 파서 (or < and < not < 비교/함수/괄호)
+    private static final class FilterParser {
+        private static final Set<String> COMPARISONS = Set.of("eq", "ne", "gt", "ge", "lt", "le");
+        private static final Set<String> FUNCTIONS = Set.of("contains", "startswith", "endswith");
+
+        private final String text;
+        private final BitSet columns;
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        FilterParser(String text, BitSet columns) {
+            this.text = text;
+            this.columns = columns;
+            tokenize();
+        }
+
+        Condition parse() {
+            Condition condition = parseOr();
+            if (position < tokens.size()) {
+                throw error("unexpected '" + tokens.get(position) + "'");
+            }
+            return condition;
+        }
+
+        private Condition parseOr() {
+            Condition left = parseAnd();
+            while (acceptKeyword("or")) {
+                Condition a = left;
+                Condition b = parseAnd();
+                left = (sheet, row) -> a.test(sheet, row) || b.test(sheet, row);
+            }
+            return left;
+        }
+
+        private Condition parseAnd() {
+            Condition left = parseUnary();
+            while (acceptKeyword("and")) {
+                Condition a = left;
+                Condition b = parseUnary();
+                left = (sheet, row) -> a.test(sheet, row) && b.test(sheet, row);
+            }
+            return left;
+        }
+
+        private Condition parseUnary() {
+            if (acceptKeyword("not")) {
+                Condition inner = parseUnary();
+                return (sheet, row) -> !inner.test(sheet, row);
+            }
+            if (accept("(")) {
+                Condition inner = parseOr();
+                expect(")");
+                return inner;
+            }
+            String name = next();
+            if (FUNCTIONS.contains(name.toLowerCase()) && accept("(")) {
+                int property = readProperty(next());
+                expect(",");
+                Object literal = literal(next());
+                expect(")");
+                if (!(literal instanceof String)) {
+                    throw error(name + " needs a string literal");
+                }
+                String needle = (String) literal;
+                switch (name.toLowerCase()) {
+                    case "contains":
+                        return (sheet, row) -> text(value(sheet, row, property)).contains(needle);
+                    case "startswith":
+                        return (sheet, row) -> text(value(sheet, row, property)).startsWith(needle);
+                    default:
+                        return (sheet, row) -> text(value(sheet, row, property)).endsWith(needle);
+                }
+            }
+            int property = readProperty(name);
+            String operator = next().toLowerCase();
+            if (!COMPARISONS.contains(operator)) {
+                throw error("unknown operator '" + operator + "'");
+            }
+            Object literal = literal(next());
+            return (sheet, row) -> compare(operator, value(sheet, row, property), literal);
+        }
+
+        private int readProperty(String name) {
+            int property = property(name, "$filter");
+            if (property >= 0) {
+                columns.set(property);
+            }
+            return property;
+        }
+
+        private Object literal(String token) {
+            if (token.startsWith("'")) {
+                return token.substring(1, token.length() - 1).replace("''", "'");
+            }
+            switch (token) {
+                case "null": return null;
+                case "true": return "true";
+                case "false": return "false";
+                default:
+                    try {
+                        return Double.parseDouble(token);
+                    } catch (NumberFormatException e) {
+                        throw error("invalid literal '" + token + "'");
+                    }
+            }
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equals(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw error("expected '" + token + "'");
+            }
+        }
+
+        private String next() {
+            if (position >= tokens.size()) {
+                throw error("unexpected end");
+            }
+            return tokens.get(position++);
+        }
+
+        private void tokenize() {
+            int i = 0;
+            while (i < text.length()) {
+                char ch = text.charAt(i);
+                if (Character.isWhitespace(ch)) {
+                    i++;
+                } else if (ch == '(' || ch == ')' || ch == ',') {
+                    tokens.add(String.valueOf(ch));
+                    i++;
+                } else if (ch == '\'') {
+                    int end = i + 1;
+                    while (true) {
+                        end = text.indexOf('\'', end);
+                        if (end < 0) {
+                            throw error("unterminated string");
+                        }
+                        if (end + 1 < text.length() && text.charAt(end + 1) == '\'') {
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    tokens.add(text.substring(i, end + 1));
+                    i = end + 1;
+                } else {
+                    int start = i;
+                    while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                            && "(),'".indexOf(text.charAt(i)) < 0) {
+                        i++;
+                    }
+                    tokens.add(text.substring(start, i));
+                }
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid $filter: " + message);
+        }
+    }
+}
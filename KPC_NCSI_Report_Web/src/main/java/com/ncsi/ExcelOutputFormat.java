@@ -0,0 +1,83 @@
+package com.ncsi;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// 폴더 엑셀 데이터 응답 형식
+// format 파라미터가 있으면 그것을, 없으면 Accept 헤더에서 q 값이 높은 순으로 처음 지원하는 형식을 사용 (기본 json)
+public enum ExcelOutputFormat {
+    JSON("json", "application/json; charset=UTF-8"),
+    NDJSON("ndjson", "application/x-ndjson; charset=UTF-8"),
+    CSV("csv", "text/csv; charset=UTF-8"),
+    ARROW("arrow", "application/vnd.apache.arrow.stream");
+
+    public static final String ARROW_MEDIA_TYPE = "application/vnd.apache.arrow.stream";
+
+    private final String name;
+    private final String contentType;
+
+    ExcelOutputFormat(String name, String contentType) {
+        this.name = name;
+        this.contentType = contentType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // 머리줄/스키마를 먼저 써야 하는 형식 (열 목록을 미리 계산)
+    public boolean isTabular() {
+        return this == CSV || this == ARROW;
+    }
+
+    public static ExcelOutputFormat negotiate(String format, String accept) {
+        if (format != null && !format.isBlank()) {
+            for (ExcelOutputFormat value : values()) {
+                if (value.name.equalsIgnoreCase(format.trim())) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Invalid format: " + format + " (json | ndjson | csv | arrow)");
+        }
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        mediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            String type = mediaType.getType() + "/" + mediaType.getSubtype();
+            switch (type) {
+                case "application/x-ndjson":
+                case "application/ndjson":
+                    return NDJSON;
+                case "text/csv":
+                    return CSV;
+                case ARROW_MEDIA_TYPE:
+                    return ARROW;
+                case "application/json":
+                case "application/*":
+                case "*/*":
+                    return JSON;
+                default:
+                    break;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ncsi;
+
+import java.io.IOException;
+import java.util.*;
+
+// 한 페이지 분량의 행을 모으는 sink
+// 커서 위치 이전 행은 건너뛰고, pageSize 를 채운 뒤 처음 만나는 행의 위치를 다음 커서로 기록한다.
+// 시트 순번은 행이 있는 시트만 센다 (파싱 결과와 스냅샷에서 같은 값이 되도록).
+// headers 면 머리글 행은 페이지에 넣지 않지만 행 위치는 머리글을 포함해 센다.
+public class ExcelPage implements ExcelRowSink {
+
+    private final String folderPath;
+    private final boolean includeSubfolders;
+    private final int pageSize;
+    private final ExcelPageCursor start;
+    private final boolean typed;
+    private final ExcelHeaderRows headerRows;
+    private final List<Map<String, Object>> rows = new ArrayList<>();
+
+    // 현재 파일
+    private String relativePath;
+    private long size;
+    private long lastModified;
+    private boolean resuming;
+    private String sheetName;
+    private int sheetIndex;
+    private int rowIndex;
+
+    private ExcelPageCursor next;
+
+    public ExcelPage(String folderPath, boolean includeSubfolders, int pageSize, ExcelPageCursor start, boolean typed,
+                     boolean headers) {
+        this.folderPath = folderPath;
+        this.includeSubfolders = includeSubfolders;
+        this.pageSize = pageSize;
+        this.start = start;
+        this.typed = typed;
+        this.headerRows = new ExcelHeaderRows(headers, (sheet, row, names) -> rows.add(sheet.toRowMap(row, typed, names)));
+    }
+
+    // 파일 시작 (resuming: 커서가 가리키는 파일, 이전 페이지 이후 바뀌었으면 행 위치가 맞지 않으므로 거부)
+    public void startFile(String relativePath, long size, long lastModified, boolean resuming) {
+        if (resuming && (size != start.size || lastModified != start.lastModified)) {
+            throw new IllegalArgumentException("Cursor is stale: " + relativePath + " has changed since the previous page");
+        }
+        this.relativePath = relativePath;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.resuming = resuming;
+        this.sheetName = null;
+        this.sheetIndex = -1;
+        this.rowIndex = 0;
+    }
+
+    @Override
+    public void row(SheetData sheet, int row) throws IOException {
+        if (!sheet.getSheetName().equals(sheetName)) {
+            sheetName = sheet.getSheetName();
+            sheetIndex++;
+            rowIndex = 0;
+        }
+        int position = rowIndex++;
+        if (next != null) {
+            return;
+        }
+        if (resuming && start.isBefore(sheetIndex, position)) {
+            // 건너뛰는 행도 머리글 판단에는 필요
+            headerRows.skip(sheet, row);
+            return;
+        }
+        if (rows.size() < pageSize) {
+            headerRows.row(sheet, row);
+        } else {
+            next = new ExcelPageCursor(folderPath, includeSubfolders, relativePath, size, lastModified, sheetIndex, position);
+        }
+    }
+
+    public boolean hasMore() {
+        return next != null;
+    }
+
+    public Map<String, Object> toResponse() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", rows);
+        response.put("pageSize", pageSize);
+        response.put("hasMore", next != null);
+        response.put("nextCursor", next != null ? next.encode() : null);
+        return response;
+    }
+}
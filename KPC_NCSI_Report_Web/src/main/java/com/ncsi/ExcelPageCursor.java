@@ -0,0 +1,62 @@
+package com.ncsi;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// folder-excel-data 페이지 커서 (다음 페이지의 첫 행 위치)
+// 조회 조건(폴더, 하위 포함 여부) + 파일(상대 경로, 크기, 수정 시각) + 시트 순번 + 시트 안의 행 순번
+// 클라이언트에는 base64url 문자열로만 전달한다 (형식은 버전 접두사로 구분).
+public class ExcelPageCursor {
+
+    private static final String VERSION = "1";
+    private static final String SEPARATOR = "\n";
+
+    final String folderPath;
+    final boolean includeSubfolders;
+    final String relativePath;
+    final long size;
+    final long lastModified;
+    final int sheetIndex;
+    final int rowIndex;
+
+    public ExcelPageCursor(String folderPath, boolean includeSubfolders, String relativePath, long size, long lastModified,
+                           int sheetIndex, int rowIndex) {
+        this.folderPath = folderPath;
+        this.includeSubfolders = includeSubfolders;
+        this.relativePath = relativePath;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.sheetIndex = sheetIndex;
+        this.rowIndex = rowIndex;
+    }
+
+    public boolean matchesQuery(String folderPath, boolean includeSubfolders) {
+        return this.folderPath.equals(folderPath) && this.includeSubfolders == includeSubfolders;
+    }
+
+    // (시트 순번, 행 순번) 이 커서 위치보다 앞이면 이미 전달된 행
+    public boolean isBefore(int sheetIndex, int rowIndex) {
+        return sheetIndex < this.sheetIndex || (sheetIndex == this.sheetIndex && rowIndex < this.rowIndex);
+    }
+
+    public String encode() {
+        String value = String.join(SEPARATOR, VERSION, folderPath, String.valueOf(includeSubfolders), relativePath,
+                String.valueOf(size), String.valueOf(lastModified), String.valueOf(sheetIndex), String.valueOf(rowIndex));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExcelPageCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split(SEPARATOR, -1);
+            if (parts.length != 8 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ExcelPageCursor(parts[1], Boolean.parseBoolean(parts[2]), parts[3], Long.parseLong(parts[4]),
+                    Long.parseLong(parts[5]), Integer.parseInt(parts[6]), Integer.parseInt(parts[7]));
+        } catch (IllegalArgumentException e) {
+            // Base64/숫자 형식 오류 포함
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.ncsi;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 파싱된 엑셀 시트 데이터 캐시
+// 키: 상대 경로 + 파일 크기 + 수정 시각 (파일이 바뀌면 자연히 미스)
+// 전체 크기가 max-bytes 를 넘으면 가장 오래 사용하지 않은 항목부터 제거 (LRU)
+@Component
+public class ExcelParseCache {
+
+    @Value("${ncsi.excel.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ncsi.excel.cache.max-bytes:268435456}")
+    private long maxBytes;
+
+    private final LinkedHashMap<CacheKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled && maxBytes > 0;
+    }
+
+    // 한 항목이 차지할 수 있는 최대 크기 (이보다 크면 캐시하지 않음)
+    public long getMaxEntryBytes() {
+        return maxBytes / 4;
+    }
+
+    // 캐시된 시트 목록 (읽기 전용으로만 사용), 없으면 null
+    public synchronized List<SheetData> get(CacheKey key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry.sheets;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public synchronized void put(CacheKey key, List<SheetData> sheets) {
+        Entry workbook = new Entry(sheets);
+        if (workbook.estimatedBytes > getMaxEntryBytes()) {
+            rejected.incrementAndGet();
+            return;
+        }
+        // 같은 파일의 이전 버전 제거
+        removeMatching(key.relativePath, false);
+
+        entries.put(key, workbook);
+        currentBytes += workbook.estimatedBytes;
+
+        Iterator<Map.Entry<CacheKey, Entry>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<CacheKey, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            currentBytes -= eldest.getValue().estimatedBytes;
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    // 파일 또는 폴더(하위 전체) 경로에 해당하는 항목 제거
+    public synchronized void invalidate(String relativePath) {
+        invalidations.addAndGet(removeMatching(relativePath, true));
+    }
+
+    public synchronized void clear() {
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    private int removeMatching(String relativePath, boolean includeChildren) {
+        String prefix = relativePath.isEmpty() || relativePath.endsWith("/") ? relativePath : relativePath + "/";
+        int removed = 0;
+        Iterator<Map.Entry<CacheKey, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CacheKey, Entry> entry = iterator.next();
+            String path = entry.getKey().relativePath;
+            if (path.equals(relativePath) || (includeChildren && path.startsWith(prefix))) {
+                currentBytes -= entry.getValue().estimatedBytes;
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("entries", entries.size());
+        stats.put("currentBytes", currentBytes);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("rejected", rejected.get());
+        long lookups = hits.get() + misses.get();
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hits.get() / lookups);
+        return stats;
+    }
+
+    // 캐시 키 (상대 경로, 크기, 수정 시각)
+    public static final class CacheKey {
+        final String relativePath;
+        final long size;
+        final long lastModified;
+
+        public CacheKey(String relativePath, long size, long lastModified) {
+            this.relativePath = relativePath;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey other = (CacheKey) o;
+            return size == other.size && lastModified == other.lastModified && relativePath.equals(other.relativePath);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(relativePath, size, lastModified);
+        }
+    }
+
+    // 캐시 항목 (시트 목록 + 예상 크기)
+    private static final class Entry {
+        final List<SheetData> sheets;
+        final long estimatedBytes;
+
+        Entry(List<SheetData> sheets) {
+            this.sheets = sheets;
+            long bytes = 0;
+            for (SheetData sheet : sheets) {
+                bytes += sheet.getEstimatedBytes();
+            }
+            this.estimatedBytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ncsi;
+
+import lombok.Data;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 폴더 엑셀 데이터 조회 옵션 (요청 파라미터 → FileService)
+@Data
+public class ExcelReadOptions {
+    // dom | streaming (null 이면 ncsi.excel.read-mode)
+    private String readMode;
+
+    // 파싱 결과 캐시 사용 여부
+    private boolean useCache = true;
+
+    // 요청별 동시 파싱 수 (null 이면 ncsi.excel.request-parallelism, 1 이면 순차)
+    private Integer parallelism;
+
+    // 값을 읽을 열 (0 기반, null 이면 전체). 지정하면 파싱 결과를 캐시/스냅샷에 남기지 않는다
+    private BitSet columns;
+
+    // 행 조건 (null 이면 전체). 맞지 않는 행은 파싱 중에 버려 보관/전달하지 않으며, 파싱 결과를 캐시/스냅샷에 남기지 않는다
+    private ExcelRowFilter rowFilter;
+
+    // 이 시각(ms) 이후 수정된 파일만 읽음 (null 이면 전체)
+    private Long modifiedSince;
+
+    // 시트의 머리글 행을 찾아 ColumnN 대신 열 이름으로 사용 (머리글 행은 결과에서 제외)
+    private boolean headers;
+
+    // 비동기 작업의 진행 상황 (null 이면 기록하지 않음)
+    private ExcelJobProgress progress;
+
+    // 요청 처리 중단 신호: 응답 쓰기 실패나 작업 취소로 처리가 끝나면 켜지고, 실행 중인 파일 파싱이 다음 행에서 멈춘다
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    // string: 기존 문자열 값 (수식 셀은 수식 문자열) | typed: 숫자/논리/ISO 날짜, 수식 셀은 캐시된 결과
+    private String valueMode = "string";
+
+    public void setValueMode(String valueMode) {
+        if (valueMode == null || valueMode.isBlank()) {
+            valueMode = "string";
+        }
+        if (!"string".equalsIgnoreCase(valueMode) && !"typed".equalsIgnoreCase(valueMode)) {
+            throw new IllegalArgumentException("Invalid valueMode: " + valueMode + " (string | typed)");
+        }
+        this.valueMode = valueMode.toLowerCase();
+    }
+
+    public boolean isTypedValues() {
+        return "typed".equals(valueMode);
+    }
+}
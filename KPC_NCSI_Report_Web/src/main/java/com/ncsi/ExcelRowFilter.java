@@ -0,0 +1,7 @@
+package com.ncsi;
+
+// 행 조건 (OData $filter 등). 파싱 중 행이 끝날 때 SheetData 버퍼에서 평가한다.
+public interface ExcelRowFilter {
+
+    boolean matches(SheetData sheet, int row);
+}
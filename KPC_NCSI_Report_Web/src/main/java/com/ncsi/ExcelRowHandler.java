@@ -0,0 +1,30 @@
+package com.ncsi;
+
+// 엑셀 리더(DOM / 스트리밍)가 시트, 행, 셀을 순서대로 전달하는 콜백
+public interface ExcelRowHandler {
+
+    // 새 시트 시작 (date1904: 워크북이 1904 날짜 체계를 쓰는지)
+    void startSheet(String sheetName, boolean date1904);
+
+    // 새 행 시작 (rowNumber는 1부터)
+    void startRow(int rowNumber);
+
+    // 셀 하나 (kind 는 SheetData 의 셀 종류, 값은 kind 에 따라 number 또는 text)
+    void cell(int column, byte kind, double number, String text);
+
+    // 직전 FORMULA 셀에 파일이 캐시해 둔 계산 결과 (NUMBER/DATE/BOOLEAN/STRING, 결과가 없으면 호출하지 않음)
+    default void formulaResult(int column, byte kind, double number, String text) {
+    }
+
+    // 직전 셀의 스타일 (.xlsx 스트리밍 리더만, styles.xml 의 cellXfs 인덱스)
+    default void cellStyle(int column, int styleIndex) {
+    }
+
+    // 행 끝
+    void endRow();
+
+    // 값을 읽을 열인지 (false 면 리더가 값을 해석하지 않고 ABSENT 로 전달)
+    default boolean wantsCell(int column) {
+        return true;
+    }
+}
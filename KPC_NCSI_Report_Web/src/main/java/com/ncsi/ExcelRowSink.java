@@ -0,0 +1,10 @@
+package com.ncsi;
+
+import java.io.IOException;
+
+// 파싱된 행을 받는 쪽 (응답 직렬화, 목록 수집 등)
+// sheet 는 스트리밍 중에는 재사용되는 버퍼일 수 있으므로 호출 안에서만 사용해야 한다.
+public interface ExcelRowSink {
+
+    void row(SheetData sheet, int row) throws IOException;
+}
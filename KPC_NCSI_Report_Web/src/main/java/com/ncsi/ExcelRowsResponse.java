@@ -0,0 +1,48 @@
+package com.ncsi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+// 시트 목록을 기존 행 배열 JSON 으로 직렬화하는 응답 본문
+// 행 Map 을 만들지 않고 SheetData 에서 바로 기록한다.
+public class ExcelRowsResponse extends JsonSerializable.Base {
+
+    private final List<SheetData> sheets;
+    private final boolean typed;
+    private final boolean headers;
+
+    public ExcelRowsResponse(List<SheetData> sheets) {
+        this(sheets, false, false);
+    }
+
+    // typed: 셀 값을 숫자/논리/날짜 그대로 기록 (SheetData.getCellValue)
+    // headers: 시트의 머리글 행을 열 이름으로 사용 (ExcelHeaderRows)
+    public ExcelRowsResponse(List<SheetData> sheets, boolean typed, boolean headers) {
+        this.sheets = sheets;
+        this.typed = typed;
+        this.headers = headers;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartArray();
+        ExcelHeaderRows rows = new ExcelHeaderRows(headers,
+                (sheet, row, names) -> sheet.writeRowJson(row, generator, typed, names));
+        for (SheetData sheet : sheets) {
+            for (int row = 0; row < sheet.getRowCount(); row++) {
+                rows.row(sheet, row);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, provider);
+    }
+}
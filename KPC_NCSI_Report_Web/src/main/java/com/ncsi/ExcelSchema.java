@@ -0,0 +1,284 @@
+package com.ncsi;
+
+import java.util.*;
+
+// 엑셀 파일 하나의 시트별 스키마 (머리글 행, 열 이름, 열 형식)
+// 머리글: 시트에서 처음으로 값이 있는 행의 값이 모두 문자열이면 머리글로 본다 (ExcelHeaderRows 와 같은 규칙).
+//         그 이전의 빈 행은 데이터 행으로 세지 않는다.
+// 형식: 머리글 아래 행을 sample-rows 만큼 보고 typed 값 기준으로 integer / number / datetime / boolean / string,
+//       값이 하나도 없으면 null. 서로 다른 형식이 섞이면 integer+number 는 number, 나머지는 string.
+public class ExcelSchema {
+
+    // 응답 행의 고정 키 (머리글 이름과 겹치면 뒤에 _2 등을 붙임)
+    private static final Set<String> RESERVED = Set.of("FileName", "RelativePath", "SheetName", "RowNumber");
+
+    private final String relativePath;
+    private final String fileName;
+    private final long size;
+    private final long lastModified;
+    private final List<SheetSchema> sheets = new ArrayList<>();
+
+    private ExcelSchema(String relativePath, String fileName, long size, long lastModified) {
+        this.relativePath = relativePath;
+        this.fileName = fileName;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    // 파싱된 시트 목록에서 스키마 추론 (sampleRows <= 0 이면 전체 행)
+    // 스냅샷에서 블록으로 나뉘어 읽힌 시트는 이름이 같은 연속 블록을 한 시트로 합쳐 본다
+    public static ExcelSchema infer(String relativePath, String fileName, long size, long lastModified,
+                                    List<SheetData> sheets, int sampleRows) {
+        ExcelSchema schema = new ExcelSchema(relativePath, fileName, size, lastModified);
+        SheetSchema current = null;
+        for (SheetData sheet : sheets) {
+            if (current == null || !current.sheetName.equals(sheet.getSheetName())) {
+                current = new SheetSchema(sheet.getSheetName());
+                schema.sheets.add(current);
+            }
+            for (int row = 0; row < sheet.getRowCount(); row++) {
+                current.accept(sheet, row, sampleRows);
+            }
+        }
+        return schema;
+    }
+
+    // 행에 값(빈 셀이 아닌 셀)이 하나라도 있는지
+    public static boolean hasValues(SheetData sheet, int row) {
+        for (int column = 0; column < sheet.getRowWidth(row); column++) {
+            byte kind = sheet.getKind(row, column);
+            if (kind != SheetData.ABSENT && kind != SheetData.BLANK) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 값이 있는 셀이 모두 문자열인 행
+    public static boolean isHeaderRow(SheetData sheet, int row) {
+        boolean hasText = false;
+        for (int column = 0; column < sheet.getRowWidth(row); column++) {
+            byte kind = sheet.getKind(row, column);
+            if (kind == SheetData.STRING) {
+                hasText = true;
+            } else if (kind != SheetData.ABSENT && kind != SheetData.BLANK) {
+                return false;
+            }
+        }
+        return hasText;
+    }
+
+    // 머리글 행의 열 이름 (빈 칸은 ColumnN, 중복/고정 키와 겹치면 _2, _3 ...)
+    public static String[] headerNames(SheetData sheet, int row) {
+        int width = sheet.getRowWidth(row);
+        String[] names = new String[width];
+        Set<String> used = new HashSet<>(RESERVED);
+        for (int column = 0; column < width; column++) {
+            String text = sheet.getKind(row, column) == SheetData.STRING ? sheet.getText(row, column).trim() : "";
+            String name = text.isEmpty() ? SheetData.columnKey(column) : text;
+            String unique = name;
+            for (int suffix = 2; !used.add(unique); suffix++) {
+                unique = name + "_" + suffix;
+            }
+            names[column] = unique;
+        }
+        return names;
+    }
+
+    public String getRelativePath() {
+        return relativePath;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public Map<String, Object> toMap() {
+        List<Map<String, Object>> sheetMaps = new ArrayList<>();
+        for (SheetSchema sheet : sheets) {
+            sheetMaps.add(sheet.toMap());
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("FileName", fileName);
+        map.put("RelativePath", relativePath);
+        map.put("Size", size);
+        map.put("LastModified", lastModified);
+        map.put("sheets", sheetMaps);
+        return map;
+    }
+
+    // 폴더 전체의 열 목록: 이름 기준으로 처음 나온 순서대로 합치고 형식은 넓은 쪽으로
+    // nullable 은 빈 값이 있었거나 해당 열이 없는 시트가 있으면 true
+    public static List<Map<String, Object>> merge(List<ExcelSchema> schemas) {
+        Map<String, MergedColumn> merged = new LinkedHashMap<>();
+        int sheetCount = 0;
+        for (ExcelSchema schema : schemas) {
+            for (SheetSchema sheet : schema.sheets) {
+                if (sheet.dataRows == 0 && sheet.headerRow == null) {
+                    continue;
+                }
+                sheetCount++;
+                for (ColumnSchema column : sheet.columns()) {
+                    MergedColumn target = merged.computeIfAbsent(column.name, MergedColumn::new);
+                    target.type = widen(target.type, column.type);
+                    target.nullable |= column.nullable;
+                    target.sheets++;
+                    target.files.add(schema.relativePath);
+                }
+            }
+        }
+        List<Map<String, Object>> columns = new ArrayList<>();
+        for (MergedColumn column : merged.values()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", column.name);
+            map.put("type", column.type);
+            map.put("nullable", column.nullable || column.sheets < sheetCount);
+            map.put("fileCount", column.files.size());
+            columns.add(map);
+        }
+        return columns;
+    }
+
+    static String widen(String a, String b) {
+        if (a == null) return b;
+        if (b == null || a.equals(b)) return a;
+        if ((a.equals("integer") && b.equals("number")) || (a.equals("number") && b.equals("integer"))) {
+            return "number";
+        }
+        return "string";
+    }
+
+    // typed 값 기준 셀 형식 (수식은 캐시된 결과, 값이 없으면 null)
+    static String cellType(SheetData sheet, int row, int column) {
+        byte kind = sheet.getKind(row, column);
+        if (kind == SheetData.FORMULA) {
+            kind = sheet.getResultKind(row, column);
+        }
+        switch (kind) {
+            case SheetData.STRING:
+                return "string";
+            case SheetData.NUMBER:
+                double value = sheet.getNumber(row, column);
+                return value == Math.rint(value) && !Double.isInfinite(value) ? "integer" : "number";
+            case SheetData.DATE:
+                return "datetime";
+            case SheetData.BOOLEAN:
+                return "boolean";
+            default:
+                return null;
+        }
+    }
+
+    // 시트 하나 (머리글 판단 → 데이터 행 형식 누적)
+    private static final class SheetSchema {
+        final String sheetName;
+        Integer headerRow;
+        String[] names;
+        boolean decided;
+        long dataRows;
+        long sampledRows;
+        // 표본 밖 행까지 포함한 최대 열 수
+        int width;
+        final List<String> types = new ArrayList<>();
+        // 열마다 표본 중 값이 있었던 행 수
+        final List<Long> valueCounts = new ArrayList<>();
+
+        SheetSchema(String sheetName) {
+            this.sheetName = sheetName;
+        }
+
+        void accept(SheetData sheet, int row, int sampleRows) {
+            if (!decided) {
+                // 첫 값 있는 행 이전의 빈 행은 데이터로 보지 않음
+                if (!hasValues(sheet, row)) {
+                    return;
+                }
+                decided = true;
+                if (isHeaderRow(sheet, row)) {
+                    headerRow = sheet.getRowNumber(row);
+                    names = headerNames(sheet, row);
+                    return;
+                }
+            }
+            dataRows++;
+            width = Math.max(width, sheet.getRowWidth(row));
+            if (sampleRows > 0 && sampledRows >= sampleRows) {
+                return;
+            }
+            sampledRows++;
+            int width = sheet.getRowWidth(row);
+            while (types.size() < width) {
+                types.add(null);
+                valueCounts.add(0L);
+            }
+            for (int column = 0; column < width; column++) {
+                String type = cellType(sheet, row, column);
+                if (type != null) {
+                    types.set(column, widen(types.get(column), type));
+                    valueCounts.set(column, valueCounts.get(column) + 1);
+                }
+            }
+        }
+
+        List<ColumnSchema> columns() {
+            int width = Math.max(this.width, names != null ? names.length : 0);
+            List<ColumnSchema> columns = new ArrayList<>(width);
+            for (int column = 0; column < width; column++) {
+                String name = names != null && column < names.length ? names[column] : SheetData.columnKey(column);
+                String type = column < types.size() ? types.get(column) : null;
+                long values = column < valueCounts.size() ? valueCounts.get(column) : 0;
+                columns.add(new ColumnSchema(name, column, type, values < sampledRows));
+            }
+            return columns;
+        }
+
+        Map<String, Object> toMap() {
+            List<Map<String, Object>> columnMaps = new ArrayList<>();
+            for (ColumnSchema column : columns()) {
+                Map<String, Object> map = new LinkedHashMap<>();
+                map.put("name", column.name);
+                map.put("column", SheetData.columnKey(column.index));
+                map.put("type", column.type);
+                map.put("nullable", column.nullable);
+                columnMaps.add(map);
+            }
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("SheetName", sheetName);
+            map.put("headerRow", headerRow);
+            map.put("rowCount", dataRows);
+            map.put("sampledRows", sampledRows);
+            map.put("columns", columnMaps);
+            return map;
+        }
+    }
+
+    private static final class ColumnSchema {
+        final String name;
+        final int index;
+        final String type;
+        final boolean nullable;
+
+        ColumnSchema(String name, int index, String type, boolean nullable) {
+            this.name = name;
+            this.index = index;
+            this.type = type;
+            this.nullable = nullable;
+        }
+    }
+
+    private static final class MergedColumn {
+        final String name;
+        String type;
+        boolean nullable;
+        int sheets;
+        final Set<String> files = new HashSet<>();
+
+        MergedColumn(String name) {
+            this.name = name;
+        }
+    }
+}
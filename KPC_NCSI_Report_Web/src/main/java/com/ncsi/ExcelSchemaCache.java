@@ -0,0 +1,82 @@
+package com.ncsi;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 파일별 추론 스키마 캐시
+// 키: 파싱 캐시와 같은 (상대 경로, 크기, 수정 시각), 항목 수가 max-entries 를 넘으면 LRU 로 제거
+// 스키마는 작으므로 파싱 캐시에서 밀려난 파일도 스키마는 계속 남는다
+@Component
+public class ExcelSchemaCache {
+
+    @Value("${ncsi.excel.schema.cache-entries:10000}")
+    private int maxEntries;
+
+    private final LinkedHashMap<ExcelParseCache.CacheKey, ExcelSchema> entries = new LinkedHashMap<>(64, 0.75f, true);
+    // 상대 경로 → 현재 캐시된 버전의 키 (파일마다 항목은 하나)
+    private final Map<String, ExcelParseCache.CacheKey> keysByPath = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public synchronized ExcelSchema get(ExcelParseCache.CacheKey key) {
+        ExcelSchema schema = entries.get(key);
+        if (schema != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return schema;
+    }
+
+    public synchronized void put(ExcelParseCache.CacheKey key, ExcelSchema schema) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        // 같은 파일의 이전 버전 제거
+        ExcelParseCache.CacheKey previous = keysByPath.put(key.relativePath, key);
+        if (previous != null && !previous.equals(key)) {
+            entries.remove(previous);
+        }
+        entries.put(key, schema);
+        Iterator<ExcelParseCache.CacheKey> iterator = entries.keySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            keysByPath.remove(iterator.next().relativePath);
+            iterator.remove();
+        }
+    }
+
+    // 파일 또는 폴더(하위 전체) 경로에 해당하는 항목 제거
+    public synchronized void invalidate(String relativePath) {
+        String prefix = relativePath.isEmpty() || relativePath.endsWith("/") ? relativePath : relativePath + "/";
+        int before = entries.size();
+        keysByPath.values().removeIf(key -> {
+            if (key.relativePath.equals(relativePath) || key.relativePath.startsWith(prefix)) {
+                entries.remove(key);
+                return true;
+            }
+            return false;
+        });
+        invalidations.addAndGet(before - entries.size());
+    }
+
+    public synchronized void clear() {
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+        keysByPath.clear();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+}
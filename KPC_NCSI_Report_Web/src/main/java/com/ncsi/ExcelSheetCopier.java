@@ -0,0 +1,104 @@
+package com.ncsi;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.model.StylesTable;
+
+// 스트리밍 리더(.xlsx)가 전달하는 셀을 합친 워크북의 시트에 기록 (FileService.writeCombinedExcelFile)
+// DOM 복사(FileService.copySheet)와 같은 규칙: 날짜는 원본 날짜 체계로 해석한 날짜, 수식은 수식 문자열과 캐시된 결과,
+// 빈 셀/오류 셀은 값 없이 스타일만, 스타일은 대상 워크북 스타일로 매핑
+public class ExcelSheetCopier implements ExcelRowHandler {
+
+    private final Sheet target;
+    private final ExcelStyleCache styles;
+    private final StylesTable sourceStyles;
+
+    private boolean date1904;
+    private Row row;
+    private Cell cell;
+    private long rows;
+
+    public ExcelSheetCopier(Sheet target, ExcelStyleCache styles, StylesTable sourceStyles) {
+        this.target = target;
+        this.styles = styles;
+        this.sourceStyles = sourceStyles;
+    }
+
+    // 기록한 행 수 (진행 상황용)
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void startSheet(String sheetName, boolean date1904) {
+        this.date1904 = date1904;
+    }
+
+    @Override
+    public void startRow(int rowNumber) {
+        row = target.createRow(rowNumber - 1);
+        rows++;
+    }
+
+    @Override
+    public void cell(int column, byte kind, double number, String text) {
+        cell = row.createCell(column);
+        switch (kind) {
+            case SheetData.STRING:
+                cell.setCellValue(text);
+                break;
+            case SheetData.NUMBER:
+                cell.setCellValue(number);
+                break;
+            case SheetData.DATE:
+                cell.setCellValue(DateUtil.getJavaDate(number, date1904));
+                break;
+            case SheetData.BOOLEAN:
+                cell.setCellValue(number != 0);
+                break;
+            case SheetData.FORMULA:
+                cell.setCellFormula(text);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void formulaResult(int column, byte kind, double number, String text) {
+        switch (kind) {
+            case SheetData.NUMBER:
+            case SheetData.DATE:
+                cell.setCellValue(number);
+                break;
+            case SheetData.STRING:
+                cell.setCellValue(text);
+                break;
+            case SheetData.BOOLEAN:
+                cell.setCellValue(number != 0);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void cellStyle(int column, int styleIndex) {
+        if (sourceStyles == null) {
+            return;
+        }
+        CellStyle style = styles.map(sourceStyles, styleIndex);
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+    }
+
+    @Override
+    public void endRow() {
+        row = null;
+        cell = null;
+    }
+}
@@ -0,0 +1,483 @@
+package com.ncsi;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// 파싱된 워크북의 디스크 스냅샷 (열 단위 바이너리, POI 없이 mmap 으로 다시 읽음)
+// 재시작 후나 메모리 캐시에서 밀려난 파일도 다시 파싱하지 않도록 캐시 디렉토리(데이터 폴더 밖)에 저장한다.
+// 원본 파일의 크기 또는 수정 시각이 헤더와 다르면 무효 (다음 파싱 때 새로 기록).
+//
+// 파일 형식 (버전 2, 빅엔디언, string = int 바이트 길이 + UTF-8, 길이 -1 은 null)
+//   헤더   int magic "NCSS", int version, long 원본 크기, long 원본 수정 시각(ms), string relativePath, string fileName
+//   블록*  byte 1, string sheetName, byte date1904, int 행 수 R, int 열 수 C,
+//          int[R] rowNumbers, int[R] rowWidths,
+//          열마다 { int K, byte[K] kinds, int N(-1 = 없음), double[N] numbers, int T(-1 = 없음), string[T] texts,
+//                   int RK(-1 = 없음), byte[RK] 수식 결과 종류, int RT(-1 = 없음), string[RT] 문자열 수식 결과 }
+//   끝     byte 0, int 블록 수, int magic "NCSE"
+// 한 시트가 연속된 여러 블록으로 나뉠 수 있다 (큰 파일은 block-rows 행 단위로 기록).
+// 형식이 바뀌면 FORMAT_VERSION 을 올린다 (이전 버전 파일은 무효로 보고 다시 기록).
+@Component
+public class ExcelSnapshotStore {
+
+    public static final int FORMAT_VERSION = 2;
+
+    private static final int MAGIC = 0x4E435353;         // "NCSS"
+    private static final int TRAILER_MAGIC = 0x4E435345; // "NCSE"
+    private static final byte BLOCK = 1;
+    private static final byte END = 0;
+    private static final String EXTENSION = ".ncs";
+
+    @Value("${ncsi.excel.snapshot.enabled:true}")
+    private boolean enabled;
+
+    // 스냅샷 저장 폴더 (DATA_DIR 밖)
+    @Value("${ncsi.excel.snapshot.dir:/home/ubuntu/.ncsi-cache/snapshots}")
+    private String directory;
+
+    // 스트리밍 기록 시 블록당 최대 행 수
+    @Value("${ncsi.excel.snapshot.block-rows:65536}")
+    private int blockRows;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 유효한 스냅샷의 블록을 순서대로 전달, 스냅샷이 없거나 원본과 다르면 false
+    public boolean read(ExcelParseCache.CacheKey key, Consumer<SheetData> consumer) throws IOException {
+        ByteBuffer buffer = map(key);
+        if (buffer == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        hits.incrementAndGet();
+        BlockReader reader = new BlockReader(buffer);
+        String fileName = reader.readHeader();
+        try {
+            int blocks = 0;
+            while (buffer.get() == BLOCK) {
+                consumer.accept(reader.readBlock(fileName, key.relativePath));
+                blocks++;
+            }
+            if (buffer.getInt() != blocks) {
+                throw new IOException("block count mismatch");
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            Files.deleteIfExists(snapshotPath(key.relativePath));
+            throw new IOException("Corrupt snapshot for " + key.relativePath, e);
+        }
+        return true;
+    }
+
+    // 스냅샷 전체를 시트 목록으로 읽음, 없으면 null
+    public List<SheetData> load(ExcelParseCache.CacheKey key) throws IOException {
+        List<SheetData> sheets = new ArrayList<>();
+        return read(key, sheets::add) ? sheets : null;
+    }
+
+    // 파싱이 끝난 시트 목록을 스냅샷으로 기록 (실패해도 요청은 계속)
+    public void write(ExcelParseCache.CacheKey key, String fileName, List<SheetData> sheets) {
+        Writer writer = openWriter(key, fileName);
+        if (writer == null) {
+            return;
+        }
+        try {
+            for (SheetData sheet : sheets) {
+                writer.writeBlock(sheet, sheet.getRowCount());
+            }
+            writer.finish();
+        } catch (IOException e) {
+            writer.abort(e);
+        }
+    }
+
+    // 행 단위로 받아 블록으로 기록하는 writer (스트리밍 파싱과 함께 사용), 비활성/실패 시 null
+    public Writer openWriter(ExcelParseCache.CacheKey key, String fileName) {
+        if (!enabled || key == null) {
+            return null;
+        }
+        try {
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, "snapshot", ".tmp");
+            return new Writer(key, fileName, temp);
+        } catch (IOException e) {
+            writeFailures.incrementAndGet();
+            System.err.println("Error creating Excel snapshot: " + key.relativePath + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    // 파일(folder=true 면 하위 전체) 스냅샷 삭제
+    public void invalidate(String relativePath, boolean folder) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (Files.deleteIfExists(snapshotPath(relativePath))) {
+                invalidations.incrementAndGet();
+            }
+            if (!folder) {
+                return;
+            }
+            String prefix = relativePath.isEmpty() || relativePath.endsWith("/") ? relativePath : relativePath + "/";
+            for (Path snapshot : listSnapshots()) {
+                String snapshotPath = readRelativePath(snapshot);
+                if (snapshotPath != null && snapshotPath.startsWith(prefix) && Files.deleteIfExists(snapshot)) {
+                    invalidations.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error deleting Excel snapshot: " + relativePath + " - " + e.getMessage());
+        }
+    }
+
+    // 모든 스냅샷 삭제, 삭제한 파일 수 반환
+    public int clear() throws IOException {
+        int removed = 0;
+        for (Path snapshot : listSnapshots()) {
+            if (Files.deleteIfExists(snapshot)) {
+                removed++;
+            }
+        }
+        invalidations.addAndGet(removed);
+        return removed;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("directory", directory);
+        stats.put("formatVersion", FORMAT_VERSION);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("writes", writes.get());
+        stats.put("writeFailures", writeFailures.get());
+        stats.put("bytesWritten", bytesWritten.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    // 상대 경로마다 하나의 스냅샷 파일
+    private Path snapshotPath(String relativePath) {
+        String name = UUID.nameUUIDFromBytes(relativePath.getBytes(StandardCharsets.UTF_8)).toString();
+        return Paths.get(directory, name + EXTENSION);
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+            for (Path path : stream) {
+                snapshots.add(path);
+            }
+        }
+        return snapshots;
+    }
+
+    // 헤더의 relativePath 만 읽음 (형식이 다르면 null)
+    private String readRelativePath(Path snapshot) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            in.readLong();
+            in.readLong();
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // 원본과 일치하는 완전한 스냅샷이면 읽기 전용 매핑, 아니면 null
+    private ByteBuffer map(ExcelParseCache.CacheKey key) throws IOException {
+        if (!enabled) {
+            return null;
+        }
+        Path snapshot = snapshotPath(key.relativePath);
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 32 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            if (buffer.getInt(buffer.limit() - 4) != TRAILER_MAGIC
+                    || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION
+                    || buffer.getLong(8) != key.size || buffer.getLong(16) != key.lastModified) {
+                return null;
+            }
+            buffer.position(24);
+            if (!key.relativePath.equals(new BlockReader(buffer).readString())) {
+                return null;
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        buffer.position(0);
+        return buffer;
+    }
+
+    // 매핑된 버퍼에서 헤더/블록 읽기
+    private static final class BlockReader {
+        private final ByteBuffer buffer;
+        private byte[] scratch = new byte[256];
+
+        BlockReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        // 헤더를 건너뛰고 fileName 반환
+        String readHeader() {
+            buffer.position(24);
+            readString();
+            return readString();
+        }
+
+        SheetData readBlock(String fileName, String relativePath) {
+            String sheetName = readString();
+            boolean date1904 = buffer.get() != 0;
+            int rowCount = buffer.getInt();
+            int columnCount = buffer.getInt();
+            int[] rowNumbers = readInts(rowCount);
+            int[] rowWidths = readInts(rowCount);
+            byte[][] kinds = new byte[columnCount][];
+            double[][] numbers = new double[columnCount][];
+            String[][] texts = new String[columnCount][];
+            byte[][] results = new byte[columnCount][];
+            String[][] resultTexts = new String[columnCount][];
+            for (int column = 0; column < columnCount; column++) {
+                kinds[column] = new byte[buffer.getInt()];
+                buffer.get(kinds[column]);
+                int numberCount = buffer.getInt();
+                if (numberCount >= 0) {
+                    numbers[column] = new double[numberCount];
+                    buffer.asDoubleBuffer().get(numbers[column]);
+                    buffer.position(buffer.position() + numberCount * 8);
+                }
+                texts[column] = readStrings();
+                int resultCount = buffer.getInt();
+                if (resultCount >= 0) {
+                    results[column] = new byte[resultCount];
+                    buffer.get(results[column]);
+                }
+                resultTexts[column] = readStrings();
+            }
+            return SheetData.restore(fileName, relativePath, sheetName, date1904, rowNumbers, rowWidths, kinds, numbers, texts,
+                    results, resultTexts);
+        }
+
+        private String[] readStrings() {
+            int count = buffer.getInt();
+            if (count < 0) {
+                return null;
+            }
+            String[] values = new String[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = readString();
+            }
+            return values;
+        }
+
+        private int[] readInts(int count) {
+            int[] values = new int[count];
+            buffer.asIntBuffer().get(values);
+            buffer.position(buffer.position() + count * 4);
+            return values;
+        }
+
+        String readString() {
+            int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    // 임시 파일에 기록하고 finish() 에서 스냅샷 위치로 원자적 이동
+    public final class Writer implements ExcelRowSink {
+        private final ExcelParseCache.CacheKey key;
+        private final String fileName;
+        private final Path temp;
+        private final DataOutputStream out;
+        private int blocks;
+        // 기록 중 오류 (이후 행은 무시하고 finish 에서 포기)
+        private IOException failure;
+
+        // 스트리밍 기록 중인 블록
+        private SheetData chunk;
+        private SheetData chunkSource;
+
+        private Writer(ExcelParseCache.CacheKey key, String fileName, Path temp) throws IOException {
+            this.key = key;
+            this.fileName = fileName;
+            this.temp = temp;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(key.size);
+            out.writeLong(key.lastModified);
+            writeString(key.relativePath);
+            writeString(fileName);
+        }
+
+        // 파싱 중인 행을 블록 버퍼에 복사 (시트가 바뀌거나 block-rows 에 닿으면 기록)
+        // 스냅샷 기록 실패가 응답을 중단시키지 않도록 예외를 던지지 않는다
+        @Override
+        public void row(SheetData sheet, int row) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                if (chunk == null || sheet != chunkSource || chunk.getRowCount() >= blockRows) {
+                    flushChunk();
+                    chunk = new SheetData(fileName, key.relativePath, sheet.getSheetName(), sheet.isDate1904());
+                    chunkSource = sheet;
+                }
+                chunk.copyRow(sheet, row);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        public void finish() throws IOException {
+            if (failure != null) {
+                abort(failure);
+                return;
+            }
+            flushChunk();
+            out.writeByte(END);
+            out.writeInt(blocks);
+            out.writeInt(TRAILER_MAGIC);
+            out.close();
+            if (out.size() == Integer.MAX_VALUE) {
+                // mmap 한 번으로 읽을 수 없는 크기
+                abort(new IOException("snapshot too large"));
+                return;
+            }
+            Files.move(temp, snapshotPath(key.relativePath), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writes.incrementAndGet();
+            bytesWritten.addAndGet(out.size());
+        }
+
+        // 기록 포기 (파싱 실패 등), 임시 파일 삭제
+        public void abort(Exception cause) {
+            writeFailures.incrementAndGet();
+            try {
+                out.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                // 임시 파일 정리 실패는 무시
+            }
+            if (cause != null) {
+                System.err.println("Error writing Excel snapshot: " + key.relativePath + " - " + cause.getMessage());
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            if (chunk != null && chunk.getRowCount() > 0) {
+                writeBlock(chunk, chunk.getRowCount());
+            }
+            chunk = null;
+            chunkSource = null;
+        }
+
+        void writeBlock(SheetData sheet, int rowCount) throws IOException {
+            out.writeByte(BLOCK);
+            writeString(sheet.getSheetName());
+            out.writeByte(sheet.isDate1904() ? 1 : 0);
+            out.writeInt(rowCount);
+            out.writeInt(sheet.getColumnCount());
+            int[] rowNumbers = sheet.getRowNumbers();
+            for (int row = 0; row < rowCount; row++) {
+                out.writeInt(rowNumbers[row]);
+            }
+            int[] rowWidths = sheet.getRowWidths();
+            for (int row = 0; row < rowCount; row++) {
+                out.writeInt(rowWidths[row]);
+            }
+            for (int column = 0; column < sheet.getColumnCount(); column++) {
+                byte[] kinds = sheet.getColumnKinds(column);
+                int kindCount = Math.min(kinds.length, rowCount);
+                out.writeInt(kindCount);
+                out.write(kinds, 0, kindCount);
+
+                double[] numbers = sheet.getColumnNumbers(column);
+                if (numbers == null) {
+                    out.writeInt(-1);
+                } else {
+                    int numberCount = Math.min(numbers.length, rowCount);
+                    out.writeInt(numberCount);
+                    for (int i = 0; i < numberCount; i++) {
+                        out.writeDouble(numbers[i]);
+                    }
+                }
+
+                writeStrings(sheet.getColumnTexts(column), rowCount);
+
+                byte[] results = sheet.getColumnResults(column);
+                if (results == null) {
+                    out.writeInt(-1);
+                } else {
+                    int resultCount = Math.min(results.length, rowCount);
+                    out.writeInt(resultCount);
+                    out.write(results, 0, resultCount);
+                }
+                writeStrings(sheet.getColumnResultTexts(column), rowCount);
+            }
+            blocks++;
+        }
+
+        private void writeStrings(String[] values, int rowCount) throws IOException {
+            if (values == null) {
+                out.writeInt(-1);
+                return;
+            }
+            int count = Math.min(values.length, rowCount);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                writeString(values[i]);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ncsi;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.hssf.util.HSSFColor;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+
+import java.util.*;
+
+// 합친 워크북(xlsx)에 쓸 셀 스타일 매핑
+// 원본 워크북의 스타일은 다른 워크북에 그대로 쓸 수 없으므로 서식/정렬/테두리/채우기/글꼴을 복사한 스타일을 만든다.
+// 속성이 같은 스타일과 글꼴은 원본 파일이 달라도 하나만 만들어 공유하고 (xlsx 스타일 수 한도 64000),
+// 한도를 넘으면 기본 스타일을 쓴다. 원본 워크북 안에서는 스타일 인덱스로 바로 찾는다.
+// 원본은 DOM 워크북(.xls) 또는 스트리밍으로 읽는 .xlsx 의 스타일 표(StylesTable)다.
+public class ExcelStyleCache {
+
+    private static final int MAX_STYLES = 64000;
+
+    private final Workbook target;
+    private final DataFormat dataFormat;
+    private final Map<List<Object>, CellStyle> styles = new HashMap<>();
+    private final Map<List<Object>, Font> fonts = new HashMap<>();
+
+    // 현재 원본(워크북 또는 스타일 표)의 스타일 인덱스 → 대상 스타일 (null 이면 기본 스타일)
+    private Object source;
+    private final Map<Integer, CellStyle> sourceStyles = new HashMap<>();
+
+    public ExcelStyleCache(Workbook target) {
+        this.target = target;
+        this.dataFormat = target.createDataFormat();
+    }
+
+    // 원본 셀 스타일에 해당하는 대상 워크북 스타일 (null 이면 기본 스타일 유지)
+    public CellStyle map(Workbook sourceWorkbook, CellStyle style) {
+        return map(sourceWorkbook, sourceWorkbook, style.getIndex() & 0xFFFF, style);
+    }
+
+    // 스트리밍 리더가 준 .xlsx 셀 스타일 인덱스(cellXfs)에 해당하는 대상 워크북 스타일
+    public CellStyle map(StylesTable sourceStyles, int styleIndex) {
+        return map(sourceStyles, null, styleIndex, null);
+    }
+
+    private CellStyle map(Object sourceKey, Workbook workbook, int index, CellStyle style) {
+        if (sourceKey != source) {
+            source = sourceKey;
+            sourceStyles.clear();
+        }
+        if (sourceStyles.containsKey(index)) {
+            return sourceStyles.get(index);
+        }
+        if (style == null) {
+            style = ((StylesTable) sourceKey).getStyleAt(index);
+        }
+        CellStyle mapped = style != null ? lookup(workbook, style) : null;
+        sourceStyles.put(index, mapped);
+        return mapped;
+    }
+
+    private CellStyle lookup(Workbook workbook, CellStyle style) {
+        XSSFCellStyle xssf = style instanceof XSSFCellStyle ? (XSSFCellStyle) style : null;
+        byte[] fill = rgb(workbook, xssf != null ? xssf.getFillForegroundXSSFColor() : null, style.getFillForegroundColor());
+        byte[] background = rgb(workbook, xssf != null ? xssf.getFillBackgroundXSSFColor() : null, style.getFillBackgroundColor());
+        byte[] top = rgb(workbook, xssf != null ? xssf.getTopBorderXSSFColor() : null, style.getTopBorderColor());
+        byte[] bottom = rgb(workbook, xssf != null ? xssf.getBottomBorderXSSFColor() : null, style.getBottomBorderColor());
+        byte[] left = rgb(workbook, xssf != null ? xssf.getLeftBorderXSSFColor() : null, style.getLeftBorderColor());
+        byte[] right = rgb(workbook, xssf != null ? xssf.getRightBorderXSSFColor() : null, style.getRightBorderColor());
+        Font sourceFont = xssf != null ? xssf.getFont() : workbook.getFontAt(style.getFontIndex());
+        Font font = font(workbook, sourceFont);
+
+        List<Object> key = Arrays.asList(style.getDataFormatString(), style.getAlignment(), style.getVerticalAlignment(),
+                style.getWrapText(), style.getShrinkToFit(), style.getRotation(), style.getIndention(),
+                style.getLocked(), style.getHidden(), style.getBorderTop(), style.getBorderBottom(),
+                style.getBorderLeft(), style.getBorderRight(), hex(top), hex(bottom), hex(left), hex(right),
+                style.getFillPattern(), hex(fill), hex(background), font.getIndex());
+        CellStyle mapped = styles.get(key);
+        if (mapped != null || styles.size() >= MAX_STYLES) {
+            return mapped;
+        }
+
+        XSSFCellStyle created = (XSSFCellStyle) target.createCellStyle();
+        if (style.getDataFormatString() != null) {
+            created.setDataFormat(dataFormat.getFormat(style.getDataFormatString()));
+        }
+        created.setAlignment(style.getAlignment());
+        created.setVerticalAlignment(style.getVerticalAlignment());
+        created.setWrapText(style.getWrapText());
+        created.setShrinkToFit(style.getShrinkToFit());
+        created.setRotation(style.getRotation());
+        created.setIndention(style.getIndention());
+        created.setLocked(style.getLocked());
+        created.setHidden(style.getHidden());
+        created.setBorderTop(style.getBorderTop());
+        created.setBorderBottom(style.getBorderBottom());
+        created.setBorderLeft(style.getBorderLeft());
+        created.setBorderRight(style.getBorderRight());
+        if (top != null) created.setTopBorderColor(new XSSFColor(top, null));
+        if (bottom != null) created.setBottomBorderColor(new XSSFColor(bottom, null));
+        if (left != null) created.setLeftBorderColor(new XSSFColor(left, null));
+        if (right != null) created.setRightBorderColor(new XSSFColor(right, null));
+        created.setFillPattern(style.getFillPattern());
+        if (fill != null) created.setFillForegroundColor(new XSSFColor(fill, null));
+        if (background != null) created.setFillBackgroundColor(new XSSFColor(background, null));
+        created.setFont(font);
+        styles.put(key, created);
+        return created;
+    }
+
+    // workbook 은 xls 팔레트 색을 찾을 때만 사용 (.xlsx 스타일 표에서 온 스타일이면 null)
+    private Font font(Workbook workbook, Font font) {
+        byte[] color = rgb(workbook, font instanceof XSSFFont ? ((XSSFFont) font).getXSSFColor() : null, font.getColor());
+        List<Object> key = Arrays.asList(font.getFontName(), font.getFontHeight(), font.getBold(), font.getItalic(),
+                font.getUnderline(), font.getStrikeout(), font.getTypeOffset(), hex(color));
+        Font mapped = fonts.get(key);
+        if (mapped != null) {
+            return mapped;
+        }
+        XSSFFont created = (XSSFFont) target.createFont();
+        created.setFontName(font.getFontName());
+        created.setFontHeight(font.getFontHeight());
+        created.setBold(font.getBold());
+        created.setItalic(font.getItalic());
+        created.setUnderline(font.getUnderline());
+        created.setStrikeout(font.getStrikeout());
+        created.setTypeOffset(font.getTypeOffset());
+        if (color != null) {
+            created.setColor(new XSSFColor(color, null));
+        }
+        fonts.put(key, created);
+        return created;
+    }
+
+    // 색 RGB (xlsx 는 테마/tint 를 적용한 값, xls 는 팔레트 값), 자동 색이면 null
+    private static byte[] rgb(Workbook workbook, XSSFColor color, short index) {
+        if (color != null) {
+            if (color.isAuto()) {
+                return null;
+            }
+            // 인덱스 색은 getRGBWithTint 가 null 이라 기본 팔레트 값
+            byte[] rgb = color.getRGBWithTint();
+            return rgb != null ? rgb : color.getRGB();
+        }
+        if (workbook instanceof HSSFWorkbook && index != IndexedColors.AUTOMATIC.getIndex() && index != Font.COLOR_NORMAL) {
+            HSSFColor palette = ((HSSFWorkbook) workbook).getCustomPalette().getColor(index);
+            if (palette != null) {
+                short[] triplet = palette.getTriplet();
+                return new byte[]{(byte) triplet[0], (byte) triplet[1], (byte) triplet[2]};
+            }
+        }
+        return null;
+    }
+
+    private static String hex(byte[] rgb) {
+        return rgb != null ? HexFormat.of().formatHex(rgb) : null;
+    }
+}
@@ -0,0 +1,833 @@
+package com.ncsi;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.poi.ss.util.CellReference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 엑셀 셀 본문 검색 색인 (어느 파일/시트/셀에 회사명이나 지표명이 있는지)
+// 데이터 폴더의 .xlsx/.xls 마다 세그먼트 파일 하나를 색인 폴더(데이터 폴더 밖)에 두고, 메모리에는 파일별 요약만 둔다.
+// 세그먼트는 고정 폭 표(셀, 용어)와 바이트 영역으로 되어 있어 mmap 한 채로 용어를 이진 탐색한다.
+// 색인은 백그라운드 스레드 하나가 FileService 의 엑셀 읽기(캐시/스냅샷 포함)로 만든다:
+//   시작 시 원본과 크기/수정 시각이 다른 파일, 업로드/삭제로 예약된 경로, rescan-minutes 마다 전체 비교.
+// 업로드/삭제 요청은 경로를 대기열에 넣기만 하므로 색인 때문에 기다리지 않는다.
+// 문자열 셀과 문자열 결과의 수식 셀만 색인한다 (숫자/날짜 셀 제외).
+// 토큰은 소문자로 바꾼 글자/숫자 연속 구간이고, 검색어 토큰은 접두어로 찾는다 ("삼성" → "삼성전자는").
+// 세그먼트마다 용어 접두어(앞 FILTER_PREFIX_CHARS 글자까지)의 Bloom filter 를 메모리에 두어,
+// 검색어 토큰이 없는 파일은 세그먼트를 열지 않고 건너뛴다 (긴 토큰은 앞 FILTER_PREFIX_CHARS 글자로 확인).
+//
+// 세그먼트 형식 (버전 2, 빅엔디언, string = int 바이트 길이 + UTF-8)
+//   헤더     int magic "NCTI", int version, long 원본 크기, long 원본 수정 시각(ms), string relativePath, string fileName,
+//            int S, string[S] 시트 이름, int C 셀 수, int T 용어 수, int P posting 수, int 본문 바이트, int 용어 바이트
+//   셀       C × { int sheet, int rowNumber(1부터), int column, int 본문 위치, int 본문 길이 }
+//   용어     T × { int 용어 위치, int 용어 길이, int posting 위치, int posting 수 } (용어 UTF-8 바이트 순)
+//   posting  int[P] 셀 번호 (용어마다 오름차순)
+//   끝       본문 바이트, 용어 바이트, int W, long[W] 접두어 Bloom filter, int magic "NCTE"
+// 형식이 바뀌면 FORMAT_VERSION 을 올린다 (이전 버전 세그먼트는 다시 색인).
+@Component
+public class ExcelTextIndex {
+
+    public static final int FORMAT_VERSION = 2;
+
+    private static final String DATA_DIR = "/home/ubuntu/Data";
+    private static final int MAGIC = 0x4E435449;         // "NCTI"
+    private static final int TRAILER_MAGIC = 0x4E435445; // "NCTE"
+    private static final String EXTENSION = ".nti";
+    private static final int MAX_TERM_CHARS = 64;
+    // 검색어 토큰 하나(접두어)가 펼칠 수 있는 최대 용어 수
+    private static final int MAX_PREFIX_TERMS = 4096;
+    // Bloom filter 에 넣는 용어 접두어 최대 글자 수, 접두어당 비트 수, 해시 수, 파일당 최대 비트 수
+    private static final int FILTER_PREFIX_CHARS = 6;
+    private static final int FILTER_BITS_PER_PREFIX = 10;
+    private static final int FILTER_HASHES = 5;
+    private static final int MAX_FILTER_BITS = 1 << 22;
+
+    @Autowired
+    private FileService fileService;
+
+    @Value("${ncsi.excel.text-index.enabled:true}")
+    private boolean enabled;
+
+    // 세그먼트 폴더 (DATA_DIR 밖)
+    @Value("${ncsi.excel.text-index.dir:/home/ubuntu/.ncsi-cache/text-index}")
+    private String directory;
+
+    // 파일당 색인할 최대 셀 수 (색인 중 메모리 상한, 넘는 셀은 검색되지 않음)
+    @Value("${ncsi.excel.text-index.max-cells:500000}")
+    private int maxCells;
+
+    // 셀마다 저장하는 본문 최대 길이 (검색 결과 표시용, 색인은 전체 본문)
+    @Value("${ncsi.excel.text-index.max-cell-chars:200}")
+    private int maxCellChars;
+
+    // 예약이 없어도 전체를 원본과 비교하는 주기 (외부에서 바뀐 파일 반영)
+    @Value("${ncsi.excel.text-index.rescan-minutes:10}")
+    private int rescanMinutes;
+
+    private final Path basePath = Paths.get(DATA_DIR);
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+    private final Set<String> pending = new LinkedHashSet<>();
+    private Thread worker;
+    private volatile String indexing;
+
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong removed = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong staleSkips = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path root = Paths.get(directory);
+            Files.createDirectories(root);
+            // 이전 실행의 세그먼트 요약을 읽어 둠 (원본과 비교는 작업 스레드가)
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+                for (Path path : stream) {
+                    if (!path.getFileName().toString().endsWith(EXTENSION)) {
+                        Files.deleteIfExists(path);
+                        continue;
+                    }
+                    try {
+                        SegmentReader reader = new SegmentReader(path);
+                        segments.put(reader.relativePath, new Segment(reader, path, Files.size(path)));
+                    } catch (IOException e) {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error opening Excel text index: " + directory + " - " + e.getMessage());
+        }
+        schedule("");
+        worker = new Thread(this::run, "ncsi-text-index");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    // 경로(파일 또는 폴더, "" 는 전체)를 원본에 맞춰 다시 색인하도록 예약 (바로 돌아옴)
+    public void schedule(String relativePath) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pending) {
+            pending.add(relativePath == null ? "" : relativePath);
+            pending.notifyAll();
+        }
+    }
+
+    // 검색어의 모든 토큰이 들어 있는 파일을 점수순으로, 파일마다 셀 위치와 본문 일부
+    public Map<String, Object> search(String query, String folder, int limit, int hitsPerFile) {
+        if (!enabled) {
+            throw new IllegalStateException("Excel text index is disabled (ncsi.excel.text-index.enabled)");
+        }
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Search query has no letters or digits: " + query);
+        }
+        searches.incrementAndGet();
+        byte[][] keys = new byte[tokens.size()][];
+        for (int t = 0; t < keys.length; t++) {
+            keys[t] = tokens.get(t).getBytes(StandardCharsets.UTF_8);
+        }
+        long[] filterHashes = new long[tokens.size()];
+        for (int t = 0; t < filterHashes.length; t++) {
+            filterHashes[t] = filterHash(tokens.get(t));
+        }
+        String prefix = folder == null || folder.isEmpty() ? "" : (folder.endsWith("/") ? folder : folder + "/");
+
+        // 1) 세그먼트마다 토큰별 셀 집합, 모든 토큰이 있는 파일만 후보
+        //    Bloom filter 에 없는 토큰이 하나라도 있으면 세그먼트를 열지 않음 (idf 의 문서 수에는 포함)
+        int searched = 0;
+        int opened = 0;
+        int[] documentFrequency = new int[keys.length];
+        List<Match> matches = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+            if (!segment.relativePath.startsWith(prefix)) {
+                continue;
+            }
+            searched++;
+            if (!segment.mightContainAll(filterHashes)) {
+                continue;
+            }
+            SegmentReader reader;
+            try {
+                reader = new SegmentReader(segment.path);
+            } catch (IOException e) {
+                // 다시 색인되는 중에 지워진 세그먼트
+                continue;
+            }
+            opened++;
+            Match match = new Match(segment, reader, keys.length);
+            boolean all = true;
+            for (int t = 0; t < keys.length; t++) {
+                BitSet cells = new BitSet(reader.cells);
+                int expanded = 0;
+                for (int term = reader.lowerBound(keys[t]); term < reader.terms && expanded < MAX_PREFIX_TERMS
+                        && reader.termStartsWith(term, keys[t]); term++, expanded++) {
+                    reader.postings(term, cells);
+                    if (reader.termLength(term) == keys[t].length) {
+                        match.exact[t] = true;
+                    }
+                }
+                if (cells.isEmpty()) {
+                    all = false;
+                } else {
+                    documentFrequency[t]++;
+                }
+                match.cells[t] = cells;
+            }
+            if (all) {
+                matches.add(match);
+            }
+        }
+
+        // 2) 원본이 바뀐 파일은 제외하고 다시 색인 예약, 나머지는 점수 계산
+        int stale = 0;
+        for (Iterator<Match> iterator = matches.iterator(); iterator.hasNext(); ) {
+            Match match = iterator.next();
+            if (!isCurrent(match.segment)) {
+                iterator.remove();
+                schedule(match.segment.relativePath);
+                stale++;
+                staleSkips.incrementAndGet();
+                continue;
+            }
+            match.score(documentFrequency, searched);
+        }
+        matches.sort((a, b) -> Double.compare(b.score, a.score));
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Match match : matches.subList(0, Math.min(Math.max(limit, 0), matches.size()))) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("relativePath", match.segment.relativePath);
+            result.put("fileName", match.segment.fileName);
+            result.put("score", match.score);
+            result.put("cellsMatchingAll", match.allCells.cardinality());
+            result.put("hits", match.hits(Math.max(hitsPerFile, 0)));
+            results.add(result);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("query", query);
+        response.put("tokens", tokens);
+        response.put("folder", folder);
+        response.put("searchedFiles", searched);
+        response.put("openedFiles", opened);
+        response.put("matchedFiles", matches.size());
+        response.put("staleFiles", stale);
+        synchronized (pending) {
+            response.put("pendingPaths", pending.size() + (indexing != null ? 1 : 0));
+        }
+        response.put("results", results);
+        return response;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("directory", directory);
+        stats.put("formatVersion", FORMAT_VERSION);
+        stats.put("files", segments.size());
+        long bytes = 0;
+        long cells = 0;
+        long filterBytes = 0;
+        for (Segment segment : segments.values()) {
+            bytes += segment.bytes;
+            cells += segment.cells;
+            filterBytes += segment.filter.length * 8L;
+        }
+        stats.put("bytesOnDisk", bytes);
+        stats.put("cells", cells);
+        stats.put("filterBytes", filterBytes);
+        synchronized (pending) {
+            stats.put("pendingPaths", pending.size());
+        }
+        stats.put("indexing", indexing);
+        stats.put("indexed", indexed.get());
+        stats.put("removed", removed.get());
+        stats.put("failures", failures.get());
+        stats.put("searches", searches.get());
+        stats.put("staleSkips", staleSkips.get());
+        return stats;
+    }
+
+    private void run() {
+        long rescanMillis = Math.max(1, rescanMinutes) * 60_000L;
+        long nextRescan = System.currentTimeMillis() + rescanMillis;
+        while (!Thread.currentThread().isInterrupted()) {
+            String relativePath;
+            try {
+                synchronized (pending) {
+                    long wait;
+                    while (pending.isEmpty() && (wait = nextRescan - System.currentTimeMillis()) > 0) {
+                        pending.wait(wait);
+                    }
+                    if (pending.isEmpty()) {
+                        relativePath = "";
+                        nextRescan = System.currentTimeMillis() + rescanMillis;
+                    } else {
+                        Iterator<String> iterator = pending.iterator();
+                        relativePath = iterator.next();
+                        iterator.remove();
+                    }
+                    indexing = relativePath;
+                }
+                sync(relativePath);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("Error updating Excel text index: " + e.getMessage());
+            } finally {
+                indexing = null;
+            }
+        }
+    }
+
+    // relativePath 아래(파일이면 그 파일)의 세그먼트를 원본에 맞춤: 없어진 파일은 제거, 새로 생기거나 바뀐 파일은 색인
+    private void sync(String relativePath) throws IOException, InterruptedException {
+        Path target = basePath.resolve(relativePath).normalize();
+        if (!target.startsWith(basePath)) {
+            return;
+        }
+        Map<String, long[]> current = new LinkedHashMap<>();
+        if (Files.isRegularFile(target)) {
+            BasicFileAttributes attributes = Files.readAttributes(target, BasicFileAttributes.class);
+            String name = target.getFileName().toString().toLowerCase();
+            if (name.endsWith(".xlsx") || name.endsWith(".xls")) {
+                current.put(basePath.relativize(target).toString(), new long[]{attributes.size(), attributes.lastModifiedTime().toMillis()});
+            }
+        } else if (Files.isDirectory(target)) {
+            for (Map<String, Object> file : fileService.getFolderFileListOnly(basePath.relativize(target).toString(), true)) {
+                current.put((String) file.get("RelativePath"), new long[]{(Long) file.get("Size"), (Long) file.get("LastModified")});
+            }
+        }
+
+        String path = basePath.relativize(target).toString();
+        String prefix = path.isEmpty() ? "" : path + "/";
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if ((segment.relativePath.equals(path) || segment.relativePath.startsWith(prefix))
+                    && !current.containsKey(segment.relativePath)) {
+                segments.remove(segment.relativePath);
+                Files.deleteIfExists(segment.path);
+                removed.incrementAndGet();
+            }
+        }
+        for (Map.Entry<String, long[]> file : current.entrySet()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Segment segment = segments.get(file.getKey());
+            if (segment == null || segment.size != file.getValue()[0] || segment.lastModified != file.getValue()[1]) {
+                index(file.getKey(), file.getValue()[0], file.getValue()[1]);
+            }
+        }
+    }
+
+    // 파일 하나를 읽어 세그먼트 기록 (임시 파일에 쓴 뒤 이동, 읽기 실패한 파일도 빈 세그먼트로 남겨 반복하지 않음)
+    private void index(String relativePath, long size, long lastModified) {
+        Path segmentPath = segmentPath(relativePath);
+        Path temp = null;
+        try {
+            SegmentBuilder builder = new SegmentBuilder();
+            fileService.readExcelFileRows(relativePath, builder);
+            temp = Files.createTempFile(Paths.get(directory), "segment", ".tmp");
+            String fileName = Paths.get(relativePath).getFileName().toString();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 65536))) {
+                builder.write(out, relativePath, fileName, size, lastModified);
+            }
+            Files.move(temp, segmentPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            segments.put(relativePath, new Segment(new SegmentReader(segmentPath), segmentPath, Files.size(segmentPath)));
+            indexed.incrementAndGet();
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            System.err.println("Error indexing Excel text: " + relativePath + " - " + e.getMessage());
+            try {
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    // 원본이 세그먼트를 만들 때와 같은지
+    private boolean isCurrent(Segment segment) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(basePath.resolve(segment.relativePath), BasicFileAttributes.class);
+            return attributes.size() == segment.size && attributes.lastModifiedTime().toMillis() == segment.lastModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Path segmentPath(String relativePath) {
+        String name = UUID.nameUUIDFromBytes(relativePath.getBytes(StandardCharsets.UTF_8)).toString();
+        return Paths.get(directory, name + EXTENSION);
+    }
+
+    // 색인할 셀 본문 (문자열 셀, 문자열 결과의 수식 셀), 없으면 null
+    private static String cellText(SheetData sheet, int row, int column) {
+        byte kind = sheet.getKind(row, column);
+        if (kind == SheetData.STRING) {
+            return sheet.getText(row, column);
+        }
+        if (kind == SheetData.FORMULA && sheet.getResultKind(row, column) == SheetData.STRING) {
+            return sheet.getResultText(row, column);
+        }
+        return null;
+    }
+
+    // 소문자로 바꾼 글자/숫자 연속 구간 (최대 MAX_TERM_CHARS 글자)
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (token.length() < MAX_TERM_CHARS) {
+                    token.appendCodePoint(Character.toLowerCase(codePoint));
+                }
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    // 토큰의 앞 FILTER_PREFIX_CHARS 글자(코드 포인트)의 64비트 FNV-1a 해시 (Bloom filter 용, 실행마다 같은 값)
+    static long filterHash(String token) {
+        int end = token.offsetByCodePoints(0, Math.min(FILTER_PREFIX_CHARS, token.codePointCount(0, token.length())));
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : token.substring(0, end).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Bloom filter 의 비트 위치 (double hashing)
+    private static int filterBit(long hash, int i, int bits) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + i * h2) & (bits - 1);
+    }
+
+    // 메모리에 두는 세그먼트 요약
+    static final class Segment {
+        final String relativePath;
+        final String fileName;
+        final long size;
+        final long lastModified;
+        final int cells;
+        final Path path;
+        final long bytes;
+        final long[] filter;
+
+        Segment(SegmentReader reader, Path path, long bytes) {
+            this.relativePath = reader.relativePath;
+            this.fileName = reader.fileName;
+            this.size = reader.size;
+            this.lastModified = reader.lastModified;
+            this.cells = reader.cells;
+            this.path = path;
+            this.bytes = bytes;
+            this.filter = reader.filter();
+        }
+
+        // 모든 토큰의 접두어가 이 파일에 있을 수 있는지 (false 면 확실히 없음)
+        boolean mightContainAll(long[] hashes) {
+            int bits = filter.length * 64;
+            for (long hash : hashes) {
+                for (int i = 0; i < FILTER_HASHES; i++) {
+                    int bit = filterBit(hash, i, bits);
+                    if ((filter[bit >>> 6] & (1L << bit)) == 0) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    // 검색 후보 파일 (토큰별 셀 집합과 점수)
+    private static final class Match {
+        final Segment segment;
+        final SegmentReader reader;
+        final BitSet[] cells;
+        final boolean[] exact;
+        BitSet allCells;
+        double score;
+
+        Match(Segment segment, SegmentReader reader, int tokens) {
+            this.segment = segment;
+            this.reader = reader;
+            this.cells = new BitSet[tokens];
+            this.exact = new boolean[tokens];
+        }
+
+        // 토큰마다 idf × (1 + ln 셀 수), 접두어로만 맞으면 0.7 배, 여러 토큰이 한 셀에 함께 있으면 가산
+        void score(int[] documentFrequency, int documents) {
+            allCells = (BitSet) cells[0].clone();
+            double total = 0;
+            for (int t = 0; t < cells.length; t++) {
+                double idf = Math.log(1 + (double) documents / Math.max(1, documentFrequency[t]));
+                total += idf * (1 + Math.log(cells[t].cardinality())) * (exact[t] ? 1.0 : 0.7);
+                allCells.and(cells[t]);
+            }
+            if (cells.length > 1) {
+                total += 2 * Math.log1p(allCells.cardinality());
+            }
+            score = total;
+        }
+
+        // 모든 토큰이 있는 셀 먼저, 그다음 일부 토큰만 있는 셀 (시트/행 순)
+        List<Map<String, Object>> hits(int max) {
+            List<Map<String, Object>> hits = new ArrayList<>();
+            BitSet any = new BitSet(reader.cells);
+            for (BitSet set : cells) {
+                any.or(set);
+            }
+            any.andNot(allCells);
+            for (BitSet set : new BitSet[]{allCells, any}) {
+                for (int cell = set.nextSetBit(0); cell >= 0 && hits.size() < max; cell = set.nextSetBit(cell + 1)) {
+                    int rowNumber = reader.cellRow(cell);
+                    int column = reader.cellColumn(cell);
+                    Map<String, Object> hit = new LinkedHashMap<>();
+                    hit.put("sheet", reader.sheets[reader.cellSheet(cell)]);
+                    hit.put("cell", new CellReference(rowNumber - 1, column).formatAsString(false));
+                    hit.put("row", rowNumber);
+                    hit.put("column", column);
+                    hit.put("text", reader.cellText(cell));
+                    hit.put("allTokens", set == allCells);
+                    hits.add(hit);
+                }
+            }
+            return hits;
+        }
+    }
+
+    // 색인 중인 파일 하나의 셀/용어 (셀을 받는 순서가 셀 번호)
+    final class SegmentBuilder implements ExcelRowSink {
+        private final List<String> sheets = new ArrayList<>();
+        private int[] cellTable = new int[5 * 1024];
+        private int cellCount;
+        private final ByteArrayOutputStream texts = new ByteArrayOutputStream();
+        private final Map<String, Postings> terms = new HashMap<>();
+        private String currentSheet;
+
+        @Override
+        public void row(SheetData sheet, int row) {
+            if (!sheet.getSheetName().equals(currentSheet)) {
+                currentSheet = sheet.getSheetName();
+                sheets.add(currentSheet);
+            }
+            for (int column = 0; column < sheet.getRowWidth(row) && cellCount < maxCells; column++) {
+                String text = cellText(sheet, row, column);
+                if (text == null || text.isBlank()) {
+                    continue;
+                }
+                List<String> tokens = tokenize(text);
+                if (tokens.isEmpty()) {
+                    continue;
+                }
+                int cell = cellCount++;
+                if (cellTable.length < cellCount * 5) {
+                    cellTable = Arrays.copyOf(cellTable, cellTable.length * 2);
+                }
+                byte[] stored = (text.length() > maxCellChars ? text.substring(0, maxCellChars) : text).getBytes(StandardCharsets.UTF_8);
+                int base = cell * 5;
+                cellTable[base] = sheets.size() - 1;
+                cellTable[base + 1] = sheet.getRowNumber(row);
+                cellTable[base + 2] = column;
+                cellTable[base + 3] = texts.size();
+                cellTable[base + 4] = stored.length;
+                texts.write(stored, 0, stored.length);
+                for (String token : tokens) {
+                    terms.computeIfAbsent(token, key -> new Postings()).add(cell);
+                }
+            }
+        }
+
+        void write(DataOutputStream out, String relativePath, String fileName, long size, long lastModified) throws IOException {
+            List<byte[]> keys = new ArrayList<>(terms.size());
+            Map<byte[], Postings> byKey = new IdentityHashMap<>();
+            for (Map.Entry<String, Postings> term : terms.entrySet()) {
+                byte[] key = term.getKey().getBytes(StandardCharsets.UTF_8);
+                keys.add(key);
+                byKey.put(key, term.getValue());
+            }
+            keys.sort(Arrays::compareUnsigned);
+            int postingCount = 0;
+            int termBytes = 0;
+            for (byte[] key : keys) {
+                postingCount += byKey.get(key).size;
+                termBytes += key.length;
+            }
+
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            writeString(out, relativePath);
+            writeString(out, fileName);
+            out.writeInt(sheets.size());
+            for (String sheet : sheets) {
+                writeString(out, sheet);
+            }
+            out.writeInt(cellCount);
+            out.writeInt(keys.size());
+            out.writeInt(postingCount);
+            out.writeInt(texts.size());
+            out.writeInt(termBytes);
+            for (int i = 0; i < cellCount * 5; i++) {
+                out.writeInt(cellTable[i]);
+            }
+            int termOffset = 0;
+            int postingOffset = 0;
+            for (byte[] key : keys) {
+                Postings postings = byKey.get(key);
+                out.writeInt(termOffset);
+                out.writeInt(key.length);
+                out.writeInt(postingOffset);
+                out.writeInt(postings.size);
+                termOffset += key.length;
+                postingOffset += postings.size;
+            }
+            for (byte[] key : keys) {
+                Postings postings = byKey.get(key);
+                for (int i = 0; i < postings.size; i++) {
+                    out.writeInt(postings.ids[i]);
+                }
+            }
+            texts.writeTo(out);
+            for (byte[] key : keys) {
+                out.write(key);
+            }
+            long[] filter = filter();
+            out.writeInt(filter.length);
+            for (long word : filter) {
+                out.writeLong(word);
+            }
+            out.writeInt(TRAILER_MAGIC);
+        }
+
+        // 용어마다 1 ~ FILTER_PREFIX_CHARS 글자 접두어를 넣은 Bloom filter (비트 수는 2의 거듭제곱)
+        private long[] filter() {
+            long prefixes = 0;
+            for (String term : terms.keySet()) {
+                prefixes += Math.min(FILTER_PREFIX_CHARS, term.codePointCount(0, term.length()));
+            }
+            int bits = 64;
+            while (bits < MAX_FILTER_BITS && bits < prefixes * FILTER_BITS_PER_PREFIX) {
+                bits <<= 1;
+            }
+            long[] filter = new long[bits / 64];
+            for (String term : terms.keySet()) {
+                int length = Math.min(FILTER_PREFIX_CHARS, term.codePointCount(0, term.length()));
+                for (int chars = 1; chars <= length; chars++) {
+                    long hash = filterHash(term.substring(0, term.offsetByCodePoints(0, chars)));
+                    for (int i = 0; i < FILTER_HASHES; i++) {
+                        int bit = filterBit(hash, i, bits);
+                        filter[bit >>> 6] |= 1L << bit;
+                    }
+                }
+            }
+            return filter;
+        }
+
+        private void writeString(DataOutputStream out, String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    // 용어 하나의 셀 번호 (오름차순, 같은 셀에 같은 토큰이 여러 번 있어도 한 번)
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    // mmap 한 세그먼트 (절대 위치로만 읽으므로 여러 스레드에서 읽어도 됨)
+    static final class SegmentReader {
+        final ByteBuffer buffer;
+        final String relativePath;
+        final String fileName;
+        final long size;
+        final long lastModified;
+        final String[] sheets;
+        final int cells;
+        final int terms;
+        private final int cellBase;
+        private final int termBase;
+        private final int postingBase;
+        private final int textBase;
+        private final int termBytesBase;
+        private final int filterBase;
+
+        SegmentReader(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() < 48 || channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Invalid text index segment: " + path);
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            try {
+                if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION
+                        || buffer.getInt(buffer.limit() - 4) != TRAILER_MAGIC) {
+                    throw new IOException("Invalid text index segment: " + path);
+                }
+                size = buffer.getLong();
+                lastModified = buffer.getLong();
+                relativePath = readString();
+                fileName = readString();
+                sheets = new String[buffer.getInt()];
+                for (int i = 0; i < sheets.length; i++) {
+                    sheets[i] = readString();
+                }
+                cells = buffer.getInt();
+                terms = buffer.getInt();
+                int postings = buffer.getInt();
+                int textBytes = buffer.getInt();
+                int termBytes = buffer.getInt();
+                cellBase = buffer.position();
+                termBase = cellBase + cells * 20;
+                postingBase = termBase + terms * 16;
+                textBase = postingBase + postings * 4;
+                termBytesBase = textBase + textBytes;
+                filterBase = termBytesBase + termBytes;
+                int words = buffer.getInt(filterBase);
+                if (words <= 0 || Integer.bitCount(words) != 1 || filterBase + 4 + words * 8L != buffer.limit() - 4) {
+                    throw new IOException("Invalid text index segment: " + path);
+                }
+            } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+                throw new IOException("Corrupt text index segment: " + path, e);
+            }
+        }
+
+        // 접두어 Bloom filter (메모리에 복사)
+        long[] filter() {
+            long[] filter = new long[buffer.getInt(filterBase)];
+            for (int i = 0; i < filter.length; i++) {
+                filter[i] = buffer.getLong(filterBase + 4 + i * 8);
+            }
+            return filter;
+        }
+
+        // key 이상인 첫 용어 번호
+        int lowerBound(byte[] key) {
+            int low = 0;
+            int high = terms;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compareTerm(middle, key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        boolean termStartsWith(int term, byte[] prefix) {
+            int offset = termBytesBase + buffer.getInt(termBase + term * 16);
+            if (termLength(term) < prefix.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (buffer.get(offset + i) != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int termLength(int term) {
+            return buffer.getInt(termBase + term * 16 + 4);
+        }
+
+        void postings(int term, BitSet target) {
+            int offset = postingBase + buffer.getInt(termBase + term * 16 + 8) * 4;
+            int count = buffer.getInt(termBase + term * 16 + 12);
+            for (int i = 0; i < count; i++) {
+                target.set(buffer.getInt(offset + i * 4));
+            }
+        }
+
+        int cellSheet(int cell) {
+            return buffer.getInt(cellBase + cell * 20);
+        }
+
+        int cellRow(int cell) {
+            return buffer.getInt(cellBase + cell * 20 + 4);
+        }
+
+        int cellColumn(int cell) {
+            return buffer.getInt(cellBase + cell * 20 + 8);
+        }
+
+        String cellText(int cell) {
+            byte[] bytes = new byte[buffer.getInt(cellBase + cell * 20 + 16)];
+            buffer.get(textBase + buffer.getInt(cellBase + cell * 20 + 12), bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int compareTerm(int term, byte[] key) {
+            int offset = termBytesBase + buffer.getInt(termBase + term * 16);
+            int length = termLength(term);
+            for (int i = 0; i < Math.min(length, key.length); i++) {
+                int difference = (buffer.get(offset + i) & 0xFF) - (key[i] & 0xFF);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            return length - key.length;
+        }
+
+        private String readString() {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ncsi;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// 삭제된 파일 기록 (증분 새로고침의 tombstone)
+// deleteFile 로 지운 파일마다 "삭제 시각 \t 상대 경로" 한 줄을 추가하고, 재시작 후에도 유지한다.
+// 보관 기간이 지난 기록은 시작할 때와 새 기록을 추가할 때 정리하며, 그보다 오래된 modifiedSince 는 전체 새로고침이 필요하다고 알린다.
+@Component
+public class FileChangeLog {
+
+    private static final String HORIZON_PREFIX = "# since ";
+
+    @Value("${ncsi.files.change-log:/home/ubuntu/.ncsi-cache/deletions.log}")
+    private String logPath;
+
+    @Value("${ncsi.files.tombstone-retention-days:30}")
+    private int retentionDays;
+
+    // 기록 순서 (삭제 시각 순)
+    private final Deque<Tombstone> tombstones = new ArrayDeque<>();
+    // 이 시각 이전의 삭제는 기록이 없을 수 있음
+    private long horizon;
+    // 마지막으로 파일을 다시 쓴 뒤 메모리에서만 정리한 기록 수
+    private int prunedSinceRewrite;
+
+    @PostConstruct
+    public void load() {
+        long now = System.currentTimeMillis();
+        long retentionStart = retentionStart(now);
+        Path path = Paths.get(logPath);
+        horizon = now;
+        try {
+            if (Files.exists(path)) {
+                boolean pruned = false;
+                for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    if (line.startsWith(HORIZON_PREFIX)) {
+                        horizon = Long.parseLong(line.substring(HORIZON_PREFIX.length()).trim());
+                        continue;
+                    }
+                    String[] parts = line.split("\t", 2);
+                    if (parts.length != 2) {
+                        continue;
+                    }
+                    long deletedAt = Long.parseLong(parts[0]);
+                    if (deletedAt < retentionStart) {
+                        pruned = true;
+                    } else {
+                        tombstones.add(new Tombstone(parts[1], deletedAt));
+                    }
+                }
+                if (pruned) {
+                    horizon = Math.max(horizon, retentionStart);
+                    rewrite(path);
+                }
+            } else {
+                rewrite(path);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error loading change log: " + logPath + " - " + e.getMessage());
+        }
+    }
+
+    // 삭제 기록 (폴더를 지울 때는 하위 파일마다 호출)
+    // 보관 기간이 지난 앞쪽 기록은 메모리에서 정리하고, 정리한 수가 남은 기록 수보다 많아지면 파일도 다시 씀
+    public synchronized void recordDeletion(String relativePath, long deletedAt) {
+        long retentionStart = retentionStart(System.currentTimeMillis());
+        int pruned = 0;
+        while (!tombstones.isEmpty() && tombstones.peekFirst().deletedAt < retentionStart) {
+            tombstones.pollFirst();
+            pruned++;
+        }
+        if (pruned > 0) {
+            horizon = Math.max(horizon, retentionStart);
+            prunedSinceRewrite += pruned;
+        }
+        tombstones.add(new Tombstone(relativePath, deletedAt));
+        try {
+            Path path = Paths.get(logPath);
+            if (prunedSinceRewrite > tombstones.size()) {
+                rewrite(path);
+                prunedSinceRewrite = 0;
+                return;
+            }
+            Files.createDirectories(path.getParent());
+            Files.write(path, (deletedAt + "\t" + relativePath + "\n").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Error writing change log: " + logPath + " - " + e.getMessage());
+        }
+    }
+
+    // since 이후(포함) 폴더 안에서 삭제된 파일, 경로별 마지막 삭제만
+    public synchronized List<Map<String, Object>> getDeletionsSince(long since, String folderPath, boolean includeSubfolders) {
+        String prefix = folderPath.isEmpty() || folderPath.endsWith("/") ? folderPath : folderPath + "/";
+        Map<String, Long> latest = new LinkedHashMap<>();
+        for (Tombstone tombstone : tombstones) {
+            if (tombstone.deletedAt < since || !tombstone.relativePath.startsWith(prefix)) {
+                continue;
+            }
+            if (!includeSubfolders && tombstone.relativePath.indexOf('/', prefix.length()) >= 0) {
+                continue;
+            }
+            latest.put(tombstone.relativePath, tombstone.deletedAt);
+        }
+        List<Map<String, Object>> deletions = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : latest.entrySet()) {
+            Map<String, Object> deletion = new HashMap<>();
+            deletion.put("RelativePath", entry.getKey());
+            deletion.put("DeletedAt", entry.getValue());
+            deletions.add(deletion);
+        }
+        return deletions;
+    }
+
+    // since 가 기록 보관 범위보다 이전이면 tombstone 이 빠졌을 수 있음
+    public synchronized boolean isComplete(long since) {
+        return since >= horizon;
+    }
+
+    private long retentionStart(long now) {
+        return now - retentionDays * 24L * 60 * 60 * 1000;
+    }
+
+    private void rewrite(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        StringBuilder content = new StringBuilder(HORIZON_PREFIX).append(horizon).append('\n');
+        for (Tombstone tombstone : tombstones) {
+            content.append(tombstone.deletedAt).append('\t').append(tombstone.relativePath).append('\n');
+        }
+        Path temp = Files.createTempFile(path.getParent(), "deletions", ".tmp");
+        Files.write(temp, content.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Tombstone {
+        final String relativePath;
+        final long deletedAt;
+
+        Tombstone(String relativePath, long deletedAt) {
+            this.relativePath = relativePath;
+            this.deletedAt = deletedAt;
+        }
+    }
+}
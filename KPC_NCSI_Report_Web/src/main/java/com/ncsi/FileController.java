@@ -1,14 +1,32 @@
 package com.ncsi;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -21,8 +39,53 @@ public class FileController {
     @Autowired
     private FileService fileService;
 
+    @Autowired
+    private ExcelParseCache excelParseCache;
+
+    @Autowired
+    private ExcelSnapshotStore excelSnapshotStore;
+
+    @Autowired
+    private ExcelSchemaCache excelSchemaCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseCompression responseCompression;
+
+    @Autowired
+    private CompressedResponseCache compressedResponseCache;
+
+    @Autowired
+    private ExcelJobManager excelJobManager;
+
+    @Autowired
+    private FileMetadataIndex fileMetadataIndex;
+
+    @Autowired
+    private ExcelTextIndex excelTextIndex;
+
+    @Autowired
+    private FileTransfer fileTransfer;
+
+    @Autowired
+    private ChunkedUploadManager chunkedUploadManager;
+
     private static final String DATA_DIR = "/home/ubuntu/Data";
 
+    // 스트리밍 응답에서 flush 할 행 간격
+    @Value("${ncsi.excel.stream-flush-rows:500}")
+    private int streamFlushRows;
+
+    // OData $metadata 에 선언할 기본 열 수 (folderPath 를 주면 실제 최대 열 수)
+    @Value("${ncsi.excel.odata.metadata-columns:50}")
+    private int odataMetadataColumns;
+
+    // cursor 만 주어졌을 때의 pageSize
+    @Value("${ncsi.excel.page.default-size:10000}")
+    private int defaultPageSize;
+
     @GetMapping("/")
     public ResponseEntity<?> healthCheck() {
         return ResponseEntity.ok(Map.of("status", "FileController is running"));
@@ -43,21 +106,38 @@ public class FileController {
         }
     }
 
+    // 응답은 기존처럼 배열, 전체 결과 수는 X-Total-Count 헤더
     @GetMapping("/search")
-    public ResponseEntity<?> searchFiles(@RequestParam String q, @RequestParam(defaultValue = "") String path) {
+    public ResponseEntity<?> searchFiles(@RequestParam String q, @RequestParam(defaultValue = "") String path,
+                                         @RequestParam(defaultValue = "0") int offset,
+                                         @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int limit) {
         try {
-            List<Map<String, Object>> results = fileService.searchFiles(q, path);
-            return ResponseEntity.ok(results);
+            Map<String, Object> page = fileService.searchFiles(q, path, offset, limit);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(page.get("total")))
+                    .body(page.get("items"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // 폴더 목록 (sort: name | size | lastModified | type, direction: asc | desc, 폴더가 항상 먼저)
+    // limit 을 주면 한 페이지만 반환하고, 다음 페이지는 X-Next-Cursor 값을 cursor 로 넘겨 조회
     @GetMapping("/list")
-    public ResponseEntity<?> listFiles(@RequestParam(defaultValue = "") String path) {
+    public ResponseEntity<?> listFiles(@RequestParam(defaultValue = "") String path,
+                                       @RequestParam(defaultValue = "name") String sort,
+                                       @RequestParam(defaultValue = "asc") String direction,
+                                       @RequestParam(defaultValue = "0") int limit,
+                                       @RequestParam(required = false) String cursor) {
         try {
-            List<Map<String, Object>> files = fileService.listFiles(path);
-            return ResponseEntity.ok(files);
+            Map<String, Object> page = fileService.listFiles(path, sort, direction, limit, cursor);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(page.get("total")))
+                    .header("X-Folder-Count", String.valueOf(page.get("folders")));
+            if (page.get("nextCursor") != null) {
+                response.header("X-Next-Cursor", (String) page.get("nextCursor"));
+            }
+            return response.body(page.get("items"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -69,28 +149,100 @@ public class FileController {
             @RequestParam(defaultValue = "") String folder) {
         try {
             String result = fileService.uploadFile(file, folder);
+            // 셀 본문 색인은 백그라운드에서 (업로드 응답은 기다리지 않음)
+            excelTextIndex.schedule(folder.isEmpty() ? file.getOriginalFilename() : folder + "/" + file.getOriginalFilename());
             return ResponseEntity.ok(Map.of("message", result));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // 분할 업로드 시작 (큰 파일): 이후 조각을 PUT /upload/chunked/{id}/{index} 로 보내고 complete 로 마무리
+    // 응답의 chunkSize/chunkCount 대로 나누며, missing 은 아직 받지 않은 조각 번호
+    @PostMapping("/upload/chunked")
+    public ResponseEntity<?> startChunkedUpload(
+            @RequestParam String fileName,
+            @RequestParam long size,
+            @RequestParam(defaultValue = "") String folder,
+            @RequestParam(required = false) Integer chunkSize) {
+        try {
+            return ResponseEntity.ok(chunkedUploadManager.start(folder, fileName, size, chunkSize).toMap());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 업로드 상태 (연결이 끊긴 뒤 missing 조각만 다시 보내기 위해 조회)
+    @GetMapping("/upload/chunked/{id}")
+    public ResponseEntity<?> getChunkedUpload(@PathVariable String id) {
+        ChunkedUploadManager.Upload upload = chunkedUploadManager.getUpload(id);
+        if (upload == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(upload.toMap());
+    }
+
+    // 조각 하나: 본문은 조각 바이트 그대로 (application/octet-stream), X-Chunk-CRC32 는 조각의 CRC32 (16진수)
+    // 조각끼리는 순서와 관계없이 동시에 보낼 수 있다
+    @PutMapping("/upload/chunked/{id}/{index}")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable String id,
+            @PathVariable int index,
+            @RequestHeader(value = "X-Chunk-CRC32", required = false) String crc32,
+            HttpServletRequest request) {
+        try {
+            ChunkedUploadManager.Upload upload = chunkedUploadManager.writeChunk(id, index, crc32, request.getInputStream());
+            if (upload == null) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<String, Object> body = upload.toMap();
+            body.put("index", index);
+            return ResponseEntity.ok(body);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 모든 조각을 받았으면 대상 폴더로 원자적 이동
+    @PostMapping("/upload/chunked/{id}/complete")
+    public ResponseEntity<?> completeChunkedUpload(@PathVariable String id) {
+        try {
+            String filePath = chunkedUploadManager.complete(id);
+            if (filePath == null) {
+                return ResponseEntity.notFound().build();
+            }
+            // 셀 본문 색인은 백그라운드에서 (업로드 응답은 기다리지 않음)
+            excelTextIndex.schedule(filePath);
+            return ResponseEntity.ok(Map.of("message", "File uploaded successfully: " + filePath));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 업로드 취소 (받던 임시 파일 삭제)
+    @DeleteMapping("/upload/chunked/{id}")
+    public ResponseEntity<?> cancelChunkedUpload(@PathVariable String id) {
+        ChunkedUploadManager.Upload upload = chunkedUploadManager.cancel(id);
+        if (upload == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("message", "Upload cancelled: " + id));
+    }
+
     @GetMapping("/download")
-    public ResponseEntity<Resource> downloadFile(@RequestParam String filePath) {
+    public ResponseEntity<Resource> downloadFile(@RequestParam String filePath, WebRequest webRequest) {
         try {
             Path path = Paths.get(DATA_DIR, filePath);
             Resource resource = new UrlResource(path.toUri());
             
             if (resource.exists()) {
-                String contentType = Files.probeContentType(path);
-                if (contentType == null) {
-                    contentType = "application/octet-stream";
+                // 바뀌지 않았으면 304 (ETag / Last-Modified)
+                ResponseValidator validator = fileService.getFileValidator(filePath);
+                if (isNotModified(webRequest, validator)) {
+                    return notModified();
                 }
                 
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
+                return fileResponse(path, resource, validator, webRequest, false);
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -99,10 +251,61 @@ public class FileController {
         }
     }
 
+    // 파일 다운로드 응답 (/download, /powerbi/file 공용)
+    // Range 가 한 구간이면 206 + Content-Range, 여러 구간이면 multipart/byteranges (Spring 이 ResourceRegion 으로 처리), 범위 밖이면 416
+    // If-Range 가 현재 ETag / Last-Modified 와 다르면 (이어받는 사이 파일이 바뀜) Range 를 무시하고 전체를 보낸다
+    // 전체 또는 한 구간이면 sendfile 로 zero-copy 전송 (FileTransfer)
+    private ResponseEntity<Resource> fileResponse(Path path, Resource resource, ResponseValidator validator,
+                                                  WebRequest webRequest, boolean cors) throws IOException {
+        String contentType = Files.probeContentType(path);
+        if (contentType == null) {
+            contentType = "application/octet-stream";
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (cors) {
+            headers.set("Access-Control-Allow-Origin", "*");
+            headers.set("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
+            headers.set("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        }
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"");
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        long length = resource.contentLength();
+        
+        String range = webRequest.getHeader(HttpHeaders.RANGE);
+        if (range == null || !FileTransfer.matchesIfRange(webRequest.getHeader(HttpHeaders.IF_RANGE), validator)) {
+            headers.setContentLength(length);
+            if (fileTransfer.sendFile(webRequest, path, 0, length)) {
+                return ResponseEntity.ok().headers(headers).build();
+            }
+            // Range 를 무시할 때는 Spring 이 다시 구간으로 나누지 않도록 InputStreamResource 로 보냄
+            return ResponseEntity.ok().headers(headers)
+                    .body(range == null ? resource : new InputStreamResource(resource.getInputStream()));
+        }
+        
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            if (ranges.size() == 1) {
+                ResourceRegion region = ranges.get(0).toResourceRegion(resource);
+                long end = region.getPosition() + region.getCount() - 1;
+                if (fileTransfer.sendFile(webRequest, path, region.getPosition(), region.getCount())) {
+                    headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + region.getPosition() + "-" + end + "/" + length);
+                    headers.setContentLength(region.getCount());
+                    return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).build();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // 잘못된 형식이거나 범위 밖: 아래에서 Spring 이 416 으로 응답
+        }
+        // 여러 구간이거나 sendfile 을 쓸 수 없으면 Spring 이 Resource 를 ResourceRegion 으로 나눠 206 응답
+        return ResponseEntity.ok().headers(headers).body(resource);
+    }
+
     @DeleteMapping("/delete")
     public ResponseEntity<?> deleteFile(@RequestParam String filePath) {
         try {
             String result = fileService.deleteFile(filePath);
+            excelTextIndex.schedule(filePath);
             return ResponseEntity.ok(Map.of("message", result));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -119,12 +322,89 @@ public class FileController {
         }
     }
 
+    // 폴더 통계 (하위 전체 크기/파일 수/엑셀 파일 수/폴더 수/최근 수정 시각), depth 단계 아래 폴더까지 (-1 이면 전체)
+    @GetMapping(value = "/stats", produces = "application/json")
+    public ResponseEntity<?> getFolderStats(@RequestParam(defaultValue = "") String path,
+                                            @RequestParam(defaultValue = "1") int depth) {
+        try {
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(fileService.getFolderStats(path, depth));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 엑셀 셀 본문 검색 (어느 파일/시트/셀에 검색어가 있는지, 점수순)
+    @GetMapping(value = "/content-search", produces = "application/json")
+    public ResponseEntity<?> searchExcelContent(@RequestParam String q,
+                                                @RequestParam(defaultValue = "") String path,
+                                                @RequestParam(defaultValue = "20") int limit,
+                                                @RequestParam(defaultValue = "5") int hits) {
+        try {
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(excelTextIndex.search(q, path, limit, hits));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // 간단한 파일 목록 API
     @GetMapping(value = "/api/files/list", produces = "application/json; charset=UTF-8")
-    public ResponseEntity<?> getFileList(@RequestParam(defaultValue = "") String path) {
+    public ResponseEntity<?> getFileList(@RequestParam(defaultValue = "") String path,
+                                         @RequestParam(required = false) Long modifiedSince,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                         WebRequest webRequest) {
         try {
+            String encoding = responseCompression.negotiate(acceptEncoding);
+            String cacheKey = null;
+            if (modifiedSince == null) {
+                // 엑셀 파일 목록이 바뀌지 않았으면 목록 구성/직렬화 없이 304 (증분 조회는 changeToken 이 매번 달라 제외)
+                ResponseValidator validator = fileService.getFolderValidator(path, true, true).withVariant(String.valueOf(encoding));
+                if (isNotModified(webRequest, validator)) {
+                    return notModified();
+                }
+                // 같은 검증값(엑셀 파일의 경로/크기/수정 시각 + 압축 방식)이면 목록 구성/직렬화/압축 없이 압축된 본문을 재사용
+                if (encoding != null && compressedResponseCache.isEnabled()) {
+                    cacheKey = "files-list\n" + path + "\n" + validator.getETag();
+                    CompressedResponseCache.Entry cached = compressedResponseCache.get(cacheKey);
+                    if (cached != null) {
+                        return cachedResponse(cached);
+                    }
+                }
+            }
+            
             // Content 없이 파일 목록만 반환 (빠름)
-            List<Map<String, Object>> fileList = fileService.getFolderFileListOnly(path, true);
+            long changeToken = System.currentTimeMillis();
+            List<Map<String, Object>> fileList = fileService.getFolderFileListOnly(path, true, modifiedSince);
+            
+            if (modifiedSince != null) {
+                // 증분 조회: 변경된 파일 + 삭제 tombstone + 다음 요청에 쓸 changeToken
+                Map<String, Object> changes = changeSet(path, true, modifiedSince, changeToken);
+                changes.put("files", fileList);
+                if (encoding != null) {
+                    return compressedResponse("application/json; charset=UTF-8", encoding, null, out -> writeJson(out, changes));
+                }
+                return ResponseEntity.ok()
+                        .header("Access-Control-Allow-Origin", "*")
+                        .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                        .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                        .header("Content-Type", "application/json; charset=UTF-8")
+                        .body(changes);
+            }
+            
+            if (encoding != null) {
+                return compressedResponse("application/json; charset=UTF-8", encoding, cacheKey, out -> writeJson(out, fileList));
+            }
             
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
@@ -142,8 +422,13 @@ public class FileController {
 
     // 폴더 구조 정보만 조회 (폴더 목록)
     @GetMapping(value = "/powerbi/folders", produces = "application/json")
-    public ResponseEntity<?> getFoldersForPowerBI(@RequestParam(defaultValue = "") String parentPath) {
+    public ResponseEntity<?> getFoldersForPowerBI(@RequestParam(defaultValue = "") String parentPath, WebRequest webRequest) {
         try {
+            // 바로 아래 항목이 바뀌지 않았으면 304 (응답은 바로 아래 폴더만 담고, 파일 추가/삭제는 그 폴더의 수정 시각에 드러남)
+            ResponseValidator validator = fileService.getFolderValidator(parentPath, false, false);
+            if (isNotModified(webRequest, validator)) {
+                return notModified();
+            }
             List<Map<String, Object>> folders = fileService.getFoldersForPowerBI(parentPath);
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
@@ -159,24 +444,19 @@ public class FileController {
 
     // 개별 파일 다운로드 API (파워비아이용)
     @GetMapping(value = "/powerbi/file", produces = "application/octet-stream")
-    public ResponseEntity<Resource> downloadFileForPowerBI(@RequestParam String filePath) {
+    public ResponseEntity<Resource> downloadFileForPowerBI(@RequestParam String filePath, WebRequest webRequest) {
         try {
             Path path = Paths.get(DATA_DIR, filePath);
             Resource resource = new UrlResource(path.toUri());
             
             if (resource.exists()) {
-                String contentType = Files.probeContentType(path);
-                if (contentType == null) {
-                    contentType = "application/octet-stream";
+                // 바뀌지 않았으면 304 (ETag / Last-Modified)
+                ResponseValidator validator = fileService.getFileValidator(filePath);
+                if (isNotModified(webRequest, validator)) {
+                    return notModified();
                 }
                 
-                return ResponseEntity.ok()
-                        .header("Access-Control-Allow-Origin", "*")
-                        .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
-                        .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
+                return fileResponse(path, resource, validator, webRequest, true);
             } else {
                 return ResponseEntity.notFound()
                         .header("Access-Control-Allow-Origin", "*")
@@ -190,18 +470,613 @@ public class FileController {
     }
 
     // 폴더 내 모든 엑셀 파일의 실제 내용을 읽어서 통합하여 반환하는 API
-    @GetMapping(value = "/powerbi/folder-excel-data", produces = "application/json; charset=UTF-8")
+    // 응답 형식: format 파라미터 또는 Accept (json | ndjson | csv | arrow)
+    @GetMapping(value = "/powerbi/folder-excel-data", produces = {"application/json; charset=UTF-8", "application/x-ndjson",
+            "application/ndjson", "text/csv", ExcelOutputFormat.ARROW_MEDIA_TYPE})
     public ResponseEntity<?> getFolderExcelDataForPowerBI(
             @RequestParam String folderPath,
+            @RequestParam(defaultValue = "false") boolean includeSubfolders,
+            @RequestParam(required = false) String readMode,
+            @RequestParam(defaultValue = "false") boolean stream,
+            @RequestParam(defaultValue = "true") boolean useCache,
+            @RequestParam(required = false) Integer parallelism,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Long modifiedSince,
+            @RequestParam(required = false) String valueMode,
+            @RequestParam(defaultValue = "false") boolean headers,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        try {
+            // readMode: dom | streaming (미지정 시 ncsi.excel.read-mode)
+            ExcelReadOptions options = new ExcelReadOptions();
+            options.setReadMode(readMode);
+            options.setUseCache(useCache);
+            options.setParallelism(parallelism);
+            options.setModifiedSince(modifiedSince);
+            // valueMode: string (기존 문자열) | typed (숫자/논리/ISO 날짜, 수식은 캐시된 결과)
+            options.setValueMode(valueMode);
+            // headers: 시트의 머리글 행을 열 이름으로 사용
+            options.setHeaders(headers);
+            
+            ExcelOutputFormat outputFormat = ExcelOutputFormat.negotiate(format, accept);
+            if (format == null || format.isBlank()) {
+                varyOnAccept(webRequest);
+            }
+            // Accept-Encoding: zstd / gzip (없으면 압축하지 않음)
+            String encoding = responseCompression.negotiate(acceptEncoding);
+            if (modifiedSince == null) {
+                // 엑셀 파일이 바뀌지 않았으면 파싱/직렬화 없이 304 (형식/압축은 헤더로도 정해지므로 지문에 포함)
+                ResponseValidator validator = fileService.getFolderValidator(folderPath, includeSubfolders, true)
+                        .withVariant(outputFormat.name(), String.valueOf(encoding));
+                if (isNotModified(webRequest, validator)) {
+                    return notModified();
+                }
+            }
+            if (outputFormat != ExcelOutputFormat.JSON) {
+                // NDJSON/CSV/Arrow 는 항상 파싱되는 행을 바로 기록 (페이지/증분 응답은 JSON 객체 형태라 지원하지 않음)
+                if (pageSize != null || cursor != null || modifiedSince != null) {
+                    throw new IllegalArgumentException("pageSize, cursor and modifiedSince are only supported for JSON output");
+                }
+                return streamFolderExcelData(folderPath, includeSubfolders, options, outputFormat, encoding);
+            }
+            
+            // 증분 조회: 변경된 파일의 행만 반환하고 삭제 tombstone 과 changeToken 을 함께 전달
+            long changeToken = System.currentTimeMillis();
+            Map<String, Object> changes = modifiedSince != null
+                    ? changeSet(folderPath, includeSubfolders, modifiedSince, changeToken) : null;
+            
+            if (pageSize != null || cursor != null) {
+                // 커서 기반 페이지 조회 ({data, nextCursor, hasMore})
+                Map<String, Object> page = fileService.getFolderExcelDataPage(folderPath, includeSubfolders, options,
+                        pageSize != null ? pageSize : defaultPageSize, cursor);
+                if (changes != null && cursor == null) {
+                    // tombstone/changeToken 은 첫 페이지에만
+                    page.putAll(changes);
+                }
+                if (encoding != null) {
+                    return compressedResponse("application/json; charset=UTF-8", encoding, null, out -> writeJson(out, page));
+                }
+                return ResponseEntity.ok()
+                        .header("Access-Control-Allow-Origin", "*")
+                        .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                        .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                        .header("Content-Type", "application/json; charset=UTF-8")
+                        .body(page);
+            }
+            
+            if (stream || encoding != null) {
+                // 파싱되는 행을 바로 응답으로 전송 (압축 응답은 항상 이 경로)
+                return streamFolderExcelData(folderPath, includeSubfolders, options, changes, encoding);
+            }
+            
+            // 행 Map 은 직렬화 시점에 만들지 않고 SheetData 에서 바로 기록
+            List<SheetData> excelSheets = fileService.getFolderExcelSheets(folderPath, includeSubfolders, options);
+            Object body = new ExcelRowsResponse(excelSheets, options.isTypedValues(), options.isHeaders());
+            if (changes != null) {
+                changes.put("data", body);
+                body = changes;
+            }
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 폴더의 엑셀 파일을 하나의 xlsx 로 합쳐 다운로드 (시트: 파일명_시트명)
+    // 만들어지는 워크북을 메모리에 모으지 않고 응답으로 바로 기록
+    @GetMapping("/powerbi/combined-excel")
+    public ResponseEntity<?> downloadCombinedExcel(@RequestParam String folderPath,
+                                                   @RequestParam(defaultValue = "false") boolean includeSubfolders) {
+        try {
+            Path folder = fileService.resolveExcelFolder(folderPath);
+            String fileName = (folderPath.isEmpty() ? "Data" : folder.getFileName().toString()) + "_combined.xlsx";
+            StreamingResponseBody body = outputStream ->
+                    fileService.writeCombinedExcelFile(folderPath, includeSubfolders, outputStream);
+            
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString())
+                    .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 비동기 작업 제출: type = combined-excel | folder-excel-data (format/valueMode/headers 는 folder-excel-data 와 같음)
+    // 같은 입력의 작업이 진행 중이거나 결과가 남아 있으면 그 작업을 돌려준다
+    @PostMapping(value = "/powerbi/jobs", produces = "application/json; charset=UTF-8")
+    public ResponseEntity<?> submitJob(
+            @RequestParam String type,
+            @RequestParam String folderPath,
+            @RequestParam(defaultValue = "false") boolean includeSubfolders,
+            @RequestParam(required = false) String readMode,
+            @RequestParam(required = false) Integer parallelism,
+            @RequestParam(required = false) String valueMode,
+            @RequestParam(defaultValue = "false") boolean headers,
+            @RequestParam(required = false) String format) {
+        try {
+            ExcelJobManager.Job job;
+            if (ExcelJobManager.COMBINED_EXCEL.equals(type)) {
+                job = excelJobManager.submitCombinedExcel(folderPath, includeSubfolders);
+            } else if (ExcelJobManager.FOLDER_EXCEL_DATA.equals(type)) {
+                ExcelReadOptions options = new ExcelReadOptions();
+                options.setReadMode(readMode);
+                options.setParallelism(parallelism);
+                options.setValueMode(valueMode);
+                options.setHeaders(headers);
+                job = excelJobManager.submitFolderExcelData(folderPath, includeSubfolders, options,
+                        ExcelOutputFormat.negotiate(format, null));
+            } else {
+                throw new IllegalArgumentException("Invalid type: " + type + " (combined-excel | folder-excel-data)");
+            }
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                    .body(jobResponse(job));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 작업 목록과 작업 풀 상태
+    @GetMapping(value = "/powerbi/jobs", produces = "application/json; charset=UTF-8")
+    public ResponseEntity<?> listJobs() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("pool", excelJobManager.getStats());
+        body.put("jobs", excelJobManager.listJobs());
+        return ResponseEntity.ok()
+                .header("Access-Control-Allow-Origin", "*")
+                .body(body);
+    }
+
+    // 작업 상태와 진행 상황 (filesDone/filesTotal, rows, bytes)
+    @GetMapping(value = "/powerbi/jobs/{id}", produces = "application/json; charset=UTF-8")
+    public ResponseEntity<?> getJob(@PathVariable String id) {
+        ExcelJobManager.Job job = excelJobManager.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .header("Access-Control-Allow-Origin", "*")
+                .body(jobResponse(job));
+    }
+
+    // 완료된 작업의 결과 파일 다운로드
+    @GetMapping("/powerbi/jobs/{id}/result")
+    public ResponseEntity<?> downloadJobResult(@PathVariable String id) {
+        ExcelJobManager.Job job = excelJobManager.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .build();
+        }
+        if (job.getStatus() != ExcelJobManager.Status.DONE || !Files.isRegularFile(job.getResult())) {
+            return ResponseEntity.badRequest()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(Map.of("error", "Job result is not available", "status", job.getStatus().name().toLowerCase()));
+        }
+        return ResponseEntity.ok()
+                .header("Access-Control-Allow-Origin", "*")
+                .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                .contentType(MediaType.parseMediaType(job.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(job.getFileName(), StandardCharsets.UTF_8).build().toString())
+                .body(new FileSystemResource(job.getResult()));
+    }
+
+    // 작업 취소 (끝난 작업이면 결과 파일과 함께 삭제)
+    @DeleteMapping(value = "/powerbi/jobs/{id}", produces = "application/json; charset=UTF-8")
+    public ResponseEntity<?> cancelJob(@PathVariable String id) {
+        try {
+            ExcelJobManager.Job job = excelJobManager.cancel(id);
+            if (job == null) {
+                return ResponseEntity.notFound()
+                        .header("Access-Control-Allow-Origin", "*")
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .body(job.toMap());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 작업 상태 + 조회/다운로드 URL
+    private Map<String, Object> jobResponse(ExcelJobManager.Job job) {
+        Map<String, Object> body = job.toMap();
+        String jobUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/files/powerbi/jobs/{id}").buildAndExpand(job.getId()).toUriString();
+        body.put("statusUrl", jobUrl);
+        body.put("resultUrl", jobUrl + "/result");
+        return body;
+    }
+
+    // NDJSON / CSV / Arrow IPC 스트리밍 응답 (CSV/Arrow 는 열 목록을 먼저 계산하므로 폴더 오류는 400)
+    private ResponseEntity<?> streamFolderExcelData(String folderPath, boolean includeSubfolders, ExcelReadOptions options,
+                                                    ExcelOutputFormat format, String encoding) throws IOException {
+        fileService.resolveExcelFolder(folderPath);
+        // 캐시 히트면 열 목록 계산(파싱)도 하지 않음
+        String cacheKey = folderExcelCacheKey(folderPath, includeSubfolders, options, format, encoding);
+        CompressedResponseCache.Entry cached = cacheKey != null ? compressedResponseCache.get(cacheKey) : null;
+        if (cached != null) {
+            return cachedResponse(cached);
+        }
+        ExcelColumnLayout layout = format.isTabular()
+                ? fileService.getFolderExcelColumnLayout(folderPath, includeSubfolders, options) : null;
+        
+        StreamingResponseBody body = outputStream ->
+                fileService.writeFolderExcelData(folderPath, includeSubfolders, options, format, layout, outputStream);
+        if (encoding != null) {
+            return compressedResponse(format.getContentType(), encoding, cacheKey, body);
+        }
+        
+        return ResponseEntity.ok()
+                .header("Access-Control-Allow-Origin", "*")
+                .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                .header("Content-Type", format.getContentType())
+                .body(body);
+    }
+
+    // 증분 조회 응답의 공통 부분 (changeToken, fullRefreshRequired, deleted)
+    private Map<String, Object> changeSet(String folderPath, boolean includeSubfolders, long modifiedSince, long changeToken) throws IOException {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("changeToken", changeToken);
+        changes.put("fullRefreshRequired", !fileService.isChangeLogComplete(modifiedSince));
+        changes.put("deleted", fileService.getDeletedExcelFiles(folderPath, includeSubfolders, modifiedSince));
+        return changes;
+    }
+
+    // JSON 배열을 Jackson 스트리밍 generator 로 한 행씩 기록하고 일정 행마다 flush
+    // changes 가 있으면 {changeToken, fullRefreshRequired, deleted, data: [...]} 형태로 기록
+    private ResponseEntity<?> streamFolderExcelData(String folderPath, boolean includeSubfolders, ExcelReadOptions options,
+                                                    Map<String, Object> changes, String encoding) throws IOException {
+        // 응답이 시작되기 전에 폴더 오류를 400 으로 돌려주기 위해 먼저 확인
+        fileService.resolveExcelFolder(folderPath);
+        // 증분 응답은 changeToken 이 매번 달라 캐시하지 않음
+        String cacheKey = changes == null
+                ? folderExcelCacheKey(folderPath, includeSubfolders, options, ExcelOutputFormat.JSON, encoding) : null;
+        CompressedResponseCache.Entry cached = cacheKey != null ? compressedResponseCache.get(cacheKey) : null;
+        if (cached != null) {
+            return cachedResponse(cached);
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // 중간에 실패하면 배열을 닫지 않아 클라이언트가 잘린 응답임을 알 수 있도록 함
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.setCodec(objectMapper);
+                if (changes != null) {
+                    generator.writeStartObject();
+                    for (Map.Entry<String, Object> entry : changes.entrySet()) {
+                        generator.writeObjectField(entry.getKey(), entry.getValue());
+                    }
+                    generator.writeFieldName("data");
+                }
+                generator.writeStartArray();
+                generator.flush();
+                
+                long[] rowCount = {0};
+                boolean typed = options.isTypedValues();
+                fileService.streamFolderExcelDataForPowerBI(folderPath, includeSubfolders, options,
+                        new ExcelHeaderRows(options.isHeaders(), (sheet, row, names) -> {
+                            sheet.writeRowJson(row, generator, typed, names);
+                            if (++rowCount[0] % streamFlushRows == 0) {
+                                generator.flush();
+                            }
+                        }));
+                
+                generator.writeEndArray();
+                if (changes != null) {
+                    generator.writeEndObject();
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        if (encoding != null) {
+            return compressedResponse("application/json; charset=UTF-8", encoding, cacheKey, body);
+        }
+        
+        return ResponseEntity.ok()
+                .header("Access-Control-Allow-Origin", "*")
+                .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(body);
+    }
+
+    // 압축 응답 캐시 키 (요청 파라미터 + 인코딩 + 대상 파일 지문), 캐시하지 않는 요청이면 null
+    // readMode/parallelism 은 결과에 영향이 없어 키에 넣지 않음
+    private String folderExcelCacheKey(String folderPath, boolean includeSubfolders, ExcelReadOptions options,
+                                       ExcelOutputFormat format, String encoding) throws IOException {
+        if (encoding == null || !options.isUseCache() || !compressedResponseCache.isEnabled()) {
+            return null;
+        }
+        return "folder-excel-data\n" + folderPath + "\n" + includeSubfolders + "\n" + options.isTypedValues() + "\n"
+                + options.isHeaders() + "\n" + format + "\n" + encoding + "\n"
+                + fileService.getFolderExcelFingerprint(folderPath, includeSubfolders);
+    }
+
+    // 본문을 encoding 으로 압축하며 전송, cacheKey 가 있으면 압축된 바이트를 캐시에 저장
+    // (중간에 실패한 응답은 저장하지 않음)
+    private ResponseEntity<StreamingResponseBody> compressedResponse(String contentType, String encoding, String cacheKey,
+                                                                     StreamingResponseBody writer) {
+        StreamingResponseBody body = outputStream -> {
+            CompressedResponseCache.Capture capture = cacheKey != null ? compressedResponseCache.capture(outputStream) : null;
+            OutputStream compressed = responseCompression.wrap(capture != null ? capture : outputStream, encoding);
+            writer.writeTo(compressed);
+            compressed.close();
+            byte[] bytes = capture != null ? capture.toByteArray() : null;
+            if (bytes != null) {
+                compressedResponseCache.put(cacheKey, contentType, encoding, bytes);
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .header("Access-Control-Allow-Origin", "*")
+                .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                .header("Content-Type", contentType)
+                .header("Content-Encoding", encoding)
+                .header("Vary", "Accept-Encoding")
+                .header("X-Ncsi-Cache", cacheKey != null ? "miss" : "bypass")
+                .body(body);
+    }
+
+    // 조건부 요청 확인 (If-None-Match / If-Modified-Since 가 검증값과 맞으면 true)
+    // 응답에 ETag / Last-Modified 를 싣고, 기본 no-store 대신 no-cache 로 보관 후 재검증하게 한다
+    private boolean isNotModified(WebRequest webRequest, ResponseValidator validator) {
+        if (webRequest instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            servletWebRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        return webRequest.checkNotModified(validator.getETag(), validator.getLastModified());
+    }
+
+    // 응답 형식을 Accept 헤더로 정했을 때 공유 캐시가 Accept 별로 따로 보관하도록 Vary 에 추가
+    // (압축 응답의 Vary: Accept-Encoding 과 합쳐지며, 304 응답에도 실림)
+    private void varyOnAccept(WebRequest webRequest) {
+        if (webRequest instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            servletWebRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+
+    // 조건부 요청에서 바뀐 것이 없을 때 (본문 없음)
+    private <T> ResponseEntity<T> notModified() {
+        // ETag / Last-Modified 는 isNotModified 에서 이미 설정됨
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .header("Access-Control-Allow-Origin", "*")
+                .build();
+    }
+
+    // 캐시된 압축 본문을 그대로 전송
+    private ResponseEntity<byte[]> cachedResponse(CompressedResponseCache.Entry cached) {
+        return ResponseEntity.ok()
+                .header("Access-Control-Allow-Origin", "*")
+                .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                .header("Content-Type", cached.getContentType())
+                .header("Content-Encoding", cached.getEncoding())
+                .header("Vary", "Accept-Encoding")
+                .header("X-Ncsi-Cache", "hit")
+                .contentLength(cached.getBody().length)
+                .body(cached.getBody());
+    }
+
+    // 객체를 JSON 으로 기록 (압축 스트림은 호출한 쪽에서 닫음)
+    private void writeJson(OutputStream out, Object value) throws IOException {
+        objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, value);
+    }
+
+    // OData 서비스 문서 (엔티티 셋: Rows)
+    @GetMapping(value = "/powerbi/odata", produces = "application/json")
+    public ResponseEntity<?> getODataServiceDocument() {
+        Map<String, Object> rows = new LinkedHashMap<>();
+        rows.put("name", "Rows");
+        rows.put("kind", "EntitySet");
+        rows.put("url", "Rows");
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("@odata.context", odataRoot() + "/$metadata");
+        document.put("value", List.of(rows));
+        return ResponseEntity.ok()
+                .header("Access-Control-Allow-Origin", "*")
+                .header("OData-Version", "4.0")
+                .body(document);
+    }
+
+    // OData $metadata (CSDL XML)
+    @GetMapping(value = "/powerbi/odata/$metadata", produces = "application/xml")
+    public ResponseEntity<?> getODataMetadata(
+            @RequestParam(required = false) String folderPath,
             @RequestParam(defaultValue = "false") boolean includeSubfolders) {
         try {
-            List<Map<String, Object>> excelData = fileService.getFolderExcelDataForPowerBI(folderPath, includeSubfolders);
+            int columnCount = folderPath != null
+                    ? fileService.getFolderExcelColumnCount(folderPath, includeSubfolders)
+                    : odataMetadataColumns;
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("OData-Version", "4.0")
+                    .header("Content-Type", "application/xml; charset=UTF-8")
+                    .body(ExcelODataQuery.metadataXml(columnCount));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // OData 피드: $select/$filter/$top/$skip 을 파싱 단계에서 적용하고 결과를 스트리밍
+    @GetMapping(value = "/powerbi/odata/Rows", produces = "application/json; charset=UTF-8")
+    public ResponseEntity<?> getODataRows(
+            @RequestParam String folderPath,
+            @RequestParam(defaultValue = "false") boolean includeSubfolders,
+            @RequestParam(required = false) String readMode,
+            @RequestParam(defaultValue = "true") boolean useCache,
+            @RequestParam(name = "$select", required = false) String select,
+            @RequestParam(name = "$filter", required = false) String filter,
+            @RequestParam(name = "$top", required = false) Integer top,
+            @RequestParam(name = "$skip", required = false) Integer skip) {
+        try {
+            // 쿼리/폴더 오류는 응답이 시작되기 전에 400 으로 반환
+            ExcelODataQuery query = ExcelODataQuery.parse(select, filter, top, skip);
+            fileService.resolveExcelFolder(folderPath);
+            ExcelReadOptions options = new ExcelReadOptions();
+            options.setReadMode(readMode);
+            options.setUseCache(useCache);
+            String context = odataRoot() + "/$metadata#Rows";
+            
+            StreamingResponseBody body = outputStream -> {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                    generator.writeStartObject();
+                    generator.writeStringField("@odata.context", context);
+                    generator.writeArrayFieldStart("value");
+                    
+                    long[] rowCount = {0};
+                    fileService.queryFolderExcelData(folderPath, includeSubfolders, query, options, (sheet, row) -> {
+                        query.writeRow(sheet, row, generator);
+                        if (++rowCount[0] % streamFlushRows == 0) {
+                            generator.flush();
+                        }
+                    });
+                    
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            };
+            
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                    .header("OData-Version", "4.0")
+                    .header("Content-Type", "application/json; odata.metadata=minimal; charset=UTF-8")
+                    .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 폴더 엑셀 데이터 group-by 집계 (요약 테이블만 전송)
+    // 예: groupBy=Column2,Column5&aggregates=sum(Column3),avg(Column3),count(*)&filter=Column3 gt 0
+    @GetMapping(value = "/powerbi/aggregate", produces = "application/json; charset=UTF-8")
+    public ResponseEntity<?> aggregateFolderExcelData(
+            @RequestParam String folderPath,
+            @RequestParam(defaultValue = "false") boolean includeSubfolders,
+            @RequestParam(required = false) String groupBy,
+            @RequestParam String aggregates,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String readMode,
+            @RequestParam(defaultValue = "true") boolean useCache,
+            @RequestParam(required = false) Integer parallelism) {
+        try {
+            ExcelAggregation aggregation = ExcelAggregation.parse(groupBy, aggregates, filter);
+            ExcelReadOptions options = new ExcelReadOptions();
+            options.setReadMode(readMode);
+            options.setUseCache(useCache);
+            options.setParallelism(parallelism);
+            
+            Map<String, Object> result = fileService.aggregateFolderExcelData(folderPath, includeSubfolders, aggregation, options);
+            return ResponseEntity.ok()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
+                    .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .header("Access-Control-Allow-Origin", "*")
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private String odataRoot() {
+        return ServletUriComponentsBuilder.fromCurrentContextPath().toUriString() + "/api/files/powerbi/odata";
+    }
+
+    // 엑셀 파싱 캐시 상태 (hit/miss/eviction 등)
+    @GetMapping(value = "/powerbi/cache-stats", produces = "application/json")
+    public ResponseEntity<?> getExcelCacheStats() {
+        Map<String, Object> stats = excelParseCache.getStats();
+        stats.put("snapshot", excelSnapshotStore.getStats());
+        stats.put("schema", excelSchemaCache.getStats());
+        stats.put("compressed", compressedResponseCache.getStats());
+        stats.put("fileIndex", fileMetadataIndex.getStats());
+        stats.put("textIndex", excelTextIndex.getStats());
+        return ResponseEntity.ok()
+                .header("Access-Control-Allow-Origin", "*")
+                .body(stats);
+    }
+
+    // 엑셀 파싱 캐시 비우기 (snapshots=true 면 디스크 스냅샷도 삭제)
+    @DeleteMapping("/powerbi/cache")
+    public ResponseEntity<?> clearExcelCache(@RequestParam(defaultValue = "false") boolean snapshots) {
+        try {
+            excelParseCache.clear();
+            excelSchemaCache.clear();
+            compressedResponseCache.clear();
+            int removedSnapshots = snapshots ? excelSnapshotStore.clear() : 0;
+            return ResponseEntity.ok(Map.of("message", "Excel cache cleared", "removedSnapshots", removedSnapshots));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 폴더 엑셀 스키마: 파일/시트별 머리글 행, 열 이름과 형식 + 폴더 전체로 합친 열 목록
+    @GetMapping(value = "/powerbi/excel-schema", produces = "application/json; charset=UTF-8")
+    public ResponseEntity<?> getFolderExcelSchema(
+            @RequestParam String folderPath,
+            @RequestParam(defaultValue = "false") boolean includeSubfolders,
+            @RequestParam(required = false) String readMode,
+            @RequestParam(defaultValue = "true") boolean useCache,
+            @RequestParam(required = false) Integer parallelism) {
+        try {
+            ExcelReadOptions options = new ExcelReadOptions();
+            options.setReadMode(readMode);
+            options.setUseCache(useCache);
+            options.setParallelism(parallelism);
             return ResponseEntity.ok()
                     .header("Access-Control-Allow-Origin", "*")
                     .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
                     .header("Access-Control-Allow-Headers", "Content-Type, Authorization")
                     .header("Content-Type", "application/json; charset=UTF-8")
-                    .body(excelData);
+                    .body(fileService.getFolderExcelSchema(folderPath, includeSubfolders, options));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .header("Access-Control-Allow-Origin", "*")
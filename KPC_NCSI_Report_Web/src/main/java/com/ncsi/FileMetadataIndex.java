@@ -0,0 +1,598 @@
+package com.ncsi;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+// 데이터 폴더의 메타데이터 색인 (폴더 트리, 항목마다 종류/크기/수정 시각)
+// 시작할 때 백그라운드에서 한 번 순회해 만들고, WatchService 와 FileService 의 업로드/삭제/폴더 생성으로 갱신한다.
+// 목록 조회는 디스크 대신 이 색인에서 답하며, 다음 경우에는 null 을 돌려 호출한 쪽이 디스크를 직접 읽게 한다.
+//   - 아직 만드는 중이거나 이벤트 유실(OVERFLOW) 후 다시 만드는 중 (stale)
+//   - 감시 등록 실패 (inotify 한도 등) 로 변경을 놓칠 수 있는 경우
+//   - 요청한 폴더가 색인에 없음 (방금 만들어져 이벤트가 아직 처리되지 않은 경우 등)
+// 항목 순서는 디렉토리 순회 순서이며 새로 생긴 항목은 뒤에 붙는다.
+// 분할 업로드가 복사 중인 임시 파일(FileService.isUploadTempFile)은 색인하지 않는다 (이동이 끝나면 대상 이름으로 들어옴).
+// 폴더마다 하위 전체의 합계(크기, 파일 수, 엑셀 파일 수, 가장 최근 수정 시각)를 두고,
+// 항목이 바뀌면 그 폴더부터 데이터 폴더까지 상위 폴더만 다시 합산한다 (바로 아래 항목 수 × 깊이).
+@Component
+public class FileMetadataIndex {
+
+    private static final String DATA_DIR = "/home/ubuntu/Data";
+
+    @Value("${ncsi.files.index.enabled:true}")
+    private boolean enabled;
+
+    private final Path basePath = Paths.get(DATA_DIR);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<WatchKey, Path> watchKeys = new HashMap<>();
+
+    private WatchService watchService;
+    private Thread watcher;
+    private Entry root;
+    private FileNameIndex names = new FileNameIndex();
+    private volatile boolean stale = true;
+    private volatile boolean watchFailed;
+
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong lastBuildMillis = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong memoryAnswers = new AtomicLong();
+    private final AtomicLong diskFallbacks = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            System.err.println("Error creating file watcher: " + e.getMessage());
+            watchFailed = true;
+        }
+        // 색인 생성과 이벤트 처리는 같은 스레드에서 (요청 처리와 시작을 막지 않음)
+        watcher = new Thread(this::run, "ncsi-file-index");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    // 색인으로 답할 수 있는 상태인지
+    public boolean isReady() {
+        return enabled && root != null && !stale && !watchFailed;
+    }
+
+    // 폴더의 항목 (recursive 면 하위 전체를 폴더 → 그 안의 항목 순서로), 색인으로 답할 수 없으면 null
+    public List<Entry> list(String relativePath, boolean recursive) {
+        lock.readLock().lock();
+        try {
+            Entry directory = isReady() ? find(relativePath) : null;
+            if (directory == null || !directory.directory) {
+                diskFallbacks.incrementAndGet();
+                return null;
+            }
+            memoryAnswers.incrementAndGet();
+            List<Entry> entries = new ArrayList<>();
+            collect(directory, recursive, entries);
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // relativePath 폴더 하위에서 이름에 term 이 들어 있는 항목 (trigram 색인), 색인으로 답할 수 없으면 null
+    public List<Entry> search(String relativePath, String term) {
+        lock.readLock().lock();
+        try {
+            Entry directory = isReady() ? find(relativePath) : null;
+            if (directory == null || !directory.directory) {
+                diskFallbacks.incrementAndGet();
+                return null;
+            }
+            memoryAnswers.incrementAndGet();
+            return names.search(term, directory.relativePath);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 폴더의 하위 전체 합계와 depth 단계 아래 폴더까지의 합계 (depth < 0 이면 전체), 색인으로 답할 수 없으면 null
+    public Map<String, Object> folderStats(String relativePath, int depth) {
+        lock.readLock().lock();
+        try {
+            Entry directory = isReady() ? find(relativePath) : null;
+            if (directory == null || !directory.directory) {
+                diskFallbacks.incrementAndGet();
+                return null;
+            }
+            memoryAnswers.incrementAndGet();
+            return folderStats(directory, depth);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Object> folderStats(Entry directory, int depth) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", directory.name);
+        stats.put("relativePath", directory.relativePath);
+        stats.put("totalSize", directory.totalSize);
+        stats.put("fileCount", directory.fileCount);
+        stats.put("excelFileCount", directory.excelFileCount);
+        stats.put("folderCount", directory.folderCount);
+        stats.put("childFileCount", directory.childFileCount);
+        stats.put("newestModified", directory.newestModified);
+        stats.put("lastModified", directory.lastModified);
+        if (depth != 0) {
+            List<Map<String, Object>> folders = new ArrayList<>();
+            for (Entry child : directory.children.values()) {
+                if (child.directory) {
+                    folders.add(folderStats(child, depth - 1));
+                }
+            }
+            stats.put("folders", folders);
+        }
+        return stats;
+    }
+
+    // 경로의 항목 (없거나 색인으로 답할 수 없으면 null)
+    public Entry get(String relativePath) {
+        lock.readLock().lock();
+        try {
+            return isReady() ? find(relativePath) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 업로드/삭제/폴더 생성 직후 호출: 경로를 디스크 상태로 다시 읽음 (폴더면 하위 전체)
+    public void refresh(Path path) {
+        if (!enabled || root == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            update(path.toAbsolutePath().normalize(), true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", isReady());
+        stats.put("stale", stale);
+        stats.put("watchFailed", watchFailed);
+        lock.readLock().lock();
+        try {
+            stats.put("entries", root != null ? 1 + root.folderCount + root.fileCount : 0);
+            stats.put("watchedDirectories", watchKeys.size());
+            stats.put("nameIndexEntries", names.size());
+            stats.put("nameIndexTrigrams", names.trigramCount());
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("builds", builds.get());
+        stats.put("lastBuildMillis", lastBuildMillis.get());
+        stats.put("events", events.get());
+        stats.put("overflows", overflows.get());
+        stats.put("memoryAnswers", memoryAnswers.get());
+        stats.put("diskFallbacks", diskFallbacks.get());
+        return stats;
+    }
+
+    private void run() {
+        rebuild();
+        if (watchService == null) {
+            return;
+        }
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean overflow = false;
+            lock.writeLock().lock();
+            try {
+                Path directory = watchKeys.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    events.incrementAndGet();
+                    if (event.kind() == OVERFLOW) {
+                        overflow = true;
+                    } else if (directory != null) {
+                        Path path = directory.resolve((Path) event.context());
+                        // 폴더 수정 이벤트는 속성만, 생성/삭제는 하위까지
+                        update(path, event.kind() != ENTRY_MODIFY);
+                    }
+                }
+                if (!key.reset()) {
+                    // 감시하던 폴더가 삭제됨
+                    watchKeys.remove(key);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (overflow) {
+                // 이벤트를 놓쳤으므로 다시 만들 때까지 디스크에서 답함
+                overflows.incrementAndGet();
+                stale = true;
+                rebuild();
+            }
+        }
+    }
+
+    // 전체 색인 다시 만들기 (만드는 동안은 stale)
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        stale = true;
+        lock.writeLock().lock();
+        try {
+            for (WatchKey key : watchKeys.keySet()) {
+                key.cancel();
+            }
+            watchKeys.clear();
+            watchFailed = false;
+            root = Files.isDirectory(basePath) ? scan(basePath) : null;
+            names = new FileNameIndex();
+            if (root != null) {
+                names.addTree(root);
+            }
+            builds.incrementAndGet();
+            lastBuildMillis.set(System.currentTimeMillis() - start);
+            stale = root == null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // path 를 디스크에서 다시 읽어 색인에 반영 (없어졌으면 제거), 부모 폴더의 속성도 갱신
+    private void update(Path path, boolean deep) {
+        if (root == null || !path.startsWith(basePath) || path.equals(basePath)) {
+            return;
+        }
+        Entry parent = findOrCreateParent(path.getParent());
+        if (parent == null) {
+            return;
+        }
+        String name = path.getFileName().toString();
+        if (FileService.isUploadTempFile(name)) {
+            return;
+        }
+        BasicFileAttributes attributes = readAttributes(path);
+        Entry existing = parent.children.get(name);
+        if (attributes == null) {
+            if (existing != null) {
+                parent.children.remove(name);
+                names.removeTree(existing);
+                unwatch(existing);
+                existing.parent = null;
+            }
+        } else if (existing == null || existing.directory != attributes.isDirectory() || (deep && attributes.isDirectory())) {
+            if (existing != null) {
+                names.removeTree(existing);
+                unwatch(existing);
+            }
+            Entry entry = attributes.isDirectory() ? scan(path) : new Entry(name, relativize(path), attributes);
+            entry.parent = parent;
+            parent.children.put(name, entry);
+            names.addTree(entry);
+        } else {
+            existing.size = attributes.isDirectory() ? 0 : attributes.size();
+            existing.lastModified = attributes.lastModifiedTime().toMillis();
+        }
+        BasicFileAttributes parentAttributes = readAttributes(path.getParent());
+        if (parentAttributes != null) {
+            parent.lastModified = parentAttributes.lastModifiedTime().toMillis();
+        }
+        rollUp(parent);
+    }
+
+    // 폴더부터 데이터 폴더까지 합계 다시 계산
+    private static void rollUp(Entry directory) {
+        for (Entry entry = directory; entry != null; entry = entry.parent) {
+            entry.aggregate();
+        }
+    }
+
+    // 폴더 하나를 순회해 항목 트리 생성 (BasicFileAttributes 로 한 번만 stat), 폴더마다 감시 등록
+    private Entry scan(Path directory) {
+        Deque<Entry> stack = new ArrayDeque<>();
+        Entry[] top = new Entry[1];
+        try {
+            Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    // 목록을 읽기 전에 등록해야 그 사이의 변경도 이벤트로 받음 (폴더 속성도 등록 후 다시 읽음)
+                    watch(dir);
+                    BasicFileAttributes current = readAttributes(dir);
+                    Entry entry = new Entry(dir.equals(basePath) ? "" : dir.getFileName().toString(), relativize(dir),
+                            current != null ? current : attributes);
+                    add(stack, entry);
+                    if (top[0] == null) {
+                        top[0] = entry;
+                    }
+                    stack.push(entry);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (FileService.isUploadTempFile(file.getFileName().toString())) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    add(stack, new Entry(file.getFileName().toString(), relativize(file), attributes));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    System.err.println("Error indexing: " + file + " - " + e.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                    // 하위 폴더가 먼저 끝나므로 바로 아래 항목 합계만으로 계산
+                    stack.pop().aggregate();
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error indexing: " + directory + " - " + e.getMessage());
+        }
+        return top[0];
+    }
+
+    private static void add(Deque<Entry> stack, Entry entry) {
+        Entry parent = stack.peek();
+        if (parent != null) {
+            entry.parent = parent;
+            parent.children.put(entry.name, entry);
+        }
+    }
+
+    private void watch(Path directory) {
+        if (watchService == null || watchFailed) {
+            return;
+        }
+        try {
+            watchKeys.put(directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), directory);
+        } catch (IOException e) {
+            // 감시하지 못하는 폴더가 있으면 색인을 믿을 수 없으므로 디스크에서 답함
+            System.err.println("Error watching directory: " + directory + " - " + e.getMessage());
+            watchFailed = true;
+        }
+    }
+
+    private void unwatch(Entry entry) {
+        if (!entry.directory) {
+            return;
+        }
+        Path path = basePath.resolve(entry.relativePath);
+        watchKeys.entrySet().removeIf(watched -> {
+            if (watched.getValue().startsWith(path)) {
+                watched.getKey().cancel();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private Entry find(String relativePath) {
+        if (root == null) {
+            return null;
+        }
+        Path path = basePath.resolve(relativePath == null ? "" : relativePath).normalize();
+        if (!path.startsWith(basePath)) {
+            return null;
+        }
+        Entry entry = root;
+        for (Path part : basePath.relativize(path)) {
+            String name = part.toString();
+            if (name.isEmpty()) {
+                continue;
+            }
+            entry = entry.children != null ? entry.children.get(name) : null;
+            if (entry == null) {
+                return null;
+            }
+        }
+        return entry;
+    }
+
+    // path 의 색인 항목, 없으면 상위부터 디스크에서 읽어 추가
+    private Entry findOrCreateParent(Path directory) {
+        if (directory.equals(basePath)) {
+            return root;
+        }
+        Entry parent = findOrCreateParent(directory.getParent());
+        if (parent == null || parent.children == null) {
+            return null;
+        }
+        String name = directory.getFileName().toString();
+        Entry entry = parent.children.get(name);
+        if (entry == null) {
+            BasicFileAttributes attributes = readAttributes(directory);
+            if (attributes == null || !attributes.isDirectory()) {
+                return null;
+            }
+            entry = scan(directory);
+            entry.parent = parent;
+            parent.children.put(name, entry);
+            names.addTree(entry);
+        }
+        return entry.directory ? entry : null;
+    }
+
+    private static void collect(Entry directory, boolean recursive, List<Entry> entries) {
+        for (Entry child : directory.children.values()) {
+            entries.add(child);
+            if (recursive && child.directory) {
+                collect(child, true, entries);
+            }
+        }
+    }
+
+    private String relativize(Path path) {
+        return basePath.relativize(path).toString();
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // 색인 항목 (폴더면 children 이 있음, 폴더 크기는 0)
+    public static final class Entry {
+        private final String name;
+        private final String relativePath;
+        private final boolean directory;
+        private volatile long size;
+        private volatile long lastModified;
+        private final Map<String, Entry> children;
+        private Entry parent;
+        // 폴더의 하위 전체 합계 (aggregate 로 갱신)
+        private volatile long totalSize;
+        private volatile int fileCount;
+        private volatile int excelFileCount;
+        private volatile int folderCount;
+        private volatile int childFileCount;
+        private volatile long newestModified;
+
+        Entry(String name, String relativePath, BasicFileAttributes attributes) {
+            this.name = name;
+            this.relativePath = relativePath;
+            this.directory = attributes.isDirectory();
+            this.size = directory ? 0 : attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.children = directory ? new LinkedHashMap<>() : null;
+        }
+
+        Entry(String name, String relativePath, boolean directory, long size, long lastModified) {
+            this.name = name;
+            this.relativePath = relativePath;
+            this.directory = directory;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.children = directory ? new LinkedHashMap<>() : null;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getRelativePath() {
+            return relativePath;
+        }
+
+        // 상위 폴더의 상대 경로 (데이터 폴더 바로 아래면 "")
+        public String getFolderPath() {
+            int slash = relativePath.lastIndexOf('/');
+            return slash >= 0 ? relativePath.substring(0, slash) : "";
+        }
+
+        public boolean isDirectory() {
+            return directory;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        // 바로 아래 항목 (파일이면 비어 있음)
+        public Collection<Entry> getChildren() {
+            return children != null ? children.values() : Collections.emptyList();
+        }
+
+        // 하위 전체 크기 (파일이면 자기 크기)
+        public long getTotalSize() {
+            return directory ? totalSize : size;
+        }
+
+        // 하위 전체 파일 수
+        public int getFileCount() {
+            return directory ? fileCount : 1;
+        }
+
+        public int getExcelFileCount() {
+            return directory ? excelFileCount : (isExcel() ? 1 : 0);
+        }
+
+        // 하위 전체 폴더 수 (자기 제외)
+        public int getFolderCount() {
+            return directory ? folderCount : 0;
+        }
+
+        // 바로 아래 파일 수
+        public int getChildFileCount() {
+            return childFileCount;
+        }
+
+        // 하위 파일 중 가장 최근 수정 시각 (파일이 없으면 0)
+        public long getNewestModified() {
+            return directory ? newestModified : lastModified;
+        }
+
+        // 바로 아래 항목의 합계로 이 폴더의 합계 계산 (하위 폴더는 이미 계산되어 있어야 함)
+        void aggregate() {
+            long total = 0;
+            int files = 0;
+            int excelFiles = 0;
+            int folders = 0;
+            int childFiles = 0;
+            long newest = 0;
+            for (Entry child : children.values()) {
+                total += child.getTotalSize();
+                files += child.getFileCount();
+                excelFiles += child.getExcelFileCount();
+                newest = Math.max(newest, child.getNewestModified());
+                if (child.directory) {
+                    folders += 1 + child.folderCount;
+                } else {
+                    childFiles++;
+                }
+            }
+            totalSize = total;
+            fileCount = files;
+            excelFileCount = excelFiles;
+            folderCount = folders;
+            childFileCount = childFiles;
+            newestModified = newest;
+        }
+
+        private boolean isExcel() {
+            String lower = name.toLowerCase();
+            return lower.endsWith(".xlsx") || lower.endsWith(".xls");
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.ncsi;
+
+import java.util.*;
+
+// 파일 이름 부분 문자열 검색용 trigram 색인 (FileMetadataIndex 가 항목 추가/삭제 때 갱신)
+// 이름을 소문자로 바꿔 연속한 3글자(char 단위, 한글 음절도 한 글자)마다 항목 번호 목록(posting list)을 둔다.
+// 검색어의 trigram 목록 중 가장 짧은 것부터 교집합을 구하고, 후보는 실제 이름으로 한 번 더 확인한다.
+// 3글자보다 짧은 검색어는 trigram 이 없으므로 전체 이름을 훑는다 (디스크 접근 없음).
+// 항목 번호는 추가 순서대로 늘어나므로 posting list 는 항상 정렬되어 있다.
+// 삭제는 번호만 비워 두고(검색에서 건너뜀) 번호가 다 찼을 때 절반 이상 비어 있으면 번호를 다시 매긴다.
+// 동기화는 호출하는 쪽(FileMetadataIndex 의 잠금)이 맡는다.
+public class FileNameIndex {
+
+    private FileMetadataIndex.Entry[] entries = new FileMetadataIndex.Entry[1024];
+    private String[] names = new String[1024];
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<FileMetadataIndex.Entry, Integer> ids = new IdentityHashMap<>();
+    private int nextId;
+    private int size;
+
+    // entry 와 하위 항목 전체 추가 (데이터 폴더 자체는 제외)
+    public void addTree(FileMetadataIndex.Entry entry) {
+        if (!entry.getRelativePath().isEmpty()) {
+            add(entry);
+        }
+        if (entry.isDirectory()) {
+            for (FileMetadataIndex.Entry child : entry.getChildren()) {
+                addTree(child);
+            }
+        }
+    }
+
+    // entry 와 하위 항목 전체 제거
+    public void removeTree(FileMetadataIndex.Entry entry) {
+        remove(entry);
+        if (entry.isDirectory()) {
+            for (FileMetadataIndex.Entry child : entry.getChildren()) {
+                removeTree(child);
+            }
+        }
+    }
+
+    public void add(FileMetadataIndex.Entry entry) {
+        if (ids.containsKey(entry)) {
+            return;
+        }
+        if (nextId == entries.length) {
+            compactOrGrow();
+        }
+        int id = nextId++;
+        String name = entry.getName().toLowerCase();
+        entries[id] = entry;
+        names[id] = name;
+        ids.put(entry, id);
+        size++;
+        for (long trigram : trigrams(name)) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                list = new Postings();
+                postings.put(trigram, list);
+            }
+            list.add(id);
+        }
+    }
+
+    public void remove(FileMetadataIndex.Entry entry) {
+        Integer id = ids.remove(entry);
+        if (id == null) {
+            return;
+        }
+        entries[id] = null;
+        names[id] = null;
+        size--;
+    }
+
+    // 이름에 term 이 들어 있는 항목 (대소문자 무시, folder 가 비어 있지 않으면 그 하위만), 추가 순서
+    public List<FileMetadataIndex.Entry> search(String term, String folder) {
+        String query = term.toLowerCase();
+        String prefix = folder == null || folder.isEmpty() ? "" : (folder.endsWith("/") ? folder : folder + "/");
+        List<FileMetadataIndex.Entry> results = new ArrayList<>();
+        long[] queryTrigrams = trigrams(query);
+        if (queryTrigrams.length == 0) {
+            for (int id = 0; id < nextId; id++) {
+                if (names[id] != null && names[id].contains(query) && entries[id].getRelativePath().startsWith(prefix)) {
+                    results.add(entries[id]);
+                }
+            }
+            return results;
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (long trigram : queryTrigrams) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                return results;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        Postings smallest = lists.get(0);
+        // 나머지 목록은 커서를 앞으로만 옮기며 찾음 (galloping)
+        int[] cursors = new int[lists.size()];
+        for (int i = 0; i < smallest.size; i++) {
+            int id = smallest.ids[i];
+            boolean all = true;
+            for (int j = 1; j < lists.size() && all; j++) {
+                Postings list = lists.get(j);
+                cursors[j] = list.seek(id, cursors[j]);
+                if (cursors[j] == list.size) {
+                    return results;
+                }
+                all = list.ids[cursors[j]] == id;
+            }
+            // trigram 이 모두 있어도 이어져 있지 않을 수 있으므로 실제 이름으로 확인
+            if (all && names[id] != null && names[id].contains(query) && entries[id].getRelativePath().startsWith(prefix)) {
+                results.add(entries[id]);
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int trigramCount() {
+        return postings.size();
+    }
+
+    // 색인이 차지하는 대략의 메모리 (posting 배열 + 이름)
+    public long estimateBytes() {
+        long bytes = (long) entries.length * 8 * 2;
+        for (Postings list : postings.values()) {
+            bytes += 48 + (long) list.ids.length * 4;
+        }
+        for (int id = 0; id < nextId; id++) {
+            if (names[id] != null) {
+                bytes += 40 + names[id].length() * 2L;
+            }
+        }
+        return bytes;
+    }
+
+    // 빈 번호가 절반 이상이면 번호를 다시 매기고, 아니면 배열을 늘림
+    private void compactOrGrow() {
+        if (size * 2 > nextId) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            names = Arrays.copyOf(names, names.length * 2);
+            return;
+        }
+        FileMetadataIndex.Entry[] live = new FileMetadataIndex.Entry[size];
+        int count = 0;
+        for (int id = 0; id < nextId; id++) {
+            if (entries[id] != null) {
+                live[count++] = entries[id];
+            }
+        }
+        Arrays.fill(entries, null);
+        Arrays.fill(names, null);
+        postings.clear();
+        ids.clear();
+        nextId = 0;
+        size = 0;
+        for (FileMetadataIndex.Entry entry : live) {
+            add(entry);
+        }
+    }
+
+    // 이름의 서로 다른 trigram (char 3개를 long 하나에)
+    private static long[] trigrams(String name) {
+        if (name.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[name.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) name.charAt(i) << 32) | ((long) name.charAt(i + 1) << 16) | name.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int count = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[count++] = trigrams[i];
+            }
+        }
+        return count == trigrams.length ? trigrams : Arrays.copyOf(trigrams, count);
+    }
+
+    // 정렬된 항목 번호 목록
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        // from 부터 보아 id 이상인 첫 위치 (없으면 size)
+        int seek(int id, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && ids[high] < id) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(ids, low, Math.min(high + 1, size), id);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -1,60 +1,256 @@
 package com.ncsi;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ByteArrayResource;
 
 import java.io.*;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class FileService {
 
     private static final String DATA_DIR = "/home/ubuntu/Data";
+    private static final String READ_MODE_DOM = "dom";
+    private static final String READ_MODE_STREAMING = "streaming";
+    private static final String UPLOAD_TEMP_SUFFIX = ".upload";
 
+    @Autowired
+    private XlsxStreamingReader xlsxStreamingReader;
+
+    @Autowired
+    private ExcelParseCache excelParseCache;
+
+    @Autowired
+    private ExcelIngestionEngine excelIngestionEngine;
+
+    @Autowired
+    private ExcelSnapshotStore excelSnapshotStore;
+
+    @Autowired
+    private FileChangeLog fileChangeLog;
+
+    @Autowired
+    private ExcelSchemaCache excelSchemaCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FileMetadataIndex fileMetadataIndex;
+
+    @Autowired
+    private DirectoryWalker directoryWalker;
+
+    // 엑셀 읽기 기본 모드 (dom | streaming)
+    @Value("${ncsi.excel.read-mode:streaming}")
+    private String excelReadMode;
+
+    // 페이지 조회 시 pageSize 상한
+    @Value("${ncsi.excel.page.max-size:50000}")
+    private int maxPageSize;
+
+    // 스키마 추론 시 시트마다 형식을 확인할 데이터 행 수 (0 이면 전체)
+    @Value("${ncsi.excel.schema.sample-rows:1000}")
+    private int schemaSampleRows;
+
+    // NDJSON/CSV 출력에서 flush 할 행 간격
+    @Value("${ncsi.excel.stream-flush-rows:500}")
+    private int streamFlushRows;
+
+    // Arrow IPC 출력의 RecordBatch 행 수
+    @Value("${ncsi.excel.arrow.batch-rows:10000}")
+    private int arrowBatchRows;
+
+    // 합친 워크북(combined-excel)을 만들 때 메모리에 두는 행 수 (나머지는 임시 파일)
+    @Value("${ncsi.excel.combined.row-window:100}")
+    private int combinedRowWindow;
+
+    // 폴더 전체 목록 (폴더를 먼저, 이름순)
+    @SuppressWarnings("unchecked")
     public List<Map<String, Object>> listFiles(String relativePath) throws IOException {
+        return (List<Map<String, Object>>) listFiles(relativePath, "name", "asc", 0, null).get("items");
+    }
+
+    // 폴더 목록 한 페이지: 정렬 순서에서 cursor 다음 항목부터 limit 개 (limit <= 0 이면 전체), 폴더가 항상 먼저
+    // 전체를 정렬하지 않고 크기 limit 의 힙으로 앞쪽 항목만 고르고 (O(n log limit)), 응답 Map 도 페이지 항목만 만든다
+    // cursor 는 이전 페이지 마지막 항목의 정렬 값이라 페이지 사이에 항목이 추가/삭제되어도 겹치거나 빠지지 않는다
+    // 결과: total(전체 항목 수), folders(그중 폴더 수), items, nextCursor(마지막 페이지면 null)
+    public Map<String, Object> listFiles(String relativePath, String sort, String direction, int limit, String cursor) throws IOException {
         Path basePath = Paths.get(DATA_DIR);
         Path targetPath = relativePath.isEmpty() ? basePath : basePath.resolve(relativePath);
         
         if (!Files.exists(targetPath) || !Files.isDirectory(targetPath)) {
             throw new IOException("Directory not found: " + relativePath);
         }
+        return listPage(listItems(targetPath, relativePath, false), sort, direction, limit, cursor);
+    }
 
-        List<Map<String, Object>> files = new ArrayList<>();
+    // listFiles 의 정렬/페이지 처리 (항목 읽기와 분리)
+    static Map<String, Object> listPage(List<ListItem> items, String sort, String direction, int limit, String cursor) {
+        Comparator<ListItem> order = listOrder(sort, direction);
+        ListItem after = cursor == null || cursor.isEmpty() ? null : ListItem.fromCursor(cursor);
         
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(targetPath)) {
-            for (Path path : stream) {
-                Map<String, Object> fileInfo = new HashMap<>();
-                fileInfo.put("name", path.getFileName().toString());
-                fileInfo.put("isDirectory", Files.isDirectory(path));
-                fileInfo.put("size", Files.isDirectory(path) ? 0 : Files.size(path));
-                fileInfo.put("lastModified", Files.getLastModifiedTime(path).toMillis());
-                
-                // 상대 경로 계산
-                String relativeFilePath = basePath.relativize(path).toString();
-                fileInfo.put("relativePath", relativeFilePath);
-                
-                files.add(fileInfo);
+        int folders = 0;
+        int remaining = 0;
+        // limit 이 있으면 정렬 순서의 가장 뒤 항목이 맨 위에 오는 힙에 앞쪽 limit 개만 유지
+        PriorityQueue<ListItem> top = new PriorityQueue<>(order.reversed());
+        List<ListItem> all = new ArrayList<>();
+        for (ListItem item : items) {
+            if (item.directory) {
+                folders++;
+            }
+            if (after != null && order.compare(item, after) <= 0) {
+                continue;
+            }
+            remaining++;
+            if (limit <= 0) {
+                all.add(item);
+            } else if (top.size() < limit) {
+                top.add(item);
+            } else if (order.compare(item, top.peek()) < 0) {
+                top.poll();
+                top.add(item);
             }
         }
+        List<ListItem> page = limit <= 0 ? all : new ArrayList<>(top);
+        page.sort(order);
         
-        // 폴더를 먼저, 파일을 나중에 정렬
-        files.sort((a, b) -> {
-            boolean aIsDir = (Boolean) a.get("isDirectory");
-            boolean bIsDir = (Boolean) b.get("isDirectory");
-            
-            if (aIsDir && !bIsDir) return -1;
-            if (!aIsDir && bIsDir) return 1;
-            
-            return ((String) a.get("name")).compareToIgnoreCase((String) b.get("name"));
-        });
+        List<Map<String, Object>> files = new ArrayList<>(page.size());
+        for (ListItem item : page) {
+            Map<String, Object> fileInfo = new HashMap<>();
+            fileInfo.put("name", item.name);
+            fileInfo.put("isDirectory", item.directory);
+            fileInfo.put("size", item.size);
+            fileInfo.put("lastModified", item.lastModified);
+            fileInfo.put("relativePath", item.relativePath);
+            files.add(fileInfo);
+        }
         
-        return files;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", items.size());
+        result.put("folders", folders);
+        result.put("items", files);
+        result.put("nextCursor", remaining > page.size() ? page.get(page.size() - 1).toCursor() : null);
+        return result;
+    }
+
+    // 폴더의 항목 (recursive 면 하위 전체, 순회 순서)
+    private List<ListItem> listItems(Path targetPath, String relativePath, boolean recursive) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        List<FileMetadataIndex.Entry> entries = fileMetadataIndex.list(relativePath, recursive);
+        if (entries == null) {
+            return directoryWalker.walk(targetPath, recursive, (path, attributes) -> new ListItem(path.getFileName().toString(),
+                    basePath.relativize(path).toString(), attributes.isDirectory(),
+                    attributes.isDirectory() ? 0 : attributes.size(), attributes.lastModifiedTime().toMillis()));
+        }
+        // 메타데이터 색인에서 조회 (stat 없음)
+        List<ListItem> items = new ArrayList<>(entries.size());
+        for (FileMetadataIndex.Entry entry : entries) {
+            items.add(new ListItem(entry.getName(), entry.getRelativePath(), entry.isDirectory(), entry.getSize(), entry.getLastModified()));
+        }
+        return items;
+    }
+
+    // 폴더 응답의 조건부 요청 검증값 (excelOnly 면 엑셀 파일만 지문에 포함, 순서도 응답 순서이므로 그대로)
+    // 색인 또는 속성만 읽으므로 파싱/직렬화보다 훨씬 싸다
+    public ResponseValidator getFolderValidator(String folderPath, boolean includeSubfolders, boolean excelOnly) throws IOException {
+        Path targetPath = resolveExcelFolder(folderPath);
+        FileMetadataIndex.Entry folder = fileMetadataIndex.get(folderPath);
+        long lastModified = folder != null ? folder.getLastModified() : Files.getLastModifiedTime(targetPath).toMillis();
+        List<String> parts = new ArrayList<>();
+        for (ListItem item : listItems(targetPath, folderPath, includeSubfolders)) {
+            // 엑셀만 지문에 넣어도 수정 시각은 폴더 포함 전체에서 (삭제는 폴더 수정 시각으로만 드러남)
+            lastModified = Math.max(lastModified, item.lastModified);
+            if (!excelOnly || (!item.directory && isExcelFile(Paths.get(item.name)))) {
+                parts.add(item.relativePath + "\t" + item.directory + "\t" + item.size + "\t" + item.lastModified);
+            }
+        }
+        return ResponseValidator.of(parts, lastModified);
+    }
+
+    // 파일 다운로드의 조건부 요청 검증값 (경로/크기/수정 시각)
+    public ResponseValidator getFileValidator(String filePath) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(Paths.get(DATA_DIR, filePath), BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        return ResponseValidator.of(List.of(filePath, String.valueOf(attributes.size()), String.valueOf(lastModified)), lastModified);
+    }
+
+    // 목록 정렬: 폴더 먼저, 그다음 sort(name | size | lastModified | type) 와 direction(asc | desc), 같으면 이름순
+    private static Comparator<ListItem> listOrder(String sort, String direction) {
+        Comparator<ListItem> byName = Comparator.comparing((ListItem item) -> item.name, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(item -> item.name);
+        Comparator<ListItem> key;
+        switch (sort == null || sort.isEmpty() ? "name" : sort) {
+            case "name":
+                key = byName;
+                break;
+            case "size":
+                key = Comparator.comparingLong((ListItem item) -> item.size).thenComparing(byName);
+                break;
+            case "lastModified":
+                key = Comparator.comparingLong((ListItem item) -> item.lastModified).thenComparing(byName);
+                break;
+            case "type":
+                key = Comparator.comparing(ListItem::extension, String.CASE_INSENSITIVE_ORDER).thenComparing(byName);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown sort: " + sort + " (name | size | lastModified | type)");
+        }
+        if ("desc".equalsIgnoreCase(direction)) {
+            key = key.reversed();
+        } else if (direction != null && !direction.isEmpty() && !"asc".equalsIgnoreCase(direction)) {
+            throw new IllegalArgumentException("Unknown direction: " + direction + " (asc | desc)");
+        }
+        return Comparator.comparing((ListItem item) -> !item.directory).thenComparing(key);
+    }
+
+    // 목록 정렬용 항목 (응답 Map 은 페이지에 들어간 항목만 만든다)
+    static final class ListItem {
+        final String name;
+        final String relativePath;
+        final boolean directory;
+        final long size;
+        final long lastModified;
+
+        ListItem(String name, String relativePath, boolean directory, long size, long lastModified) {
+            this.name = name;
+            this.relativePath = relativePath;
+            this.directory = directory;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        String extension() {
+            return directory || !name.contains(".") ? "" : name.substring(name.lastIndexOf(".") + 1);
+        }
+
+        // 정렬 값만 담은 cursor (URL 에 그대로 쓸 수 있는 Base64)
+        String toCursor() {
+            String value = (directory ? "d" : "f") + "\n" + size + "\n" + lastModified + "\n" + name;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        }
+
+        static ListItem fromCursor(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), java.nio.charset.StandardCharsets.UTF_8).split("\n", 4);
+                return new ListItem(parts[3], "", "d".equals(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
     }
 
     public String uploadFile(MultipartFile file, String folder) throws IOException {
@@ -70,10 +266,61 @@ public class FileService {
         
         // 파일이 이미 존재하면 덮어쓰기
         Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        uploaded(basePath, filePath);
         
         return "File uploaded successfully: " + file.getOriginalFilename();
     }
 
+    // 분할 업로드 대상 경로 (DATA_DIR 밖이나 하위 폴더를 가리키는 파일 이름은 거부)
+    public Path resolveUploadTarget(String folder, String fileName) throws IOException {
+        if (fileName == null || fileName.isEmpty() || fileName.contains("/") || fileName.contains("\\")
+                || fileName.equals(".") || fileName.equals("..")) {
+            throw new IllegalArgumentException("Invalid file name: " + fileName);
+        }
+        Path basePath = Paths.get(DATA_DIR);
+        Path targetPath = (folder.isEmpty() ? basePath : basePath.resolve(folder)).normalize();
+        if (!targetPath.startsWith(basePath)) {
+            throw new IllegalArgumentException("Invalid folder: " + folder);
+        }
+        return targetPath.resolve(fileName);
+    }
+
+    // 분할 업로드로 다 받은 파일(source)을 대상 위치로 원자적 이동 (같은 이름이 있으면 덮어쓰기)
+    // 대상 폴더와 파일 시스템이 달라 바로 이동할 수 없으면 대상 폴더의 임시 파일(.이름.uuid.upload)로 복사한 뒤 이동하므로
+    // 어느 경우든 대상 이름으로는 다 받은 파일만 보인다. 임시 파일은 목록/검색/통계/색인에서 제외한다 (isUploadTempFile)
+    public String moveUploadedFile(Path source, String folder, String fileName) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        Path filePath = resolveUploadTarget(folder, fileName);
+        Files.createDirectories(filePath.getParent());
+        try {
+            Files.move(source, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Path temp = filePath.resolveSibling("." + fileName + "." + UUID.randomUUID() + UPLOAD_TEMP_SUFFIX);
+            try {
+                Files.copy(source, temp);
+                Files.move(temp, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            Files.deleteIfExists(source);
+        }
+        uploaded(basePath, filePath);
+        return "File uploaded successfully: " + fileName;
+    }
+
+    // 분할 업로드가 대상 폴더에 복사 중인 임시 파일 이름인지
+    public static boolean isUploadTempFile(String name) {
+        return name.startsWith(".") && name.endsWith(UPLOAD_TEMP_SUFFIX);
+    }
+
+    // 업로드로 바뀐 파일의 캐시 제거와 메타데이터 색인 갱신
+    private void uploaded(Path basePath, Path filePath) {
+        excelParseCache.invalidate(basePath.relativize(filePath).toString());
+        excelSnapshotStore.invalidate(basePath.relativize(filePath).toString(), false);
+        excelSchemaCache.invalidate(basePath.relativize(filePath).toString());
+        fileMetadataIndex.refresh(filePath);
+    }
+
     public String deleteFile(String relativePath) throws IOException {
         Path basePath = Paths.get(DATA_DIR);
         Path targetPath = basePath.resolve(relativePath);
@@ -82,15 +329,30 @@ public class FileService {
             throw new IOException("File or directory not found: " + relativePath);
         }
         
+        // 삭제 대상(폴더면 하위 전체)의 캐시 제거
+        excelParseCache.invalidate(basePath.relativize(targetPath).toString());
+        excelSnapshotStore.invalidate(basePath.relativize(targetPath).toString(), Files.isDirectory(targetPath));
+        excelSchemaCache.invalidate(basePath.relativize(targetPath).toString());
+        
+        // 증분 새로고침용 tombstone 대상 (폴더면 하위 파일 전체)
+        List<String> deletedFiles;
+        String message;
         if (Files.isDirectory(targetPath)) {
-            // 폴더 삭제 (재귀적)
-            deleteDirectory(targetPath);
-            return "Directory deleted successfully: " + relativePath;
+            // 폴더 삭제 (재귀적, 지운 파일 목록을 함께 모음)
+            deletedFiles = deleteDirectory(targetPath, basePath);
+            message = "Directory deleted successfully: " + relativePath;
         } else {
             // 파일 삭제
             Files.delete(targetPath);
-            return "File deleted successfully: " + relativePath;
+            deletedFiles = List.of(basePath.relativize(targetPath).toString());
+            message = "File deleted successfully: " + relativePath;
+        }
+        fileMetadataIndex.refresh(targetPath);
+        long deletedAt = System.currentTimeMillis();
+        for (String deletedFile : deletedFiles) {
+            fileChangeLog.recordDeletion(deletedFile, deletedAt);
         }
+        return message;
     }
 
     public String createFolder(String folderPath) throws IOException {
@@ -102,20 +364,33 @@ public class FileService {
         }
         
         Files.createDirectories(targetPath);
+        fileMetadataIndex.refresh(targetPath);
         return "Folder created successfully: " + folderPath;
     }
 
-    private void deleteDirectory(Path directory) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (Files.isDirectory(path)) {
-                    deleteDirectory(path);
-                } else {
-                    Files.delete(path);
+    // 폴더와 하위 전체 삭제 (파일 먼저, 폴더는 하위가 비워진 뒤), 지운 파일의 상대 경로 반환
+    private List<String> deleteDirectory(Path directory, Path basePath) throws IOException {
+        return directoryWalker.walk(directory, true, new DirectoryWalker.Visitor<String>() {
+            // 복사 중인 업로드 임시 파일도 지워야 폴더를 지울 수 있음
+            @Override
+            public boolean visitsUploadTempFiles() {
+                return true;
+            }
+
+            @Override
+            public String visit(Path path, BasicFileAttributes attributes) throws IOException {
+                if (attributes.isDirectory()) {
+                    return null;
                 }
+                Files.delete(path);
+                return attributes.isRegularFile() ? basePath.relativize(path).toString() : null;
             }
-        }
-        Files.delete(directory);
+
+            @Override
+            public void afterDirectory(Path path) throws IOException {
+                Files.delete(path);
+            }
+        });
     }
 
     public long calculateTotalSize(String relativePath) throws IOException {
@@ -126,69 +401,144 @@ public class FileService {
             return 0;
         }
         
+        // 색인의 폴더 합계 (하위 순회 없음)
+        Map<String, Object> stats = fileMetadataIndex.folderStats(relativePath, 0);
+        if (stats != null) {
+            return (Long) stats.get("totalSize");
+        }
         return calculateDirectorySize(targetPath);
     }
     
     private long calculateDirectorySize(Path directory) throws IOException {
-        long totalSize = 0;
+        LongAdder totalSize = new LongAdder();
+        directoryWalker.walk(directory, true, (path, attributes) -> {
+            if (!attributes.isDirectory()) {
+                totalSize.add(attributes.size());
+            }
+            return null;
+        });
+        return totalSize.sum();
+    }
+
+    // 폴더 통계 (하위 전체 크기/파일 수/엑셀 파일 수/폴더 수/최근 수정 시각, depth 단계 아래 폴더까지, -1 이면 전체)
+    public Map<String, Object> getFolderStats(String relativePath, int depth) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        Path targetPath = relativePath.isEmpty() ? basePath : basePath.resolve(relativePath);
         
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (Files.isDirectory(path)) {
-                    totalSize += calculateDirectorySize(path);
-                } else {
-                    totalSize += Files.size(path);
+        if (!Files.exists(targetPath) || !Files.isDirectory(targetPath)) {
+            throw new IOException("Folder not found: " + relativePath);
+        }
+        
+        Map<String, Object> stats = fileMetadataIndex.folderStats(relativePath, depth);
+        if (stats != null) {
+            return stats;
+        }
+        return collectFolderStats(targetPath, basePath, depth);
+    }
+    
+    // 색인을 쓸 수 없을 때 디스크를 한 번 순회해 같은 형식으로 계산 (항목마다 속성은 한 번만 읽음)
+    private Map<String, Object> collectFolderStats(Path directory, Path basePath, int depth) throws IOException {
+        List<Map.Entry<Path, BasicFileAttributes>> entries = directoryWalker.walk(directory, true, Map::entry);
+        
+        // 폴더마다 빈 통계를 만들어 부모의 folders 에 목록 순서대로 추가 (depth 단계 아래 폴더까지)
+        Map<Path, Map<String, Object>> folders = new HashMap<>();
+        folders.put(directory, emptyFolderStats(directory, basePath, Files.getLastModifiedTime(directory).toMillis(), depth != 0));
+        for (Map.Entry<Path, BasicFileAttributes> entry : entries) {
+            if (entry.getValue().isDirectory()) {
+                Path path = entry.getKey();
+                int level = directory.relativize(path).getNameCount();
+                Map<String, Object> stats = emptyFolderStats(path, basePath, entry.getValue().lastModifiedTime().toMillis(),
+                        depth < 0 || level < depth);
+                folders.put(path, stats);
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> siblings = (List<Map<String, Object>>) folders.get(path.getParent()).get("folders");
+                if (siblings != null) {
+                    siblings.add(stats);
                 }
             }
         }
         
-        return totalSize;
+        // 순회의 역순이면 하위 항목이 부모보다 먼저 오므로 폴더 합계가 끝난 뒤 부모에 더해짐
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Path path = entries.get(i).getKey();
+            BasicFileAttributes attributes = entries.get(i).getValue();
+            Map<String, Object> parent = folders.get(path.getParent());
+            if (attributes.isDirectory()) {
+                Map<String, Object> child = folders.get(path);
+                parent.put("totalSize", (Long) parent.get("totalSize") + (Long) child.get("totalSize"));
+                parent.put("fileCount", (Integer) parent.get("fileCount") + (Integer) child.get("fileCount"));
+                parent.put("excelFileCount", (Integer) parent.get("excelFileCount") + (Integer) child.get("excelFileCount"));
+                parent.put("folderCount", (Integer) parent.get("folderCount") + 1 + (Integer) child.get("folderCount"));
+                parent.put("newestModified", Math.max((Long) parent.get("newestModified"), (Long) child.get("newestModified")));
+            } else {
+                parent.put("totalSize", (Long) parent.get("totalSize") + attributes.size());
+                parent.put("fileCount", (Integer) parent.get("fileCount") + 1);
+                parent.put("childFileCount", (Integer) parent.get("childFileCount") + 1);
+                if (isExcelFile(path)) {
+                    parent.put("excelFileCount", (Integer) parent.get("excelFileCount") + 1);
+                }
+                parent.put("newestModified", Math.max((Long) parent.get("newestModified"), attributes.lastModifiedTime().toMillis()));
+            }
+        }
+        return folders.get(directory);
+    }
+    
+    private Map<String, Object> emptyFolderStats(Path directory, Path basePath, long lastModified, boolean withFolders) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", directory.equals(basePath) ? "" : directory.getFileName().toString());
+        stats.put("relativePath", basePath.relativize(directory).toString());
+        stats.put("totalSize", 0L);
+        stats.put("fileCount", 0);
+        stats.put("excelFileCount", 0);
+        stats.put("folderCount", 0);
+        stats.put("childFileCount", 0);
+        stats.put("newestModified", 0L);
+        stats.put("lastModified", lastModified);
+        if (withFolders) {
+            stats.put("folders", new ArrayList<Map<String, Object>>());
+        }
+        return stats;
     }
 
     public List<Map<String, Object>> searchFiles(String searchTerm, String relativePath) throws IOException {
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> results = (List<Map<String, Object>>) searchFiles(searchTerm, relativePath, 0, Integer.MAX_VALUE).get("items");
+        return results;
+    }
+
+    // 이름 검색 (이름순 정렬 후 offset 부터 limit 개, total 은 전체 결과 수)
+    public Map<String, Object> searchFiles(String searchTerm, String relativePath, int offset, int limit) throws IOException {
         Path basePath = Paths.get(DATA_DIR);
         Path targetPath = relativePath.isEmpty() ? basePath : basePath.resolve(relativePath);
         
-        if (!Files.exists(targetPath) || !Files.isDirectory(targetPath)) {
-            return new ArrayList<>();
-        }
-        
         List<Map<String, Object>> results = new ArrayList<>();
-        searchInDirectory(targetPath, basePath, searchTerm.toLowerCase(), results);
+        if (Files.exists(targetPath) && Files.isDirectory(targetPath)) {
+            List<FileMetadataIndex.Entry> entries = fileMetadataIndex.search(relativePath, searchTerm);
+            if (entries != null) {
+                // trigram 색인에서 조회 (트리 순회 없음)
+                for (FileMetadataIndex.Entry entry : entries) {
+                    results.add(createFileInfo(entry, false));
+                }
+            } else {
+                String term = searchTerm.toLowerCase();
+                results.addAll(directoryWalker.walk(targetPath, true, (path, attributes) ->
+                        path.getFileName().toString().toLowerCase().contains(term)
+                                ? createFileInfo(path, basePath, attributes, false) : null));
+            }
+        }
         
         // 이름순으로 정렬
         results.sort((a, b) -> ((String) a.get("name")).compareToIgnoreCase((String) b.get("name")));
         
-        return results;
+        int from = Math.min(Math.max(offset, 0), results.size());
+        int to = (int) Math.min((long) from + Math.max(limit, 0), results.size());
+        Map<String, Object> page = new HashMap<>();
+        page.put("total", results.size());
+        page.put("offset", from);
+        page.put("items", new ArrayList<>(results.subList(from, to)));
+        return page;
     }
     
-    private void searchInDirectory(Path directory, Path basePath, String searchTerm, List<Map<String, Object>> results) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                String fileName = path.getFileName().toString();
-                
-                if (fileName.toLowerCase().contains(searchTerm)) {
-                    Map<String, Object> fileInfo = new HashMap<>();
-                    fileInfo.put("name", fileName);
-                    fileInfo.put("isDirectory", Files.isDirectory(path));
-                    fileInfo.put("size", Files.isDirectory(path) ? 0 : Files.size(path));
-                    fileInfo.put("lastModified", Files.getLastModifiedTime(path).toMillis());
-                    
-                    // 상대 경로 계산
-                    String relativeFilePath = basePath.relativize(path).toString();
-                    fileInfo.put("relativePath", relativeFilePath);
-                    
-                    results.add(fileInfo);
-                }
-                
-                // 하위 디렉토리도 재귀적으로 검색
-                if (Files.isDirectory(path)) {
-                    searchInDirectory(path, basePath, searchTerm, results);
-                }
-            }
-        }
-    }
-
     // 파워비아이용 폴더 단위 파일 조회
     public List<Map<String, Object>> getFolderFilesForPowerBI(String folderPath, boolean includeSubfolders) throws IOException {
         Path basePath = Paths.get(DATA_DIR);
@@ -200,12 +550,15 @@ public class FileService {
 
         List<Map<String, Object>> allFiles = new ArrayList<>();
         
-        if (includeSubfolders) {
-            // 하위 폴더까지 재귀적으로 조회
-            collectAllFiles(targetPath, basePath, allFiles);
+        List<FileMetadataIndex.Entry> entries = fileMetadataIndex.list(folderPath, includeSubfolders);
+        if (entries != null) {
+            for (FileMetadataIndex.Entry entry : entries) {
+                allFiles.add(createFileInfo(entry, true));
+            }
         } else {
-            // 현재 폴더만 조회
-            collectFilesInDirectory(targetPath, basePath, allFiles);
+            // 하위 폴더까지 (includeSubfolders) 또는 현재 폴더만 조회
+            allFiles.addAll(directoryWalker.walk(targetPath, includeSubfolders,
+                    (path, attributes) -> createFileInfo(path, basePath, attributes, true)));
         }
         
         // 파워비아이 형식으로 변환
@@ -223,24 +576,34 @@ public class FileService {
 
         List<Map<String, Object>> folders = new ArrayList<>();
         
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(targetPath)) {
-            for (Path path : stream) {
-                if (Files.isDirectory(path)) {
+        List<FileMetadataIndex.Entry> entries = fileMetadataIndex.list(parentPath, false);
+        if (entries != null) {
+            for (FileMetadataIndex.Entry entry : entries) {
+                if (entry.isDirectory()) {
+                    Map<String, Object> folderInfo = new HashMap<>();
+                    folderInfo.put("FolderName", entry.getName());
+                    folderInfo.put("FolderPath", entry.getRelativePath());
+                    folderInfo.put("LastModified", entry.getLastModified());
+                    folderInfo.put("LastModifiedFormatted", new java.util.Date(entry.getLastModified()).toString());
+                    folderInfo.put("FileCount", entry.getChildFileCount());
+                    folders.add(folderInfo);
+                }
+            }
+        } else {
+            // 항목마다 속성을 한 번만 읽음 (폴더 내 파일 개수도 바로 아래 항목의 속성으로)
+            for (Map.Entry<Path, BasicFileAttributes> entry : directoryWalker.walk(targetPath, false, Map::entry)) {
+                if (entry.getValue().isDirectory()) {
+                    Path path = entry.getKey();
+                    long lastModified = entry.getValue().lastModifiedTime().toMillis();
                     Map<String, Object> folderInfo = new HashMap<>();
                     folderInfo.put("FolderName", path.getFileName().toString());
                     folderInfo.put("FolderPath", basePath.relativize(path).toString());
-                    folderInfo.put("LastModified", Files.getLastModifiedTime(path).toMillis());
-                    folderInfo.put("LastModifiedFormatted", new java.util.Date(Files.getLastModifiedTime(path).toMillis()).toString());
+                    folderInfo.put("LastModified", lastModified);
+                    folderInfo.put("LastModifiedFormatted", new java.util.Date(lastModified).toString());
                     
                     // 폴더 내 파일 개수 계산
-                    int fileCount = 0;
-                    try (DirectoryStream<Path> folderStream = Files.newDirectoryStream(path)) {
-                        for (Path file : folderStream) {
-                            if (!Files.isDirectory(file)) {
-                                fileCount++;
-                            }
-                        }
-                    }
+                    int fileCount = directoryWalker.walk(path, false,
+                            (file, attributes) -> attributes.isDirectory() ? null : file).size();
                     folderInfo.put("FileCount", fileCount);
                     
                     folders.add(folderInfo);
@@ -254,57 +617,38 @@ public class FileService {
         return folders;
     }
 
-    // 하위 폴더까지 모든 파일 수집
-    private void collectAllFiles(Path directory, Path basePath, List<Map<String, Object>> allFiles) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                Map<String, Object> fileInfo = new HashMap<>();
-                fileInfo.put("name", path.getFileName().toString());
-                fileInfo.put("isDirectory", Files.isDirectory(path));
-                fileInfo.put("size", Files.isDirectory(path) ? 0 : Files.size(path));
-                fileInfo.put("lastModified", Files.getLastModifiedTime(path).toMillis());
-                
-                // 상대 경로 계산
-                String relativeFilePath = basePath.relativize(path).toString();
-                fileInfo.put("relativePath", relativeFilePath);
-                
-                // 폴더 경로 정보 추가
-                String folderPath = relativeFilePath.contains("/") ? 
-                    relativeFilePath.substring(0, relativeFilePath.lastIndexOf("/")) : "";
-                fileInfo.put("folderPath", folderPath);
-                
-                allFiles.add(fileInfo);
-                
-                // 하위 디렉토리도 재귀적으로 처리
-                if (Files.isDirectory(path)) {
-                    collectAllFiles(path, basePath, allFiles);
-                }
-            }
+    // 디스크 항목의 파일 정보 (attributes 는 순회에서 한 번 읽은 값)
+    private Map<String, Object> createFileInfo(Path path, Path basePath, BasicFileAttributes attributes, boolean withFolderPath) {
+        Map<String, Object> fileInfo = new HashMap<>();
+        fileInfo.put("name", path.getFileName().toString());
+        fileInfo.put("isDirectory", attributes.isDirectory());
+        fileInfo.put("size", attributes.isDirectory() ? 0 : attributes.size());
+        fileInfo.put("lastModified", attributes.lastModifiedTime().toMillis());
+        
+        // 상대 경로 계산
+        String relativeFilePath = basePath.relativize(path).toString();
+        fileInfo.put("relativePath", relativeFilePath);
+        
+        // 폴더 경로 정보 추가
+        if (withFolderPath) {
+            fileInfo.put("folderPath", relativeFilePath.contains("/") ?
+                relativeFilePath.substring(0, relativeFilePath.lastIndexOf("/")) : "");
         }
+        return fileInfo;
     }
 
-    // 현재 폴더의 파일만 수집
-    private void collectFilesInDirectory(Path directory, Path basePath, List<Map<String, Object>> files) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                Map<String, Object> fileInfo = new HashMap<>();
-                fileInfo.put("name", path.getFileName().toString());
-                fileInfo.put("isDirectory", Files.isDirectory(path));
-                fileInfo.put("size", Files.isDirectory(path) ? 0 : Files.size(path));
-                fileInfo.put("lastModified", Files.getLastModifiedTime(path).toMillis());
-                
-                // 상대 경로 계산
-                String relativeFilePath = basePath.relativize(path).toString();
-                fileInfo.put("relativePath", relativeFilePath);
-                
-                // 폴더 경로 정보 추가
-                String folderPath = relativeFilePath.contains("/") ? 
-                    relativeFilePath.substring(0, relativeFilePath.lastIndexOf("/")) : "";
-                fileInfo.put("folderPath", folderPath);
-                
-                files.add(fileInfo);
-            }
+    // 색인 항목의 파일 정보 (디스크 조회와 같은 형식)
+    private Map<String, Object> createFileInfo(FileMetadataIndex.Entry entry, boolean withFolderPath) {
+        Map<String, Object> fileInfo = new HashMap<>();
+        fileInfo.put("name", entry.getName());
+        fileInfo.put("isDirectory", entry.isDirectory());
+        fileInfo.put("size", entry.getSize());
+        fileInfo.put("lastModified", entry.getLastModified());
+        fileInfo.put("relativePath", entry.getRelativePath());
+        if (withFolderPath) {
+            fileInfo.put("folderPath", entry.getFolderPath());
         }
+        return fileInfo;
     }
 
     // 파워비아이 형식으로 변환
@@ -352,44 +696,9 @@ public class FileService {
             throw new IOException("Folder not found: " + folderPath);
         }
 
-        List<Map<String, Object>> allData = new ArrayList<>();
-        
-        if (includeSubfolders) {
-            // 하위 폴더까지 재귀적으로 처리
-            processAllExcelFiles(targetPath, basePath, allData);
-        } else {
-            // 현재 폴더만 처리
-            processExcelFilesInDirectory(targetPath, basePath, allData);
-        }
-        
-        return allData;
-    }
-
-    // 하위 폴더까지 모든 엑셀 파일 처리
-    private void processAllExcelFiles(Path directory, Path basePath, List<Map<String, Object>> allData) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (Files.isDirectory(path)) {
-                    // 하위 디렉토리도 재귀적으로 처리
-                    processAllExcelFiles(path, basePath, allData);
-                } else if (isExcelFile(path)) {
-                    // 엑셀 파일 처리
-                    processExcelFile(path, basePath, allData);
-                }
-            }
-        }
-    }
-
-    // 현재 폴더의 엑셀 파일만 처리
-    private void processExcelFilesInDirectory(Path directory, Path basePath, List<Map<String, Object>> allData) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (!Files.isDirectory(path) && isExcelFile(path)) {
-                    // 엑셀 파일 처리
-                    processExcelFile(path, basePath, allData);
-                }
-            }
-        }
+        // 하위 폴더까지 (includeSubfolders) 또는 현재 폴더의 엑셀 파일 처리
+        return directoryWalker.walk(targetPath, includeSubfolders, (path, attributes) ->
+                !attributes.isDirectory() && isExcelFile(path) ? processExcelFile(path, basePath, attributes) : null);
     }
 
     // 엑셀 파일인지 확인
@@ -398,8 +707,8 @@ public class FileService {
         return fileName.endsWith(".xlsx") || fileName.endsWith(".xls");
     }
 
-    // 개별 엑셀 파일 처리
-    private void processExcelFile(Path filePath, Path basePath, List<Map<String, Object>> allData) throws IOException {
+    // 개별 엑셀 파일 처리 (오류면 null)
+    private Map<String, Object> processExcelFile(Path filePath, Path basePath, BasicFileAttributes attributes) {
         try {
             String relativePath = basePath.relativize(filePath).toString();
             String fileName = filePath.getFileName().toString();
@@ -408,10 +717,10 @@ public class FileService {
             Map<String, Object> fileInfo = new HashMap<>();
             fileInfo.put("FileName", fileName);
             fileInfo.put("RelativePath", relativePath);
-            fileInfo.put("FileSize", Files.size(filePath));
-            fileInfo.put("FileSizeFormatted", formatFileSize(Files.size(filePath)));
-            fileInfo.put("LastModified", Files.getLastModifiedTime(filePath).toMillis());
-            fileInfo.put("LastModifiedFormatted", new java.util.Date(Files.getLastModifiedTime(filePath).toMillis()).toString());
+            fileInfo.put("FileSize", attributes.size());
+            fileInfo.put("FileSizeFormatted", formatFileSize(attributes.size()));
+            fileInfo.put("LastModified", attributes.lastModifiedTime().toMillis());
+            fileInfo.put("LastModifiedFormatted", new java.util.Date(attributes.lastModifiedTime().toMillis()).toString());
             
             // 폴더 경로 정보
             String folderPath = relativePath.contains("/") ? 
@@ -428,218 +737,836 @@ public class FileService {
             // 다운로드 URL 추가
             fileInfo.put("DownloadUrl", "http://13.237.218.10/api/files/powerbi/file?filePath=" + relativePath);
             
-            allData.add(fileInfo);
+            return fileInfo;
             
         } catch (Exception e) {
             // 파일 처리 중 오류가 발생해도 계속 진행
             System.err.println("Error processing file: " + filePath + " - " + e.getMessage());
+            return null;
         }
     }
 
     // 폴더 내 모든 엑셀 파일의 실제 내용을 읽어서 통합하여 반환
     public List<Map<String, Object>> getFolderExcelDataForPowerBI(String folderPath, boolean includeSubfolders) throws IOException {
+        return getFolderExcelDataForPowerBI(folderPath, includeSubfolders, excelReadMode);
+    }
+
+    // readMode: "dom"(XSSFWorkbook) 또는 "streaming"(XSSFReader SAX, .xlsx 전용)
+    public List<Map<String, Object>> getFolderExcelDataForPowerBI(String folderPath, boolean includeSubfolders, String readMode) throws IOException {
+        ExcelReadOptions options = new ExcelReadOptions();
+        options.setReadMode(readMode);
+        return getFolderExcelDataForPowerBI(folderPath, includeSubfolders, options);
+    }
+
+    public List<Map<String, Object>> getFolderExcelDataForPowerBI(String folderPath, boolean includeSubfolders, ExcelReadOptions options) throws IOException {
+        List<Map<String, Object>> allExcelData = new ArrayList<>();
+        streamFolderExcelDataForPowerBI(folderPath, includeSubfolders, options, new ExcelHeaderRows(options.isHeaders(),
+                (sheet, row, names) -> allExcelData.add(sheet.toRowMap(row, options.isTypedValues(), names))));
+        return allExcelData;
+    }
+
+    // 폴더의 엑셀 데이터를 시트별 열 단위 구조(SheetData)로 반환 (행 Map 은 직렬화 시점에 생성)
+    public List<SheetData> getFolderExcelSheets(String folderPath, boolean includeSubfolders, ExcelReadOptions options) throws IOException {
         Path basePath = Paths.get(DATA_DIR);
-        Path targetPath = folderPath.isEmpty() ? basePath : basePath.resolve(folderPath);
+        List<Path> excelFiles = filterModifiedSince(listExcelFilesForContent(resolveExcelFolder(folderPath), includeSubfolders),
+                options.getModifiedSince());
+        // 잘못된 readMode 는 처리 시작 전에 오류
+        isStreamingReadMode(options.getReadMode());
         
-        if (!Files.exists(targetPath) || !Files.isDirectory(targetPath)) {
-            throw new IOException("Folder not found: " + folderPath);
+        int parallelism = excelIngestionEngine.resolveParallelism(options.getParallelism());
+        int sheetParallelism = sheetParallelism(parallelism, excelFiles.size());
+        List<SheetData> sheets = new ArrayList<>();
+        excelIngestionEngine.forEachOrdered(excelFiles, parallelism,
+                excelFile -> parseExcelFileSheets(excelFile, basePath, options, sheetParallelism),
+                parsed -> {
+                    if (parsed != null) {
+                        sheets.addAll(parsed);
+                    }
+                }, options.getCancelled());
+        return sheets;
+    }
+
+    // 파싱되는 즉시 한 행씩 sink 로 전달 (전체 목록을 메모리에 모으지 않음)
+    // parallelism > 1 이면 파일(및 시트)을 병렬로 파싱하되 출력 순서는 순차 처리와 같다
+    public void streamFolderExcelDataForPowerBI(String folderPath, boolean includeSubfolders, ExcelReadOptions options,
+                                                ExcelRowSink sink) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        List<Path> excelFiles = filterModifiedSince(listExcelFilesForContent(resolveExcelFolder(folderPath), includeSubfolders),
+                options.getModifiedSince());
+        // 잘못된 readMode 는 처리 시작 전에 오류
+        isStreamingReadMode(options.getReadMode());
+        
+        // 비동기 작업이면 파일/행 진행 상황 기록
+        ExcelJobProgress progress = options.getProgress();
+        ExcelRowSink target = progress != null ? progress.counting(sink) : sink;
+        if (progress != null) {
+            progress.setFilesTotal(excelFiles.size());
         }
+        
+        int parallelism = excelIngestionEngine.resolveParallelism(options.getParallelism());
+        if (parallelism <= 1) {
+            for (Path excelFile : excelFiles) {
+                readExcelFileContent(excelFile, basePath, target, options);
+                if (progress != null) {
+                    progress.fileDone();
+                }
+            }
+            return;
+        }
+        
+        int sheetParallelism = sheetParallelism(parallelism, excelFiles.size());
+        excelIngestionEngine.forEachOrdered(excelFiles, parallelism,
+                excelFile -> parseExcelFileSheets(excelFile, basePath, options, sheetParallelism),
+                parsed -> {
+                    if (parsed != null) {
+                        emitSheets(parsed, target);
+                    }
+                    if (progress != null) {
+                        progress.fileDone();
+                    }
+                }, options.getCancelled());
+    }
 
-        List<Map<String, Object>> allExcelData = new ArrayList<>();
+    // 커서 기반 페이지 조회: 파일을 상대 경로 순으로 읽으며 pageSize 행만 반환
+    // 커서가 가리키는 파일 이전의 파일은 열지 않고, 커서 파일 안에서는 이전 행을 건너뜀
+    // 페이지가 찬 파일은 끝까지 읽어 캐시/스냅샷에 남기므로 다음 페이지는 다시 파싱하지 않는다
+    public Map<String, Object> getFolderExcelDataPage(String folderPath, boolean includeSubfolders, ExcelReadOptions options,
+                                                      int pageSize, String cursor) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        List<Path> excelFiles = filterModifiedSince(listExcelFilesForContent(resolveExcelFolder(folderPath), includeSubfolders),
+                options.getModifiedSince());
+        isStreamingReadMode(options.getReadMode());
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        
+        ExcelPageCursor position = cursor == null || cursor.isEmpty() ? null : ExcelPageCursor.decode(cursor);
+        if (position != null && !position.matchesQuery(folderPath, includeSubfolders)) {
+            throw new IllegalArgumentException("Cursor does not belong to this folder query");
+        }
+        
+        // 디렉토리 순회 순서는 요청마다 같다는 보장이 없으므로 상대 경로 순으로 고정
+        List<String> relativePaths = new ArrayList<>();
+        Map<String, Path> filesByPath = new HashMap<>();
+        for (Path excelFile : excelFiles) {
+            String relativePath = basePath.relativize(excelFile).toString();
+            relativePaths.add(relativePath);
+            filesByPath.put(relativePath, excelFile);
+        }
+        Collections.sort(relativePaths);
         
-        if (includeSubfolders) {
-            // 하위 폴더까지 재귀적으로 처리
-            processAllExcelFilesContent(targetPath, basePath, allExcelData);
+        ExcelPage page = new ExcelPage(folderPath, includeSubfolders, pageSize, position, options.isTypedValues(),
+                options.isHeaders());
+        for (String relativePath : relativePaths) {
+            if (position != null && relativePath.compareTo(position.relativePath) < 0) {
+                continue;
+            }
+            Path excelFile = filesByPath.get(relativePath);
+            long size = Files.size(excelFile);
+            long lastModified = Files.getLastModifiedTime(excelFile).toMillis();
+            boolean resuming = position != null && relativePath.equals(position.relativePath);
+            page.startFile(relativePath, size, lastModified, resuming);
+            readExcelFileContent(excelFile, basePath, page, options);
+            if (page.hasMore()) {
+                break;
+            }
+        }
+        return page.toResponse();
+    }
+
+    // OData 조회: $select 열만 파싱하고 $filter 에 맞는 행만 $skip/$top 범위로 sink 에 전달
+    // $filter 는 파싱 중 행이 끝날 때 평가해 맞지 않는 행은 보관하지 않는다
+    // parallelism > 1 이면 다른 폴더 조회처럼 파일을 병렬로 파싱하고 $skip/$top 은 파일 순서대로 적용
+    // $top 을 채우면 남은 파일/행은 읽지 않고 실행 중인 파싱도 멈춘다
+    public void queryFolderExcelData(String folderPath, boolean includeSubfolders, ExcelODataQuery query,
+                                     ExcelReadOptions options, ExcelRowSink sink) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        List<Path> excelFiles = listExcelFilesForContent(resolveExcelFolder(folderPath), includeSubfolders);
+        isStreamingReadMode(options.getReadMode());
+        if (query.getTop() == 0) {
+            return;
+        }
+        options.setColumns(query.getColumns());
+        options.setRowFilter(query.hasFilter() ? query : null);
+        
+        long end = query.getTop() < 0 ? Long.MAX_VALUE : query.getSkip() + query.getTop();
+        long[] matched = {0};
+        ExcelRowSink filtered = (sheet, row) -> {
+            // 캐시/스냅샷에서 온 시트는 걸러지지 않은 전체 행 (파싱한 시트는 이미 맞는 행만 있음)
+            if (!query.matches(sheet, row)) {
+                return;
+            }
+            if (matched[0]++ >= query.getSkip()) {
+                sink.row(sheet, row);
+            }
+            if (matched[0] >= end) {
+                throw new ReadStopped();
+            }
+        };
+        try {
+            int parallelism = excelIngestionEngine.resolveParallelism(options.getParallelism());
+            if (parallelism <= 1) {
+                for (Path excelFile : excelFiles) {
+                    readExcelFileContent(excelFile, basePath, filtered, options);
+                }
+                return;
+            }
+            int sheetParallelism = sheetParallelism(parallelism, excelFiles.size());
+            excelIngestionEngine.forEachOrdered(excelFiles, parallelism,
+                    excelFile -> parseExcelFileSheets(excelFile, basePath, options, sheetParallelism),
+                    parsed -> {
+                        if (parsed != null) {
+                            emitSheets(parsed, filtered);
+                        }
+                    }, options.getCancelled());
+        } catch (ReadStopped e) {
+            // $top 충족
+        }
+    }
+
+    // group-by 집계: 파일마다 부분 해시 집계를 병렬로 만들고 합침 (필요한 열만 파싱)
+    public Map<String, Object> aggregateFolderExcelData(String folderPath, boolean includeSubfolders, ExcelAggregation aggregation,
+                                                        ExcelReadOptions options) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        List<Path> excelFiles = listExcelFilesForContent(resolveExcelFolder(folderPath), includeSubfolders);
+        isStreamingReadMode(options.getReadMode());
+        options.setColumns(aggregation.getColumns());
+        
+        int parallelism = excelIngestionEngine.resolveParallelism(options.getParallelism());
+        excelIngestionEngine.forEachOrdered(excelFiles, parallelism,
+                excelFile -> {
+                    ExcelAggregation partial = aggregation.newPartial();
+                    readExcelFileContent(excelFile, basePath, partial::accept, options);
+                    return partial;
+                },
+                aggregation::merge, options.getCancelled());
+        
+        Map<String, Object> result = aggregation.toResponse();
+        result.put("filesScanned", excelFiles.size());
+        return result;
+    }
+
+    // 폴더 엑셀 파일별 스키마(머리글/열 형식)와 폴더 전체로 합친 열 목록
+    // 파일 버전(크기, 수정 시각)마다 스키마 캐시에 남기므로 다시 조회할 때는 파싱하지 않는다
+    public Map<String, Object> getFolderExcelSchema(String folderPath, boolean includeSubfolders, ExcelReadOptions options) throws IOException {
+        List<ExcelSchema> schemas = collectFolderExcelSchemas(folderPath, includeSubfolders, options);
+        List<Map<String, Object>> files = new ArrayList<>();
+        for (ExcelSchema schema : schemas) {
+            files.add(schema.toMap());
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("folderPath", folderPath);
+        result.put("fileCount", schemas.size());
+        result.put("columns", ExcelSchema.merge(schemas));
+        result.put("files", files);
+        return result;
+    }
+
+    private List<ExcelSchema> collectFolderExcelSchemas(String folderPath, boolean includeSubfolders, ExcelReadOptions options) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        List<Path> excelFiles = listExcelFilesForContent(resolveExcelFolder(folderPath), includeSubfolders);
+        isStreamingReadMode(options.getReadMode());
+        
+        int parallelism = excelIngestionEngine.resolveParallelism(options.getParallelism());
+        int sheetParallelism = sheetParallelism(parallelism, excelFiles.size());
+        List<ExcelSchema> schemas = new ArrayList<>();
+        excelIngestionEngine.forEachOrdered(excelFiles, parallelism,
+                excelFile -> inferExcelFileSchema(excelFile, basePath, options, sheetParallelism),
+                schema -> {
+                    if (schema != null) {
+                        schemas.add(schema);
+                    }
+                }, options.getCancelled());
+        return schemas;
+    }
+
+    // 파일 하나의 스키마 (캐시 → 파싱 캐시/스냅샷/파싱 순, 실패 시 null)
+    private ExcelSchema inferExcelFileSchema(Path filePath, Path basePath, ExcelReadOptions options, int sheetParallelism) {
+        try {
+            String relativePath = basePath.relativize(filePath).toString();
+            ExcelParseCache.CacheKey key = new ExcelParseCache.CacheKey(relativePath, Files.size(filePath),
+                    Files.getLastModifiedTime(filePath).toMillis());
+            if (options.isUseCache()) {
+                ExcelSchema cached = excelSchemaCache.get(key);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            List<SheetData> sheets = parseExcelFileSheets(filePath, basePath, options, sheetParallelism);
+            if (sheets == null) {
+                return null;
+            }
+            ExcelSchema schema = ExcelSchema.infer(relativePath, filePath.getFileName().toString(), key.size, key.lastModified,
+                    sheets, schemaSampleRows);
+            excelSchemaCache.put(key, schema);
+            return schema;
+        } catch (IOException e) {
+            System.err.println("Error reading Excel file: " + filePath + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    // 폴더 엑셀 행의 최대 열 수 (OData $metadata 용, 캐시/스냅샷을 함께 채움)
+    public int getFolderExcelColumnCount(String folderPath, boolean includeSubfolders) throws IOException {
+        return getFolderExcelColumnCount(folderPath, includeSubfolders, new ExcelReadOptions());
+    }
+
+    public int getFolderExcelColumnCount(String folderPath, boolean includeSubfolders, ExcelReadOptions options) throws IOException {
+        int[] columnCount = {0};
+        streamFolderExcelDataForPowerBI(folderPath, includeSubfolders, options,
+                (sheet, row) -> columnCount[0] = Math.max(columnCount[0], sheet.getRowWidth(row)));
+        return columnCount[0];
+    }
+
+    // CSV/Arrow 출력의 열 목록 (headers 면 폴더 스키마의 열 이름, 아니면 Column1..최대 열 수)
+    // 이 단계에서 파싱한 결과는 캐시/스냅샷에 남아 이어지는 출력은 다시 파싱하지 않는다
+    public ExcelColumnLayout getFolderExcelColumnLayout(String folderPath, boolean includeSubfolders, ExcelReadOptions options) throws IOException {
+        if (!options.isHeaders()) {
+            return ExcelColumnLayout.numbered(getFolderExcelColumnCount(folderPath, includeSubfolders, options));
+        }
+        List<String> names = new ArrayList<>();
+        for (Map<String, Object> column : ExcelSchema.merge(collectFolderExcelSchemas(folderPath, includeSubfolders, options))) {
+            names.add((String) column.get("name"));
+        }
+        return ExcelColumnLayout.named(names);
+    }
+
+    // 폴더 엑셀 데이터를 지정한 형식으로 기록 (CSV/Arrow 는 layout 필요), 기록한 행 수 반환
+    // json: 기존 행 배열, ndjson: 한 줄에 행 하나, csv: RFC 4180, arrow: Arrow IPC 스트림
+    public long writeFolderExcelData(String folderPath, boolean includeSubfolders, ExcelReadOptions options,
+                                     ExcelOutputFormat format, ExcelColumnLayout layout, OutputStream out) throws IOException {
+        boolean typed = options.isTypedValues();
+        long[] rowCount = {0};
+        try {
+            switch (format) {
+                case CSV: {
+                    ExcelCsvWriter csv = new ExcelCsvWriter(out, layout, typed);
+                    streamFolderExcelDataForPowerBI(folderPath, includeSubfolders, options,
+                            new ExcelHeaderRows(options.isHeaders(), (sheet, row, names) -> {
+                                csv.row(sheet, row, names);
+                                if (++rowCount[0] % streamFlushRows == 0) {
+                                    csv.flush();
+                                }
+                            }));
+                    csv.finish();
+                    break;
+                }
+                case ARROW: {
+                    ExcelArrowWriter arrow = new ExcelArrowWriter(out, layout, typed, arrowBatchRows);
+                    streamFolderExcelDataForPowerBI(folderPath, includeSubfolders, options,
+                            new ExcelHeaderRows(options.isHeaders(), (sheet, row, names) -> {
+                                arrow.row(sheet, row, names);
+                                rowCount[0]++;
+                            }));
+                    arrow.finish();
+                    break;
+                }
+                default: {
+                    boolean lines = format == ExcelOutputFormat.NDJSON;
+                    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                        // 중간에 실패하면 배열을 닫지 않아 클라이언트가 잘린 응답임을 알 수 있도록 함
+                        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                        if (!lines) {
+                            generator.writeStartArray();
+                        }
+                        streamFolderExcelDataForPowerBI(folderPath, includeSubfolders, options,
+                                new ExcelHeaderRows(options.isHeaders(), (sheet, row, names) -> {
+                                    sheet.writeRowJson(row, generator, typed, names);
+                                    if (lines) {
+                                        generator.writeRaw('\n');
+                                    }
+                                    if (++rowCount[0] % streamFlushRows == 0) {
+                                        generator.flush();
+                                    }
+                                }));
+                        if (!lines) {
+                            generator.writeEndArray();
+                        }
+                    }
+                    break;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rowCount[0];
+    }
+
+    // 파일 수가 동시 처리 수보다 적으면 남는 만큼 시트 단위로 나눠서 처리
+    private int sheetParallelism(int parallelism, int fileCount) {
+        return Math.max(1, parallelism / Math.max(1, Math.min(parallelism, fileCount)));
+    }
+
+    private void emitSheets(List<SheetData> sheets, ExcelRowSink sink) {
+        try {
+            for (SheetData sheet : sheets) {
+                for (int row = 0; row < sheet.getRowCount(); row++) {
+                    sink.row(sheet, row);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // modifiedSince(포함) 이후 수정된 파일만 남김
+    private List<Path> filterModifiedSince(List<Path> files, Long modifiedSince) throws IOException {
+        if (modifiedSince == null) {
+            return files;
+        }
+        List<Path> modified = new ArrayList<>();
+        for (Path file : files) {
+            if (Files.getLastModifiedTime(file).toMillis() >= modifiedSince) {
+                modified.add(file);
+            }
+        }
+        return modified;
+    }
+
+    // since 이후 폴더에서 삭제된 엑셀 파일 (그 뒤 같은 경로에 다시 올라온 파일은 제외)
+    public List<Map<String, Object>> getDeletedExcelFiles(String folderPath, boolean includeSubfolders, long since) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        String relativeFolder = basePath.relativize(basePath.resolve(folderPath)).toString();
+        List<Map<String, Object>> deletions = new ArrayList<>();
+        for (Map<String, Object> deletion : fileChangeLog.getDeletionsSince(since, relativeFolder, includeSubfolders)) {
+            Path path = basePath.resolve((String) deletion.get("RelativePath"));
+            if (!isExcelFile(path)) {
+                continue;
+            }
+            if (Files.exists(path) && Files.getLastModifiedTime(path).toMillis() >= (Long) deletion.get("DeletedAt")) {
+                continue;
+            }
+            deletions.add(deletion);
+        }
+        return deletions;
+    }
+
+    // since 이후의 삭제 기록이 모두 남아 있는지 (false 면 전체 새로고침 필요)
+    public boolean isChangeLogComplete(long since) {
+        return fileChangeLog.isComplete(since);
+    }
+
+    // 엑셀 내용 조회 대상 파일 목록 (디렉토리 순회 순서 유지)
+    private List<Path> listExcelFilesForContent(Path targetPath, boolean includeSubfolders) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        List<Path> excelFiles = new ArrayList<>();
+        List<FileMetadataIndex.Entry> entries = fileMetadataIndex.list(basePath.relativize(targetPath).toString(), includeSubfolders);
+        if (entries != null) {
+            for (FileMetadataIndex.Entry entry : entries) {
+                Path path = basePath.resolve(entry.getRelativePath());
+                if (!entry.isDirectory() && isExcelFile(path)) {
+                    excelFiles.add(path);
+                }
+            }
         } else {
-            // 현재 폴더만 처리
-            processExcelFilesContentInDirectory(targetPath, basePath, allExcelData);
+            // 하위 폴더까지 (includeSubfolders) 또는 현재 폴더만
+            excelFiles.addAll(directoryWalker.walk(targetPath, includeSubfolders,
+                    (path, attributes) -> !attributes.isDirectory() && isExcelFile(path) ? path : null));
         }
+        return excelFiles;
+    }
+
+    // 엑셀 데이터 조회 대상 폴더 확인
+    public Path resolveExcelFolder(String folderPath) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        Path targetPath = folderPath.isEmpty() ? basePath : basePath.resolve(folderPath);
         
-        return allExcelData;
+        if (!Files.exists(targetPath) || !Files.isDirectory(targetPath)) {
+            throw new IOException("Folder not found: " + folderPath);
+        }
+        return targetPath;
+    }
+
+    // 폴더 엑셀 데이터 응답의 지문 (대상 파일의 경로/크기/수정 시각) - 압축 응답 캐시 키에 사용
+    public String getFolderExcelFingerprint(String folderPath, boolean includeSubfolders) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        List<String> parts = new ArrayList<>();
+        for (Path excelFile : listExcelFilesForContent(resolveExcelFolder(folderPath), includeSubfolders)) {
+            BasicFileAttributes attributes = Files.readAttributes(excelFile, BasicFileAttributes.class);
+            parts.add(basePath.relativize(excelFile) + "\t" + attributes.size() + "\t" + attributes.lastModifiedTime().toMillis());
+        }
+        // 순회 순서도 응답 행 순서이므로 정렬하지 않는다
+        return CompressedResponseCache.fingerprint(parts);
+    }
+
+    private boolean isStreamingReadMode(String readMode) {
+        if (readMode == null || readMode.isEmpty()) {
+            readMode = excelReadMode;
+        }
+        if (READ_MODE_STREAMING.equalsIgnoreCase(readMode)) {
+            return true;
+        }
+        if (READ_MODE_DOM.equalsIgnoreCase(readMode)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unknown readMode: " + readMode + " (dom | streaming)");
+    }
+
+    // 엑셀 파일 하나를 행 단위로 읽음 (폴더 조회와 같은 캐시/스냅샷 경로, 셀 본문 색인에서 사용)
+    public void readExcelFileRows(String relativePath, ExcelRowSink sink) throws IOException {
+        Path basePath = Paths.get(DATA_DIR);
+        Path filePath = basePath.resolve(relativePath).normalize();
+        if (!filePath.startsWith(basePath) || !Files.isRegularFile(filePath) || !isExcelFile(filePath)) {
+            throw new IOException("Excel file not found: " + relativePath);
+        }
+        readExcelFileContent(filePath, basePath, sink, new ExcelReadOptions());
     }
 
-    // 하위 폴더까지 모든 엑셀 파일의 내용 처리
-    private void processAllExcelFilesContent(Path directory, Path basePath, List<Map<String, Object>> allData) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (Files.isDirectory(path)) {
-                    // 하위 디렉토리도 재귀적으로 처리
-                    processAllExcelFilesContent(path, basePath, allData);
-                } else if (isExcelFile(path)) {
-                    // 엑셀 파일 내용 읽기
-                    readExcelFileContent(path, basePath, allData);
+    // 엑셀 파일의 실제 내용을 읽어서 행 단위로 sink 에 전달
+    private void readExcelFileContent(Path filePath, Path basePath, ExcelRowSink sink, ExcelReadOptions options) {
+        try {
+            String relativePath = basePath.relativize(filePath).toString();
+            String fileName = filePath.getFileName().toString();
+            
+            // 변경되지 않은 파일은 캐시된 파싱 결과 사용 (메모리 → 디스크 스냅샷 순)
+            boolean useCache = options.isUseCache() && excelParseCache.isEnabled();
+            ExcelParseCache.CacheKey cacheKey = cacheKeyFor(filePath, relativePath, options);
+            if (useCache) {
+                List<SheetData> cached = excelParseCache.get(cacheKey);
+                if (cached != null) {
+                    emitSheets(cached, sink);
+                    return;
+                }
+            }
+            if (cacheKey != null && excelSnapshotStore.isEnabled() && emitSnapshot(cacheKey, sink, useCache)) {
+                return;
+            }
+            // 일부 열/행만 읽는 파싱 결과는 보관하지 않음
+            if (options.getColumns() != null || options.getRowFilter() != null) {
+                useCache = false;
+                cacheKey = null;
+            }
+            
+            // 행을 바로 전달하면서, 캐시 한도 안이면 결과도 보관하고 스냅샷도 함께 기록
+            ExcelSnapshotStore.Writer snapshotWriter = cacheKey != null ? excelSnapshotStore.openWriter(cacheKey, fileName) : null;
+            ExcelRowSink target = snapshotWriter == null ? sink : (sheet, row) -> {
+                sink.row(sheet, row);
+                snapshotWriter.row(sheet, row);
+            };
+            SheetDataBuilder builder = new SheetDataBuilder(fileName, relativePath, target,
+                    useCache ? excelParseCache.getMaxEntryBytes() : 0);
+            builder.setColumns(options.getColumns());
+            builder.setRowFilter(options.getRowFilter());
+            builder.setCancelled(options.getCancelled());
+            try {
+                readExcelFile(filePath, fileName, builder, isStreamingReadMode(options.getReadMode()));
+            } catch (Exception e) {
+                if (snapshotWriter != null) {
+                    snapshotWriter.abort(null);
+                }
+                throw e;
+            }
+            if (snapshotWriter != null) {
+                try {
+                    snapshotWriter.finish();
+                } catch (IOException e) {
+                    snapshotWriter.abort(e);
                 }
             }
+            
+            List<SheetData> parsed = builder.finish();
+            if (parsed != null) {
+                excelParseCache.put(cacheKey, parsed);
+            }
+            
+        } catch (UncheckedIOException | ReadStopped | CancellationException e) {
+            // 응답 쓰기 실패(클라이언트 연결 종료 등), 조회 종료, 작업 취소는 전체 처리를 중단
+            throw e;
+        } catch (Exception e) {
+            // 파일 처리 중 오류가 발생해도 계속 진행
+            System.err.println("Error reading Excel file: " + filePath + " - " + e.getMessage());
         }
     }
 
-    // 현재 폴더의 엑셀 파일 내용만 처리
-    private void processExcelFilesContentInDirectory(Path directory, Path basePath, List<Map<String, Object>> allData) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (!Files.isDirectory(path) && isExcelFile(path)) {
-                    // 엑셀 파일 내용 읽기
-                    readExcelFileContent(path, basePath, allData);
+    // 캐시/스냅샷 키 (useCache=false 이거나 둘 다 꺼져 있으면 null)
+    private ExcelParseCache.CacheKey cacheKeyFor(Path filePath, String relativePath, ExcelReadOptions options) throws IOException {
+        if (!options.isUseCache() || !(excelParseCache.isEnabled() || excelSnapshotStore.isEnabled())) {
+            return null;
+        }
+        return new ExcelParseCache.CacheKey(relativePath, Files.size(filePath), Files.getLastModifiedTime(filePath).toMillis());
+    }
+
+    // 디스크 스냅샷이 있으면 행을 전달 (메모리 캐시 한도 안이면 캐시에도 올림)
+    private boolean emitSnapshot(ExcelParseCache.CacheKey cacheKey, ExcelRowSink sink, boolean useCache) throws IOException {
+        List<SheetData> retained = useCache ? new ArrayList<>() : null;
+        long[] retainedBytes = new long[1];
+        boolean found = excelSnapshotStore.read(cacheKey, sheet -> {
+            emitSheets(List.of(sheet), sink);
+            if (retained != null) {
+                retainedBytes[0] += sheet.getEstimatedBytes();
+                if (retainedBytes[0] <= excelParseCache.getMaxEntryBytes()) {
+                    retained.add(sheet);
                 }
             }
+        });
+        if (found && retained != null && retainedBytes[0] <= excelParseCache.getMaxEntryBytes()) {
+            excelParseCache.put(cacheKey, retained);
         }
+        return found;
     }
 
-    // 엑셀 파일의 실제 내용을 읽어서 데이터에 추가
-    private void readExcelFileContent(Path filePath, Path basePath, List<Map<String, Object>> allData) {
+    // 파일 하나를 파싱해 시트 목록으로 반환 (병렬 처리용, 실패 시 null)
+    private List<SheetData> parseExcelFileSheets(Path filePath, Path basePath, ExcelReadOptions options, int sheetParallelism) {
         try {
             String relativePath = basePath.relativize(filePath).toString();
             String fileName = filePath.getFileName().toString();
             
-            // 엑셀 파일 읽기
-            try (FileInputStream fis = new FileInputStream(filePath.toFile())) {
-                Workbook workbook = null;
-                
-                // 파일 확장자에 따라 적절한 Workbook 생성
-                if (fileName.toLowerCase().endsWith(".xlsx")) {
-                    workbook = new XSSFWorkbook(fis);
-                } else if (fileName.toLowerCase().endsWith(".xls")) {
-                    workbook = new HSSFWorkbook(fis);
+            boolean useCache = options.isUseCache() && excelParseCache.isEnabled();
+            ExcelParseCache.CacheKey cacheKey = cacheKeyFor(filePath, relativePath, options);
+            if (useCache) {
+                List<SheetData> cached = excelParseCache.get(cacheKey);
+                if (cached != null) {
+                    return cached;
                 }
-                
-                if (workbook != null) {
-                    // 모든 시트 처리
-                    for (int sheetIndex = 0; sheetIndex < workbook.getNumberOfSheets(); sheetIndex++) {
-                        Sheet sheet = workbook.getSheetAt(sheetIndex);
-                        String sheetName = sheet.getSheetName();
-                        
-                        // 시트의 모든 행 처리
-                        for (Row row : sheet) {
-                            // 빈 행 건너뛰기
-                            if (row == null) continue;
-                            
-                            Map<String, Object> rowData = new HashMap<>();
-                            
-                            // 파일 정보 추가
-                            rowData.put("FileName", fileName);
-                            rowData.put("RelativePath", relativePath);
-                            rowData.put("SheetName", sheetName);
-                            rowData.put("RowNumber", row.getRowNum() + 1);
-                            
-                            // 셀 데이터 추가
-                            short lastCellNum = row.getLastCellNum();
-                            if (lastCellNum > 0) {
-                                for (int cellIndex = 0; cellIndex < lastCellNum; cellIndex++) {
-                                    Cell cell = row.getCell(cellIndex);
-                                    String cellValue = getCellValueAsString(cell);
-                                    rowData.put("Column" + (cellIndex + 1), cellValue);
-                                }
-                            }
-                            
-                            allData.add(rowData);
-                        }
+            }
+            if (cacheKey != null && excelSnapshotStore.isEnabled()) {
+                List<SheetData> snapshot = excelSnapshotStore.load(cacheKey);
+                if (snapshot != null) {
+                    if (useCache) {
+                        excelParseCache.put(cacheKey, snapshot);
                     }
-                    
-                    workbook.close();
+                    return snapshot;
                 }
             }
             
+            List<SheetData> parsed;
+            boolean streaming = isStreamingReadMode(options.getReadMode()) && fileName.toLowerCase().endsWith(".xlsx");
+            if (streaming && sheetParallelism > 1) {
+                parsed = parseXlsxSheetsInParallel(filePath, fileName, relativePath, sheetParallelism, options);
+            } else {
+                SheetDataBuilder buffer = SheetDataBuilder.buffering(fileName, relativePath);
+                buffer.setColumns(options.getColumns());
+                buffer.setRowFilter(options.getRowFilter());
+                buffer.setCancelled(options.getCancelled());
+                readExcelFile(filePath, fileName, buffer, streaming);
+                parsed = buffer.finish();
+            }
+            if (options.getColumns() != null || options.getRowFilter() != null) {
+                // 일부 열/행만 읽은 결과는 보관하지 않음
+                return parsed;
+            }
+            
+            if (useCache) {
+                // 예산을 넘는 큰 파일은 캐시가 거절
+                excelParseCache.put(cacheKey, parsed);
+            }
+            if (cacheKey != null) {
+                excelSnapshotStore.write(cacheKey, fileName, parsed);
+            }
+            return parsed;
+            
+        } catch (CancellationException e) {
+            // 요청이 끝나 중단된 파싱 (결과는 버려짐)
+            throw e;
         } catch (Exception e) {
             // 파일 처리 중 오류가 발생해도 계속 진행
             System.err.println("Error reading Excel file: " + filePath + " - " + e.getMessage());
+            return null;
         }
     }
 
-    // 셀 값을 문자열로 변환
-    private String getCellValueAsString(Cell cell) {
+    // .xlsx 의 시트들을 병렬로 파싱 (결과는 시트 순서대로)
+    private List<SheetData> parseXlsxSheetsInParallel(Path filePath, String fileName, String relativePath, int sheetParallelism,
+                                                      ExcelReadOptions options) throws IOException {
+        try (XlsxStreamingReader.StreamingWorkbook workbook = xlsxStreamingReader.open(filePath)) {
+            List<Integer> sheetIndexes = new ArrayList<>();
+            for (int i = 0; i < workbook.getSheetCount(); i++) {
+                sheetIndexes.add(i);
+            }
+            List<SheetData> sheets = new ArrayList<>();
+            for (List<SheetData> parsedSheet : excelIngestionEngine.mapOrdered(sheetIndexes, sheetParallelism, sheetIndex -> {
+                SheetDataBuilder buffer = SheetDataBuilder.buffering(fileName, relativePath);
+                buffer.setColumns(options.getColumns());
+                buffer.setRowFilter(options.getRowFilter());
+                buffer.setCancelled(options.getCancelled());
+                try {
+                    workbook.readSheet(sheetIndex, buffer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return buffer.finish();
+            })) {
+                sheets.addAll(parsedSheet);
+            }
+            return sheets;
+        }
+    }
+
+    // 확장자와 읽기 모드에 맞는 리더로 파일을 읽음 (.xls 는 항상 DOM)
+    private void readExcelFile(Path filePath, String fileName, ExcelRowHandler handler, boolean streaming) throws IOException {
+        if (streaming && fileName.toLowerCase().endsWith(".xlsx")) {
+            // SAX 스트리밍
+            xlsxStreamingReader.read(filePath, handler);
+        } else {
+            readExcelFileWithWorkbook(filePath, fileName, handler);
+        }
+    }
+
+    // XSSFWorkbook / HSSFWorkbook 으로 전체 로드 후 셀 전달
+    private void readExcelFileWithWorkbook(Path filePath, String fileName, ExcelRowHandler handler) throws IOException {
+        try (FileInputStream fis = new FileInputStream(filePath.toFile())) {
+            Workbook workbook = null;
+            boolean date1904 = false;
+            
+            // 파일 확장자에 따라 적절한 Workbook 생성
+            if (fileName.toLowerCase().endsWith(".xlsx")) {
+                XSSFWorkbook xssfWorkbook = new XSSFWorkbook(fis);
+                date1904 = xssfWorkbook.isDate1904();
+                workbook = xssfWorkbook;
+            } else if (fileName.toLowerCase().endsWith(".xls")) {
+                HSSFWorkbook hssfWorkbook = new HSSFWorkbook(fis);
+                date1904 = hssfWorkbook.getInternalWorkbook().isUsing1904DateWindowing();
+                workbook = hssfWorkbook;
+            }
+            
+            if (workbook != null) {
+                // 모든 시트 처리
+                for (int sheetIndex = 0; sheetIndex < workbook.getNumberOfSheets(); sheetIndex++) {
+                    Sheet sheet = workbook.getSheetAt(sheetIndex);
+                    handler.startSheet(sheet.getSheetName(), date1904);
+                    
+                    // 시트의 모든 행 처리
+                    for (Row row : sheet) {
+                        // 빈 행 건너뛰기
+                        if (row == null) continue;
+                        
+                        handler.startRow(row.getRowNum() + 1);
+                        short lastCellNum = row.getLastCellNum();
+                        for (int cellIndex = 0; cellIndex < lastCellNum; cellIndex++) {
+                            emitCellValue(row.getCell(cellIndex), cellIndex, handler);
+                        }
+                        handler.endRow();
+                    }
+                }
+                
+                workbook.close();
+            }
+        }
+    }
+
+    // 셀 종류와 값을 전달 (문자열 변환 규칙은 SheetData.getCellString)
+    private void emitCellValue(Cell cell, int column, ExcelRowHandler handler) {
+        if (!handler.wantsCell(column)) {
+            handler.cell(column, SheetData.ABSENT, 0, null);
+            return;
+        }
         if (cell == null) {
-            return "";
+            handler.cell(column, SheetData.BLANK, 0, null);
+            return;
         }
         
         switch (cell.getCellType()) {
             case STRING:
-                return cell.getStringCellValue();
+                handler.cell(column, SheetData.STRING, 0, cell.getStringCellValue());
+                break;
             case NUMERIC:
                 if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
+                    handler.cell(column, SheetData.DATE, cell.getNumericCellValue(), null);
                 } else {
-                    return String.valueOf(cell.getNumericCellValue());
+                    handler.cell(column, SheetData.NUMBER, cell.getNumericCellValue(), null);
                 }
+                break;
             case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
+                handler.cell(column, SheetData.BOOLEAN, cell.getBooleanCellValue() ? 1 : 0, null);
+                break;
             case FORMULA:
-                return cell.getCellFormula();
+                handler.cell(column, SheetData.FORMULA, 0, cell.getCellFormula());
+                emitFormulaResult(cell, column, handler);
+                break;
             default:
-                return "";
+                handler.cell(column, SheetData.BLANK, 0, null);
+                break;
         }
     }
 
-    // 폴더 내 모든 Excel 파일을 하나로 합쳐서 Excel 파일로 반환
-    public Resource createCombinedExcelFile(String folderPath, boolean includeSubfolders) throws IOException {
-        Path basePath = Paths.get(DATA_DIR);
-        Path targetPath = folderPath.isEmpty() ? basePath : basePath.resolve(folderPath);
-        
-        if (!Files.exists(targetPath) || !Files.isDirectory(targetPath)) {
-            throw new IOException("Folder not found: " + folderPath);
-        }
-
-        // 새로운 Excel 워크북 생성
-        Workbook combinedWorkbook = new XSSFWorkbook();
-        
-        if (includeSubfolders) {
-            // 하위 폴더까지 재귀적으로 처리
-            combineAllExcelFiles(targetPath, basePath, combinedWorkbook);
-        } else {
-            // 현재 폴더만 처리
-            combineExcelFilesInDirectory(targetPath, basePath, combinedWorkbook);
-        }
-        
-        // 워크북을 바이트 배열로 변환
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            combinedWorkbook.write(outputStream);
-            combinedWorkbook.close();
-            
-            byte[] excelBytes = outputStream.toByteArray();
-            return new ByteArrayResource(excelBytes);
+    // 파일에 캐시된 수식 결과 (수식을 다시 계산하지 않음, 오류 결과는 전달하지 않음)
+    private void emitFormulaResult(Cell cell, int column, ExcelRowHandler handler) {
+        switch (cell.getCachedFormulaResultType()) {
+            case NUMERIC:
+                byte kind = DateUtil.isCellDateFormatted(cell) ? SheetData.DATE : SheetData.NUMBER;
+                handler.formulaResult(column, kind, cell.getNumericCellValue(), null);
+                break;
+            case STRING:
+                handler.formulaResult(column, SheetData.STRING, 0, cell.getStringCellValue());
+                break;
+            case BOOLEAN:
+                handler.formulaResult(column, SheetData.BOOLEAN, cell.getBooleanCellValue() ? 1 : 0, null);
+                break;
+            default:
+                break;
         }
     }
 
-    // 하위 폴더까지 모든 Excel 파일을 하나의 워크북으로 합치기
-    private void combineAllExcelFiles(Path directory, Path basePath, Workbook combinedWorkbook) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (Files.isDirectory(path)) {
-                    // 하위 디렉토리도 재귀적으로 처리
-                    combineAllExcelFiles(path, basePath, combinedWorkbook);
-                } else if (isExcelFile(path)) {
-                    // Excel 파일을 워크북에 추가
-                    addExcelFileToWorkbook(path, basePath, combinedWorkbook);
-                }
-            }
-        }
+    // 폴더 내 모든 Excel 파일을 하나의 xlsx 로 합쳐 out 으로 기록 (시트 이름: 파일명_시트명)
+    // SXSSF 로 row-window 행만 메모리에 두고 나머지는 임시 파일로 내보내며, 원본 파일은 한 번에 하나씩 연다
+    public void writeCombinedExcelFile(String folderPath, boolean includeSubfolders, OutputStream out) throws IOException {
+        writeCombinedExcelFile(folderPath, includeSubfolders, out, null);
     }
 
-    // 현재 폴더의 Excel 파일들을 하나의 워크북으로 합치기
-    private void combineExcelFilesInDirectory(Path directory, Path basePath, Workbook combinedWorkbook) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (!Files.isDirectory(path) && isExcelFile(path)) {
-                    // Excel 파일을 워크북에 추가
-                    addExcelFileToWorkbook(path, basePath, combinedWorkbook);
+    // progress 가 있으면 파일/행 진행 상황 기록 (비동기 작업)
+    public void writeCombinedExcelFile(String folderPath, boolean includeSubfolders, OutputStream out,
+                                       ExcelJobProgress progress) throws IOException {
+        List<Path> excelFiles = listExcelFilesForContent(resolveExcelFolder(folderPath), includeSubfolders);
+        if (progress != null) {
+            progress.setFilesTotal(excelFiles.size());
+        }
+        
+        SXSSFWorkbook combinedWorkbook = new SXSSFWorkbook(combinedRowWindow);
+        combinedWorkbook.setCompressTempFiles(true);
+        try {
+            ExcelStyleCache styles = new ExcelStyleCache(combinedWorkbook);
+            for (Path excelFile : excelFiles) {
+                addExcelFileToWorkbook(excelFile, combinedWorkbook, styles, progress);
+                if (progress != null) {
+                    progress.fileDone();
                 }
             }
+            if (progress != null) {
+                progress.setPhase("writing");
+            }
+            if (combinedWorkbook.getNumberOfSheets() == 0) {
+                // 시트가 없는 xlsx 는 열리지 않으므로 빈 시트 하나
+                combinedWorkbook.createSheet("Sheet1");
+            }
+            combinedWorkbook.write(out);
+        } finally {
+            // 임시 파일 삭제
+            combinedWorkbook.dispose();
+            combinedWorkbook.close();
         }
     }
 
     // 개별 Excel 파일을 결합된 워크북에 추가
-    private void addExcelFileToWorkbook(Path filePath, Path basePath, Workbook combinedWorkbook) {
+    // .xlsx 는 스트리밍 리더로 시트를 하나씩 읽으며 바로 기록 (원본 DOM 을 만들지 않음), .xls 만 DOM 으로 복사
+    private void addExcelFileToWorkbook(Path filePath, Workbook combinedWorkbook, ExcelStyleCache styles,
+                                        ExcelJobProgress progress) {
         try {
-            String relativePath = basePath.relativize(filePath).toString();
             String fileName = filePath.getFileName().toString();
             
+            if (fileName.toLowerCase().endsWith(".xlsx")) {
+                try (XlsxStreamingReader.StreamingWorkbook sourceWorkbook = xlsxStreamingReader.open(filePath)) {
+                    for (int i = 0; i < sourceWorkbook.getSheetCount(); i++) {
+                        String sheetName = uniqueSheetName(combinedWorkbook,
+                                fileName.replaceAll("\\.[^.]*$", "") + "_" + sourceWorkbook.getSheetName(i));
+                        
+                        ExcelSheetCopier copier = new ExcelSheetCopier(combinedWorkbook.createSheet(sheetName), styles,
+                                sourceWorkbook.getStyles());
+                        sourceWorkbook.readSheet(i, copier);
+                        if (progress != null) {
+                            progress.addRows(copier.getRows());
+                        }
+                    }
+                }
+                return;
+            }
+            
             // 원본 Excel 파일 읽기
             try (FileInputStream fis = new FileInputStream(filePath.toFile())) {
                 Workbook sourceWorkbook = null;
                 
                 // 파일 확장자에 따라 적절한 Workbook 생성
-                if (fileName.toLowerCase().endsWith(".xlsx")) {
-                    sourceWorkbook = new XSSFWorkbook(fis);
-                } else if (fileName.toLowerCase().endsWith(".xls")) {
+                if (fileName.toLowerCase().endsWith(".xls")) {
                     sourceWorkbook = new HSSFWorkbook(fis);
                 }
                 
@@ -647,31 +1574,41 @@ public class FileService {
                     // 원본 워크북의 모든 시트를 결합된 워크북으로 복사
                     for (int i = 0; i < sourceWorkbook.getNumberOfSheets(); i++) {
                         Sheet sourceSheet = sourceWorkbook.getSheetAt(i);
-                        String sheetName = fileName.replaceAll("\\.[^.]*$", "") + "_" + sourceSheet.getSheetName();
-                        
-                        // 시트명이 중복되지 않도록 처리
-                        int counter = 1;
-                        String originalSheetName = sheetName;
-                        while (combinedWorkbook.getSheet(sheetName) != null) {
-                            sheetName = originalSheetName + "_" + counter++;
-                        }
+                        String sheetName = uniqueSheetName(combinedWorkbook,
+                                fileName.replaceAll("\\.[^.]*$", "") + "_" + sourceSheet.getSheetName());
                         
                         Sheet newSheet = combinedWorkbook.createSheet(sheetName);
-                        copySheet(sourceSheet, newSheet);
+                        copySheet(sourceWorkbook, sourceSheet, newSheet, styles);
+                        if (progress != null) {
+                            progress.addRows(sourceSheet.getPhysicalNumberOfRows());
+                        }
                     }
                     
                     sourceWorkbook.close();
                 }
             }
             
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
             // 파일 처리 중 오류가 발생해도 계속 진행
             System.err.println("Error adding Excel file to workbook: " + filePath + " - " + e.getMessage());
         }
     }
 
-    // 시트 내용 복사
-    private void copySheet(Sheet sourceSheet, Sheet targetSheet) {
+    // 엑셀 시트 이름 규칙(31자, 금지 문자)에 맞추고 중복되지 않도록 _1, _2 ... (대소문자 구분 없이 비교)
+    private static String uniqueSheetName(Workbook workbook, String name) {
+        String safeName = WorkbookUtil.createSafeSheetName(name);
+        String sheetName = safeName;
+        for (int counter = 1; workbook.getSheet(sheetName) != null; counter++) {
+            String suffix = "_" + counter;
+            sheetName = safeName.substring(0, Math.min(safeName.length(), 31 - suffix.length())) + suffix;
+        }
+        return sheetName;
+    }
+
+    // 시트 내용 복사 (수식은 캐시된 결과도 함께, 스타일은 대상 워크북 스타일로 매핑)
+    private void copySheet(Workbook sourceWorkbook, Sheet sourceSheet, Sheet targetSheet, ExcelStyleCache styles) {
         for (Row sourceRow : sourceSheet) {
             Row newRow = targetSheet.createRow(sourceRow.getRowNum());
             
@@ -694,17 +1631,37 @@ public class FileService {
                         break;
                     case FORMULA:
                         newCell.setCellFormula(sourceCell.getCellFormula());
+                        copyFormulaResult(sourceCell, newCell);
                         break;
                     default:
                         break;
                 }
                 
-                // 셀 스타일 복사 (선택사항)
-                newCell.setCellStyle(sourceCell.getCellStyle());
+                CellStyle style = styles.map(sourceWorkbook, sourceCell.getCellStyle());
+                if (style != null) {
+                    newCell.setCellStyle(style);
+                }
             }
         }
     }
 
+    // 수식 셀의 캐시된 결과 (다시 계산하지 않는 도구도 값을 볼 수 있도록)
+    private void copyFormulaResult(Cell sourceCell, Cell newCell) {
+        switch (sourceCell.getCachedFormulaResultType()) {
+            case NUMERIC:
+                newCell.setCellValue(sourceCell.getNumericCellValue());
+                break;
+            case STRING:
+                newCell.setCellValue(sourceCell.getStringCellValue());
+                break;
+            case BOOLEAN:
+                newCell.setCellValue(sourceCell.getBooleanCellValue());
+                break;
+            default:
+                break;
+        }
+    }
+
     // PowerBI Folder.Files 형식과 호환되는 파일 목록 반환
     public List<Map<String, Object>> getFolderFilesCompatible(String folderPath, boolean includeSubfolders) throws IOException {
         Path basePath = Paths.get(DATA_DIR);
@@ -714,43 +1671,13 @@ public class FileService {
             throw new IOException("Folder not found: " + folderPath);
         }
 
-        List<Map<String, Object>> fileList = new ArrayList<>();
-        
-        if (includeSubfolders) {
-            collectFilesForPowerBI(targetPath, basePath, fileList);
-        } else {
-            collectFilesInDirectoryForPowerBI(targetPath, basePath, fileList);
-        }
-        
-        return fileList;
-    }
-
-    // 하위 폴더까지 모든 Excel 파일 수집 (PowerBI 호환)
-    private void collectFilesForPowerBI(Path directory, Path basePath, List<Map<String, Object>> fileList) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (Files.isDirectory(path)) {
-                    collectFilesForPowerBI(path, basePath, fileList);
-                } else if (isExcelFile(path)) {
-                    fileList.add(createFileInfoForPowerBI(path, basePath));
-                }
-            }
-        }
-    }
-
-    // 현재 폴더의 Excel 파일만 수집 (PowerBI 호환)
-    private void collectFilesInDirectoryForPowerBI(Path directory, Path basePath, List<Map<String, Object>> fileList) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (!Files.isDirectory(path) && isExcelFile(path)) {
-                    fileList.add(createFileInfoForPowerBI(path, basePath));
-                }
-            }
-        }
+        // 하위 폴더까지 (includeSubfolders) 또는 현재 폴더의 Excel 파일 수집 (Content 읽기도 순회 스레드에서 병렬)
+        return directoryWalker.walk(targetPath, includeSubfolders, (path, attributes) ->
+                !attributes.isDirectory() && isExcelFile(path) ? createFileInfoForPowerBI(path, basePath, attributes) : null);
     }
 
     // PowerBI Folder.Files 형식에 맞는 파일 정보 생성
-    private Map<String, Object> createFileInfoForPowerBI(Path filePath, Path basePath) throws IOException {
+    private Map<String, Object> createFileInfoForPowerBI(Path filePath, Path basePath, BasicFileAttributes attributes) {
         Map<String, Object> fileInfo = new HashMap<>();
         String fileName = filePath.getFileName().toString();
         String relativePath = basePath.relativize(filePath).toString();
@@ -759,9 +1686,10 @@ public class FileService {
         fileInfo.put("Name", fileName);
         fileInfo.put("Extension", fileName.contains(".") ? 
             fileName.substring(fileName.lastIndexOf(".")) : "");
-        fileInfo.put("Date accessed", Files.getLastModifiedTime(filePath).toInstant().toString());
-        fileInfo.put("Date modified", Files.getLastModifiedTime(filePath).toInstant().toString());
-        fileInfo.put("Date created", Files.getLastModifiedTime(filePath).toInstant().toString());
+        String modified = attributes.lastModifiedTime().toInstant().toString();
+        fileInfo.put("Date accessed", modified);
+        fileInfo.put("Date modified", modified);
+        fileInfo.put("Date created", modified);
         fileInfo.put("Attributes", Map.of("Directory", false, "Archive", true));
         fileInfo.put("Folder Path", basePath.relativize(filePath.getParent()).toString());
         
@@ -786,60 +1714,27 @@ public class FileService {
             throw new IOException("Folder not found: " + folderPath);
         }
 
-        List<Map<String, Object>> fileList = new ArrayList<>();
-        
-        if (includeSubfolders) {
-            collectFilesLimited(targetPath, basePath, fileList, maxFiles);
-        } else {
-            collectFilesInDirectoryLimited(targetPath, basePath, fileList, maxFiles);
-        }
-        
-        return fileList;
-    }
-
-    // 제한된 수의 파일 수집
-    private void collectFilesLimited(Path directory, Path basePath, List<Map<String, Object>> fileList, int maxFiles) throws IOException {
-        if (fileList.size() >= maxFiles) return;
-        
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (fileList.size() >= maxFiles) break;
-                
-                if (Files.isDirectory(path)) {
-                    collectFilesLimited(path, basePath, fileList, maxFiles);
-                } else if (isExcelFile(path)) {
-                    fileList.add(createFileInfoLightweight(path, basePath));
-                }
-            }
-        }
-    }
-
-    // 현재 디렉토리에서 제한된 파일 수집
-    private void collectFilesInDirectoryLimited(Path directory, Path basePath, List<Map<String, Object>> fileList, int maxFiles) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (fileList.size() >= maxFiles) break;
-                
-                if (!Files.isDirectory(path) && isExcelFile(path)) {
-                    fileList.add(createFileInfoLightweight(path, basePath));
-                }
-            }
+        if (maxFiles <= 0) {
+            return new ArrayList<>();
         }
+        // 앞에서부터 maxFiles 개만 필요하므로 순차로 읽다가 멈춤
+        return directoryWalker.walk(targetPath, includeSubfolders, (path, attributes) ->
+                !attributes.isDirectory() && isExcelFile(path) ? createFileInfoLightweight(path, basePath, attributes) : null, maxFiles);
     }
 
     // 경량화된 파일 정보 생성 (Base64 Content 포함하지만 작은 파일만)
-    private Map<String, Object> createFileInfoLightweight(Path filePath, Path basePath) throws IOException {
+    private Map<String, Object> createFileInfoLightweight(Path filePath, Path basePath, BasicFileAttributes attributes) {
         Map<String, Object> fileInfo = new HashMap<>();
         String fileName = filePath.getFileName().toString();
         
         fileInfo.put("Name", fileName);
         fileInfo.put("Extension", fileName.contains(".") ? 
             fileName.substring(fileName.lastIndexOf(".")) : "");
-        fileInfo.put("Date modified", Files.getLastModifiedTime(filePath).toInstant().toString());
+        fileInfo.put("Date modified", attributes.lastModifiedTime().toInstant().toString());
         fileInfo.put("Folder Path", basePath.relativize(filePath.getParent()).toString());
         
         // 파일 크기 체크 (10MB 이하만 Content 포함)
-        long fileSize = Files.size(filePath);
+        long fileSize = attributes.size();
         if (fileSize < 10 * 1024 * 1024) { // 10MB 이하
             try {
                 byte[] fileContent = Files.readAllBytes(filePath);
@@ -856,6 +1751,15 @@ public class FileService {
     }
 
     // Content 없이 파일 목록만 반환 (빠른 조회)
+    // modifiedSince 이후 수정된 파일만 (null 이면 전체)
+    public List<Map<String, Object>> getFolderFileListOnly(String folderPath, boolean includeSubfolders, Long modifiedSince) throws IOException {
+        List<Map<String, Object>> fileList = getFolderFileListOnly(folderPath, includeSubfolders);
+        if (modifiedSince != null) {
+            fileList.removeIf(fileInfo -> (Long) fileInfo.get("LastModified") < modifiedSince);
+        }
+        return fileList;
+    }
+
     public List<Map<String, Object>> getFolderFileListOnly(String folderPath, boolean includeSubfolders) throws IOException {
         Path basePath = Paths.get(DATA_DIR);
         Path targetPath = folderPath.isEmpty() ? basePath : basePath.resolve(folderPath);
@@ -866,41 +1770,23 @@ public class FileService {
 
         List<Map<String, Object>> fileList = new ArrayList<>();
         
-        if (includeSubfolders) {
-            collectFileListOnly(targetPath, basePath, fileList);
+        List<FileMetadataIndex.Entry> entries = fileMetadataIndex.list(folderPath, includeSubfolders);
+        if (entries != null) {
+            for (FileMetadataIndex.Entry entry : entries) {
+                if (!entry.isDirectory() && isExcelFile(basePath.resolve(entry.getRelativePath()))) {
+                    fileList.add(createFileInfoBasic(entry));
+                }
+            }
         } else {
-            collectFileListInDirectoryOnly(targetPath, basePath, fileList);
+            fileList.addAll(directoryWalker.walk(targetPath, includeSubfolders, (path, attributes) ->
+                    !attributes.isDirectory() && isExcelFile(path) ? createFileInfoBasic(path, basePath, attributes) : null));
         }
         
         return fileList;
     }
 
-    // 파일 목록만 수집 (재귀)
-    private void collectFileListOnly(Path directory, Path basePath, List<Map<String, Object>> fileList) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (Files.isDirectory(path)) {
-                    collectFileListOnly(path, basePath, fileList);
-                } else if (isExcelFile(path)) {
-                    fileList.add(createFileInfoBasic(path, basePath));
-                }
-            }
-        }
-    }
-
-    // 현재 디렉토리의 파일 목록만 수집
-    private void collectFileListInDirectoryOnly(Path directory, Path basePath, List<Map<String, Object>> fileList) throws IOException {
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
-            for (Path path : stream) {
-                if (!Files.isDirectory(path) && isExcelFile(path)) {
-                    fileList.add(createFileInfoBasic(path, basePath));
-                }
-            }
-        }
-    }
-
     // 기본 파일 정보만 생성 (Content 제외)
-    private Map<String, Object> createFileInfoBasic(Path filePath, Path basePath) throws IOException {
+    private Map<String, Object> createFileInfoBasic(Path filePath, Path basePath, BasicFileAttributes attributes) {
         Map<String, Object> fileInfo = new HashMap<>();
         String fileName = filePath.getFileName().toString();
         String relativePath = basePath.relativize(filePath).toString();
@@ -909,9 +1795,33 @@ public class FileService {
         fileInfo.put("RelativePath", relativePath);
         fileInfo.put("Extension", fileName.contains(".") ? 
             fileName.substring(fileName.lastIndexOf(".")) : "");
-        fileInfo.put("Size", Files.size(filePath));
-        fileInfo.put("LastModified", Files.getLastModifiedTime(filePath).toMillis());
+        fileInfo.put("Size", attributes.size());
+        fileInfo.put("LastModified", attributes.lastModifiedTime().toMillis());
+        
+        return fileInfo;
+    }
+
+    // 색인 항목의 기본 파일 정보
+    private Map<String, Object> createFileInfoBasic(FileMetadataIndex.Entry entry) {
+        Map<String, Object> fileInfo = new HashMap<>();
+        String fileName = entry.getName();
+        
+        fileInfo.put("Name", fileName);
+        fileInfo.put("RelativePath", entry.getRelativePath());
+        fileInfo.put("Extension", fileName.contains(".") ? 
+            fileName.substring(fileName.lastIndexOf(".")) : "");
+        fileInfo.put("Size", entry.getSize());
+        fileInfo.put("LastModified", entry.getLastModified());
         
         return fileInfo;
     }
+
+    // sink 가 더 이상 행이 필요 없을 때 읽기를 멈추는 신호 (파일별 오류 처리에 잡히지 않음)
+    private static final class ReadStopped extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ReadStopped() {
+            super(null, null, false, false);
+        }
+    }
 }
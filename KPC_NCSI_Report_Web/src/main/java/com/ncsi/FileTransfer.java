@@ -0,0 +1,68 @@
+package com.ncsi;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+// 파일 다운로드의 zero-copy 전송 (/download, /powerbi/file)
+// Tomcat 이 sendfile 을 지원하면 (NIO 커넥터 기본) 본문을 응답 스트림에 쓰지 않고 파일 구간을 요청 속성으로 넘긴다.
+// Tomcat 은 헤더를 보낸 뒤 FileChannel.transferTo (리눅스 sendfile) 로 페이지 캐시에서 소켓으로 바로 보낸다 (사용자 공간 복사 없음).
+// 지원하지 않는 컨테이너, 작은 파일, 여러 구간(multipart/byteranges) 응답은 기존처럼 Spring 이 Resource 를 스트림으로 복사한다.
+@Component
+public class FileTransfer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Value("${ncsi.download.sendfile.enabled:true}")
+    private boolean sendfileEnabled;
+
+    // 이보다 작은 구간은 스트림 복사 (sendfile 준비 비용이 더 큼)
+    @Value("${ncsi.download.sendfile.min-bytes:65536}")
+    private long sendfileMinBytes;
+
+    // path 의 [start, start + count) 구간을 sendfile 로 보내도록 요청에 표시, 쓸 수 없으면 false (호출한 쪽이 본문을 씀)
+    // true 면 응답 본문을 쓰지 말고 Content-Length 만 count 로 설정해야 한다
+    public boolean sendFile(WebRequest webRequest, Path path, long start, long count) {
+        if (!sendfileEnabled || count < sendfileMinBytes
+                || !(webRequest instanceof ServletWebRequest servletWebRequest)
+                || servletWebRequest.getHttpMethod() != HttpMethod.GET
+                || !Boolean.TRUE.equals(webRequest.getAttribute(SENDFILE_SUPPORT, RequestAttributes.SCOPE_REQUEST))) {
+            return false;
+        }
+        webRequest.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString(), RequestAttributes.SCOPE_REQUEST);
+        webRequest.setAttribute(SENDFILE_START, start, RequestAttributes.SCOPE_REQUEST);
+        webRequest.setAttribute(SENDFILE_END, start + count, RequestAttributes.SCOPE_REQUEST);
+        return true;
+    }
+
+    // If-Range 가 없거나 현재 파일과 같으면 true (ETag 는 strong 비교라 weak 태그는 맞지 않음, 날짜는 Last-Modified 와 초 단위로 같아야 함)
+    // false 면 이어받는 사이 파일이 바뀐 것이므로 Range 를 무시하고 전체를 보낸다
+    static boolean matchesIfRange(String ifRange, ResponseValidator validator) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("W/")) {
+            return false;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(validator.getETag());
+        }
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return date / 1000 == validator.getLastModified() / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
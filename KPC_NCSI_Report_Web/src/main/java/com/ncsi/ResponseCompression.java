@@ -0,0 +1,94 @@
+package com.ncsi;
+
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+// 응답 본문 압축 (Content-Encoding: zstd | gzip)
+// 스트리밍 응답용으로 flush 할 때마다 지금까지의 데이터를 압축 블록으로 내보낸다 (gzip SYNC_FLUSH, zstd 블록 flush).
+@Component
+public class ResponseCompression {
+
+    public static final String GZIP = "gzip";
+    public static final String ZSTD = "zstd";
+
+    @Value("${ncsi.compression.enabled:true}")
+    private boolean enabled;
+
+    // gzip 1(빠름)~9(작음), zstd 1~19
+    @Value("${ncsi.compression.gzip-level:5}")
+    private int gzipLevel;
+
+    @Value("${ncsi.compression.zstd-level:3}")
+    private int zstdLevel;
+
+    @Value("${ncsi.compression.buffer-size:65536}")
+    private int bufferSize;
+
+    // Accept-Encoding 에서 q 값이 가장 높은 지원 형식 (같으면 zstd), 없으면 null (압축 안 함)
+    public String negotiate(String acceptEncoding) {
+        if (!enabled || acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        String best = null;
+        double bestQuality = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase();
+            double quality = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if ("*".equals(coding)) {
+                coding = GZIP;
+            }
+            if (!GZIP.equals(coding) && !ZSTD.equals(coding) || quality <= 0) {
+                continue;
+            }
+            if (quality > bestQuality || (quality == bestQuality && ZSTD.equals(coding))) {
+                best = coding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    // 압축 스트림 (close 는 압축을 마무리하고 out 은 flush 만 함)
+    public OutputStream wrap(OutputStream out, String encoding) throws IOException {
+        OutputStream target = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.flush();
+            }
+        };
+        if (ZSTD.equals(encoding)) {
+            return new ZstdOutputStream(target, RecyclingBufferPool.INSTANCE).setLevel(zstdLevel);
+        }
+        if (GZIP.equals(encoding)) {
+            return new GZIPOutputStream(target, bufferSize, true) {
+                {
+                    def.setLevel(gzipLevel);
+                }
+            };
+        }
+        return target;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ncsi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 조건부 요청(If-None-Match / If-Modified-Since)용 검증값
+// eTag 는 응답 대상 항목의 경로/크기/수정 시각 지문이라 파일 내용을 읽거나 응답을 만들지 않고 계산한다.
+// 같은 URL 에서 헤더로 표현이 갈리는 경우(Accept, Accept-Encoding)는 withVariant 로 지문에 더한다.
+// lastModified 는 대상 폴더와 하위 항목 중 가장 최근 수정 시각 (파일 추가/삭제는 상위 폴더의 수정 시각에 반영됨)
+public class ResponseValidator {
+
+    private final String eTag;
+    private final long lastModified;
+
+    public ResponseValidator(String eTag, long lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    // parts 의 지문으로 만든 검증값 (strong ETag)
+    public static ResponseValidator of(List<String> parts, long lastModified) {
+        return new ResponseValidator("\"" + CompressedResponseCache.fingerprint(parts).substring(0, 32) + "\"", lastModified);
+    }
+
+    public ResponseValidator withVariant(String... variant) {
+        List<String> parts = new ArrayList<>();
+        parts.add(eTag);
+        parts.addAll(Arrays.asList(variant));
+        return of(parts, lastModified);
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
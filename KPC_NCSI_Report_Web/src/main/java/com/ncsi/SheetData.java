@@ -0,0 +1,534 @@
+package com.ncsi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+// 시트 하나의 파싱 결과를 열 단위로 보관하는 구조
+// 파일명/경로/시트명은 시트당 한 번만 저장하고, 셀 값은 열별 타입 배열(kind + double/String)에 둔다.
+// 행 Map 이나 JSON 은 직렬화 시점에만 만든다 (toRowMap / writeRowJson).
+public class SheetData {
+
+    // 셀 종류
+    public static final byte ABSENT = 0;   // 저장된 셀 없음 (행 너비 안이면 "")
+    public static final byte BLANK = 1;
+    public static final byte STRING = 2;
+    public static final byte NUMBER = 3;
+    public static final byte DATE = 4;     // number 에 엑셀 날짜 값
+    public static final byte BOOLEAN = 5;  // number 가 1 이면 true
+    public static final byte FORMULA = 6;  // text 에 수식 문자열, 캐시된 결과는 getResultKind 로 (숫자 결과는 number)
+
+    // 문자열/배열 객체 헤더 등 대략적인 오버헤드 (바이트)
+    private static final int OBJECT_OVERHEAD = 40;
+
+    // 수식 결과가 정수인 숫자를 long 으로 기록할 수 있는 범위 (double 정밀도 안)
+    private static final double MAX_EXACT_LONG = 9007199254740992.0;
+
+    // "Column1".."ColumnN" 키 공유
+    private static volatile String[] columnKeys = new String[0];
+
+    private final String fileName;
+    private final String relativePath;
+    private final String sheetName;
+    private final boolean date1904;
+
+    private int rowCount;
+    private int[] rowNumbers = new int[16];
+    private int[] rowWidths = new int[16];
+    private final List<Column> columns = new ArrayList<>();
+    private long estimatedBytes;
+
+    public SheetData(String fileName, String relativePath, String sheetName, boolean date1904) {
+        this.fileName = fileName;
+        this.relativePath = relativePath;
+        this.sheetName = sheetName;
+        this.date1904 = date1904;
+        this.estimatedBytes = OBJECT_OVERHEAD * 4L + sheetName.length() * 2L;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getRelativePath() {
+        return relativePath;
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    public boolean isDate1904() {
+        return date1904;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getRowNumber(int row) {
+        return rowNumbers[row];
+    }
+
+    // 행의 셀 개수 (Column1..ColumnN 의 N)
+    public int getRowWidth(int row) {
+        return rowWidths[row];
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public byte getKind(int row, int column) {
+        if (column >= columns.size()) return ABSENT;
+        byte[] kinds = columns.get(column).kinds;
+        return row < kinds.length ? kinds[row] : ABSENT;
+    }
+
+    public double getNumber(int row, int column) {
+        double[] numbers = columns.get(column).numbers;
+        return numbers != null && row < numbers.length ? numbers[row] : 0;
+    }
+
+    public String getText(int row, int column) {
+        String[] texts = columns.get(column).texts;
+        return texts != null && row < texts.length ? texts[row] : null;
+    }
+
+    // 수식 셀의 캐시된 결과 종류 (NUMBER/DATE/BOOLEAN/STRING, 결과가 없으면 ABSENT)
+    public byte getResultKind(int row, int column) {
+        if (column >= columns.size()) return ABSENT;
+        byte[] results = columns.get(column).results;
+        return results != null && row < results.length ? results[row] : ABSENT;
+    }
+
+    public String getResultText(int row, int column) {
+        String[] resultTexts = columns.get(column).resultTexts;
+        return resultTexts != null && row < resultTexts.length ? resultTexts[row] : null;
+    }
+
+    // ---- 쓰기 (파싱 중에만 사용) ----
+
+    // 새 행 추가, 행 인덱스 반환
+    int startRow(int rowNumber) {
+        if (rowCount == rowNumbers.length) {
+            int capacity = Math.max(16, rowCount * 2);
+            rowNumbers = Arrays.copyOf(rowNumbers, capacity);
+            rowWidths = Arrays.copyOf(rowWidths, capacity);
+            estimatedBytes += 8L * rowCount;
+        }
+        rowNumbers[rowCount] = rowNumber;
+        rowWidths[rowCount] = 0;
+        return rowCount++;
+    }
+
+    void setCell(int row, int column, byte kind, double number, String text) {
+        while (columns.size() <= column) {
+            columns.add(new Column());
+            estimatedBytes += OBJECT_OVERHEAD;
+        }
+        Column target = columns.get(column);
+        estimatedBytes += target.ensureKinds(rowNumbers.length);
+        target.kinds[row] = kind;
+        if (kind == NUMBER || kind == DATE || kind == BOOLEAN) {
+            estimatedBytes += target.ensureNumbers(rowNumbers.length);
+            target.numbers[row] = number;
+        } else if (kind == STRING || kind == FORMULA) {
+            estimatedBytes += target.ensureTexts(rowNumbers.length);
+            target.texts[row] = text;
+            estimatedBytes += OBJECT_OVERHEAD + text.length() * 2L;
+        }
+        if (column + 1 > rowWidths[row]) {
+            rowWidths[row] = column + 1;
+        }
+    }
+
+    // 수식 셀(setCell FORMULA 이후)의 캐시된 결과 기록
+    void setFormulaResult(int row, int column, byte kind, double number, String text) {
+        Column target = columns.get(column);
+        estimatedBytes += target.ensureResults(rowNumbers.length);
+        target.results[row] = kind;
+        if (kind == NUMBER || kind == DATE || kind == BOOLEAN) {
+            estimatedBytes += target.ensureNumbers(rowNumbers.length);
+            target.numbers[row] = number;
+        } else if (kind == STRING) {
+            estimatedBytes += target.ensureResultTexts(rowNumbers.length);
+            target.resultTexts[row] = text;
+            estimatedBytes += OBJECT_OVERHEAD + text.length() * 2L;
+        }
+    }
+
+    // 다른 시트의 행 하나를 그대로 복사 (스냅샷 블록 기록용)
+    void copyRow(SheetData source, int sourceRow) {
+        int row = startRow(source.getRowNumber(sourceRow));
+        int width = source.getRowWidth(sourceRow);
+        for (int column = 0; column < width; column++) {
+            byte kind = source.getKind(sourceRow, column);
+            if (kind != ABSENT) {
+                setCell(row, column, kind, source.getNumber(sourceRow, column), source.getText(sourceRow, column));
+            }
+            byte resultKind = kind == FORMULA ? source.getResultKind(sourceRow, column) : ABSENT;
+            if (resultKind != ABSENT) {
+                setFormulaResult(row, column, resultKind, source.getNumber(sourceRow, column), source.getResultText(sourceRow, column));
+            }
+        }
+        rowWidths[row] = width;
+    }
+
+    // 스트리밍 처리에서 행 버퍼로 재사용할 때 비움 (배열은 유지)
+    void clearRows() {
+        for (int row = 0; row < rowCount; row++) {
+            clearRow(row);
+        }
+        rowCount = 0;
+    }
+
+    // 마지막 행 제거 (행 조건에 맞지 않아 버리는 행, 배열은 유지)
+    void removeLastRow() {
+        clearRow(--rowCount);
+    }
+
+    private void clearRow(int row) {
+        for (Column column : columns) {
+            if (row < column.kinds.length) column.kinds[row] = ABSENT;
+            if (column.texts != null && row < column.texts.length) column.texts[row] = null;
+            if (column.results != null && row < column.results.length) column.results[row] = ABSENT;
+            if (column.resultTexts != null && row < column.resultTexts.length) column.resultTexts[row] = null;
+        }
+    }
+
+    // 파싱이 끝난 뒤 여유 용량 제거 (캐시에 오래 남는 데이터)
+    void trimToSize() {
+        if (rowNumbers.length == rowCount) return;
+        estimatedBytes -= 8L * (rowNumbers.length - rowCount);
+        rowNumbers = Arrays.copyOf(rowNumbers, rowCount);
+        rowWidths = Arrays.copyOf(rowWidths, rowCount);
+        for (Column column : columns) {
+            estimatedBytes -= column.trim(rowCount);
+        }
+    }
+
+    // ---- 스냅샷(ExcelSnapshotStore) 저장/복원용 원시 배열 접근 ----
+
+    int getColumnCount() {
+        return columns.size();
+    }
+
+    byte[] getColumnKinds(int column) {
+        return columns.get(column).kinds;
+    }
+
+    double[] getColumnNumbers(int column) {
+        return columns.get(column).numbers;
+    }
+
+    String[] getColumnTexts(int column) {
+        return columns.get(column).texts;
+    }
+
+    byte[] getColumnResults(int column) {
+        return columns.get(column).results;
+    }
+
+    String[] getColumnResultTexts(int column) {
+        return columns.get(column).resultTexts;
+    }
+
+    int[] getRowNumbers() {
+        return rowNumbers;
+    }
+
+    int[] getRowWidths() {
+        return rowWidths;
+    }
+
+    // 저장된 배열로 시트 복원 (numbers/texts/results/resultTexts 는 열별로 null 가능)
+    static SheetData restore(String fileName, String relativePath, String sheetName, boolean date1904,
+                             int[] rowNumbers, int[] rowWidths, byte[][] kinds, double[][] numbers, String[][] texts,
+                             byte[][] results, String[][] resultTexts) {
+        SheetData sheet = new SheetData(fileName, relativePath, sheetName, date1904);
+        sheet.rowCount = rowNumbers.length;
+        sheet.rowNumbers = rowNumbers;
+        sheet.rowWidths = rowWidths;
+        sheet.estimatedBytes += 8L * rowNumbers.length;
+        for (int c = 0; c < kinds.length; c++) {
+            Column column = new Column();
+            column.kinds = kinds[c];
+            column.numbers = numbers[c];
+            column.texts = texts[c];
+            column.results = results[c];
+            column.resultTexts = resultTexts[c];
+            sheet.columns.add(column);
+            sheet.estimatedBytes += OBJECT_OVERHEAD + column.kinds.length;
+            if (column.numbers != null) {
+                sheet.estimatedBytes += 8L * column.numbers.length;
+            }
+            sheet.estimatedBytes += estimateTexts(column.texts);
+            if (column.results != null) {
+                sheet.estimatedBytes += column.results.length;
+            }
+            sheet.estimatedBytes += estimateTexts(column.resultTexts);
+        }
+        return sheet;
+    }
+
+    private static long estimateTexts(String[] texts) {
+        if (texts == null) {
+            return 0;
+        }
+        long bytes = 8L * texts.length;
+        for (String text : texts) {
+            if (text != null) {
+                bytes += OBJECT_OVERHEAD + text.length() * 2L;
+            }
+        }
+        return bytes;
+    }
+
+    // ---- 직렬화 ----
+
+    // getCellValueAsString 과 같은 문자열
+    public String getCellString(int row, int column) {
+        switch (getKind(row, column)) {
+            case STRING:
+            case FORMULA:
+                return getText(row, column);
+            case NUMBER:
+                return String.valueOf(getNumber(row, column));
+            case DATE:
+                return DateUtil.getJavaDate(getNumber(row, column), date1904).toString();
+            case BOOLEAN:
+                return String.valueOf(getNumber(row, column) != 0);
+            default:
+                return "";
+        }
+    }
+
+    // typed 값: 숫자(정수면 Long, 아니면 Double), Boolean, 날짜는 ISO-8601 문자열, 빈 셀은 null
+    // 수식 셀은 수식 문자열 대신 파일에 캐시된 결과 (계산기는 실행하지 않음)
+    public Object getCellValue(int row, int column) {
+        byte kind = getKind(row, column);
+        if (kind == FORMULA) {
+            kind = getResultKind(row, column);
+            if (kind == STRING) {
+                return getResultText(row, column);
+            }
+        }
+        switch (kind) {
+            case STRING:
+                return getText(row, column);
+            case NUMBER:
+                return number(getNumber(row, column));
+            case DATE:
+                return DateUtil.getLocalDateTime(getNumber(row, column), date1904).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            case BOOLEAN:
+                return getNumber(row, column) != 0;
+            default:
+                return null;
+        }
+    }
+
+    private static Object number(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < MAX_EXACT_LONG) {
+            return (long) value;
+        }
+        return value;
+    }
+
+    // 기존 Power BI 행 형식 (FileName, RelativePath, SheetName, RowNumber, Column1..N)
+    public Map<String, Object> toRowMap(int row) {
+        return toRowMap(row, false);
+    }
+
+    // typed 가 true 면 ColumnN 값은 getCellValue, 아니면 getCellString
+    public Map<String, Object> toRowMap(int row, boolean typed) {
+        return toRowMap(row, typed, null);
+    }
+
+    // names: 머리글 열 이름 (null 이거나 짧으면 나머지 열은 ColumnN)
+    public Map<String, Object> toRowMap(int row, boolean typed, String[] names) {
+        int width = rowWidths[row];
+        Map<String, Object> rowData = new HashMap<>((width + 4) * 4 / 3 + 1);
+        rowData.put("FileName", fileName);
+        rowData.put("RelativePath", relativePath);
+        rowData.put("SheetName", sheetName);
+        rowData.put("RowNumber", rowNumbers[row]);
+        for (int column = 0; column < width; column++) {
+            rowData.put(columnName(column, names), typed ? getCellValue(row, column) : getCellString(row, column));
+        }
+        return rowData;
+    }
+
+    // toRowMap 과 같은 내용을 Map 없이 바로 JSON 으로 기록
+    public void writeRowJson(int row, JsonGenerator generator) throws IOException {
+        writeRowJson(row, generator, false);
+    }
+
+    public void writeRowJson(int row, JsonGenerator generator, boolean typed) throws IOException {
+        writeRowJson(row, generator, typed, null);
+    }
+
+    public void writeRowJson(int row, JsonGenerator generator, boolean typed, String[] names) throws IOException {
+        int width = rowWidths[row];
+        generator.writeStartObject();
+        generator.writeStringField("FileName", fileName);
+        generator.writeStringField("RelativePath", relativePath);
+        generator.writeStringField("SheetName", sheetName);
+        generator.writeNumberField("RowNumber", rowNumbers[row]);
+        for (int column = 0; column < width; column++) {
+            generator.writeFieldName(columnName(column, names));
+            if (typed) {
+                writeTypedValue(row, column, generator);
+            } else {
+                generator.writeString(getCellString(row, column));
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    // getCellValue 와 같은 값을 객체 생성 없이 기록 (날짜만 문자열 생성)
+    private void writeTypedValue(int row, int column, JsonGenerator generator) throws IOException {
+        byte kind = getKind(row, column);
+        if (kind == FORMULA) {
+            kind = getResultKind(row, column);
+            if (kind == STRING) {
+                generator.writeString(getResultText(row, column));
+                return;
+            }
+        }
+        switch (kind) {
+            case STRING:
+                generator.writeString(getText(row, column));
+                break;
+            case NUMBER:
+                double value = getNumber(row, column);
+                if (value == Math.rint(value) && Math.abs(value) < MAX_EXACT_LONG) {
+                    generator.writeNumber((long) value);
+                } else {
+                    generator.writeNumber(value);
+                }
+                break;
+            case DATE:
+                generator.writeString(DateUtil.getLocalDateTime(getNumber(row, column), date1904).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                break;
+            case BOOLEAN:
+                generator.writeBoolean(getNumber(row, column) != 0);
+                break;
+            default:
+                generator.writeNull();
+                break;
+        }
+    }
+
+    // 0 기반 열 인덱스 → "Column{n+1}"
+    private static String columnName(int column, String[] names) {
+        return names != null && column < names.length ? names[column] : columnKey(column);
+    }
+
+    public static String columnKey(int column) {
+        String[] keys = columnKeys;
+        if (column < keys.length) {
+            return keys[column];
+        }
+        synchronized (SheetData.class) {
+            keys = columnKeys;
+            if (column >= keys.length) {
+                String[] grown = Arrays.copyOf(keys, Math.max(column + 1, keys.length * 2 + 16));
+                for (int i = keys.length; i < grown.length; i++) {
+                    grown[i] = "Column" + (i + 1);
+                }
+                columnKeys = grown;
+                keys = grown;
+            }
+            return keys[column];
+        }
+    }
+
+    // 열 하나: kinds 는 항상, numbers/texts/수식 결과는 필요할 때만 할당
+    private static final class Column {
+        byte[] kinds = new byte[0];
+        double[] numbers;
+        String[] texts;
+        byte[] results;
+        String[] resultTexts;
+
+        long ensureKinds(int capacity) {
+            if (kinds.length >= capacity) return 0;
+            long added = capacity - kinds.length;
+            kinds = Arrays.copyOf(kinds, capacity);
+            return added;
+        }
+
+        long trim(int size) {
+            long removed = 0;
+            if (kinds.length > size) {
+                removed += kinds.length - size;
+                kinds = Arrays.copyOf(kinds, size);
+            }
+            if (numbers != null && numbers.length > size) {
+                removed += 8L * (numbers.length - size);
+                numbers = Arrays.copyOf(numbers, size);
+            }
+            if (texts != null && texts.length > size) {
+                removed += 8L * (texts.length - size);
+                texts = Arrays.copyOf(texts, size);
+            }
+            if (results != null && results.length > size) {
+                removed += results.length - size;
+                results = Arrays.copyOf(results, size);
+            }
+            if (resultTexts != null && resultTexts.length > size) {
+                removed += 8L * (resultTexts.length - size);
+                resultTexts = Arrays.copyOf(resultTexts, size);
+            }
+            return removed;
+        }
+
+        long ensureResults(int capacity) {
+            if (results == null) {
+                results = new byte[capacity];
+                return capacity;
+            }
+            if (results.length >= capacity) return 0;
+            long added = capacity - results.length;
+            results = Arrays.copyOf(results, capacity);
+            return added;
+        }
+
+        long ensureResultTexts(int capacity) {
+            if (resultTexts == null) {
+                resultTexts = new String[capacity];
+                return 8L * capacity;
+            }
+            if (resultTexts.length >= capacity) return 0;
+            long added = 8L * (capacity - resultTexts.length);
+            resultTexts = Arrays.copyOf(resultTexts, capacity);
+            return added;
+        }
+
+        long ensureNumbers(int capacity) {
+            if (numbers == null) {
+                numbers = new double[capacity];
+                return 8L * capacity;
+            }
+            if (numbers.length >= capacity) return 0;
+            long added = 8L * (capacity - numbers.length);
+            numbers = Arrays.copyOf(numbers, capacity);
+            return added;
+        }
+
+        long ensureTexts(int capacity) {
+            if (texts == null) {
+                texts = new String[capacity];
+                return 8L * capacity;
+            }
+            if (texts.length >= capacity) return 0;
+            long added = 8L * (capacity - texts.length);
+            texts = Arrays.copyOf(texts, capacity);
+            return added;
+        }
+    }
+}
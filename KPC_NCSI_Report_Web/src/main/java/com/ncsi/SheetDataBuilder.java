@@ -0,0 +1,131 @@
+package com.ncsi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 리더 콜백을 SheetData 로 모으는 핸들러
+// - sink 가 있으면 행이 끝날 때마다 바로 전달 (응답 스트리밍)
+// - 모은 크기가 retainLimitBytes 이하인 동안만 시트를 보관 (캐시/병렬 버퍼용)
+// - 행 조건이 있으면 맞지 않는 행은 전달/보관하지 않고 바로 버린다
+//   한도를 넘거나 0 이면 한 행짜리 버퍼로 재사용하여 메모리가 늘지 않는다
+public class SheetDataBuilder implements ExcelRowHandler {
+
+    private final String fileName;
+    private final String relativePath;
+    private final ExcelRowSink sink;
+    private final long retainLimitBytes;
+
+    // 읽을 열 (null 이면 전체)
+    private BitSet columns;
+
+    // 행 조건 (null 이면 전체)
+    private ExcelRowFilter rowFilter;
+
+    // 켜지면 다음 행에서 CancellationException 으로 읽기 중단 (null 이면 확인하지 않음)
+    private AtomicBoolean cancelled;
+
+    private List<SheetData> sheets = new ArrayList<>();
+    private long retainedBytes;
+    private SheetData current;
+    private int currentRow;
+
+    public SheetDataBuilder(String fileName, String relativePath, ExcelRowSink sink, long retainLimitBytes) {
+        this.fileName = fileName;
+        this.relativePath = relativePath;
+        this.sink = sink;
+        this.retainLimitBytes = retainLimitBytes;
+        if (retainLimitBytes <= 0) {
+            sheets = null;
+        }
+    }
+
+    // 전부 보관하는 버퍼 (sink 없음)
+    public static SheetDataBuilder buffering(String fileName, String relativePath) {
+        return new SheetDataBuilder(fileName, relativePath, null, Long.MAX_VALUE);
+    }
+
+    // 필요한 열만 값을 읽도록 제한 (나머지는 ABSENT, 행 너비는 유지)
+    public void setColumns(BitSet columns) {
+        this.columns = columns;
+    }
+
+    public void setRowFilter(ExcelRowFilter rowFilter) {
+        this.rowFilter = rowFilter;
+    }
+
+    // 요청이 끝난 뒤에도 병렬로 실행 중인 파싱이 계속되지 않도록 중단 신호 연결 (ExcelReadOptions.cancelled)
+    public void setCancelled(AtomicBoolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public boolean wantsCell(int column) {
+        return columns == null || columns.get(column);
+    }
+
+    @Override
+    public void startSheet(String sheetName, boolean date1904) {
+        finishSheet();
+        current = new SheetData(fileName, relativePath, sheetName, date1904);
+    }
+
+    @Override
+    public void startRow(int rowNumber) {
+        if (cancelled != null && cancelled.get()) {
+            throw new CancellationException("Read cancelled");
+        }
+        currentRow = current.startRow(rowNumber);
+    }
+
+    @Override
+    public void cell(int column, byte kind, double number, String text) {
+        current.setCell(currentRow, column, kind, number, text);
+    }
+
+    @Override
+    public void formulaResult(int column, byte kind, double number, String text) {
+        current.setFormulaResult(currentRow, column, kind, number, text);
+    }
+
+    @Override
+    public void endRow() {
+        if (rowFilter != null && !rowFilter.matches(current, currentRow)) {
+            current.removeLastRow();
+            return;
+        }
+        if (sink != null) {
+            try {
+                sink.row(current, currentRow);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (sheets != null && retainedBytes + current.getEstimatedBytes() > retainLimitBytes) {
+            // 보관 한도 초과: 이후로는 행 버퍼로만 사용
+            sheets = null;
+        }
+        if (sheets == null) {
+            current.clearRows();
+        }
+    }
+
+    // 보관된 시트 목록 (보관을 포기했으면 null)
+    public List<SheetData> finish() {
+        finishSheet();
+        return sheets;
+    }
+
+    private void finishSheet() {
+        if (current != null && sheets != null) {
+            current.trimToSize();
+            retainedBytes += current.getEstimatedBytes();
+            sheets.add(current);
+        }
+        current = null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ncsi;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBodyReturnValueHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ResponseEntity<?> 로 선언된 API 가 StreamingResponseBody 를 본문으로 돌려줄 때도 비동기 스트리밍으로 처리
+// Spring 의 StreamingResponseBodyReturnValueHandler 는 선언 타입(ResponseEntity<StreamingResponseBody>)으로만 선택되어,
+// 오류일 때 Map 을 돌려주는 ResponseEntity<?> 메서드는 본문이 일반 객체로 취급된다 (JSON 이면 {}, CSV/Arrow 는 변환기 없음).
+// 실제 반환값의 본문을 보고 StreamingResponseBody 면 Spring 의 핸들러에 넘기므로 요청 스레드가 아닌 비동기 스레드에서 쓰고
+// spring.mvc.async.request-timeout 이 적용된다. 그 외 본문은 원래 핸들러(HttpEntityMethodProcessor)가 처리한다.
+@Configuration
+public class StreamingResponseConfig implements SmartInitializingSingleton {
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(handlerAdapter.getReturnValueHandlers());
+        handlers.add(0, new StreamingResponseEntityHandler(new ArrayList<>(handlers)));
+        handlerAdapter.setReturnValueHandlers(handlers);
+    }
+
+    private static final class StreamingResponseEntityHandler implements HandlerMethodReturnValueHandler {
+
+        private final StreamingResponseBodyReturnValueHandler streamingHandler = new StreamingResponseBodyReturnValueHandler();
+        private final List<HandlerMethodReturnValueHandler> handlers;
+
+        StreamingResponseEntityHandler(List<HandlerMethodReturnValueHandler> handlers) {
+            this.handlers = handlers;
+        }
+
+        // ResponseEntity<StreamingResponseBody> 로 선언된 메서드는 Spring 이 원래대로 처리
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return ResponseEntity.class.isAssignableFrom(returnType.getParameterType())
+                    && !streamingHandler.supportsReturnType(returnType);
+        }
+
+        @Override
+        public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                      NativeWebRequest webRequest) throws Exception {
+            if (returnValue instanceof ResponseEntity<?> entity && entity.getBody() instanceof StreamingResponseBody) {
+                streamingHandler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+                return;
+            }
+            for (HandlerMethodReturnValueHandler handler : handlers) {
+                if (handler.supportsReturnType(returnType)) {
+                    handler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+                    return;
+                }
+            }
+            throw new IllegalStateException("No return value handler for " + returnType.getParameterType().getName());
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package com.ncsi;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.*;
+
+// XSSFReader(SAX) 기반 .xlsx 스트리밍 리더
+// XSSFWorkbook DOM을 만들지 않으므로 파일 크기와 관계없이 메모리 사용량이 일정하다.
+// 셀 종류/값은 DOM 경로(FileService.readExcelFileWithWorkbook)와 같은 규칙으로 전달한다.
+@Component
+public class XlsxStreamingReader {
+
+    public void read(Path filePath, ExcelRowHandler handler) throws IOException {
+        try (StreamingWorkbook workbook = open(filePath)) {
+            for (int sheet = 0; sheet < workbook.getSheetCount(); sheet++) {
+                workbook.readSheet(sheet, handler);
+            }
+        }
+    }
+
+    // 시트 단위로 나눠 읽을 수 있도록 워크북을 연다 (시트 병렬 파싱용)
+    public StreamingWorkbook open(Path filePath) throws IOException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(filePath.toFile(), PackageAccess.READ);
+            return new StreamingWorkbook(filePath, pkg);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(pkg);
+            throw e;
+        } catch (Exception e) {
+            closeQuietly(pkg);
+            throw new IOException("Failed to open xlsx: " + filePath.getFileName() + " - " + e.getMessage(), e);
+        }
+    }
+
+    private static void closeQuietly(OPCPackage pkg) {
+        if (pkg != null) {
+            pkg.revert();
+        }
+    }
+
+    private static void parse(InputStream stream, DefaultHandler contentHandler) throws Exception {
+        XMLReader xmlReader = XMLHelper.newXMLReader();
+        xmlReader.setContentHandler(contentHandler);
+        xmlReader.parse(new InputSource(stream));
+    }
+
+    // 열린 .xlsx 워크북: 공유 문자열/스타일은 읽기 전용이라 여러 스레드에서 시트를 동시에 읽을 수 있다
+    public static class StreamingWorkbook implements Closeable {
+        private final Path filePath;
+        private final OPCPackage pkg;
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StylesTable styles;
+        private final boolean date1904;
+        private final List<String> sheetNames = new ArrayList<>();
+        private final List<PackagePart> sheetParts = new ArrayList<>();
+
+        private StreamingWorkbook(Path filePath, OPCPackage pkg) throws Exception {
+            this.filePath = filePath;
+            this.pkg = pkg;
+            WorkbookReader reader = new WorkbookReader(pkg);
+            this.sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            this.styles = reader.getStylesTable();
+            this.date1904 = isDate1904(reader);
+            // 시트 스트림은 readSheet 에서 연다 (읽지 않는 시트는 열지 않음)
+            new SheetParts(reader.getWorkbookPart()).collect(sheetNames, sheetParts);
+        }
+
+        public int getSheetCount() {
+            return sheetNames.size();
+        }
+
+        public String getSheetName(int sheet) {
+            return sheetNames.get(sheet);
+        }
+
+        // 셀 스타일 표 (ExcelRowHandler.cellStyle 의 인덱스로 조회)
+        public StylesTable getStyles() {
+            return styles;
+        }
+
+        // 시트 하나를 읽어 handler 에 전달
+        public void readSheet(int sheet, ExcelRowHandler handler) throws IOException {
+            try (InputStream sheetStream = sheetParts.get(sheet).getInputStream()) {
+                handler.startSheet(sheetNames.get(sheet), date1904);
+                parse(sheetStream, new SheetHandler(sharedStrings, styles, handler));
+            } catch (IOException | RuntimeException e) {
+                // 핸들러에서 던진 예외(응답 쓰기 실패 등)는 그대로 전달
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Failed to stream xlsx: " + filePath.getFileName()
+                        + " [" + sheetNames.get(sheet) + "] - " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            pkg.revert();
+        }
+
+        // workbook.xml 의 <workbookPr date1904="1"/> 확인
+        private static boolean isDate1904(XSSFReader reader) throws Exception {
+            boolean[] date1904 = {false};
+            try (InputStream workbookStream = reader.getWorkbookData()) {
+                parse(workbookStream, new DefaultHandler() {
+                    @Override
+                    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                        if ("workbookPr".equals(localName)) {
+                            String value = attributes.getValue("date1904");
+                            date1904[0] = "1".equals(value) || "true".equalsIgnoreCase(value);
+                        }
+                    }
+                });
+            }
+            return date1904[0];
+        }
+    }
+
+    // workbook.xml 파트를 시트 목록 조회에 넘기기 위한 XSSFReader
+    private static final class WorkbookReader extends XSSFReader {
+        private WorkbookReader(OPCPackage pkg) throws Exception {
+            super(pkg);
+        }
+
+        private PackagePart getWorkbookPart() {
+            return workbookPart;
+        }
+    }
+
+    // 워크북 순서의 시트 이름과 파트 (XSSFReader.SheetIterator 와 같은 시트, 스트림은 열지 않음)
+    private static final class SheetParts extends XSSFReader.SheetIterator {
+        private SheetParts(PackagePart workbookPart) throws IOException {
+            super(workbookPart);
+        }
+
+        private void collect(List<String> names, List<PackagePart> parts) {
+            while (sheetIterator.hasNext()) {
+                XSSFReader.XSSFSheetRef ref = sheetIterator.next();
+                PackagePart part = sheetMap.get(ref.getId());
+                if (part != null) {
+                    names.add(ref.getName());
+                    parts.add(part);
+                }
+            }
+        }
+    }
+
+    // 시트 XML(<sheetData>) 파서
+    private static class SheetHandler extends DefaultHandler {
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StylesTable styles;
+        private final ExcelRowHandler handler;
+
+        // 공유 수식: si -> 기준 셀 수식
+        private final Map<String, SharedFormula> sharedFormulas = new HashMap<>();
+
+        private int rowNumber;
+        private int nextColumn;
+
+        // 현재 셀 상태
+        private int column;
+        private String cellType;
+        private int styleIndex;
+        private final StringBuilder value = new StringBuilder();
+        private final StringBuilder formula = new StringBuilder();
+        private final StringBuilder inlineText = new StringBuilder();
+        private boolean hasFormula;
+        private String sharedFormulaIndex;
+        private boolean inValue;
+        private boolean inFormula;
+        private boolean inInlineString;
+        private boolean inInlineText;
+        private boolean inPhonetic;
+        // 핸들러가 원하지 않는 열: 값을 모으거나 해석하지 않음
+        private boolean skipValue;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, StylesTable styles, ExcelRowHandler handler) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    String r = attributes.getValue("r");
+                    rowNumber = r != null ? Integer.parseInt(r) : rowNumber + 1;
+                    nextColumn = 0;
+                    handler.startRow(rowNumber);
+                    break;
+                case "c":
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? new CellReference(ref).getCol() : nextColumn;
+                    nextColumn = column + 1;
+                    cellType = attributes.getValue("t");
+                    String s = attributes.getValue("s");
+                    styleIndex = s != null ? Integer.parseInt(s) : 0;
+                    value.setLength(0);
+                    formula.setLength(0);
+                    inlineText.setLength(0);
+                    hasFormula = false;
+                    sharedFormulaIndex = null;
+                    skipValue = !handler.wantsCell(column);
+                    break;
+                case "v":
+                    inValue = true;
+                    break;
+                case "f":
+                    inFormula = true;
+                    hasFormula = true;
+                    if ("shared".equals(attributes.getValue("t"))) {
+                        sharedFormulaIndex = attributes.getValue("si");
+                    }
+                    break;
+                case "is":
+                    inInlineString = true;
+                    break;
+                case "rPh":
+                    inPhonetic = true;
+                    break;
+                case "t":
+                    inInlineText = inInlineString && !inPhonetic;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                    inValue = false;
+                    break;
+                case "f":
+                    inFormula = false;
+                    break;
+                case "is":
+                    inInlineString = false;
+                    break;
+                case "rPh":
+                    inPhonetic = false;
+                    break;
+                case "t":
+                    inInlineText = false;
+                    break;
+                case "c":
+                    emitCell();
+                    handler.cellStyle(column, styleIndex);
+                    break;
+                case "row":
+                    handler.endRow();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inFormula) {
+                // 공유 수식 기준 셀은 건너뛰는 열이어도 기록해야 함
+                formula.append(ch, start, length);
+            } else if (skipValue) {
+                return;
+            } else if (inValue) {
+                value.append(ch, start, length);
+            } else if (inInlineText) {
+                inlineText.append(ch, start, length);
+            }
+        }
+
+        // DOM 경로와 같은 규칙: 수식 셀은 수식 문자열(+ <v> 의 캐시된 결과), 오류/빈 셀은 BLANK
+        private void emitCell() {
+            if (skipValue) {
+                if (hasFormula && sharedFormulaIndex != null) {
+                    formulaText();
+                }
+                handler.cell(column, SheetData.ABSENT, 0, null);
+                return;
+            }
+            if (hasFormula) {
+                handler.cell(column, SheetData.FORMULA, 0, formulaText());
+                emitFormulaResult();
+                return;
+            }
+            if ("inlineStr".equals(cellType)) {
+                handler.cell(column, SheetData.STRING, 0, inlineText.toString());
+                return;
+            }
+            if (value.length() == 0) {
+                handler.cell(column, SheetData.BLANK, 0, null);
+                return;
+            }
+            String raw = value.toString();
+            if (cellType == null || "n".equals(cellType)) {
+                double number = Double.parseDouble(raw);
+                handler.cell(column, isDateFormatted(number) ? SheetData.DATE : SheetData.NUMBER, number, null);
+                return;
+            }
+            switch (cellType) {
+                case "s":
+                    handler.cell(column, SheetData.STRING, 0, sharedStrings.getItemAt(Integer.parseInt(raw)).getString());
+                    break;
+                case "str":
+                    handler.cell(column, SheetData.STRING, 0, raw);
+                    break;
+                case "b":
+                    boolean bool = "1".equals(raw) || "true".equalsIgnoreCase(raw);
+                    handler.cell(column, SheetData.BOOLEAN, bool ? 1 : 0, null);
+                    break;
+                default:
+                    // "e" (오류) 등
+                    handler.cell(column, SheetData.BLANK, 0, null);
+                    break;
+            }
+        }
+
+        // t="str" 문자열, t="b" 논리값, 숫자(날짜 서식이면 DATE), 오류나 값 없음은 결과 없음
+        private void emitFormulaResult() {
+            if (value.length() == 0 || "e".equals(cellType)) {
+                return;
+            }
+            String raw = value.toString();
+            if ("str".equals(cellType)) {
+                handler.formulaResult(column, SheetData.STRING, 0, raw);
+            } else if ("b".equals(cellType)) {
+                boolean bool = "1".equals(raw) || "true".equalsIgnoreCase(raw);
+                handler.formulaResult(column, SheetData.BOOLEAN, bool ? 1 : 0, null);
+            } else if (cellType == null || "n".equals(cellType)) {
+                double number = Double.parseDouble(raw);
+                handler.formulaResult(column, isDateFormatted(number) ? SheetData.DATE : SheetData.NUMBER, number, null);
+            }
+        }
+
+        private boolean isDateFormatted(double number) {
+            if (styles == null || !DateUtil.isValidExcelDate(number)) {
+                return false;
+            }
+            XSSFCellStyle style = styles.getStyleAt(styleIndex);
+            return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        }
+
+        // 공유 수식은 기준 셀 기준으로 상대 참조를 이동시켜 XSSFCell.getCellFormula 와 같은 결과를 만든다
+        private String formulaText() {
+            String text = formula.toString();
+            if (sharedFormulaIndex == null) {
+                return text;
+            }
+            if (!text.isEmpty()) {
+                sharedFormulas.put(sharedFormulaIndex, new SharedFormula(text, rowNumber - 1, column));
+                return text;
+            }
+            SharedFormula master = sharedFormulas.get(sharedFormulaIndex);
+            if (master == null) {
+                return "";
+            }
+            return shiftFormula(master.formula, rowNumber - 1 - master.row, column - master.column);
+        }
+    }
+
+    private static class SharedFormula {
+        final String formula;
+        final int row;
+        final int column;
+
+        SharedFormula(String formula, int row, int column) {
+            this.formula = formula;
+            this.row = row;
+            this.column = column;
+        }
+    }
+
+    // A1 형식의 상대 참조($ 없는 부분)를 rowDelta/columnDelta 만큼 이동
+    static String shiftFormula(String formula, int rowDelta, int columnDelta) {
+        if (rowDelta == 0 && columnDelta == 0) {
+            return formula;
+        }
+        StringBuilder result = new StringBuilder(formula.length() + 8);
+        int length = formula.length();
+        int i = 0;
+        while (i < length) {
+            char ch = formula.charAt(i);
+            // 문자열 리터럴과 따옴표로 감싼 시트명은 그대로 둔다
+            if (ch == '"' || ch == '\'') {
+                int end = formula.indexOf(ch, i + 1);
+                while (end >= 0 && end + 1 < length && formula.charAt(end + 1) == ch) {
+                    end = formula.indexOf(ch, end + 2);
+                }
+                end = end < 0 ? length : end + 1;
+                result.append(formula, i, end);
+                i = end;
+                continue;
+            }
+            int end = matchReference(formula, i);
+            if (end < 0) {
+                result.append(ch);
+                i++;
+                continue;
+            }
+            result.append(shiftReference(formula.substring(i, end), rowDelta, columnDelta));
+            i = end;
+        }
+        return result.toString();
+    }
+
+    // i 위치에서 시작하는 셀 참조($A$1, B2 ...)의 끝 인덱스, 참조가 아니면 -1
+    private static int matchReference(String formula, int start) {
+        if (start > 0) {
+            char prev = formula.charAt(start - 1);
+            if (Character.isLetterOrDigit(prev) || prev == '_' || prev == '.' || prev == '$') {
+                return -1;
+            }
+        }
+        int i = start;
+        int length = formula.length();
+        if (i < length && formula.charAt(i) == '$') i++;
+        int lettersStart = i;
+        while (i < length && formula.charAt(i) >= 'A' && formula.charAt(i) <= 'Z') i++;
+        int letters = i - lettersStart;
+        if (letters < 1 || letters > 3) return -1;
+        if (i < length && formula.charAt(i) == '$') i++;
+        int digitsStart = i;
+        while (i < length && Character.isDigit(formula.charAt(i))) i++;
+        if (i == digitsStart) return -1;
+        if (i < length) {
+            char next = formula.charAt(i);
+            // 함수명(LOG10(), 시트명(AB1!) 등은 참조가 아님
+            if (Character.isLetterOrDigit(next) || next == '_' || next == '(' || next == '!') {
+                return -1;
+            }
+        }
+        return i;
+    }
+
+    private static String shiftReference(String reference, int rowDelta, int columnDelta) {
+        int i = 0;
+        boolean absoluteColumn = reference.charAt(i) == '$';
+        if (absoluteColumn) i++;
+        int lettersStart = i;
+        while (Character.isLetter(reference.charAt(i))) i++;
+        String columnLetters = reference.substring(lettersStart, i);
+        boolean absoluteRow = reference.charAt(i) == '$';
+        if (absoluteRow) i++;
+        int row = Integer.parseInt(reference.substring(i));
+
+        int columnIndex = CellReference.convertColStringToIndex(columnLetters);
+        if (!absoluteColumn) columnIndex += columnDelta;
+        if (!absoluteRow) row += rowDelta;
+        if (columnIndex < 0 || row < 1) {
+            return "#REF!";
+        }
+        return (absoluteColumn ? "$" : "") + CellReference.convertNumToColString(columnIndex)
+                + (absoluteRow ? "$" : "") + row;
+    }
+}
@@ -0,0 +1,196 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedUploadManagerTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private Path uploads;
+    private Path data;
+    private ChunkedUploadManager manager;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        uploads = dir.resolve("uploads");
+        data = Files.createDirectory(dir.resolve("data"));
+        // 대상 경로만 임시 폴더로 바꾼 FileService (DATA_DIR 대신)
+        FileService fileService = new FileService() {
+            @Override
+            public Path resolveUploadTarget(String folder, String fileName) {
+                return data.resolve(folder).resolve(fileName);
+            }
+
+            @Override
+            public String moveUploadedFile(Path source, String folder, String fileName) throws IOException {
+                Path target = resolveUploadTarget(folder, fileName);
+                Files.createDirectories(target.getParent());
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return "File uploaded successfully: " + fileName;
+            }
+        };
+        manager = new ChunkedUploadManager();
+        ReflectionTestUtils.setField(manager, "fileService", fileService);
+        ReflectionTestUtils.setField(manager, "directory", uploads.toString());
+        ReflectionTestUtils.setField(manager, "defaultChunkSize", CHUNK_SIZE);
+        ReflectionTestUtils.setField(manager, "maxChunkSize", 1024 * 1024);
+        ReflectionTestUtils.setField(manager, "maxBytes", 16L * 1024 * 1024);
+        ReflectionTestUtils.setField(manager, "retentionHours", 24);
+        manager.init();
+
+        // 조각 4개 (마지막 조각은 짧음)
+        content = new byte[3 * CHUNK_SIZE + 1000];
+        new Random(7).nextBytes(content);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void rejectsChunkWithWrongChecksum() throws Exception {
+        ChunkedUploadManager.Upload upload = manager.start("survey", "data.bin", content.length, null);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> manager.writeChunk(upload.getId(), 0, "deadbeef", body(0)));
+        assertTrue(error.getMessage().contains("checksum mismatch"));
+        assertEquals(List.of(0, 1, 2, 3), upload.toMap().get("missing"));
+
+        assertThrows(IllegalArgumentException.class, () -> manager.writeChunk(upload.getId(), 0, "", body(0)));
+        assertThrows(IllegalArgumentException.class, () -> manager.writeChunk(upload.getId(), 0, "xyz", body(0)));
+
+        // 같은 조각을 맞는 검사값으로 다시 보내면 받은 상태
+        manager.writeChunk(upload.getId(), 0, crc(0), body(0));
+        assertEquals(List.of(1, 2, 3), upload.toMap().get("missing"));
+    }
+
+    @Test
+    void rejectsChunkWithWrongLengthOrIndex() throws Exception {
+        ChunkedUploadManager.Upload upload = manager.start("survey", "data.bin", content.length, null);
+        byte[] shortChunk = Arrays.copyOfRange(content, 0, 100);
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.writeChunk(upload.getId(), 0, crc(shortChunk), new ByteArrayInputStream(shortChunk)));
+        byte[] longChunk = Arrays.copyOfRange(content, 3 * CHUNK_SIZE - 10, content.length);
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.writeChunk(upload.getId(), 3, crc(longChunk), new ByteArrayInputStream(longChunk)));
+        assertThrows(IllegalArgumentException.class, () -> manager.writeChunk(upload.getId(), 4, crc(0), body(0)));
+        assertEquals(0, upload.toMap().get("receivedChunks"));
+        assertNull(manager.writeChunk("unknown", 0, crc(0), body(0)));
+    }
+
+    @Test
+    void resumesMissingChunksAndCompletes() throws Exception {
+        ChunkedUploadManager.Upload upload = manager.start("survey", "data.bin", content.length, null);
+        assertEquals(4, upload.toMap().get("chunkCount"));
+        manager.writeChunk(upload.getId(), 2, crc(2), body(2));
+        manager.writeChunk(upload.getId(), 0, crc(0), body(0));
+
+        // 빠진 조각이 있으면 완료하지 않고 업로드는 그대로 남음 (빠진 조각만 다시 보내면 됨)
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> manager.complete(upload.getId()));
+        assertEquals("2 of 4 chunks are missing", error.getMessage());
+        Map<String, Object> status = manager.getUpload(upload.getId()).toMap();
+        assertEquals(List.of(1, 3), status.get("missing"));
+        assertEquals(2, status.get("receivedChunks"));
+
+        manager.writeChunk(upload.getId(), 3, crc(3), body(3));
+        manager.writeChunk(upload.getId(), 1, crc(1), body(1));
+        assertEquals("survey/data.bin", manager.complete(upload.getId()));
+
+        assertArrayEquals(content, Files.readAllBytes(data.resolve("survey").resolve("data.bin")));
+        assertNull(manager.getUpload(upload.getId()));
+        assertNull(manager.complete(upload.getId()));
+        assertEquals(0, partFiles());
+    }
+
+    @Test
+    void completedFileIsModifiedAtCompletion() throws Exception {
+        ChunkedUploadManager.Upload upload = manager.start("survey", "data.bin", content.length, null);
+        for (int i = 0; i < 4; i++) {
+            manager.writeChunk(upload.getId(), i, crc(i), body(i));
+        }
+        // 마지막 조각을 쓴 뒤 한참 지나 완료한 경우 (조각 파일의 수정 시각을 과거로)
+        Path part = uploads.resolve(upload.getId() + ".part");
+        Files.setLastModifiedTime(part, FileTime.fromMillis(System.currentTimeMillis() - 3_600_000));
+
+        long completedAt = System.currentTimeMillis() / 1000 * 1000;
+        manager.complete(upload.getId());
+        long modified = Files.getLastModifiedTime(data.resolve("survey").resolve("data.bin")).toMillis();
+        assertTrue(modified >= completedAt, "modified " + modified + " before complete " + completedAt);
+    }
+
+    @Test
+    void cancelAndRestartRemovePartFiles() throws Exception {
+        ChunkedUploadManager.Upload upload = manager.start("", "a.bin", content.length, CHUNK_SIZE);
+        assertEquals(1, partFiles());
+        assertNotNull(manager.cancel(upload.getId()));
+        assertEquals(0, partFiles());
+        assertNull(manager.getUpload(upload.getId()));
+
+        // 이전 실행에서 남은 조각 파일은 시작할 때 정리 (진행 상태가 없어 이어받을 수 없음)
+        Files.write(uploads.resolve("left-over.part"), new byte[10]);
+        manager.init();
+        assertEquals(0, partFiles());
+    }
+
+    @Test
+    void validatesSizeAndChunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> manager.start("", "a.bin", -1, null));
+        assertThrows(IllegalArgumentException.class, () -> manager.start("", "a.bin", 17L * 1024 * 1024, null));
+        assertThrows(IllegalArgumentException.class, () -> manager.start("", "a.bin", 1000, 1024));
+        assertThrows(IllegalArgumentException.class, () -> manager.start("", "a.bin", 1000, 2 * 1024 * 1024));
+        assertFalse(Files.exists(data.resolve("a.bin")));
+    }
+
+    private ByteArrayInputStream body(int index) {
+        return new ByteArrayInputStream(chunk(index));
+    }
+
+    private String crc(int index) {
+        return crc(chunk(index));
+    }
+
+    private byte[] chunk(int index) {
+        return Arrays.copyOfRange(content, index * CHUNK_SIZE, Math.min(content.length, (index + 1) * CHUNK_SIZE));
+    }
+
+    private static String crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return Long.toHexString(crc.getValue());
+    }
+
+    private long partFiles() throws IOException {
+        try (var stream = Files.list(uploads)) {
+            return stream.filter(path -> path.getFileName().toString().endsWith(".part")).count();
+        }
+    }
+}
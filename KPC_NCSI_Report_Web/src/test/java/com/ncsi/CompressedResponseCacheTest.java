@@ -0,0 +1,99 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompressedResponseCacheTest {
+
+    private CompressedResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // 전체 1000 바이트, 항목 하나는 250 바이트까지
+        cache = new CompressedResponseCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxBytes", 1000L);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverByteBudget() {
+        cache.put("a", "application/json", "gzip", new byte[250]);
+        cache.put("b", "application/json", "gzip", new byte[250]);
+        cache.put("c", "application/json", "gzip", new byte[250]);
+        cache.put("d", "application/json", "gzip", new byte[250]);
+        // a 를 읽어 가장 최근으로
+        assertNotNull(cache.get("a"));
+
+        cache.put("e", "application/json", "zstd", new byte[200]);
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals("zstd", cache.get("e").getEncoding());
+
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(4, stats.get("entries"));
+        assertEquals(950L, stats.get("currentBytes"));
+        assertEquals(1L, stats.get("evictions"));
+        assertEquals(1L, stats.get("misses"));
+    }
+
+    @Test
+    void replacingKeyKeepsByteCount() {
+        cache.put("a", "application/json", "gzip", new byte[200]);
+        cache.put("a", "text/csv", "gzip", new byte[100]);
+        assertEquals(100L, cache.getStats().get("currentBytes"));
+        assertEquals("text/csv", cache.get("a").getContentType());
+
+        cache.clear();
+        assertEquals(0L, cache.getStats().get("currentBytes"));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void rejectsEntriesOverQuarterOfBudget() {
+        cache.put("big", "application/json", "gzip", new byte[251]);
+        assertNull(cache.get("big"));
+        assertEquals(1L, cache.getStats().get("rejected"));
+        assertEquals(0L, cache.getStats().get("currentBytes"));
+
+        ReflectionTestUtils.setField(cache, "maxBytes", 0L);
+        assertFalse(cache.isEnabled());
+    }
+
+    @Test
+    void captureStopsCollectingPastLimit() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CompressedResponseCache.Capture capture = cache.capture(out);
+        capture.write(new byte[200], 0, 200);
+        capture.write(1);
+        assertArrayEquals(out.toByteArray(), capture.toByteArray());
+
+        // 한도(250)를 넘으면 모으기만 중단하고 응답 쓰기는 계속
+        capture.write(new byte[100], 0, 100);
+        capture.write(2);
+        assertNull(capture.toByteArray());
+        assertEquals(302, out.size());
+    }
+
+    @Test
+    void fingerprintDependsOnOrderAndBoundaries() {
+        String fingerprint = CompressedResponseCache.fingerprint(List.of("a\t1\t2", "b\t3\t4"));
+        assertEquals(64, fingerprint.length());
+        assertEquals(fingerprint, CompressedResponseCache.fingerprint(List.of("a\t1\t2", "b\t3\t4")));
+        assertNotEquals(fingerprint, CompressedResponseCache.fingerprint(List.of("b\t3\t4", "a\t1\t2")));
+        assertNotEquals(CompressedResponseCache.fingerprint(List.of("ab", "c")), CompressedResponseCache.fingerprint(List.of("a", "bc")));
+    }
+}
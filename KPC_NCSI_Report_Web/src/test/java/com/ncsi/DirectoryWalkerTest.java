@@ -0,0 +1,237 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectoryWalkerTest {
+
+    @TempDir
+    Path dir;
+
+    private DirectoryWalker walker;
+
+    @BeforeEach
+    void setUp() {
+        walker = new DirectoryWalker();
+        ReflectionTestUtils.setField(walker, "parallelism", 4);
+        walker.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        walker.shutdown();
+    }
+
+    @Test
+    void parallelWalkKeepsSequentialOrder() throws Exception {
+        createTree(dir, 2_000);
+        List<String> expected = new ArrayList<>();
+        walkSequential(dir, dir, expected);
+
+        DirectoryWalker.Visitor<String> visitor = (path, attributes) -> dir.relativize(path).toString();
+        assertEquals(expected, walker.walk(dir, true, visitor));
+        ForkJoinPool singleThread = DirectoryWalker.createPool(1);
+        try {
+            assertEquals(expected, walker.walk(dir, visitor, singleThread));
+        } finally {
+            singleThread.shutdownNow();
+        }
+        // limit 이 있으면 순차로 앞의 limit 개만
+        assertEquals(expected.subList(0, 50), walker.walk(dir, true, visitor, 50));
+    }
+
+    @Test
+    void passesAttributesAndSkipsNullResults() throws Exception {
+        Files.write(dir.resolve("a.xlsx"), new byte[10]);
+        Files.createDirectory(dir.resolve("sub"));
+        Files.write(dir.resolve("sub").resolve("b.csv"), new byte[25]);
+
+        List<Long> sizes = walker.walk(dir, true, (path, attributes) -> attributes.isDirectory() ? null : attributes.size());
+        Collections.sort(sizes);
+        assertEquals(List.of(10L, 25L), sizes);
+
+        // recursive 가 false 면 바로 아래 항목만
+        List<String> names = walker.walk(dir, false, (path, attributes) -> path.getFileName().toString());
+        Collections.sort(names);
+        assertEquals(List.of("a.xlsx", "sub"), names);
+    }
+
+    @Test
+    void skipsUploadTempFilesUnlessVisitorAsks() throws Exception {
+        Files.write(dir.resolve("a.xlsx"), new byte[10]);
+        Files.write(dir.resolve(".a.xlsx.0f8e.upload"), new byte[10]);
+        Files.write(dir.resolve(".hidden"), new byte[10]);
+
+        List<String> names = walker.walk(dir, true, (path, attributes) -> path.getFileName().toString());
+        Collections.sort(names);
+        assertEquals(List.of(".hidden", "a.xlsx"), names);
+
+        List<String> all = walker.walk(dir, true, new DirectoryWalker.Visitor<String>() {
+            @Override
+            public boolean visitsUploadTempFiles() {
+                return true;
+            }
+
+            @Override
+            public String visit(Path path, BasicFileAttributes attributes) {
+                return path.getFileName().toString();
+            }
+        });
+        assertEquals(3, all.size());
+    }
+
+    @Test
+    void callsAfterDirectoryOnceChildrenAreVisited() throws Exception {
+        createTree(dir, 300);
+        walker.walk(dir, true, new DirectoryWalker.Visitor<Void>() {
+            @Override
+            public Void visit(Path path, BasicFileAttributes attributes) throws IOException {
+                if (!attributes.isDirectory()) {
+                    Files.delete(path);
+                }
+                return null;
+            }
+
+            @Override
+            public void afterDirectory(Path directory) throws IOException {
+                Files.delete(directory);
+            }
+        });
+        assertFalse(Files.exists(dir));
+    }
+
+    @Test
+    void propagatesVisitorErrors() throws Exception {
+        createTree(dir, 300);
+        IOException error = assertThrows(IOException.class, () -> walker.walk(dir, true, (path, attributes) -> {
+            if (path.getFileName().toString().equals("survey_120.xlsx")) {
+                throw new AccessDeniedException(path.toString());
+            }
+            return path;
+        }));
+        assertTrue(error instanceof AccessDeniedException);
+    }
+
+    // mvn test -Dtest=DirectoryWalkerTest -Dncsi.benchmark=true [-Dncsi.benchmark.entries=500000]
+    // 항목마다 isDirectory/size/getLastModifiedTime 을 따로 읽는 순차 재귀와 DirectoryWalker(1 스레드, CPU 수)를 비교
+    @Test
+    @EnabledIfSystemProperty(named = "ncsi.benchmark", matches = "true")
+    void walkerVersusPerEntryStat() throws Exception {
+        int entries = Integer.getInteger("ncsi.benchmark.entries", 500_000);
+        int iterations = 3;
+        ReflectionTestUtils.setField(walker, "parallelism", 0);
+        walker.shutdown();
+        walker.init();
+        long createStart = System.nanoTime();
+        createTree(dir, entries);
+        long createNanos = System.nanoTime() - createStart;
+
+        DirectoryWalker.Visitor<Long> sizeVisitor = (path, attributes) -> attributes.isDirectory() ? 0L : attributes.size();
+        ForkJoinPool singleThread = DirectoryWalker.createPool(1);
+        long legacyNanos = Long.MAX_VALUE;
+        long singleNanos = Long.MAX_VALUE;
+        long parallelNanos = Long.MAX_VALUE;
+        try {
+            // 첫 회는 워밍업 (페이지 캐시, JIT)
+            for (int i = 0; i <= iterations; i++) {
+                long start = System.nanoTime();
+                long[] legacy = new long[2];
+                walkLegacy(dir, legacy);
+                long legacyTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<Long> single = walker.walk(dir, sizeVisitor, singleThread);
+                long singleTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<Long> parallel = walker.walk(dir, true, sizeVisitor);
+                long parallelTime = System.nanoTime() - start;
+
+                assertEquals(legacy[0], single.size());
+                assertEquals(legacy[0], parallel.size());
+                if (i > 0) {
+                    legacyNanos = Math.min(legacyNanos, legacyTime);
+                    singleNanos = Math.min(singleNanos, singleTime);
+                    parallelNanos = Math.min(parallelNanos, parallelTime);
+                }
+            }
+        } finally {
+            singleThread.shutdownNow();
+        }
+        System.out.printf("%d entries (created in %.0f ms): per-entry stat %.1f ms, walker 1 thread %.1f ms (%.1fx), "
+                        + "walker %d threads %.1f ms (%.1fx)%n",
+                entries, createNanos / 1e6, legacyNanos / 1e6, singleNanos / 1e6, (double) legacyNanos / singleNanos,
+                walker.getParallelism(), parallelNanos / 1e6, (double) legacyNanos / parallelNanos);
+        assertTrue(singleNanos < legacyNanos, "reading attributes once should be faster than per-entry stat calls");
+    }
+
+    // 너비 우선으로 폴더를 채워 항목 수를 맞춤 (폴더마다 파일 20개, 하위 폴더 4개)
+    private static void createTree(Path root, int entries) throws IOException {
+        int files = 0;
+        int folders = 0;
+        Deque<Path> queue = new ArrayDeque<>();
+        queue.add(root);
+        byte[] content = new byte[64];
+        while (!queue.isEmpty() && files + folders < entries) {
+            Path directory = queue.poll();
+            for (int i = 0; i < 20 && files + folders < entries; i++) {
+                Files.write(directory.resolve("survey_" + files + (i % 2 == 0 ? ".xlsx" : ".csv")), content);
+                files++;
+            }
+            for (int i = 0; i < 4 && files + folders < entries; i++) {
+                queue.add(Files.createDirectory(directory.resolve("folder_" + folders)));
+                folders++;
+            }
+        }
+    }
+
+    // 전위 순회 순서 (폴더 항목 바로 뒤에 그 하위)
+    private static void walkSequential(Path root, Path directory, List<String> results) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                results.add(root.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    walkSequential(root, path, results);
+                }
+            }
+        }
+    }
+
+    // 이전 순회 방식 (항목마다 속성을 따로 읽음), counts = {항목 수, 크기 합}
+    private static void walkLegacy(Path directory, long[] counts) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                counts[0]++;
+                if (Files.isDirectory(path)) {
+                    Files.getLastModifiedTime(path);
+                    walkLegacy(path, counts);
+                } else {
+                    counts[1] += Files.size(path);
+                    Files.getLastModifiedTime(path);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExcelAggregationTest {
+
+    @Test
+    void mergesPartialsInGroupKeyOrder() {
+        ExcelAggregation aggregation = ExcelAggregation.parse("Column1", "sum(Column3),avg(Column3),min(Column3),max(Column3),count(*)", null);
+        // 파일마다 부분 결과를 따로 채운 뒤 합침 (같은 그룹이 두 파일에 걸침)
+        ExcelAggregation first = aggregation.newPartial();
+        accept(first, sheet("a.xlsx", new Object[][]{{"서울", null, 10.0}, {"부산", null, 4.0}, {"서울", null, "20"}}));
+        ExcelAggregation second = aggregation.newPartial();
+        accept(second, sheet("b.xlsx", new Object[][]{{"서울", null, -3.5}, {"부산", null, null}}));
+        aggregation.merge(first);
+        aggregation.merge(second);
+
+        Map<String, Object> response = aggregation.toResponse();
+        assertEquals(List.of("Column1"), response.get("groupBy"));
+        assertEquals(List.of("sum(Column3)", "avg(Column3)", "min(Column3)", "max(Column3)", "count(*)"), response.get("aggregates"));
+        assertEquals(5L, response.get("rowsScanned"));
+        assertEquals(5L, response.get("rowsMatched"));
+        List<Map<String, Object>> data = data(response);
+        assertEquals(2, data.size());
+
+        Map<String, Object> busan = data.get(0);
+        assertEquals("부산", busan.get("Column1"));
+        assertEquals(4.0, busan.get("sum_Column3"));
+        assertEquals(4.0, busan.get("avg_Column3"));
+        assertEquals(2L, busan.get("count"));
+
+        // 숫자로 읽히는 문자열 셀도 포함
+        Map<String, Object> seoul = data.get(1);
+        assertEquals(26.5, seoul.get("sum_Column3"));
+        assertEquals(26.5 / 3, (Double) seoul.get("avg_Column3"), 1e-9);
+        assertEquals(-3.5, seoul.get("min_Column3"));
+        assertEquals(20.0, seoul.get("max_Column3"));
+        assertEquals(3L, seoul.get("count"));
+    }
+
+    @Test
+    void groupWithoutNumericCellsHasNoAverageOrBounds() {
+        ExcelAggregation aggregation = ExcelAggregation.parse(null,
+                "sum(Column2),avg(Column2),min(Column2),max(Column2),count(Column2),count(*)", "Column1 eq '응답'");
+        ExcelAggregation partial = aggregation.newPartial();
+        accept(partial, sheet("a.xlsx", new Object[][]{{"응답", "해당 없음"}, {"응답", null}, {"기타", 5.0}}));
+        aggregation.merge(partial);
+        // 빈 부분 결과를 합쳐도 그대로
+        aggregation.merge(aggregation.newPartial());
+
+        Map<String, Object> response = aggregation.toResponse();
+        assertEquals(3L, response.get("rowsScanned"));
+        assertEquals(2L, response.get("rowsMatched"));
+        Map<String, Object> row = data(response).get(0);
+        assertEquals(0.0, row.get("sum_Column2"));
+        assertNull(row.get("avg_Column2"));
+        assertNull(row.get("min_Column2"));
+        assertNull(row.get("max_Column2"));
+        // count(열) 은 값이 있는 셀, count(*) 는 행
+        assertEquals(1L, row.get("count_Column2"));
+        assertEquals(2L, row.get("count"));
+    }
+
+    @Test
+    void rejectsInvalidAndDuplicateSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> ExcelAggregation.parse(null, " ", null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelAggregation.parse(null, "median(Column3)", null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelAggregation.parse(null, "sum(*)", null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelAggregation.parse("Owner", "count(*)", null));
+        // 같은 출력 열이 두 번 나오면 앞의 값이 덮어써지므로 거부
+        assertThrows(IllegalArgumentException.class, () -> ExcelAggregation.parse(null, "sum(Column3),sum( Column3 )", null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelAggregation.parse(null, "count(*),COUNT(*)", null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelAggregation.parse("Column1,Column1", "count(*)", null));
+        ExcelAggregation.parse("Column1,Column2", "sum(Column3),avg(Column3),count(Column3),count(*)", null);
+    }
+
+    // 한 시트, 행마다 Column1.. 값 (Double 은 숫자 셀, null 은 빈 셀)
+    private static List<SheetData> sheet(String fileName, Object[][] rows) {
+        SheetDataBuilder builder = SheetDataBuilder.buffering(fileName, "survey/" + fileName);
+        builder.startSheet("S1", false);
+        for (int row = 0; row < rows.length; row++) {
+            builder.startRow(row + 1);
+            for (int column = 0; column < rows[row].length; column++) {
+                Object value = rows[row][column];
+                if (value instanceof Double) {
+                    builder.cell(column, SheetData.NUMBER, (Double) value, null);
+                } else if (value != null) {
+                    builder.cell(column, SheetData.STRING, 0, (String) value);
+                }
+            }
+            builder.endRow();
+        }
+        return builder.finish();
+    }
+
+    private static void accept(ExcelAggregation aggregation, List<SheetData> sheets) {
+        for (SheetData sheet : sheets) {
+            for (int row = 0; row < sheet.getRowCount(); row++) {
+                aggregation.accept(sheet, row);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> data(Map<String, Object> response) {
+        return (List<Map<String, Object>>) response.get("data");
+    }
+}
@@ -0,0 +1,198 @@
+package com.ncsi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Apache Arrow 리더로 스트림을 읽어 스키마/배치/값을 확인
+class ExcelArrowWriterTest {
+
+    @Test
+    void streamIsReadableByArrow() throws Exception {
+        SheetData sheet = ExcelCsvWriterTest.sampleSheet();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelArrowWriter arrow = new ExcelArrowWriter(out, ExcelColumnLayout.numbered(3), false, 1);
+        for (int row = 0; row < sheet.getRowCount(); row++) {
+            arrow.row(sheet, row, null);
+        }
+        arrow.finish();
+        assertEquals(2, arrow.getBatches());
+
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            List<Field> fields = root.getSchema().getFields();
+            assertEquals(List.of("FileName", "RelativePath", "SheetName", "RowNumber", "Column1", "Column2", "Column3"),
+                    fields.stream().map(Field::getName).toList());
+            assertEquals(new ArrowType.Int(32, true), fields.get(3).getType());
+            assertFalse(fields.get(3).isNullable());
+            assertEquals(ArrowType.Utf8.INSTANCE, fields.get(4).getType());
+            assertTrue(fields.get(4).isNullable());
+
+            // 행 너비 안의 빈 셀은 기존 문자열 값("")과 같고, 너비 밖은 null
+            List<String> rows = new ArrayList<>();
+            while (reader.loadNextBatch()) {
+                assertEquals(1, root.getRowCount());
+                rows.add(rowText(root, 0));
+            }
+            assertEquals(List.of("a.xlsx|survey/a.xlsx|S,1|1|say \"hi\"|2.5|null",
+                    "a.xlsx|survey/a.xlsx|S,1|2|two\nlines||true"), rows);
+        }
+    }
+
+    @Test
+    void batchesHoldUpToBatchRows() throws Exception {
+        SheetData sheet = numericSheet(2500, 4);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelArrowWriter arrow = new ExcelArrowWriter(out, ExcelColumnLayout.numbered(4), false, 1000);
+        for (int row = 0; row < sheet.getRowCount(); row++) {
+            arrow.row(sheet, row, null);
+        }
+        arrow.finish();
+
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            List<Integer> sizes = new ArrayList<>();
+            int seen = 0;
+            while (reader.loadNextBatch()) {
+                sizes.add(root.getRowCount());
+                IntVector rowNumbers = (IntVector) root.getVector("RowNumber");
+                VarCharVector column3 = (VarCharVector) root.getVector("Column3");
+                for (int i = 0; i < root.getRowCount(); i++, seen++) {
+                    assertEquals(seen + 1, rowNumbers.get(i));
+                    assertEquals(String.valueOf((double) seen * 2), column3.getObject(i).toString());
+                }
+            }
+            assertEquals(List.of(1000, 1000, 500), sizes);
+        }
+    }
+
+    @Test
+    void emptyStreamHasSchemaOnly() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ExcelArrowWriter(out, ExcelColumnLayout.numbered(0), false, 10).finish();
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            assertEquals(4, reader.getVectorSchemaRoot().getSchema().getFields().size());
+            assertFalse(reader.loadNextBatch());
+        }
+    }
+
+    // 형식별 출력 크기와 생성 시간 (출력은 버리고 바이트 수만 셈)
+    // mvn test -Dtest=ExcelArrowWriterTest -Dncsi.benchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "ncsi.benchmark", matches = "true")
+    void outputFormatSizesAndTimes() throws Exception {
+        SheetData sheet = numericSheet(200_000, 10);
+        ExcelColumnLayout layout = ExcelColumnLayout.numbered(10);
+        ObjectMapper objectMapper = new ObjectMapper();
+        long jsonBytes = 0;
+        for (ExcelOutputFormat format : ExcelOutputFormat.values()) {
+            long best = Long.MAX_VALUE;
+            long bytes = 0;
+            for (int i = 0; i < 3; i++) {
+                CountingOutputStream out = new CountingOutputStream();
+                long start = System.nanoTime();
+                switch (format) {
+                    case CSV: {
+                        ExcelCsvWriter csv = new ExcelCsvWriter(out, layout, false);
+                        for (int row = 0; row < sheet.getRowCount(); row++) {
+                            csv.row(sheet, row, null);
+                        }
+                        csv.finish();
+                        break;
+                    }
+                    case ARROW: {
+                        ExcelArrowWriter arrow = new ExcelArrowWriter(out, layout, false, 65536);
+                        for (int row = 0; row < sheet.getRowCount(); row++) {
+                            arrow.row(sheet, row, null);
+                        }
+                        arrow.finish();
+                        break;
+                    }
+                    default: {
+                        boolean lines = format == ExcelOutputFormat.NDJSON;
+                        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                            if (!lines) {
+                                generator.writeStartArray();
+                            }
+                            for (int row = 0; row < sheet.getRowCount(); row++) {
+                                sheet.writeRowJson(row, generator, false, null);
+                                if (lines) {
+                                    generator.writeRaw('\n');
+                                }
+                            }
+                            if (!lines) {
+                                generator.writeEndArray();
+                            }
+                        }
+                        break;
+                    }
+                }
+                best = Math.min(best, System.nanoTime() - start);
+                bytes = out.count;
+            }
+            if (format == ExcelOutputFormat.JSON) {
+                jsonBytes = bytes;
+            }
+            System.out.printf("%-6s %,12d bytes (%.2f x json) %8.1f ms%n", format.getName(), bytes,
+                    (double) bytes / jsonBytes, best / 1e6);
+        }
+    }
+
+    private static String rowText(VectorSchemaRoot root, int index) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < root.getFieldVectors().size(); i++) {
+            Object value = root.getVector(i).getObject(index);
+            values.add(value == null ? "null" : value.toString());
+        }
+        return String.join("|", values);
+    }
+
+    private static SheetData numericSheet(int rows, int columns) {
+        SheetDataBuilder builder = SheetDataBuilder.buffering("a.xlsx", "survey/a.xlsx");
+        builder.startSheet("S1", false);
+        for (int row = 0; row < rows; row++) {
+            builder.startRow(row + 1);
+            for (int column = 0; column < columns; column++) {
+                builder.cell(column, SheetData.NUMBER, (double) row * column, null);
+            }
+            builder.endRow();
+        }
+        return builder.finish().get(0);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExcelCsvWriterTest {
+
+    @Test
+    void writesBomHeaderAndQuotedFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelCsvWriter csv = new ExcelCsvWriter(out, ExcelColumnLayout.numbered(3), false);
+        SheetData sheet = sampleSheet();
+        for (int row = 0; row < sheet.getRowCount(); row++) {
+            csv.row(sheet, row, null);
+        }
+        csv.finish();
+
+        assertEquals("﻿FileName,RelativePath,SheetName,RowNumber,Column1,Column2,Column3\r\n"
+                        + "a.xlsx,survey/a.xlsx,\"S,1\",1,\"say \"\"hi\"\"\",2.5,\r\n"
+                        + "a.xlsx,survey/a.xlsx,\"S,1\",2,\"two\nlines\",,true\r\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void namedLayoutPlacesColumnsByHeaderName() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExcelCsvWriter csv = new ExcelCsvWriter(out, ExcelColumnLayout.named(List.of("점수", "이름")), true);
+        SheetData sheet = sampleSheet();
+        csv.row(sheet, 0, new String[]{"이름", "점수"});
+        csv.finish();
+
+        String text = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals("﻿FileName,RelativePath,SheetName,RowNumber,점수,이름\r\n"
+                + "a.xlsx,survey/a.xlsx,\"S,1\",1,2.5,\"say \"\"hi\"\"\"\r\n", text);
+    }
+
+    // 행 1: say "hi", 2.5   행 2: two\nlines, (없음), true
+    static SheetData sampleSheet() {
+        SheetDataBuilder builder = SheetDataBuilder.buffering("a.xlsx", "survey/a.xlsx");
+        builder.startSheet("S,1", false);
+        builder.startRow(1);
+        builder.cell(0, SheetData.STRING, 0, "say \"hi\"");
+        builder.cell(1, SheetData.NUMBER, 2.5, null);
+        builder.endRow();
+        builder.startRow(2);
+        builder.cell(0, SheetData.STRING, 0, "two\nlines");
+        builder.cell(2, SheetData.BOOLEAN, 1, null);
+        builder.endRow();
+        return builder.finish().get(0);
+    }
+}
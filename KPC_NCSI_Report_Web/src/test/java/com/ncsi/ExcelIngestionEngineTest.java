@@ -0,0 +1,100 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelIngestionEngineTest {
+
+    private ExcelIngestionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ExcelIngestionEngine();
+        ReflectionTestUtils.setField(engine, "poolSize", 4);
+        ReflectionTestUtils.setField(engine, "defaultRequestParallelism", 4);
+        engine.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void emitsResultsInInputOrder() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(i);
+        }
+        List<Integer> emitted = new ArrayList<>();
+        engine.forEachOrdered(items, 4, item -> {
+            // 뒤 항목이 먼저 끝나도 순서는 입력 순서
+            sleep((50 - item) % 5);
+            return item;
+        }, emitted::add);
+        assertEquals(items, emitted);
+    }
+
+    @Test
+    void emitterFailureStopsTasksAlreadyRunning() throws Exception {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CountDownLatch running = new CountDownLatch(3);
+        CountDownLatch stopped = new CountDownLatch(3);
+        RuntimeException failure = new RuntimeException("client disconnected");
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () ->
+                engine.forEachOrdered(List.of(0, 1, 2, 3), 4, item -> {
+                    if (item == 0) {
+                        awaitQuietly(running);
+                        return item;
+                    }
+                    running.countDown();
+                    // 행마다 중단 신호를 확인하는 파싱 흉내
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                    while (!cancelled.get() && System.nanoTime() < deadline) {
+                        sleep(1);
+                    }
+                    stopped.countDown();
+                    return item;
+                }, result -> {
+                    throw failure;
+                }, cancelled));
+
+        assertSame(failure, thrown);
+        assertTrue(cancelled.get());
+        assertTrue(stopped.await(5, TimeUnit.SECONDS), "running tasks should observe the cancellation");
+    }
+
+    @Test
+    void completedRunLeavesFlagClear() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        engine.forEachOrdered(List.of(1, 2, 3), 2, item -> item, item -> { }, cancelled);
+        assertFalse(cancelled.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExcelJobManagerTest {
+
+    @TempDir
+    Path dir;
+
+    private FileService fileService;
+    private ExcelJobManager manager;
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fileService = mock(FileService.class);
+        when(fileService.getFolderExcelFingerprint(anyString(), anyBoolean())).thenReturn("fingerprint-1");
+        doAnswer(invocation -> {
+            writes.incrementAndGet();
+            invocation.<OutputStream>getArgument(5).write("[]".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        }).when(fileService).writeFolderExcelData(anyString(), anyBoolean(), any(), any(), any(), any());
+        manager = createManager(24);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void sameInputReturnsSameJob() throws Exception {
+        ExcelJobManager.Job job = manager.submitFolderExcelData("survey", true, new ExcelReadOptions(), ExcelOutputFormat.JSON);
+        awaitFinished(job);
+        assertEquals(ExcelJobManager.Status.DONE, job.getStatus());
+        assertEquals("[]", Files.readString(job.getResult()));
+
+        // 같은 입력이면 완료된 작업을 그대로, 대상 파일이 바뀌면(지문) 새 작업
+        assertSame(job, manager.submitFolderExcelData("survey", true, new ExcelReadOptions(), ExcelOutputFormat.JSON));
+        ExcelJobManager.Job ndjson = manager.submitFolderExcelData("survey", true, new ExcelReadOptions(), ExcelOutputFormat.NDJSON);
+        assertNotEquals(job.getId(), ndjson.getId());
+        awaitFinished(ndjson);
+
+        when(fileService.getFolderExcelFingerprint(anyString(), anyBoolean())).thenReturn("fingerprint-2");
+        ExcelJobManager.Job changed = manager.submitFolderExcelData("survey", true, new ExcelReadOptions(), ExcelOutputFormat.JSON);
+        assertNotEquals(job.getId(), changed.getId());
+        awaitFinished(changed);
+        assertEquals(3, writes.get());
+    }
+
+    @Test
+    void reusesResultAfterRestart() throws Exception {
+        ExcelJobManager.Job job = manager.submitFolderExcelData("survey", true, new ExcelReadOptions(), ExcelOutputFormat.JSON);
+        awaitFinished(job);
+        manager.shutdown();
+
+        // 이전 실행의 임시 파일은 정리하고, 같은 입력의 결과 파일은 다시 실행하지 않고 사용
+        Path leftOver = Files.write(dir.resolve("old.json.1234.part"), new byte[10]);
+        manager = createManager(24);
+        assertFalse(Files.exists(leftOver));
+        ExcelJobManager.Job reused = manager.submitFolderExcelData("survey", true, new ExcelReadOptions(), ExcelOutputFormat.JSON);
+        assertEquals(ExcelJobManager.Status.DONE, reused.getStatus());
+        assertEquals(true, reused.toMap().get("reused"));
+        assertEquals(job.getResult(), reused.getResult());
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void cancelStopsColumnLayoutOfRunningJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean stopped = new AtomicBoolean();
+        // 열 목록 계산(파싱)은 옵션의 중단 신호를 보고 멈춤
+        when(fileService.getFolderExcelColumnLayout(anyString(), anyBoolean(), any())).thenAnswer(invocation -> {
+            ExcelReadOptions options = invocation.getArgument(2);
+            started.countDown();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (System.currentTimeMillis() < deadline) {
+                if (options.getCancelled().get()) {
+                    stopped.set(true);
+                    throw new CancellationException("Read cancelled");
+                }
+                Thread.sleep(5);
+            }
+            return ExcelColumnLayout.numbered(1);
+        });
+
+        ExcelJobManager.Job job = manager.submitFolderExcelData("survey", true, new ExcelReadOptions(), ExcelOutputFormat.CSV);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(ExcelJobManager.Status.RUNNING, job.getStatus());
+        manager.cancel(job.getId());
+        awaitFinished(job);
+
+        assertTrue(stopped.get());
+        assertEquals(ExcelJobManager.Status.CANCELLED, job.getStatus());
+        assertEquals(0, writes.get());
+        assertFalse(Files.exists(job.getResult()));
+        // 취소한 입력은 다시 제출하면 새로 실행
+        assertNotEquals(job.getId(),
+                manager.submitFolderExcelData("survey", true, new ExcelReadOptions(), ExcelOutputFormat.CSV).getId());
+    }
+
+    @Test
+    void cancelRemovesQueuedAndFinishedJobs() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(fileService).writeCombinedExcelFile(anyString(), anyBoolean(), any(), any());
+
+        // 작업 스레드 1개: 첫 작업이 실행 중이면 두 번째 작업은 대기
+        ExcelJobManager.Job running = manager.submitCombinedExcel("survey", true);
+        ExcelJobManager.Job queued = manager.submitFolderExcelData("survey", true, new ExcelReadOptions(), ExcelOutputFormat.JSON);
+        assertEquals(ExcelJobManager.Status.QUEUED, queued.getStatus());
+        manager.cancel(queued.getId());
+        assertEquals(ExcelJobManager.Status.CANCELLED, queued.getStatus());
+
+        release.countDown();
+        awaitFinished(running);
+        assertEquals(ExcelJobManager.Status.DONE, running.getStatus());
+        assertEquals(0, writes.get());
+
+        // 끝난 작업을 취소하면 결과 파일과 함께 삭제
+        manager.cancel(running.getId());
+        assertNull(manager.getJob(running.getId()));
+        assertFalse(Files.exists(running.getResult()));
+        assertNull(manager.cancel("unknown"));
+    }
+
+    @Test
+    void removesJobsPastRetention() throws Exception {
+        manager.shutdown();
+        manager = createManager(0);
+        ExcelJobManager.Job job = manager.submitFolderExcelData("survey", true, new ExcelReadOptions(), ExcelOutputFormat.JSON);
+        awaitFinished(job);
+        Thread.sleep(5);
+
+        assertNull(manager.getJob(job.getId()));
+        assertTrue(manager.listJobs().isEmpty());
+        assertFalse(Files.exists(job.getResult()));
+    }
+
+    private ExcelJobManager createManager(int retentionHours) {
+        ExcelJobManager jobManager = new ExcelJobManager();
+        ReflectionTestUtils.setField(jobManager, "fileService", fileService);
+        ReflectionTestUtils.setField(jobManager, "directory", dir.toString());
+        ReflectionTestUtils.setField(jobManager, "workers", 1);
+        ReflectionTestUtils.setField(jobManager, "queueCapacity", 4);
+        ReflectionTestUtils.setField(jobManager, "jobParallelism", 2);
+        ReflectionTestUtils.setField(jobManager, "retentionHours", retentionHours);
+        jobManager.init();
+        return jobManager;
+    }
+
+    private static void awaitFinished(ExcelJobManager.Job job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (job.getStatus() == ExcelJobManager.Status.QUEUED || job.getStatus() == ExcelJobManager.Status.RUNNING) {
+            assertTrue(System.currentTimeMillis() < deadline, "job did not finish: " + job.toMap());
+            Thread.sleep(5);
+        }
+    }
+}
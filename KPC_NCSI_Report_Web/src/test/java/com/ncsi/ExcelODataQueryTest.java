@@ -0,0 +1,134 @@
+package com.ncsi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExcelODataQueryTest {
+
+    // 행 1: 서울, 10, (빈 셀)   행 2: 부산, 25, 'O''Neil'   행 3: 서울시, 7.5
+    private final SheetData sheet = sampleSheet();
+
+    @Test
+    void comparesNumbersNumericallyAndTextAsStrings() {
+        assertEquals(List.of(2), matchingRows("Column2 gt 9.5 and Column2 ne 10"));
+        assertEquals(List.of(1, 3), matchingRows("Column2 le 10"));
+        assertEquals(List.of(1), matchingRows("Column1 eq '서울'"));
+        assertEquals(List.of(3), matchingRows("RowNumber ge 3"));
+        assertEquals(List.of(1, 2, 3), matchingRows("SheetName eq 'S1'"));
+    }
+
+    @Test
+    void supportsBooleanLogicFunctionsAndNull() {
+        assertEquals(List.of(1, 3), matchingRows("startswith(Column1, '서울')"));
+        assertEquals(List.of(2), matchingRows("not (startswith(Column1,'서울'))"));
+        assertEquals(List.of(1, 2), matchingRows("(Column2 eq 25 or Column2 eq 10) and RowNumber lt 3"));
+        assertEquals(List.of(2), matchingRows("Column3 eq 'O''Neil'"));
+        assertEquals(List.of(1, 3), matchingRows("Column3 eq null"));
+        assertEquals(List.of(2), matchingRows("endswith(Column3, 'Neil')"));
+        assertEquals(List.of(1), matchingRows("contains(FileName, 'a.') and RowNumber eq 1"));
+    }
+
+    @Test
+    void selectAndFilterDecideWhichColumnsAreParsed() {
+        ExcelODataQuery query = ExcelODataQuery.parse("FileName, Column3", "Column1 eq 'x'", 5, 2);
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2);
+        assertEquals(expected, query.getColumns());
+        assertEquals(5, query.getTop());
+        assertEquals(2, query.getSkip());
+        assertTrue(query.hasFilter());
+
+        ExcelODataQuery all = ExcelODataQuery.parse("*", "Column9 eq 1", null, null);
+        assertNull(all.getColumns());
+        assertEquals(-1, all.getTop());
+        assertFalse(ExcelODataQuery.parse(null, " ", null, null).hasFilter());
+    }
+
+    @Test
+    void writesOnlySelectedProperties() throws Exception {
+        ExcelODataQuery query = ExcelODataQuery.parse("RowNumber,Column2,Column3,FileName", null, null, null);
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = new ObjectMapper().getFactory().createGenerator(json)) {
+            query.writeRow(sheet, 2, generator);
+        }
+        // 행 3 은 너비가 2 라 Column3 은 쓰지 않는다
+        assertEquals("{\"RowNumber\":3,\"Column2\":\"7.5\",\"FileName\":\"a.xlsx\"}", json.toString());
+    }
+
+    @Test
+    void rejectsInvalidQueries() {
+        assertThrows(IllegalArgumentException.class, () -> ExcelODataQuery.parse("Column0", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelODataQuery.parse("Name", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelODataQuery.parse(null, "Column1 like 'a'", null, null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelODataQuery.parse(null, "Column1 eq 'a", null, null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelODataQuery.parse(null, "(Column1 eq 1", null, null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelODataQuery.parse(null, "Column1 eq abc", null, null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelODataQuery.parse(null, "contains(Column1, 1)", null, null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelODataQuery.parse(null, null, -1, null));
+        assertThrows(IllegalArgumentException.class, () -> ExcelODataQuery.parse(null, null, null, -1));
+    }
+
+    @Test
+    void rowFilterDropsRowsBeforeTheyAreStoredOrSent() {
+        ExcelODataQuery query = ExcelODataQuery.parse(null, "Column2 ge 10", null, null);
+        List<Integer> sent = new ArrayList<>();
+        SheetDataBuilder builder = new SheetDataBuilder("a.xlsx", "survey/a.xlsx",
+                (data, row) -> sent.add(data.getRowNumber(row)), Long.MAX_VALUE);
+        builder.setRowFilter(query);
+        fill(builder);
+        SheetData retained = builder.finish().get(0);
+
+        assertEquals(List.of(1, 2), sent);
+        assertEquals(2, retained.getRowCount());
+        assertEquals("부산", retained.getCellString(1, 0));
+        assertEquals("O'Neil", retained.getCellString(1, 2));
+    }
+
+    private List<Integer> matchingRows(String filter) {
+        ExcelODataQuery query = ExcelODataQuery.parse(null, filter, null, null);
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < sheet.getRowCount(); row++) {
+            if (query.matches(sheet, row)) {
+                rows.add(sheet.getRowNumber(row));
+            }
+        }
+        return rows;
+    }
+
+    private static SheetData sampleSheet() {
+        SheetDataBuilder builder = SheetDataBuilder.buffering("a.xlsx", "survey/a.xlsx");
+        fill(builder);
+        return builder.finish().get(0);
+    }
+
+    private static void fill(SheetDataBuilder builder) {
+        builder.startSheet("S1", false);
+        builder.startRow(1);
+        builder.cell(0, SheetData.STRING, 0, "서울");
+        builder.cell(1, SheetData.NUMBER, 10, null);
+        builder.cell(2, SheetData.BLANK, 0, null);
+        builder.endRow();
+        builder.startRow(2);
+        builder.cell(0, SheetData.STRING, 0, "부산");
+        builder.cell(1, SheetData.STRING, 0, "25");
+        builder.cell(2, SheetData.STRING, 0, "O'Neil");
+        builder.endRow();
+        builder.startRow(3);
+        builder.cell(0, SheetData.STRING, 0, "서울시");
+        builder.cell(1, SheetData.NUMBER, 7.5, null);
+        builder.endRow();
+    }
+}
@@ -0,0 +1,182 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExcelPageTest {
+
+    @Test
+    void pagesResumeWhereThePreviousPageStopped() throws IOException {
+        List<SampleFile> files = sampleFiles(false);
+        List<String> all = rowIds(page(files, 100, null, false));
+        assertEquals(12, all.size());
+        assertEquals(12, new HashSet<>(all).size());
+
+        for (int pageSize : new int[]{1, 4, 5, 7, 12}) {
+            List<String> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                Map<String, Object> page = page(files, pageSize, cursor, false);
+                assertTrue(rowIds(page).size() <= pageSize);
+                seen.addAll(rowIds(page));
+                cursor = (String) page.get("nextCursor");
+                assertEquals(cursor != null, page.get("hasMore"));
+            } while (cursor != null);
+            assertEquals(all, seen, "pageSize " + pageSize);
+        }
+    }
+
+    @Test
+    void resumeMatchesAcrossSnapshotBlocks() throws IOException {
+        // 첫 페이지는 파싱 결과(시트 하나), 다음 페이지는 스냅샷 블록(같은 이름의 연속 시트)에서 읽어도 같은 위치
+        Map<String, Object> first = page(sampleFiles(false), 3, null, false);
+        Map<String, Object> rest = page(sampleFiles(true), 100, (String) first.get("nextCursor"), false);
+        List<String> seen = new ArrayList<>(rowIds(first));
+        seen.addAll(rowIds(rest));
+        assertEquals(rowIds(page(sampleFiles(false), 100, null, false)), seen);
+        assertFalse((Boolean) rest.get("hasMore"));
+        assertNull(rest.get("nextCursor"));
+    }
+
+    @Test
+    void headerRowsCountTowardPositionButAreNotReturned() throws IOException {
+        List<SampleFile> files = List.of(new SampleFile("survey/h.xlsx", 10, 20,
+                sheetBlocks("survey/h.xlsx", "S1", new String[]{"기업명", "점수"}, 1, 5)));
+        Map<String, Object> first = page(files, 2, null, true);
+        Map<String, Object> second = page(files, 2, (String) first.get("nextCursor"), true);
+
+        // 커서 이전의 머리글 행을 건너뛰어도 다음 페이지에 머리글 이름이 그대로
+        List<Map<String, Object>> rows = new ArrayList<>(data(first));
+        rows.addAll(data(second));
+        assertEquals(4, rows.size());
+        for (Map<String, Object> row : rows) {
+            assertTrue(row.containsKey("기업명"), row.toString());
+        }
+        assertEquals(List.of(2, 3, 4, 5), values(rows, "RowNumber"));
+        ExcelPageCursor cursor = ExcelPageCursor.decode((String) first.get("nextCursor"));
+        assertEquals(0, cursor.sheetIndex);
+        assertEquals(3, cursor.rowIndex);
+    }
+
+    @Test
+    void rejectsStaleAndForeignCursors() throws IOException {
+        List<SampleFile> files = sampleFiles(false);
+        String cursor = (String) page(files, 8, null, false).get("nextCursor");
+        ExcelPageCursor position = ExcelPageCursor.decode(cursor);
+        assertEquals("survey/b.xlsx", position.relativePath);
+
+        // 커서가 가리키는 파일이 바뀌면 거부
+        ExcelPage page = new ExcelPage("survey", true, 8, position, false, false);
+        assertThrows(IllegalArgumentException.class, () -> page.startFile("survey/b.xlsx", 201, 2000, true));
+        assertThrows(IllegalArgumentException.class, () -> page.startFile("survey/b.xlsx", 200, 2001, true));
+        page.startFile("survey/b.xlsx", 200, 2000, true);
+
+        assertTrue(position.matchesQuery("survey", true));
+        assertFalse(position.matchesQuery("survey", false));
+        assertFalse(position.matchesQuery("other", true));
+        assertThrows(IllegalArgumentException.class, () -> ExcelPageCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> ExcelPageCursor.decode(cursor.substring(0, cursor.length() - 4)));
+    }
+
+    // FileService.getFolderExcelDataPage 와 같은 순서로 파일을 읽음 (목록은 상대 경로 순)
+    private static Map<String, Object> page(List<SampleFile> files, int pageSize, String cursor, boolean headers)
+            throws IOException {
+        ExcelPageCursor position = cursor == null ? null : ExcelPageCursor.decode(cursor);
+        ExcelPage page = new ExcelPage("survey", true, pageSize, position, false, headers);
+        for (SampleFile file : files) {
+            if (position != null && file.relativePath.compareTo(position.relativePath) < 0) {
+                continue;
+            }
+            page.startFile(file.relativePath, file.size, file.lastModified,
+                    position != null && file.relativePath.equals(position.relativePath));
+            for (SheetData sheet : file.sheets) {
+                for (int row = 0; row < sheet.getRowCount(); row++) {
+                    page.row(sheet, row);
+                }
+            }
+            if (page.hasMore()) {
+                break;
+            }
+        }
+        return page.toResponse();
+    }
+
+    // a.xlsx: S1 5행 + S2 3행, b.xlsx: S1 4행 (blocks 면 시트를 2행씩 나눈 스냅샷 블록으로)
+    private static List<SampleFile> sampleFiles(boolean blocks) {
+        List<SheetData> a = new ArrayList<>();
+        a.addAll(blocks ? sheetBlocks("survey/a.xlsx", "S1", null, 2, 5) : sheetBlocks("survey/a.xlsx", "S1", null, 5, 5));
+        a.addAll(blocks ? sheetBlocks("survey/a.xlsx", "S2", null, 2, 3) : sheetBlocks("survey/a.xlsx", "S2", null, 3, 3));
+        List<SheetData> b = blocks ? sheetBlocks("survey/b.xlsx", "S1", null, 2, 4) : sheetBlocks("survey/b.xlsx", "S1", null, 4, 4);
+        return List.of(new SampleFile("survey/a.xlsx", 100, 1000, a), new SampleFile("survey/b.xlsx", 200, 2000, b));
+    }
+
+    // 시트 하나를 blockRows 행씩 나눈 SheetData 목록 (header 가 있으면 1행이 머리글)
+    private static List<SheetData> sheetBlocks(String relativePath, String sheetName, String[] header, int blockRows,
+                                               int rows) {
+        List<SheetData> blocks = new ArrayList<>();
+        for (int first = 1; first <= rows; first += blockRows) {
+            SheetDataBuilder builder = SheetDataBuilder.buffering(relativePath.substring(relativePath.indexOf('/') + 1), relativePath);
+            builder.startSheet(sheetName, false);
+            for (int row = first; row < first + blockRows && row <= rows; row++) {
+                builder.startRow(row);
+                if (header != null && row == 1) {
+                    for (int column = 0; column < header.length; column++) {
+                        builder.cell(column, SheetData.STRING, 0, header[column]);
+                    }
+                } else {
+                    builder.cell(0, SheetData.STRING, 0, "값" + row);
+                    builder.cell(1, SheetData.NUMBER, row, null);
+                }
+                builder.endRow();
+            }
+            blocks.addAll(builder.finish());
+        }
+        return blocks;
+    }
+
+    private static List<String> rowIds(Map<String, Object> page) {
+        List<String> ids = new ArrayList<>();
+        for (Map<String, Object> row : data(page)) {
+            ids.add(row.get("RelativePath") + "|" + row.get("SheetName") + "|" + row.get("RowNumber"));
+        }
+        return ids;
+    }
+
+    private static List<Object> values(List<Map<String, Object>> rows, String key) {
+        List<Object> values = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            values.add(row.get(key));
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> data(Map<String, Object> page) {
+        return (List<Map<String, Object>>) page.get("data");
+    }
+
+    private static final class SampleFile {
+        final String relativePath;
+        final long size;
+        final long lastModified;
+        final List<SheetData> sheets;
+
+        SampleFile(String relativePath, long size, long lastModified, List<SheetData> sheets) {
+            this.relativePath = relativePath;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.sheets = sheets;
+        }
+    }
+}
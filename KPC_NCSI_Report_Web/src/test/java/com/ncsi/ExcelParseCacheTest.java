@@ -0,0 +1,124 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ExcelParseCacheTest {
+
+    private ExcelParseCache cache;
+    // 시트 하나(같은 내용)의 예상 크기
+    private long sheetBytes;
+
+    @BeforeEach
+    void setUp() {
+        sheetBytes = sheets("a.xlsx", 1).get(0).getEstimatedBytes();
+        // 시트 4개 분량, 항목 하나는 시트 1개까지
+        cache = new ExcelParseCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxBytes", sheetBytes * 4);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverByteBudget() {
+        for (String path : new String[]{"a.xlsx", "b.xlsx", "c.xlsx", "d.xlsx"}) {
+            cache.put(key(path, 1), sheets(path, 1));
+        }
+        assertNotNull(cache.get(key("a.xlsx", 1)));
+        cache.put(key("e.xlsx", 1), sheets("e.xlsx", 1));
+
+        assertNull(cache.get(key("b.xlsx", 1)));
+        assertNotNull(cache.get(key("a.xlsx", 1)));
+        assertNotNull(cache.get(key("e.xlsx", 1)));
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(4, stats.get("entries"));
+        assertEquals(sheetBytes * 4, stats.get("currentBytes"));
+        assertEquals(1L, stats.get("evictions"));
+        assertEquals(3L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+    }
+
+    @Test
+    void replacesPreviousVersionOfSameFile() {
+        List<SheetData> first = sheets("a.xlsx", 1);
+        List<SheetData> second = sheets("a.xlsx", 1);
+        cache.put(key("a.xlsx", 1), first);
+        cache.put(key("a.xlsx", 2), second);
+
+        // 파일이 바뀌면(크기/수정 시각) 이전 키는 미스, 바이트도 한 항목만
+        assertNull(cache.get(key("a.xlsx", 1)));
+        assertSame(second, cache.get(key("a.xlsx", 2)));
+        assertEquals(sheetBytes, cache.getStats().get("currentBytes"));
+        assertEquals(0L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    void rejectsEntriesOverMaxEntryBytes() {
+        // 시트 2개는 max-bytes/4 를 넘음
+        cache.put(key("big.xlsx", 1), sheets("big.xlsx", 2));
+        assertNull(cache.get(key("big.xlsx", 1)));
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(1L, stats.get("rejected"));
+        assertEquals(0, stats.get("entries"));
+        assertEquals(0L, stats.get("currentBytes"));
+
+        ReflectionTestUtils.setField(cache, "maxBytes", 0L);
+        assertFalse(cache.isEnabled());
+    }
+
+    @Test
+    void invalidatesFileOrFolderByPathPrefix() {
+        ReflectionTestUtils.setField(cache, "maxBytes", sheetBytes * 40);
+        for (String path : new String[]{"survey/a.xlsx", "survey/sub/b.xlsx", "survey2/c.xlsx", "surveyd.xlsx"}) {
+            cache.put(key(path, 1), sheets(path, 1));
+        }
+
+        // "survey" 는 survey/ 아래만 (이름이 survey 로 시작하는 다른 폴더/파일은 그대로)
+        cache.invalidate("survey");
+        assertNull(cache.get(key("survey/a.xlsx", 1)));
+        assertNull(cache.get(key("survey/sub/b.xlsx", 1)));
+        assertNotNull(cache.get(key("survey2/c.xlsx", 1)));
+        assertNotNull(cache.get(key("surveyd.xlsx", 1)));
+        assertEquals(2L, cache.getStats().get("invalidations"));
+        assertEquals(sheetBytes * 2, cache.getStats().get("currentBytes"));
+
+        cache.invalidate("survey2/c.xlsx");
+        assertNull(cache.get(key("survey2/c.xlsx", 1)));
+        cache.invalidate("");
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(0, stats.get("entries"));
+        assertEquals(0L, stats.get("currentBytes"));
+        assertEquals(4L, stats.get("invalidations"));
+    }
+
+    private static ExcelParseCache.CacheKey key(String relativePath, long lastModified) {
+        return new ExcelParseCache.CacheKey(relativePath, 100, lastModified);
+    }
+
+    // 같은 내용의 시트 count 개 (크기가 같음)
+    private static List<SheetData> sheets(String relativePath, int count) {
+        List<SheetData> sheets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SheetDataBuilder builder = SheetDataBuilder.buffering(relativePath, relativePath);
+            builder.startSheet("S", false);
+            for (int row = 1; row <= 10; row++) {
+                builder.startRow(row);
+                builder.cell(0, SheetData.STRING, 0, "값");
+                builder.cell(1, SheetData.NUMBER, row, null);
+                builder.endRow();
+            }
+            sheets.addAll(builder.finish());
+        }
+        return sheets;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ExcelSchemaCacheTest {
+
+    private ExcelSchemaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ExcelSchemaCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 3);
+    }
+
+    @Test
+    void keepsOnlyLatestVersionPerFile() {
+        ExcelSchema first = schema("survey/a.xlsx");
+        ExcelSchema second = schema("survey/a.xlsx");
+        cache.put(key("survey/a.xlsx", 1), first);
+        cache.put(key("survey/a.xlsx", 2), second);
+
+        assertNull(cache.get(key("survey/a.xlsx", 1)));
+        assertSame(second, cache.get(key("survey/a.xlsx", 2)));
+        assertEquals(1, cache.getStats().get("entries"));
+
+        // 같은 버전을 다시 넣어도 항목은 하나
+        cache.put(key("survey/a.xlsx", 2), first);
+        assertSame(first, cache.get(key("survey/a.xlsx", 2)));
+        assertEquals(1, cache.getStats().get("entries"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAndForgetsItsPath() {
+        cache.put(key("a.xlsx", 1), schema("a.xlsx"));
+        cache.put(key("b.xlsx", 1), schema("b.xlsx"));
+        cache.put(key("c.xlsx", 1), schema("c.xlsx"));
+        assertNotNull(cache.get(key("a.xlsx", 1)));
+        cache.put(key("d.xlsx", 1), schema("d.xlsx"));
+
+        assertNull(cache.get(key("b.xlsx", 1)));
+        assertNotNull(cache.get(key("a.xlsx", 1)));
+        // 밀려난 파일의 새 버전을 넣어도 다른 항목은 그대로
+        cache.put(key("b.xlsx", 2), schema("b.xlsx"));
+        assertEquals(3, cache.getStats().get("entries"));
+        assertNotNull(cache.get(key("b.xlsx", 2)));
+        assertNull(cache.get(key("c.xlsx", 1)));
+    }
+
+    @Test
+    void invalidatesFileOrFolder() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+        cache.put(key("survey/a.xlsx", 1), schema("survey/a.xlsx"));
+        cache.put(key("survey/sub/b.xlsx", 1), schema("survey/sub/b.xlsx"));
+        cache.put(key("survey2/c.xlsx", 1), schema("survey2/c.xlsx"));
+
+        cache.invalidate("survey");
+        assertNull(cache.get(key("survey/a.xlsx", 1)));
+        assertNull(cache.get(key("survey/sub/b.xlsx", 1)));
+        assertNotNull(cache.get(key("survey2/c.xlsx", 1)));
+        assertEquals(2L, cache.getStats().get("invalidations"));
+
+        // 무효화한 경로는 다시 넣으면 새 항목
+        cache.put(key("survey/a.xlsx", 2), schema("survey/a.xlsx"));
+        cache.invalidate("survey2/c.xlsx");
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(1, stats.get("entries"));
+        assertEquals(3L, stats.get("invalidations"));
+
+        cache.clear();
+        assertEquals(0, cache.getStats().get("entries"));
+    }
+
+    private static ExcelParseCache.CacheKey key(String relativePath, long lastModified) {
+        return new ExcelParseCache.CacheKey(relativePath, 100, lastModified);
+    }
+
+    private static ExcelSchema schema(String relativePath) {
+        return ExcelSchema.infer(relativePath, relativePath, 100, 0, List.of(), 0);
+    }
+}
@@ -0,0 +1,156 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExcelSchemaTest {
+
+    @Test
+    void infersHeaderAndColumnTypes() {
+        SheetDataBuilder builder = SheetDataBuilder.buffering("a.xlsx", "survey/a.xlsx");
+        builder.startSheet("S1", false);
+        // 첫 값 있는 행 이전의 빈 행은 데이터로 세지 않음
+        builder.startRow(1);
+        builder.cell(0, SheetData.BLANK, 0, null);
+        builder.endRow();
+        // 머리글: 빈 칸은 ColumnN, 중복/고정 키는 _2
+        builder.startRow(2);
+        builder.cell(0, SheetData.STRING, 0, " 기업명 ");
+        builder.cell(1, SheetData.STRING, 0, "점수");
+        builder.cell(3, SheetData.STRING, 0, "점수");
+        builder.cell(4, SheetData.STRING, 0, "SheetName");
+        builder.cell(5, SheetData.STRING, 0, "조사일");
+        builder.endRow();
+        builder.startRow(3);
+        builder.cell(0, SheetData.STRING, 0, "삼성전자");
+        builder.cell(1, SheetData.NUMBER, 80, null);
+        builder.cell(3, SheetData.BOOLEAN, 1, null);
+        builder.cell(4, SheetData.FORMULA, 0, "B3*2");
+        builder.formulaResult(4, SheetData.NUMBER, 160, null);
+        builder.cell(5, SheetData.DATE, 45000, null);
+        builder.endRow();
+        builder.startRow(4);
+        builder.cell(0, SheetData.NUMBER, 7, null);
+        builder.cell(1, SheetData.NUMBER, 80.5, null);
+        builder.cell(3, SheetData.BOOLEAN, 0, null);
+        builder.cell(4, SheetData.FORMULA, 0, "B4*2");
+        builder.formulaResult(4, SheetData.NUMBER, 161, null);
+        builder.cell(5, SheetData.DATE, 45001.5, null);
+        builder.cell(6, SheetData.STRING, 0, "비고");
+        builder.endRow();
+
+        Map<String, Object> sheet = sheets(ExcelSchema.infer("survey/a.xlsx", "a.xlsx", 10, 20, builder.finish(), 0)).get(0);
+        assertEquals(2, sheet.get("headerRow"));
+        assertEquals(2L, sheet.get("rowCount"));
+        assertEquals(List.of("기업명", "점수", "Column3", "점수_2", "SheetName_2", "조사일", "Column7"), names(sheet));
+        // integer+number → number, 서로 다른 형식 → string, 값이 없으면 null
+        assertEquals(List.of("string", "number", "", "boolean", "integer", "datetime", "string"), types(sheet));
+        assertEquals(List.of(false, false, true, false, false, false, true), nullables(sheet));
+    }
+
+    @Test
+    void firstRowWithValuesIsDataWhenNotAllText() {
+        SheetDataBuilder builder = SheetDataBuilder.buffering("a.xlsx", "survey/a.xlsx");
+        builder.startSheet("S1", false);
+        for (int row = 1; row <= 5; row++) {
+            builder.startRow(row);
+            builder.cell(0, SheetData.STRING, 0, "행" + row);
+            builder.cell(1, SheetData.NUMBER, row, null);
+            builder.endRow();
+        }
+        // 블록으로 나뉘어 읽힌 같은 이름의 시트는 한 시트로
+        builder.startSheet("S1", false);
+        builder.startRow(6);
+        builder.cell(2, SheetData.STRING, 0, "표본 밖");
+        builder.endRow();
+        builder.startSheet("Empty", false);
+
+        List<Map<String, Object>> sheets = sheets(ExcelSchema.infer("survey/a.xlsx", "a.xlsx", 10, 20, builder.finish(), 3));
+        assertEquals(2, sheets.size());
+        Map<String, Object> sheet = sheets.get(0);
+        assertNull(sheet.get("headerRow"));
+        assertEquals(6L, sheet.get("rowCount"));
+        assertEquals(3L, sheet.get("sampledRows"));
+        // 표본 밖 행의 열도 목록에는 포함 (형식은 모름)
+        assertEquals(List.of("Column1", "Column2", "Column3"), names(sheet));
+        assertEquals(List.of("string", "integer", ""), types(sheet));
+        assertEquals(0L, sheets.get(1).get("rowCount"));
+    }
+
+    @Test
+    void mergeWidensTypesAcrossFiles() {
+        ExcelSchema a = schema("survey/a.xlsx", new String[]{"기업명", "점수"}, new Object[]{"삼성", 80.0});
+        ExcelSchema b = schema("survey/b.xlsx", new String[]{"점수", "비고"}, new Object[]{80.5, "메모"});
+        ExcelSchema c = schema("survey/c.xlsx", new String[]{"기업명"}, new Object[]{1.0});
+
+        List<Map<String, Object>> columns = ExcelSchema.merge(List.of(a, b, c));
+        assertEquals(List.of("기업명", "점수", "비고"), values(columns, "name"));
+        assertEquals(List.of("string", "number", "string"), values(columns, "type"));
+        // 열이 없는 시트가 있으면 nullable
+        assertEquals(List.of(true, true, true), values(columns, "nullable"));
+        assertEquals(List.of(2, 2, 1), values(columns, "fileCount"));
+
+        assertEquals(List.of(false, false), values(ExcelSchema.merge(List.of(a)), "nullable"));
+    }
+
+    private static ExcelSchema schema(String relativePath, String[] header, Object[] values) {
+        SheetDataBuilder builder = SheetDataBuilder.buffering(relativePath, relativePath);
+        builder.startSheet("S1", false);
+        builder.startRow(1);
+        for (int column = 0; column < header.length; column++) {
+            builder.cell(column, SheetData.STRING, 0, header[column]);
+        }
+        builder.endRow();
+        builder.startRow(2);
+        for (int column = 0; column < values.length; column++) {
+            if (values[column] instanceof Double) {
+                builder.cell(column, SheetData.NUMBER, (Double) values[column], null);
+            } else {
+                builder.cell(column, SheetData.STRING, 0, (String) values[column]);
+            }
+        }
+        builder.endRow();
+        return ExcelSchema.infer(relativePath, relativePath, 0, 0, builder.finish(), 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> sheets(ExcelSchema schema) {
+        return (List<Map<String, Object>>) schema.toMap().get("sheets");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> columns(Map<String, Object> sheet) {
+        return (List<Map<String, Object>>) sheet.get("columns");
+    }
+
+    private static List<Object> names(Map<String, Object> sheet) {
+        return values(columns(sheet), "name");
+    }
+
+    // 형식이 null 이면 "" 로
+    private static List<Object> types(Map<String, Object> sheet) {
+        List<Object> types = new ArrayList<>();
+        for (Object type : values(columns(sheet), "type")) {
+            types.add(type == null ? "" : type);
+        }
+        return types;
+    }
+
+    private static List<Object> nullables(Map<String, Object> sheet) {
+        return values(columns(sheet), "nullable");
+    }
+
+    private static List<Object> values(List<Map<String, Object>> maps, String key) {
+        List<Object> values = new ArrayList<>();
+        for (Map<String, Object> map : maps) {
+            values.add(map.get(key));
+        }
+        return values;
+    }
+}
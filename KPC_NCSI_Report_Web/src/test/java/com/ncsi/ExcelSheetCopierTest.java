@@ -0,0 +1,153 @@
+package com.ncsi;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 스트리밍으로 복사한 시트가 원본 DOM 과 같은 값/수식/캐시된 결과/스타일을 갖는지
+class ExcelSheetCopierTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void copiesValuesFormulasAndStyles() throws Exception {
+        Path source = dir.resolve("source.xlsx");
+        writeSource(source, false);
+        try (XSSFWorkbook expected = new XSSFWorkbook(source.toFile());
+             XSSFWorkbook copied = copy(source)) {
+            assertEquals(1, copied.getNumberOfSheets());
+            assertSameCells(expected.getSheetAt(0), copied.getSheetAt(0));
+        }
+    }
+
+    @Test
+    void datesFrom1904WorkbooksKeepTheirCalendarDate() throws Exception {
+        Path source = dir.resolve("source1904.xlsx");
+        writeSource(source, true);
+        try (XSSFWorkbook expected = new XSSFWorkbook(source.toFile());
+             XSSFWorkbook copied = copy(source)) {
+            Cell date = copied.getSheetAt(0).getRow(0).getCell(2);
+            assertEquals(expected.getSheetAt(0).getRow(0).getCell(2).getLocalDateTimeCellValue(),
+                    date.getLocalDateTimeCellValue());
+        }
+    }
+
+    private XSSFWorkbook copy(Path source) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SXSSFWorkbook target = new SXSSFWorkbook(10);
+             XlsxStreamingReader.StreamingWorkbook workbook = new XlsxStreamingReader().open(source)) {
+            ExcelStyleCache styles = new ExcelStyleCache(target);
+            ExcelSheetCopier copier = new ExcelSheetCopier(target.createSheet("copy"), styles, workbook.getStyles());
+            workbook.readSheet(0, copier);
+            assertEquals(2, copier.getRows());
+            target.write(out);
+            target.dispose();
+        }
+        return new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static void writeSource(Path file, boolean date1904) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            if (date1904) {
+                workbook.getCTWorkbook().getWorkbookPr().setDate1904(true);
+            }
+            CreationHelper helper = workbook.getCreationHelper();
+            XSSFCellStyle money = workbook.createCellStyle();
+            money.setDataFormat(helper.createDataFormat().getFormat("#,##0.00"));
+            XSSFFont bold = workbook.createFont();
+            bold.setBold(true);
+            bold.setColor(new XSSFColor(new byte[]{(byte) 0xC0, 0, 0}, null));
+            money.setFont(bold);
+            money.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            money.setFillForegroundColor(new XSSFColor(new byte[]{(byte) 0xFF, (byte) 0xFF, 0}, null));
+            money.setAlignment(HorizontalAlignment.RIGHT);
+            CellStyle date = workbook.createCellStyle();
+            date.setDataFormat(helper.createDataFormat().getFormat("yyyy-mm-dd"));
+            CellStyle bordered = workbook.createCellStyle();
+            bordered.setBorderBottom(BorderStyle.THIN);
+
+            Sheet sheet = workbook.createSheet("Data");
+            Row first = sheet.createRow(0);
+            first.createCell(0).setCellValue("이름");
+            first.createCell(1).setCellValue(1234.5);
+            first.getCell(1).setCellStyle(money);
+            first.createCell(2).setCellValue(LocalDateTime.of(2024, 3, 15, 0, 0));
+            first.getCell(2).setCellStyle(date);
+            first.createCell(3).setCellValue(true);
+            first.createCell(5).setCellStyle(bordered);
+            // 행 사이가 빈 시트 (행 번호 유지)
+            Row third = sheet.createRow(2);
+            third.createCell(0).setCellFormula("B1*2");
+            third.createCell(1).setCellFormula("A1&\"님\"");
+            third.createCell(2).setCellFormula("D1");
+            third.createCell(3).setCellFormula("1/0");
+            third.getCell(0).setCellStyle(money);
+            helper.createFormulaEvaluator().evaluateAll();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+    }
+
+    private static void assertSameCells(Sheet expected, Sheet actual) {
+        assertEquals(expected.getPhysicalNumberOfRows(), actual.getPhysicalNumberOfRows());
+        for (Row expectedRow : expected) {
+            Row actualRow = actual.getRow(expectedRow.getRowNum());
+            assertEquals(expectedRow.getPhysicalNumberOfCells(), actualRow.getPhysicalNumberOfCells());
+            for (Cell expectedCell : expectedRow) {
+                Cell actualCell = actualRow.getCell(expectedCell.getColumnIndex());
+                String where = expectedCell.getAddress().formatAsString();
+                assertEquals(valueOf(expectedCell), valueOf(actualCell), where);
+                XSSFCellStyle expectedStyle = (XSSFCellStyle) expectedCell.getCellStyle();
+                XSSFCellStyle actualStyle = (XSSFCellStyle) actualCell.getCellStyle();
+                assertEquals(expectedStyle.getDataFormatString(), actualStyle.getDataFormatString(), where);
+                assertEquals(expectedStyle.getAlignment(), actualStyle.getAlignment(), where);
+                assertEquals(expectedStyle.getBorderBottom(), actualStyle.getBorderBottom(), where);
+                assertEquals(expectedStyle.getFont().getBold(), actualStyle.getFont().getBold(), where);
+                assertArrayEquals(rgb(expectedStyle.getFont().getXSSFColor()), rgb(actualStyle.getFont().getXSSFColor()), where);
+                assertArrayEquals(rgb(expectedStyle.getFillForegroundXSSFColor()), rgb(actualStyle.getFillForegroundXSSFColor()), where);
+            }
+        }
+    }
+
+    // 셀 종류와 값 (수식은 수식 문자열과 캐시된 결과)
+    private static String valueOf(Cell cell) {
+        switch (cell.getCellType()) {
+            case STRING:
+                return "s:" + cell.getStringCellValue();
+            case NUMERIC:
+                return "n:" + cell.getNumericCellValue();
+            case BOOLEAN:
+                return "b:" + cell.getBooleanCellValue();
+            case FORMULA:
+                // 오류 결과는 옮기지 않는다 (DOM 복사와 같음, 대상에서는 0 으로 읽힘)
+                CellType result = cell.getCachedFormulaResultType();
+                String cached = result == CellType.STRING ? cell.getStringCellValue()
+                        : result == CellType.BOOLEAN ? String.valueOf(cell.getBooleanCellValue())
+                        : result == CellType.NUMERIC ? String.valueOf(cell.getNumericCellValue()) : "0.0";
+                return "f:" + cell.getCellFormula() + "=" + cached;
+            default:
+                return "blank";
+        }
+    }
+
+    private static byte[] rgb(XSSFColor color) {
+        return color != null ? color.getRGB() : null;
+    }
+}
@@ -0,0 +1,202 @@
+package com.ncsi;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExcelSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private ExcelSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ExcelSnapshotStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "directory", dir.resolve("snapshots").toString());
+        ReflectionTestUtils.setField(store, "blockRows", 2);
+    }
+
+    @Test
+    void roundTripKeepsEveryCell() throws Exception {
+        ExcelParseCache.CacheKey key = new ExcelParseCache.CacheKey("survey/a.xlsx", 100, 1000);
+        List<SheetData> sheets = sampleSheets();
+        store.write(key, "a.xlsx", sheets);
+
+        List<SheetData> loaded = store.load(key);
+        assertNotNull(loaded);
+        assertEquals(rows(sheets), rows(loaded));
+        assertEquals("a.xlsx", loaded.get(0).getFileName());
+        assertEquals("survey/a.xlsx", loaded.get(0).getRelativePath());
+    }
+
+    @Test
+    void streamingWriterSplitsLargeSheetsIntoBlocks() throws Exception {
+        ExcelParseCache.CacheKey key = new ExcelParseCache.CacheKey("survey/big.xlsx", 100, 1000);
+        ExcelSnapshotStore.Writer writer = store.openWriter(key, "big.xlsx");
+        SheetDataBuilder builder = SheetDataBuilder.buffering("big.xlsx", "survey/big.xlsx");
+        builder.startSheet("S1", false);
+        for (int row = 1; row <= 5; row++) {
+            builder.startRow(row);
+            builder.cell(0, SheetData.NUMBER, row, null);
+            builder.endRow();
+        }
+        List<SheetData> sheets = builder.finish();
+        for (SheetData sheet : sheets) {
+            for (int row = 0; row < sheet.getRowCount(); row++) {
+                writer.row(sheet, row);
+            }
+        }
+        writer.finish();
+
+        List<SheetData> loaded = store.load(key);
+        // block-rows = 2 → 5 행이 2, 2, 1 행 블록으로
+        assertEquals(3, loaded.size());
+        assertEquals(rows(sheets), rows(loaded));
+    }
+
+    @Test
+    void changedSourceInvalidatesSnapshot() throws Exception {
+        store.write(new ExcelParseCache.CacheKey("survey/a.xlsx", 100, 1000), "a.xlsx", sampleSheets());
+
+        assertNull(store.load(new ExcelParseCache.CacheKey("survey/a.xlsx", 101, 1000)));
+        assertNull(store.load(new ExcelParseCache.CacheKey("survey/a.xlsx", 100, 2000)));
+        assertNull(store.load(new ExcelParseCache.CacheKey("survey/b.xlsx", 100, 1000)));
+        assertNotNull(store.load(new ExcelParseCache.CacheKey("survey/a.xlsx", 100, 1000)));
+    }
+
+    @Test
+    void otherFormatVersionIsIgnored() throws Exception {
+        ExcelParseCache.CacheKey key = new ExcelParseCache.CacheKey("survey/a.xlsx", 100, 1000);
+        store.write(key, "a.xlsx", sampleSheets());
+        Path snapshot = snapshotFiles().get(0);
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, ExcelSnapshotStore.FORMAT_VERSION - 1), 4);
+        }
+        assertNull(store.load(key));
+    }
+
+    @Test
+    void invalidateFolderRemovesNestedSnapshots() throws Exception {
+        store.write(new ExcelParseCache.CacheKey("survey/a.xlsx", 1, 1), "a.xlsx", sampleSheets());
+        store.write(new ExcelParseCache.CacheKey("survey/sub/b.xlsx", 1, 1), "b.xlsx", sampleSheets());
+        store.write(new ExcelParseCache.CacheKey("other/c.xlsx", 1, 1), "c.xlsx", sampleSheets());
+
+        store.invalidate("survey", true);
+
+        assertNull(store.load(new ExcelParseCache.CacheKey("survey/a.xlsx", 1, 1)));
+        assertNull(store.load(new ExcelParseCache.CacheKey("survey/sub/b.xlsx", 1, 1)));
+        assertNotNull(store.load(new ExcelParseCache.CacheKey("other/c.xlsx", 1, 1)));
+    }
+
+    // 스냅샷 읽기 vs POI 스트리밍 재파싱 시간 비교
+    // mvn test -Dtest=ExcelSnapshotStoreTest -Dncsi.benchmark=true [-Dncsi.benchmark.rows=200000]
+    @Test
+    @EnabledIfSystemProperty(named = "ncsi.benchmark", matches = "true")
+    void snapshotVersusPoiParse() throws Exception {
+        int rows = Integer.getInteger("ncsi.benchmark.rows", 200_000);
+        int iterations = 3;
+        ReflectionTestUtils.setField(store, "blockRows", 65536);
+        Path file = dir.resolve("bench.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000)) {
+            Sheet sheet = workbook.createSheet("Data");
+            for (int r = 0; r < rows; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue("응답자 " + r);
+                for (int c = 1; c < 10; c++) {
+                    row.createCell(c).setCellValue(r * c % 7);
+                }
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+            workbook.dispose();
+        }
+        ExcelParseCache.CacheKey key = new ExcelParseCache.CacheKey("bench.xlsx", Files.size(file),
+                Files.getLastModifiedTime(file).toMillis());
+        XlsxStreamingReader reader = new XlsxStreamingReader();
+
+        List<SheetData> parsed = null;
+        long parseNanos = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            SheetDataBuilder builder = SheetDataBuilder.buffering("bench.xlsx", "bench.xlsx");
+            reader.read(file, builder);
+            parsed = builder.finish();
+            parseNanos = Math.min(parseNanos, System.nanoTime() - start);
+        }
+        store.write(key, "bench.xlsx", parsed);
+
+        List<SheetData> loaded = null;
+        long snapshotNanos = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            loaded = store.load(key);
+            snapshotNanos = Math.min(snapshotNanos, System.nanoTime() - start);
+        }
+
+        assertEquals(rows(parsed), rows(loaded));
+        System.out.printf("%d rows: xlsx %d KB, snapshot %d KB, POI parse %.1f ms, snapshot read %.1f ms (%.1fx)%n",
+                rows, Files.size(file) / 1024, Files.size(snapshotFiles().get(0)) / 1024,
+                parseNanos / 1e6, snapshotNanos / 1e6, (double) parseNanos / snapshotNanos);
+        assertTrue(snapshotNanos < parseNanos, "snapshot read should be faster than parsing");
+    }
+
+    private static List<SheetData> sampleSheets() {
+        SheetDataBuilder builder = SheetDataBuilder.buffering("a.xlsx", "survey/a.xlsx");
+        builder.startSheet("첫 시트", false);
+        builder.startRow(1);
+        builder.cell(0, SheetData.STRING, 0, "이름");
+        builder.cell(2, SheetData.NUMBER, 3.25, null);
+        builder.endRow();
+        builder.startRow(4);
+        builder.cell(0, SheetData.BOOLEAN, 0, null);
+        builder.cell(1, SheetData.FORMULA, 0, "A1&\"x\"");
+        builder.formulaResult(1, SheetData.STRING, 0, "이름x");
+        builder.endRow();
+        builder.startSheet("Dates", true);
+        builder.startRow(2);
+        builder.cell(0, SheetData.DATE, 45293, null);
+        builder.endRow();
+        return builder.finish();
+    }
+
+    // 시트/행 번호와 셀 문자열, typed 값 (블록 분할은 무시)
+    private static List<String> rows(List<SheetData> sheets) {
+        List<String> rows = new ArrayList<>();
+        for (SheetData sheet : sheets) {
+            for (int row = 0; row < sheet.getRowCount(); row++) {
+                rows.add(sheet.getSheetName() + " " + sheet.toRowMap(row, false) + " " + sheet.toRowMap(row, true));
+            }
+        }
+        return rows;
+    }
+
+    private List<Path> snapshotFiles() throws Exception {
+        try (Stream<Path> files = Files.list(dir.resolve("snapshots"))) {
+            return files.filter(path -> path.toString().endsWith(".ncs")).toList();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExcelTextIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private Path data;
+    private ExcelTextIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        data = Files.createDirectories(dir.resolve("data"));
+        // 작업 스레드 없이 세그먼트를 직접 만들어 넣음 (데이터 폴더만 임시 폴더로)
+        index = new ExcelTextIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "directory", Files.createDirectory(dir.resolve("index")).toString());
+        ReflectionTestUtils.setField(index, "maxCells", 1000);
+        ReflectionTestUtils.setField(index, "maxCellChars", 200);
+        ReflectionTestUtils.setField(index, "basePath", data);
+    }
+
+    @Test
+    void tokenizeLowercasesLetterAndDigitRuns() {
+        assertEquals(List.of("samsung", "electronics", "삼성전자", "주", "2024년", "a", "1"),
+                ExcelTextIndex.tokenize("Samsung Electronics, 삼성전자(주) 2024년 A-1"));
+        assertEquals(List.of(), ExcelTextIndex.tokenize(" -/, "));
+        // 토큰은 최대 64 글자
+        assertEquals(List.of("x".repeat(64), "y"), ExcelTextIndex.tokenize("X".repeat(100) + " y"));
+    }
+
+    @Test
+    void segmentRoundTrip() throws IOException {
+        SheetDataBuilder builder = SheetDataBuilder.buffering("a.xlsx", "survey/a.xlsx");
+        builder.startSheet("S1", false);
+        builder.startRow(1);
+        builder.cell(0, SheetData.STRING, 0, "삼성전자는");
+        builder.cell(1, SheetData.NUMBER, 12, null);
+        builder.cell(2, SheetData.STRING, 0, "Hello World");
+        builder.endRow();
+        builder.startRow(2);
+        builder.cell(0, SheetData.STRING, 0, "hello");
+        builder.cell(1, SheetData.FORMULA, 0, "A1&C1");
+        builder.formulaResult(1, SheetData.STRING, 0, "Helper text");
+        builder.endRow();
+        builder.startSheet("S2", false);
+        builder.startRow(5);
+        builder.cell(3, SheetData.STRING, 0, "zeta");
+        builder.endRow();
+        ExcelTextIndex.SegmentReader reader = writeSegment("survey/a.xlsx", 1234, 5678, builder.finish());
+
+        assertEquals("survey/a.xlsx", reader.relativePath);
+        assertEquals("a.xlsx", reader.fileName);
+        assertEquals(1234, reader.size);
+        assertEquals(5678, reader.lastModified);
+        assertArrayEquals(new String[]{"S1", "S2"}, reader.sheets);
+        // 숫자 셀은 색인하지 않음, 수식 셀은 문자열 결과를
+        assertEquals(5, reader.cells);
+        assertEquals("Helper text", reader.cellText(3));
+        assertEquals(1, reader.cellSheet(4));
+        assertEquals(5, reader.cellRow(4));
+        assertEquals(3, reader.cellColumn(4));
+
+        // 접두어 "hel" → hello(셀 1, 2), helper(셀 3), 용어 바이트 순으로 이어짐
+        byte[] prefix = "hel".getBytes(StandardCharsets.UTF_8);
+        BitSet cells = new BitSet();
+        List<Integer> lengths = new ArrayList<>();
+        for (int term = reader.lowerBound(prefix); term < reader.terms && reader.termStartsWith(term, prefix); term++) {
+            reader.postings(term, cells);
+            lengths.add(reader.termLength(term));
+        }
+        assertEquals(List.of(5, 6), lengths);
+        assertEquals(BitSet.valueOf(new long[]{0b1110}), cells);
+
+        // 한글은 UTF-8 바이트 순으로 영문 뒤
+        byte[] hangul = "삼성".getBytes(StandardCharsets.UTF_8);
+        int term = reader.lowerBound(hangul);
+        assertEquals(reader.terms - 1, term);
+        assertTrue(reader.termStartsWith(term, hangul));
+        assertFalse(reader.termStartsWith(term, "삼성전자는요".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(reader.terms, reader.lowerBound("힣".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(0, reader.lowerBound("a".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void rejectsSegmentsWithOtherFormat() throws IOException {
+        Path path = Files.write(dir.resolve("bad.nti"), new byte[64]);
+        assertThrows(IOException.class, () -> new ExcelTextIndex.SegmentReader(path));
+    }
+
+    @Test
+    void filterHasNoFalseNegatives() throws IOException {
+        Random random = new Random(42);
+        String letters = "abcdefghijklmnopqrstuvwxyz0123456789가나다라마바사아자차카타파하삼성전자만족도조사";
+        List<String> terms = new ArrayList<>();
+        SheetDataBuilder builder = SheetDataBuilder.buffering("a.xlsx", "survey/a.xlsx");
+        builder.startSheet("S1", false);
+        for (int row = 0; row < 500; row++) {
+            // 1 ~ 12 글자 (FILTER_PREFIX_CHARS 보다 긴 토큰 포함)
+            StringBuilder term = new StringBuilder();
+            for (int i = 1 + random.nextInt(12); i > 0; i--) {
+                term.append(letters.charAt(random.nextInt(letters.length())));
+            }
+            terms.add(term.toString());
+            builder.startRow(row + 1);
+            builder.cell(0, SheetData.STRING, 0, term.toString());
+            builder.endRow();
+        }
+        Path path = dir.resolve("filter.nti");
+        ExcelTextIndex.SegmentReader reader = writeSegment(path, "survey/a.xlsx", 0, 0, builder.finish());
+        ExcelTextIndex.Segment segment = new ExcelTextIndex.Segment(reader, path, Files.size(path));
+
+        for (String term : terms) {
+            for (int length = 1; length <= term.length(); length++) {
+                String prefix = term.substring(0, length);
+                assertTrue(segment.mightContainAll(new long[]{ExcelTextIndex.filterHash(prefix)}), prefix);
+            }
+        }
+        // 긴 토큰은 앞 6 글자로 확인
+        assertEquals(ExcelTextIndex.filterHash("만족도조사결"), ExcelTextIndex.filterHash("만족도조사결과표"));
+
+        // 없는 접두어는 대부분 걸러짐
+        int passed = 0;
+        for (int i = 0; i < 1000; i++) {
+            passed += segment.mightContainAll(new long[]{ExcelTextIndex.filterHash("없음" + i)}) ? 1 : 0;
+        }
+        assertTrue(passed < 50, "false positives: " + passed);
+    }
+
+    @Test
+    void searchSkipsFilteredAndStaleSegments() throws IOException {
+        Path survey = Files.createDirectories(data.resolve("survey"));
+        Path a = Files.write(survey.resolve("a.xlsx"), new byte[10]);
+        Path b = Files.write(survey.resolve("b.xlsx"), new byte[20]);
+        addSegment(a, "survey/a.xlsx", "삼성전자 만족도");
+        addSegment(b, "survey/b.xlsx", "other company");
+
+        Map<String, Object> response = index.search("삼성 만족", "survey", 10, 5);
+        assertEquals(2, response.get("searchedFiles"));
+        // b 는 Bloom filter 로 걸러 열지 않음
+        assertEquals(1, response.get("openedFiles"));
+        assertEquals(1, response.get("matchedFiles"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> results = (List<Map<String, Object>>) response.get("results");
+        assertEquals("survey/a.xlsx", results.get(0).get("relativePath"));
+        assertEquals(0, index.search("삼성", "other", 10, 5).get("searchedFiles"));
+
+        // 원본이 바뀐 파일은 결과에서 빼고 다시 색인 예약
+        Files.write(a, new byte[11]);
+        response = index.search("삼성", "", 10, 5);
+        assertEquals(0, response.get("matchedFiles"));
+        assertEquals(1, response.get("staleFiles"));
+        assertEquals(1, response.get("pendingPaths"));
+        assertEquals(1L, index.getStats().get("staleSkips"));
+    }
+
+    private void addSegment(Path file, String relativePath, String text) throws IOException {
+        SheetDataBuilder builder = SheetDataBuilder.buffering(file.getFileName().toString(), relativePath);
+        builder.startSheet("S1", false);
+        builder.startRow(1);
+        builder.cell(0, SheetData.STRING, 0, text);
+        builder.endRow();
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        Path path = dir.resolve("index").resolve(file.getFileName() + ".nti");
+        ExcelTextIndex.SegmentReader reader = writeSegment(path, relativePath, attributes.size(),
+                attributes.lastModifiedTime().toMillis(), builder.finish());
+        @SuppressWarnings("unchecked")
+        Map<String, ExcelTextIndex.Segment> segments = (Map<String, ExcelTextIndex.Segment>) ReflectionTestUtils.getField(index, "segments");
+        segments.put(relativePath, new ExcelTextIndex.Segment(reader, path, Files.size(path)));
+    }
+
+    private ExcelTextIndex.SegmentReader writeSegment(String relativePath, long size, long lastModified,
+                                                      List<SheetData> sheets) throws IOException {
+        return writeSegment(dir.resolve("segment.nti"), relativePath, size, lastModified, sheets);
+    }
+
+    private ExcelTextIndex.SegmentReader writeSegment(Path path, String relativePath, long size, long lastModified,
+                                                      List<SheetData> sheets) throws IOException {
+        ExcelTextIndex.SegmentBuilder builder = index.new SegmentBuilder();
+        for (SheetData sheet : sheets) {
+            for (int row = 0; row < sheet.getRowCount(); row++) {
+                builder.row(sheet, row);
+            }
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            builder.write(out, relativePath, Path.of(relativePath).getFileName().toString(), size, lastModified);
+        }
+        return new ExcelTextIndex.SegmentReader(path);
+    }
+}
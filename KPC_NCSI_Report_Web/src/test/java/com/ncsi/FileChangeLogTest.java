@@ -0,0 +1,138 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileChangeLogTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long DAY = 24 * HOUR;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void firstStartHasNoEarlierHistory() throws IOException {
+        long before = System.currentTimeMillis();
+        FileChangeLog log = createLog(30);
+
+        // 처음 시작하면 그 전의 삭제는 알 수 없음
+        assertFalse(log.isComplete(before - 1));
+        assertTrue(log.isComplete(System.currentTimeMillis()));
+        List<String> lines = Files.readAllLines(dir.resolve("deletions.log"));
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("# since "));
+    }
+
+    @Test
+    void reloadKeepsHorizonAndTombstones() {
+        long now = System.currentTimeMillis();
+        FileChangeLog log = createLog(30);
+        long horizon = horizon(log);
+        log.recordDeletion("survey/a.xlsx", now);
+        log.recordDeletion("survey/b.xlsx", now + 1);
+
+        // 재시작해도 "# since" 줄의 시각부터 완전한 기록
+        FileChangeLog reloaded = createLog(30);
+        assertEquals(horizon, horizon(reloaded));
+        assertTrue(reloaded.isComplete(horizon));
+        assertFalse(reloaded.isComplete(horizon - 1));
+        assertEquals(List.of("survey/a.xlsx", "survey/b.xlsx"), paths(reloaded.getDeletionsSince(0, "", true)));
+    }
+
+    @Test
+    void loadPrunesTombstonesPastRetention() throws IOException {
+        long now = System.currentTimeMillis();
+        Files.write(dir.resolve("deletions.log"), List.of(
+                "# since " + (now - 10 * DAY),
+                (now - 3 * DAY) + "\tsurvey/old.xlsx",
+                (now - HOUR) + "\tsurvey/recent.xlsx"), StandardCharsets.UTF_8);
+        FileChangeLog log = createLog(1);
+
+        assertEquals(List.of("survey/recent.xlsx"), paths(log.getDeletionsSince(0, "", true)));
+        // 정리한 기록보다 이전은 전체 새로고침 필요
+        assertFalse(log.isComplete(now - 3 * DAY));
+        assertTrue(log.isComplete(now - 2 * HOUR));
+        List<String> lines = Files.readAllLines(dir.resolve("deletions.log"));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).endsWith("survey/recent.xlsx"));
+    }
+
+    @Test
+    void recordDeletionPrunesTombstonesPastRetention() throws IOException {
+        long now = System.currentTimeMillis();
+        Files.write(dir.resolve("deletions.log"), List.of(
+                "# since " + (now - 10 * DAY),
+                (now - 2 * DAY) + "\tsurvey/old0.xlsx",
+                (now - 2 * DAY + 1) + "\tsurvey/old1.xlsx",
+                (now - 2 * DAY + 2) + "\tsurvey/old2.xlsx"), StandardCharsets.UTF_8);
+        FileChangeLog log = createLog(30);
+        assertEquals(3, log.getDeletionsSince(0, "", true).size());
+        assertTrue(log.isComplete(now - 3 * DAY));
+
+        // 재시작 없이 보관 기간이 지난 경우: 새 기록을 추가할 때 지난 기록은 메모리에서 빠지고 horizon 이 올라감
+        ReflectionTestUtils.setField(log, "retentionDays", 1);
+        log.recordDeletion("survey/new.xlsx", now);
+        assertEquals(List.of("survey/new.xlsx"), paths(log.getDeletionsSince(0, "", true)));
+        assertFalse(log.isComplete(now - 2 * DAY));
+        assertTrue(log.isComplete(now - HOUR));
+
+        // 정리한 수가 남은 기록보다 많으면 파일도 다시 씀
+        List<String> lines = Files.readAllLines(dir.resolve("deletions.log"));
+        assertEquals(2, lines.size());
+        assertEquals("# since " + horizon(log), lines.get(0));
+        assertEquals(now + "\tsurvey/new.xlsx", lines.get(1));
+    }
+
+    @Test
+    void deletionsFilteredByFolderAndTime() {
+        long now = System.currentTimeMillis();
+        FileChangeLog log = createLog(30);
+        log.recordDeletion("top.xlsx", now);
+        log.recordDeletion("survey/a.xlsx", now + 1);
+        log.recordDeletion("survey/sub/b.xlsx", now + 2);
+        log.recordDeletion("survey2/c.xlsx", now + 3);
+        log.recordDeletion("survey/a.xlsx", now + 4);
+
+        assertEquals(List.of("survey/a.xlsx"), paths(log.getDeletionsSince(0, "survey", false)));
+        assertEquals(List.of("survey/a.xlsx", "survey/sub/b.xlsx"), paths(log.getDeletionsSince(0, "survey/", true)));
+        assertEquals(List.of("top.xlsx"), paths(log.getDeletionsSince(0, "", false)));
+        assertEquals(List.of("survey/sub/b.xlsx"), paths(log.getDeletionsSince(0, "survey/sub", false)));
+        // 경로마다 마지막 삭제 시각, since 이후(포함)만
+        assertEquals(now + 4, log.getDeletionsSince(0, "survey", false).get(0).get("DeletedAt"));
+        assertEquals(List.of("survey2/c.xlsx", "survey/a.xlsx"), paths(log.getDeletionsSince(now + 3, "", true)));
+    }
+
+    private FileChangeLog createLog(int retentionDays) {
+        FileChangeLog log = new FileChangeLog();
+        ReflectionTestUtils.setField(log, "logPath", dir.resolve("deletions.log").toString());
+        ReflectionTestUtils.setField(log, "retentionDays", retentionDays);
+        log.load();
+        return log;
+    }
+
+    private static long horizon(FileChangeLog log) {
+        return (Long) ReflectionTestUtils.getField(log, "horizon");
+    }
+
+    private static List<String> paths(List<Map<String, Object>> deletions) {
+        List<String> paths = new ArrayList<>();
+        for (Map<String, Object> deletion : deletions) {
+            paths.add((String) deletion.get("RelativePath"));
+        }
+        return paths;
+    }
+}
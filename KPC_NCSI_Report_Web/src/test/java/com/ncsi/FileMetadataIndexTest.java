@@ -0,0 +1,161 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileMetadataIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private FileMetadataIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // a.xlsx 10, b.csv 20, sub/c.xls 30, sub/deep/d.xlsx 40 (분할 업로드 임시 파일은 색인하지 않음)
+        Files.write(dir.resolve("a.xlsx"), new byte[10]);
+        Files.write(dir.resolve("b.csv"), new byte[20]);
+        Files.createDirectories(dir.resolve("sub").resolve("deep"));
+        Files.write(dir.resolve("sub").resolve("c.xls"), new byte[30]);
+        Files.write(dir.resolve("sub").resolve("deep").resolve("d.xlsx"), new byte[40]);
+        Files.write(dir.resolve("sub").resolve(".e.xlsx.0f8e.upload"), new byte[50]);
+
+        // 감시 스레드 없이 데이터 폴더만 임시 폴더로 바꿔 한 번 만듦 (이벤트는 refresh/update 로 직접 전달)
+        index = new FileMetadataIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "basePath", dir);
+        ReflectionTestUtils.invokeMethod(index, "rebuild");
+    }
+
+    @Test
+    void buildsTreeWithRolledUpTotals() {
+        assertTrue(index.isReady());
+        assertStats("", 100, 4, 3, 2, 2);
+        assertStats("sub", 70, 2, 2, 1, 1);
+        assertStats("sub/deep", 40, 1, 1, 0, 1);
+
+        assertEquals(List.of("a.xlsx", "b.csv", "sub"), names(index.list("", false)));
+        assertEquals(List.of("a.xlsx", "b.csv", "c.xls", "d.xlsx", "deep", "sub"), names(index.list("", true)));
+        assertEquals(List.of("d.xlsx"), names(index.search("sub", "xlsx")));
+        assertEquals(40, index.get("sub/deep/d.xlsx").getSize());
+
+        // depth 만큼 하위 폴더 합계를 함께
+        Map<String, Object> stats = index.folderStats("", 1);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> folders = (List<Map<String, Object>>) stats.get("folders");
+        assertEquals(1, folders.size());
+        assertEquals(70L, folders.get(0).get("totalSize"));
+        assertFalse(folders.get(0).containsKey("folders"));
+
+        // 파일이나 없는 폴더는 색인으로 답하지 않음
+        assertNull(index.list("a.xlsx", false));
+        assertNull(index.list("missing", false));
+        assertNull(index.folderStats("../outside", -1));
+        // 데이터 폴더 + 폴더 2 + 파일 4
+        assertEquals(7, index.getStats().get("entries"));
+    }
+
+    @Test
+    void updatesRollUpAfterCreateModifyAndDelete() throws IOException {
+        Path created = Files.write(dir.resolve("sub").resolve("deep").resolve("e.xlsx"), new byte[5]);
+        index.refresh(created);
+        assertStats("", 105, 5, 4, 2, 2);
+        assertStats("sub/deep", 45, 2, 2, 0, 2);
+        assertEquals(List.of("a.xlsx", "d.xlsx", "e.xlsx"), names(index.search("", ".xlsx")));
+
+        // 수정 이벤트는 속성만 다시 읽음
+        Files.write(dir.resolve("a.xlsx"), new byte[50]);
+        ReflectionTestUtils.invokeMethod(index, "update", dir.resolve("a.xlsx"), false);
+        assertStats("", 145, 5, 4, 2, 2);
+        assertEquals(50, index.get("a.xlsx").getSize());
+
+        Files.delete(dir.resolve("b.csv"));
+        index.refresh(dir.resolve("b.csv"));
+        assertStats("", 125, 4, 4, 2, 1);
+        assertNull(index.get("b.csv"));
+
+        // 폴더를 지우면 하위 전체가 빠짐
+        Files.delete(dir.resolve("sub").resolve("deep").resolve("d.xlsx"));
+        Files.delete(created);
+        Files.delete(dir.resolve("sub").resolve("deep"));
+        index.refresh(dir.resolve("sub").resolve("deep"));
+        assertStats("", 80, 2, 2, 1, 1);
+        assertEquals(List.of(), names(index.search("", "d.xlsx")));
+
+        // 임시 파일과 데이터 폴더 밖 경로는 무시
+        index.refresh(dir.resolve("sub").resolve(".e.xlsx.0f8e.upload"));
+        index.refresh(dir.resolve("..").resolve("outside.xlsx"));
+        assertStats("", 80, 2, 2, 1, 1);
+    }
+
+    @Test
+    void rescansMissingParentFolders() throws IOException {
+        // 폴더 생성 이벤트를 받기 전에 그 안의 파일 이벤트가 온 경우: 상위부터 디스크에서 읽어 추가
+        Path nested = Files.createDirectories(dir.resolve("new").resolve("nested"));
+        Files.write(nested.resolve("f.xlsx"), new byte[7]);
+        Files.write(dir.resolve("new").resolve("g.csv"), new byte[3]);
+        index.refresh(nested.resolve("f.xlsx"));
+
+        assertStats("new", 10, 2, 1, 1, 1);
+        assertStats("", 110, 6, 4, 4, 2);
+        assertEquals(List.of("f.xlsx", "g.csv", "nested"), names(index.list("new", true)));
+        assertEquals(List.of("f.xlsx"), names(index.search("new", "f.x")));
+    }
+
+    @Test
+    void fallsBackToDiskWhileStaleOrUnwatched() {
+        ReflectionTestUtils.setField(index, "stale", true);
+        assertFalse(index.isReady());
+        assertNull(index.list("", false));
+        assertNull(index.search("", "a"));
+        assertNull(index.folderStats("", -1));
+        assertNull(index.get("a.xlsx"));
+
+        ReflectionTestUtils.setField(index, "stale", false);
+        ReflectionTestUtils.setField(index, "watchFailed", true);
+        assertFalse(index.isReady());
+        assertNull(index.list("", false));
+
+        ReflectionTestUtils.setField(index, "watchFailed", false);
+        assertNotNull(index.list("", false));
+        Map<String, Object> stats = index.getStats();
+        assertEquals(4L, stats.get("diskFallbacks"));
+        assertEquals(1L, stats.get("memoryAnswers"));
+    }
+
+    private void assertStats(String relativePath, long totalSize, int fileCount, int excelFileCount, int folderCount,
+                             int childFileCount) {
+        Map<String, Object> stats = index.folderStats(relativePath, 0);
+        assertNotNull(stats, relativePath);
+        assertEquals(totalSize, stats.get("totalSize"), relativePath);
+        assertEquals(fileCount, stats.get("fileCount"), relativePath);
+        assertEquals(excelFileCount, stats.get("excelFileCount"), relativePath);
+        assertEquals(folderCount, stats.get("folderCount"), relativePath);
+        assertEquals(childFileCount, stats.get("childFileCount"), relativePath);
+    }
+
+    // 순회 순서는 파일 시스템마다 달라 이름순으로 비교
+    private static List<String> names(List<FileMetadataIndex.Entry> entries) {
+        List<String> names = new ArrayList<>();
+        for (FileMetadataIndex.Entry entry : entries) {
+            names.add(entry.getName());
+        }
+        names.sort(null);
+        return names;
+    }
+}
@@ -0,0 +1,173 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileNameIndexTest {
+
+    @Test
+    void findsSubstringsIgnoringCase() {
+        FileNameIndex index = new FileNameIndex();
+        FileMetadataIndex.Entry report = file("survey/2024/NCSI_Report.xlsx");
+        FileMetadataIndex.Entry raw = file("survey/2024/raw_data.csv");
+        FileMetadataIndex.Entry korean = file("survey/2024/만족도조사_결과.xlsx");
+        index.add(report);
+        index.add(raw);
+        index.add(korean);
+
+        assertEquals(List.of(report), index.search("ncsi_rep", ""));
+        assertEquals(List.of(report), index.search("REPORT", ""));
+        assertEquals(List.of(report, korean), index.search(".xlsx", ""));
+        assertEquals(List.of(korean), index.search("만족도", ""));
+        // trigram 은 모두 있지만 이어져 있지 않은 경우
+        assertEquals(List.of(), index.search("rawcsv", ""));
+        assertEquals(List.of(), index.search("missing", ""));
+    }
+
+    @Test
+    void shortTermsScanAllNames() {
+        FileNameIndex index = new FileNameIndex();
+        FileMetadataIndex.Entry a = file("a/ab.xlsx");
+        FileMetadataIndex.Entry b = file("a/b.csv");
+        index.add(a);
+        index.add(b);
+
+        assertEquals(List.of(a, b), index.search("b", ""));
+        assertEquals(List.of(a), index.search("AB", ""));
+        assertEquals(List.of(a, b), index.search("", ""));
+    }
+
+    @Test
+    void limitsResultsToFolder() {
+        FileNameIndex index = new FileNameIndex();
+        FileMetadataIndex.Entry first = file("survey/report.xlsx");
+        FileMetadataIndex.Entry second = file("survey2/report.xlsx");
+        FileMetadataIndex.Entry nested = file("survey/sub/report.xlsx");
+        index.add(first);
+        index.add(second);
+        index.add(nested);
+
+        assertEquals(List.of(first, nested), index.search("report", "survey"));
+        assertEquals(List.of(first, nested), index.search("report", "survey/"));
+        assertEquals(List.of(nested), index.search("rep", "survey/sub"));
+        assertEquals(List.of(first, second, nested), index.search("report", null));
+    }
+
+    @Test
+    void addAndRemoveTrees() {
+        FileNameIndex index = new FileNameIndex();
+        FileMetadataIndex.Entry root = new FileMetadataIndex.Entry("Data", "", true, 0, 0);
+        FileMetadataIndex.Entry folder = new FileMetadataIndex.Entry("survey", "survey", true, 0, 0);
+        FileMetadataIndex.Entry report = file("survey/report.xlsx");
+        FileMetadataIndex.Entry other = file("other.xlsx");
+        attach(folder, report);
+        attach(root, folder);
+        attach(root, other);
+
+        index.addTree(root);
+        assertEquals(3, index.size());
+        assertEquals(List.of(folder), index.search("survey", ""));
+        // 같은 항목을 다시 추가해도 한 번만 나옴
+        index.add(report);
+        assertEquals(List.of(report, other), index.search(".xlsx", ""));
+
+        index.removeTree(folder);
+        assertEquals(1, index.size());
+        assertEquals(List.of(other), index.search(".xlsx", ""));
+        assertEquals(List.of(), index.search("survey", ""));
+    }
+
+    @Test
+    void renumbersAfterManyRemovals() {
+        FileNameIndex index = new FileNameIndex();
+        List<FileMetadataIndex.Entry> kept = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            FileMetadataIndex.Entry entry = file("f/report_" + i + ".xlsx");
+            index.add(entry);
+            if (i % 10 == 0) {
+                kept.add(entry);
+            } else {
+                index.remove(entry);
+            }
+        }
+        assertEquals(kept.size(), index.size());
+        assertEquals(kept, index.search("report_", "f"));
+        assertEquals(linearSearch(kept, "rt_12"), index.search("rt_12", ""));
+    }
+
+    // mvn test -Dtest=FileNameIndexTest -Dncsi.benchmark=true [-Dncsi.benchmark.files=1000000]
+    @Test
+    @EnabledIfSystemProperty(named = "ncsi.benchmark", matches = "true")
+    void trigramIndexVersusLinearScan() {
+        int files = Integer.getInteger("ncsi.benchmark.files", 100_000);
+        int iterations = 20;
+        Random random = new Random(42);
+        String[] words = {"report", "survey", "raw", "result", "ncsi", "data", "summary", "만족도", "조사", "결과"};
+        List<FileMetadataIndex.Entry> entries = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            String folder = "folder" + (i % 500);
+            String name = words[random.nextInt(words.length)] + "_" + words[random.nextInt(words.length)]
+                    + "_" + i + (i % 3 == 0 ? ".csv" : ".xlsx");
+            entries.add(file(folder + "/" + name));
+        }
+
+        long buildStart = System.nanoTime();
+        FileNameIndex index = new FileNameIndex();
+        for (FileMetadataIndex.Entry entry : entries) {
+            index.add(entry);
+        }
+        long buildNanos = System.nanoTime() - buildStart;
+
+        List<String> queries = List.of("report_surv", "만족도_결과", "12345", "summary_raw_9", "ncsi_data_77");
+        for (String query : queries) {
+            List<FileMetadataIndex.Entry> expected = linearSearch(entries, query);
+            long scanNanos = Long.MAX_VALUE;
+            long indexNanos = Long.MAX_VALUE;
+            List<FileMetadataIndex.Entry> found = null;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                linearSearch(entries, query);
+                scanNanos = Math.min(scanNanos, System.nanoTime() - start);
+                start = System.nanoTime();
+                found = index.search(query, "");
+                indexNanos = Math.min(indexNanos, System.nanoTime() - start);
+            }
+            assertEquals(expected, found);
+            System.out.printf("%d files, \"%s\": %d matches, scan %.2f ms, trigram %.3f ms (%.1fx)%n",
+                    files, query, expected.size(), scanNanos / 1e6, indexNanos / 1e6, (double) scanNanos / indexNanos);
+            assertTrue(indexNanos < scanNanos, "trigram search should be faster than a linear scan");
+        }
+        System.out.printf("%d files: build %.1f ms, %d trigrams, about %d KB%n",
+                files, buildNanos / 1e6, index.trigramCount(), index.estimateBytes() / 1024);
+    }
+
+    private static FileMetadataIndex.Entry file(String relativePath) {
+        String name = relativePath.substring(relativePath.lastIndexOf('/') + 1);
+        return new FileMetadataIndex.Entry(name, relativePath, false, 1024, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void attach(FileMetadataIndex.Entry parent, FileMetadataIndex.Entry child) {
+        ((Map<String, FileMetadataIndex.Entry>) ReflectionTestUtils.getField(parent, "children")).put(child.getName(), child);
+    }
+
+    private static List<FileMetadataIndex.Entry> linearSearch(List<FileMetadataIndex.Entry> entries, String term) {
+        String query = term.toLowerCase();
+        List<FileMetadataIndex.Entry> results = new ArrayList<>();
+        for (FileMetadataIndex.Entry entry : entries) {
+            if (entry.getName().toLowerCase().contains(query)) {
+                results.add(entry);
+            }
+        }
+        return results;
+    }
+}
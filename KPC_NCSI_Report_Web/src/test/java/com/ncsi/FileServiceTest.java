@@ -0,0 +1,169 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileServiceTest {
+
+    private static final String[] SORTS = {"name", "size", "lastModified", "type"};
+    private static final String[] DIRECTIONS = {"asc", "desc"};
+
+    @Test
+    void pagesMatchFullListingForEverySort() {
+        List<FileService.ListItem> items = sampleItems();
+        for (String sort : SORTS) {
+            for (String direction : DIRECTIONS) {
+                List<String> expected = paths(FileService.listPage(items, sort, direction, 0, null));
+                assertEquals(items.size(), expected.size());
+                // 폴더가 항상 먼저
+                for (int i = 0; i < 4; i++) {
+                    assertTrue(expected.get(i).startsWith("folder"), sort + " " + direction + ": " + expected);
+                }
+                for (int limit : new int[]{1, 3, 7, 100}) {
+                    assertEquals(expected, pageThrough(items, sort, direction, limit), sort + " " + direction + " " + limit);
+                }
+            }
+        }
+    }
+
+    @Test
+    void ordersTiesByName() {
+        List<FileService.ListItem> items = List.of(
+                file("b.xlsx", 10, 5), file("A.csv", 10, 5), file("a.xlsx", 10, 5), file("c.xlsx", 5, 9),
+                folder("z"), folder("Y"));
+        assertEquals(List.of("Y", "z", "c.xlsx", "A.csv", "a.xlsx", "b.xlsx"),
+                paths(FileService.listPage(items, "size", "asc", 0, null)));
+        // desc 는 이름 순서도 거꾸로 (폴더는 그대로 먼저)
+        assertEquals(List.of("z", "Y", "b.xlsx", "a.xlsx", "A.csv", "c.xlsx"),
+                paths(FileService.listPage(items, "size", "desc", 0, null)));
+        assertEquals(List.of("Y", "z", "A.csv", "a.xlsx", "b.xlsx", "c.xlsx"),
+                paths(FileService.listPage(items, "type", "asc", 0, null)));
+        assertEquals(List.of("Y", "z", "A.csv", "a.xlsx", "b.xlsx", "c.xlsx"),
+                paths(FileService.listPage(items, "lastModified", "asc", 0, null)));
+    }
+
+    @Test
+    void cursorSkipsNothingWhenEntriesChangeBetweenPages() {
+        for (String sort : SORTS) {
+            for (String direction : DIRECTIONS) {
+                List<FileService.ListItem> items = new ArrayList<>(sampleItems());
+                Map<String, Object> first = FileService.listPage(items, sort, direction, 5, null);
+                List<String> seen = new ArrayList<>(paths(first));
+                FileService.ListItem last = FileService.ListItem.fromCursor((String) first.get("nextCursor"));
+
+                // 페이지 사이에 항목 추가/삭제
+                items.add(file("new_" + sort + ".xlsx", 123, 456));
+                items.add(folder("new_folder"));
+                String removed = paths(FileService.listPage(items, sort, direction, 0, null)).get(items.size() - 1);
+                items.removeIf(item -> item.relativePath.equals(removed));
+
+                String cursor = (String) first.get("nextCursor");
+                while (cursor != null) {
+                    Map<String, Object> page = FileService.listPage(items, sort, direction, 5, cursor);
+                    seen.addAll(paths(page));
+                    cursor = (String) page.get("nextCursor");
+                }
+
+                // 겹치지 않고, 지금 목록에서 첫 페이지 마지막 항목 뒤에 오는 항목은 모두 나옴
+                assertEquals(seen.size(), new HashSet<>(seen).size(), sort + " " + direction + ": " + seen);
+                List<String> current = paths(FileService.listPage(items, sort, direction, 0, null));
+                Set<String> expected = new HashSet<>(paths(first));
+                boolean after = false;
+                for (String path : current) {
+                    if (after) {
+                        expected.add(path);
+                    }
+                    after |= path.equals(last.name);
+                }
+                assertEquals(expected, new HashSet<>(seen), sort + " " + direction);
+            }
+        }
+    }
+
+    @Test
+    void cursorRoundTrip() {
+        FileService.ListItem item = file("만족도 조사_2024.xlsx", 4096, 1_700_000_000_123L);
+        FileService.ListItem decoded = FileService.ListItem.fromCursor(item.toCursor());
+        assertEquals(item.name, decoded.name);
+        assertEquals(item.size, decoded.size);
+        assertEquals(item.lastModified, decoded.lastModified);
+        assertEquals(item.directory, decoded.directory);
+        assertTrue(FileService.ListItem.fromCursor(folder("sub").toCursor()).directory);
+        // URL 에 그대로 쓸 수 있는 문자만
+        assertTrue(item.toCursor().matches("[A-Za-z0-9_-]+"));
+
+        assertThrows(IllegalArgumentException.class, () -> FileService.ListItem.fromCursor("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> FileService.listPage(List.of(), "owner", "asc", 0, null));
+        assertThrows(IllegalArgumentException.class, () -> FileService.listPage(List.of(), "name", "up", 0, null));
+    }
+
+    @Test
+    void reportsTotalsAndLastPage() {
+        Map<String, Object> page = FileService.listPage(sampleItems(), "name", "asc", 10, null);
+        assertEquals(46, page.get("total"));
+        assertEquals(4, page.get("folders"));
+        assertEquals(10, ((List<?>) page.get("items")).size());
+
+        Map<String, Object> all = FileService.listPage(sampleItems(), "name", "asc", 46, null);
+        assertNull(all.get("nextCursor"));
+    }
+
+    // 다음 페이지가 없을 때까지 limit 씩
+    private static List<String> pageThrough(List<FileService.ListItem> items, String sort, String direction, int limit) {
+        List<String> paths = new ArrayList<>();
+        String cursor = null;
+        do {
+            Map<String, Object> page = FileService.listPage(items, sort, direction, limit, cursor);
+            List<String> pagePaths = paths(page);
+            assertTrue(pagePaths.size() <= limit);
+            paths.addAll(pagePaths);
+            cursor = (String) page.get("nextCursor");
+        } while (cursor != null);
+        return paths;
+    }
+
+    // 폴더 4개 + 크기/수정 시각/확장자가 겹치는 파일 42개 (대소문자만 다른 이름 포함)
+    private static List<FileService.ListItem> sampleItems() {
+        Random random = new Random(7);
+        String[] extensions = {"xlsx", "xls", "csv", "XLSX"};
+        List<FileService.ListItem> items = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            items.add(folder("folder" + (char) ('a' + i)));
+        }
+        for (int i = 0; i < 40; i++) {
+            String name = (i % 5 == 0 ? "Report_" : "report_") + (i / 2) + "." + extensions[i % extensions.length];
+            items.add(file(name, random.nextInt(4) * 100, 1_700_000_000_000L + random.nextInt(5) * 1000));
+        }
+        items.add(file("Case.xlsx", 100, 1_700_000_000_000L));
+        items.add(file("case.xlsx", 100, 1_700_000_000_000L));
+        return items;
+    }
+
+    private static FileService.ListItem file(String name, long size, long lastModified) {
+        return new FileService.ListItem(name, name, false, size, lastModified);
+    }
+
+    private static FileService.ListItem folder(String name) {
+        return new FileService.ListItem(name, name, true, 0, 1_700_000_000_000L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> paths(Map<String, Object> page) {
+        List<String> paths = new ArrayList<>();
+        for (Map<String, Object> item : (List<Map<String, Object>>) page.get("items")) {
+            paths.add((String) item.get("relativePath"));
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,176 @@
+package com.ncsi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileTransferTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void ifRangeMatchesCurrentETagOrDate() {
+        long lastModified = 1_700_000_000_123L;
+        ResponseValidator validator = new ResponseValidator("\"abc123\"", lastModified);
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(lastModified).atZone(ZoneOffset.UTC));
+        String earlier = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(lastModified - 1000).atZone(ZoneOffset.UTC));
+
+        assertTrue(FileTransfer.matchesIfRange(null, validator));
+        assertTrue(FileTransfer.matchesIfRange("\"abc123\"", validator));
+        // 날짜는 초 단위로 비교 (HTTP 날짜에는 밀리초가 없음)
+        assertTrue(FileTransfer.matchesIfRange(date, validator));
+
+        assertFalse(FileTransfer.matchesIfRange("\"other\"", validator));
+        assertFalse(FileTransfer.matchesIfRange("W/\"abc123\"", validator));
+        assertFalse(FileTransfer.matchesIfRange(earlier, validator));
+        assertFalse(FileTransfer.matchesIfRange("not a date", validator));
+    }
+
+    @Test
+    void sendFileMarksRequestOnlyWhenSupported() {
+        FileTransfer transfer = new FileTransfer();
+        ReflectionTestUtils.setField(transfer, "sendfileEnabled", true);
+        ReflectionTestUtils.setField(transfer, "sendfileMinBytes", 1024L);
+        Path file = dir.resolve("a.bin");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/download");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        assertTrue(transfer.sendFile(new ServletWebRequest(request), file, 100, 4096));
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(100L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(4196L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+
+        // 작은 구간, HEAD, sendfile 을 지원하지 않는 컨테이너, 꺼져 있을 때는 스트림 복사
+        MockHttpServletRequest small = new MockHttpServletRequest("GET", "/api/files/download");
+        small.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        assertFalse(transfer.sendFile(new ServletWebRequest(small), file, 0, 100));
+        assertNull(small.getAttribute("org.apache.tomcat.sendfile.filename"));
+
+        MockHttpServletRequest head = new MockHttpServletRequest("HEAD", "/api/files/download");
+        head.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        assertFalse(transfer.sendFile(new ServletWebRequest(head), file, 0, 4096));
+
+        MockHttpServletRequest unsupported = new MockHttpServletRequest("GET", "/api/files/download");
+        assertFalse(transfer.sendFile(new ServletWebRequest(unsupported), file, 0, 4096));
+
+        ReflectionTestUtils.setField(transfer, "sendfileEnabled", false);
+        assertFalse(transfer.sendFile(new ServletWebRequest(request), file, 0, 4096));
+    }
+
+    // mvn test -Dtest=FileTransferTest -Dncsi.benchmark=true [-Dncsi.benchmark.mb=400]
+    // 임시 파일을 루프백 소켓으로 보내며 기존 경로(InputStream → 8KB 버퍼 → 소켓 OutputStream,
+    // ResourceHttpMessageConverter 와 같은 복사)와 FileChannel.transferTo(sendfile) 의 처리량을 비교
+    @Test
+    @EnabledIfSystemProperty(named = "ncsi.benchmark", matches = "true")
+    void sendfileVersusStreamCopy() throws Exception {
+        int sizeMb = Integer.getInteger("ncsi.benchmark.mb", 400);
+        int iterations = 3;
+        Path file = dir.resolve("download.bin");
+        byte[] block = new byte[1024 * 1024];
+        new Random(42).nextBytes(block);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int i = 0; i < sizeMb; i++) {
+                out.write(block);
+            }
+        }
+        long length = Files.size(file);
+
+        long copyNanos = Long.MAX_VALUE;
+        long sendfileNanos = Long.MAX_VALUE;
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            // 첫 회는 워밍업 (파일이 페이지 캐시에 올라간 상태로 비교)
+            for (int i = 0; i <= iterations; i++) {
+                long copy = transfer(server, file, length, false);
+                long sendfile = transfer(server, file, length, true);
+                if (i > 0) {
+                    copyNanos = Math.min(copyNanos, copy);
+                    sendfileNanos = Math.min(sendfileNanos, sendfile);
+                }
+            }
+        }
+        System.out.printf("%d MB: stream copy %.1f ms (%.0f MB/s), sendfile %.1f ms (%.0f MB/s), %.1fx%n",
+                sizeMb, copyNanos / 1e6, sizeMb / (copyNanos / 1e9), sendfileNanos / 1e6, sizeMb / (sendfileNanos / 1e9),
+                (double) copyNanos / sendfileNanos);
+    }
+
+    // 한 번 보내고 받는 쪽이 length 바이트를 다 읽을 때까지 걸린 시간 (받는 쪽은 읽고 버림)
+    private static long transfer(ServerSocketChannel server, Path file, long length, boolean zeroCopy) throws Exception {
+        try (SocketChannel receiver = SocketChannel.open(server.getLocalAddress());
+             SocketChannel sender = server.accept()) {
+            IOException[] failure = new IOException[1];
+            long[] received = new long[1];
+            Thread reader = new Thread(() -> {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+                try {
+                    while (received[0] < length) {
+                        int read = receiver.read(buffer);
+                        if (read < 0) {
+                            break;
+                        }
+                        received[0] += read;
+                        buffer.clear();
+                    }
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }, "ncsi-download-benchmark");
+            reader.setDaemon(true);
+            reader.start();
+
+            long start = System.nanoTime();
+            if (zeroCopy) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long position = 0;
+                    while (position < length) {
+                        position += channel.transferTo(position, length - position, sender);
+                    }
+                }
+            } else {
+                try (InputStream in = Files.newInputStream(file)) {
+                    OutputStream out = Channels.newOutputStream(sender);
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                    out.flush();
+                }
+            }
+            reader.join();
+            long elapsed = System.nanoTime() - start;
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            assertEquals(length, received[0]);
+            return elapsed;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ncsi;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCompressionTest {
+
+    private ResponseCompression compression;
+
+    @BeforeEach
+    void setUp() {
+        compression = new ResponseCompression();
+        ReflectionTestUtils.setField(compression, "enabled", true);
+        ReflectionTestUtils.setField(compression, "gzipLevel", 5);
+        ReflectionTestUtils.setField(compression, "zstdLevel", 3);
+        ReflectionTestUtils.setField(compression, "bufferSize", 8192);
+    }
+
+    @Test
+    void negotiatesHighestQualitySupportedEncoding() {
+        assertEquals("gzip", compression.negotiate("gzip, deflate, br"));
+        // q 값이 같으면 zstd
+        assertEquals("zstd", compression.negotiate("gzip, zstd"));
+        assertEquals("zstd", compression.negotiate("GZIP;q=0.5, Zstd;q=0.8"));
+        assertEquals("gzip", compression.negotiate("zstd;q=0.2, gzip;q=0.9"));
+        assertEquals("gzip", compression.negotiate("br;q=1.0, gzip ; q=0.1"));
+
+        // * 는 gzip 으로
+        assertEquals("gzip", compression.negotiate("*"));
+        assertEquals("zstd", compression.negotiate("*;q=0.5, zstd;q=0.6"));
+
+        // q=0 은 거부, 잘못된 q 값도 0
+        assertNull(compression.negotiate("gzip;q=0"));
+        assertNull(compression.negotiate("gzip;q=0.0, zstd;q=0"));
+        assertEquals("gzip", compression.negotiate("zstd;q=abc, gzip"));
+        assertNull(compression.negotiate("identity, br, deflate"));
+        assertNull(compression.negotiate(""));
+        assertNull(compression.negotiate(null));
+    }
+
+    @Test
+    void disabledNeverCompresses() {
+        ReflectionTestUtils.setField(compression, "enabled", false);
+        assertNull(compression.negotiate("gzip, zstd"));
+    }
+
+    @Test
+    void wrappedStreamsRoundTripWithoutClosingTarget() throws IOException {
+        byte[] content = "{\"Name\":\"만족도 조사.xlsx\"}\n".repeat(500).getBytes(StandardCharsets.UTF_8);
+        for (String encoding : new String[]{"gzip", "zstd"}) {
+            boolean[] closed = {false};
+            ByteArrayOutputStream target = new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    closed[0] = true;
+                }
+            };
+            try (OutputStream out = compression.wrap(target, encoding)) {
+                out.write(content, 0, 1000);
+                // flush 하면 지금까지의 데이터를 풀 수 있어야 함 (스트리밍 응답)
+                out.flush();
+                assertTrue(target.size() > 0, encoding);
+                out.write(content, 1000, content.length - 1000);
+            }
+            assertTrue(!closed[0], encoding);
+            assertTrue(target.size() < content.length, encoding);
+            InputStream in = "gzip".equals(encoding)
+                    ? new GZIPInputStream(new ByteArrayInputStream(target.toByteArray()))
+                    : new ZstdInputStream(new ByteArrayInputStream(target.toByteArray()));
+            assertArrayEquals(content, in.readAllBytes(), encoding);
+        }
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        try (OutputStream out = compression.wrap(plain, null)) {
+            out.write(content);
+        }
+        assertArrayEquals(content, plain.toByteArray());
+    }
+}
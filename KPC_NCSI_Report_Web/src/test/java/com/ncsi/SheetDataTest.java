@@ -0,0 +1,136 @@
+package com.ncsi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SheetDataTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void rowMapKeepsLegacyPowerBiShape() {
+        SheetData sheet = sampleSheet();
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("FileName", "a.xlsx");
+        expected.put("RelativePath", "survey/a.xlsx");
+        expected.put("SheetName", "S1");
+        expected.put("RowNumber", 3);
+        expected.put("Column1", "name");
+        expected.put("Column2", "");
+        expected.put("Column3", "1.5");
+        expected.put("Column4", "true");
+        expected.put("Column5", "A1*2");
+        assertEquals(expected, sheet.toRowMap(0));
+    }
+
+    @Test
+    void typedValuesUseCachedFormulaResults() {
+        Map<String, Object> row = sampleSheet().toRowMap(0, true);
+        assertEquals("name", row.get("Column1"));
+        assertEquals(null, row.get("Column2"));
+        assertEquals(1.5, row.get("Column3"));
+        assertEquals(true, row.get("Column4"));
+        assertEquals(3L, row.get("Column5"));
+    }
+
+    @Test
+    void writeRowJsonMatchesRowMap() throws Exception {
+        SheetData sheet = sampleSheet();
+        for (boolean typed : new boolean[]{false, true}) {
+            StringWriter json = new StringWriter();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+                sheet.writeRowJson(0, generator, typed);
+            }
+            assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(sheet.toRowMap(0, typed))),
+                    objectMapper.readTree(json.toString()));
+        }
+    }
+
+    @Test
+    void numericCellsStayCompact() {
+        SheetData sheet = numericSheet(10_000, 10);
+        double bytesPerCell = (double) sheet.getEstimatedBytes() / (10_000 * 10);
+        // 열 배열: double 8 바이트 + 종류 1 바이트 + 행 번호/너비
+        assertTrue(bytesPerCell < 12, "estimated bytes per cell: " + bytesPerCell);
+    }
+
+    // 실제 힙 비교: 백만 셀을 SheetData 와 행마다 HashMap (이전 형식) 으로 보관했을 때
+    // mvn test -Dncsi.benchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "ncsi.benchmark", matches = "true")
+    void heapPerMillionCells() {
+        int rows = 100_000;
+        int columns = 10;
+        long before = usedHeap();
+        SheetData sheet = numericSheet(rows, columns);
+        long columnar = usedHeap() - before;
+
+        before = usedHeap();
+        List<Map<String, Object>> maps = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            Map<String, Object> rowData = new HashMap<>();
+            rowData.put("FileName", "a.xlsx");
+            rowData.put("RelativePath", "survey/a.xlsx");
+            rowData.put("SheetName", "S1");
+            rowData.put("RowNumber", row + 1);
+            for (int column = 0; column < columns; column++) {
+                rowData.put("Column" + (column + 1), String.valueOf((double) row * column));
+            }
+            maps.add(rowData);
+        }
+        long hashMaps = usedHeap() - before;
+
+        System.out.printf("heap per 1M cells: SheetData %.1f MB, HashMap rows %.1f MB (%d rows)%n",
+                columnar / 1e6, hashMaps / 1e6, sheet.getRowCount());
+        assertEquals(rows, maps.size());
+        assertTrue(columnar * 4 < hashMaps, "columnar rows should use a fraction of the HashMap heap");
+    }
+
+    // 행 3: name, (빈 셀), 1.5, true, =A1*2 (캐시된 결과 3)
+    private static SheetData sampleSheet() {
+        SheetDataBuilder builder = SheetDataBuilder.buffering("a.xlsx", "survey/a.xlsx");
+        builder.startSheet("S1", false);
+        builder.startRow(3);
+        builder.cell(0, SheetData.STRING, 0, "name");
+        builder.cell(1, SheetData.BLANK, 0, null);
+        builder.cell(2, SheetData.NUMBER, 1.5, null);
+        builder.cell(3, SheetData.BOOLEAN, 1, null);
+        builder.cell(4, SheetData.FORMULA, 0, "A1*2");
+        builder.formulaResult(4, SheetData.NUMBER, 3, null);
+        builder.endRow();
+        return builder.finish().get(0);
+    }
+
+    private static SheetData numericSheet(int rows, int columns) {
+        SheetDataBuilder builder = SheetDataBuilder.buffering("a.xlsx", "survey/a.xlsx");
+        builder.startSheet("S1", false);
+        for (int row = 0; row < rows; row++) {
+            builder.startRow(row + 1);
+            for (int column = 0; column < columns; column++) {
+                builder.cell(column, SheetData.NUMBER, (double) row * column, null);
+            }
+            builder.endRow();
+        }
+        return builder.finish().get(0);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,133 @@
+package com.ncsi;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class XlsxStreamingReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private final XlsxStreamingReader reader = new XlsxStreamingReader();
+
+    @Test
+    void readsCellKindsAndCachedFormulaResults() throws Exception {
+        Path file = dir.resolve("kinds.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet sheet = workbook.createSheet("Data");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("name");
+            header.createCell(1).setCellValue("score");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("한글");
+            row.createCell(1).setCellValue(12.5);
+            row.createCell(2).setCellValue(true);
+            row.createCell(3).setCellValue(LocalDate.of(2024, 1, 2));
+            row.getCell(3).setCellStyle(dateStyle);
+            row.createCell(5).setCellFormula("B2*2");
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            write(workbook, file);
+        }
+
+        List<String> events = new ArrayList<>();
+        reader.read(file, new RecordingHandler(events));
+
+        assertEquals(List.of(
+                "sheet Data 1904=false",
+                "row 1", "cell 0 STRING name", "cell 1 STRING score", "end",
+                "row 2", "cell 0 STRING 한글", "cell 1 NUMBER 12.5", "cell 2 BOOLEAN 1.0",
+                "cell 3 DATE 45293.0", "cell 5 FORMULA B2*2", "result 5 NUMBER 25.0", "end"), events);
+    }
+
+    @Test
+    void opensOnlyTheRequestedSheet() throws Exception {
+        Path file = dir.resolve("sheets.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            workbook.createSheet("First").createRow(0).createCell(0).setCellValue("a");
+            workbook.createSheet("Second").createRow(0).createCell(0).setCellValue("b");
+            write(workbook, file);
+        }
+
+        try (XlsxStreamingReader.StreamingWorkbook workbook = reader.open(file)) {
+            assertEquals(2, workbook.getSheetCount());
+            assertEquals("Second", workbook.getSheetName(1));
+            List<String> events = new ArrayList<>();
+            workbook.readSheet(1, new RecordingHandler(events));
+            // 같은 시트를 다시 읽을 수 있다 (시트 스트림은 readSheet 마다 연다)
+            workbook.readSheet(1, new RecordingHandler(events));
+            assertEquals(List.of("sheet Second 1904=false", "row 1", "cell 0 STRING b", "end",
+                    "sheet Second 1904=false", "row 1", "cell 0 STRING b", "end"), events);
+        }
+    }
+
+    private static void write(XSSFWorkbook workbook, Path file) throws Exception {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            workbook.write(out);
+        }
+    }
+
+    private static String kindName(byte kind) {
+        switch (kind) {
+            case SheetData.ABSENT: return "ABSENT";
+            case SheetData.BLANK: return "BLANK";
+            case SheetData.STRING: return "STRING";
+            case SheetData.NUMBER: return "NUMBER";
+            case SheetData.DATE: return "DATE";
+            case SheetData.BOOLEAN: return "BOOLEAN";
+            case SheetData.FORMULA: return "FORMULA";
+            default: return String.valueOf(kind);
+        }
+    }
+
+    private static String value(byte kind, double number, String text) {
+        return kind == SheetData.STRING || kind == SheetData.FORMULA ? text : String.valueOf(number);
+    }
+
+    private static final class RecordingHandler implements ExcelRowHandler {
+        private final List<String> events;
+
+        RecordingHandler(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void startSheet(String sheetName, boolean date1904) {
+            events.add("sheet " + sheetName + " 1904=" + date1904);
+        }
+
+        @Override
+        public void startRow(int rowNumber) {
+            events.add("row " + rowNumber);
+        }
+
+        @Override
+        public void cell(int column, byte kind, double number, String text) {
+            events.add("cell " + column + " " + kindName(kind) + " " + value(kind, number, text));
+        }
+
+        @Override
+        public void formulaResult(int column, byte kind, double number, String text) {
+            events.add("result " + column + " " + kindName(kind) + " " + value(kind, number, text));
+        }
+
+        @Override
+        public void endRow() {
+            events.add("end");
+        }
+    }
+}